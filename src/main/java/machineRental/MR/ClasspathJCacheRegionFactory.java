@@ -0,0 +1,37 @@
+package machineRental.MR;
+
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Properties;
+import javax.cache.CacheManager;
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.jcache.JCacheRegionFactory;
+
+/**
+ * JCache region factory which also accepts "classpath:" uri of cache configuration (hibernate.javax.cache.uri), so that configuration is read from
+ * application resources whether it is run from classes directory or from jar.
+ */
+public class ClasspathJCacheRegionFactory extends JCacheRegionFactory {
+
+  private static final String CLASSPATH_PREFIX = "classpath:";
+
+  @Override
+  protected CacheManager getCacheManager(Properties properties) {
+    String uri = getProp(properties, CONFIG_URI);
+    if (uri == null || !uri.startsWith(CLASSPATH_PREFIX)) {
+      return super.getCacheManager(properties);
+    }
+
+    ClassLoader classLoader = getClass().getClassLoader();
+    URL resource = classLoader.getResource(uri.substring(CLASSPATH_PREFIX.length()));
+    if (resource == null) {
+      throw new CacheException(String.format("Cache configuration %s not found", uri));
+    }
+
+    try {
+      return getCachingProvider(properties).getCacheManager(resource.toURI(), classLoader);
+    } catch (URISyntaxException e) {
+      throw new CacheException(String.format("Cache configuration %s has invalid uri", uri), e);
+    }
+  }
+}
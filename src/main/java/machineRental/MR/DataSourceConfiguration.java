@@ -0,0 +1,73 @@
+package machineRental.MR;
+
+import com.zaxxer.hikari.HikariDataSource;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Two connection pools: primary (spring.datasource.*) for writes and read (spring.datasource.read.*) for reports and searches marked with @ReadPool,
+ * so that long reports do not hold connections needed by order entry and price edits. Read pool connects to primary data base unless
+ * spring.datasource.read.url points at a replica. Both pools are registered in JMX under their pool names.
+ * Pools are not beans themselves, otherwise data source initializer would be triggered by them while routing data source is still being created.
+ */
+@Configuration
+public class DataSourceConfiguration {
+
+  @Autowired
+  private Environment environment;
+
+  @Value("${spring.datasource.read.url:${spring.datasource.url}}")
+  private String readUrl;
+
+  @Value("${spring.datasource.read.username:${spring.datasource.username}}")
+  private String readUsername;
+
+  @Value("${spring.datasource.read.password:${spring.datasource.password}}")
+  private String readPassword;
+
+  private HikariDataSource primaryDataSource;
+
+  private HikariDataSource readDataSource;
+
+  @Bean
+  @Primary
+  public DataSource dataSource(DataSourceProperties dataSourceProperties) {
+    primaryDataSource = createPool(dataSourceProperties, dataSourceProperties.determineUrl(), dataSourceProperties.determineUsername(),
+        dataSourceProperties.determinePassword(), "spring.datasource.hikari");
+
+    readDataSource = createPool(dataSourceProperties, readUrl, readUsername, readPassword, "spring.datasource.read.hikari");
+    readDataSource.setReadOnly(true);
+
+    return new LazyConnectionDataSourceProxy(new ReadOnlyRoutingDataSource(primaryDataSource, readDataSource));
+  }
+
+  @PreDestroy
+  public void closePools() {
+    if (primaryDataSource != null) {
+      primaryDataSource.close();
+    }
+    if (readDataSource != null) {
+      readDataSource.close();
+    }
+  }
+
+  private HikariDataSource createPool(DataSourceProperties dataSourceProperties, String url, String username, String password, String hikariPrefix) {
+    HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+        .type(HikariDataSource.class)
+        .url(url)
+        .username(username)
+        .password(password)
+        .build();
+    return Binder.get(environment).bind(hikariPrefix, Bindable.ofInstance(dataSource)).orElse(dataSource);
+  }
+}
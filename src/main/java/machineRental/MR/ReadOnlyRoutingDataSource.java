@@ -0,0 +1,61 @@
+package machineRental.MR;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Gives connections of read pool to read only transactions of methods marked with {@link ReadPool} and connections of primary pool to everything else,
+ * including read only transactions of repositories (SimpleJpaRepository methods are @Transactional(readOnly = true)), which may read data just written.
+ * It must be wrapped in LazyConnectionDataSourceProxy, because transaction managers obtain connection before transaction is marked as read only.
+ */
+public class ReadOnlyRoutingDataSource extends AbstractRoutingDataSource {
+
+  enum Pool {
+    PRIMARY, READ
+  }
+
+  private static final ThreadLocal<Boolean> READ_POOL_ALLOWED = ThreadLocal.withInitial(() -> false);
+
+  public ReadOnlyRoutingDataSource(DataSource primaryDataSource, DataSource readDataSource) {
+    Map<Object, Object> dataSources = new HashMap<>();
+    dataSources.put(Pool.PRIMARY, primaryDataSource);
+    dataSources.put(Pool.READ, readDataSource);
+
+    setTargetDataSources(dataSources);
+    setDefaultTargetDataSource(primaryDataSource);
+    afterPropertiesSet();
+  }
+
+  /**
+   * Runs a given calculation with read pool allowed, for read only transactions started without a {@link ReadPool} method, eg. stages of cost reports.
+   */
+  public static <T> T withReadPool(Supplier<T> calculation) {
+    boolean isReadPoolAllowed = isReadPoolAllowed();
+    setReadPoolAllowed(true);
+    try {
+      return calculation.get();
+    } finally {
+      setReadPoolAllowed(isReadPoolAllowed);
+    }
+  }
+
+  static boolean isReadPoolAllowed() {
+    return READ_POOL_ALLOWED.get();
+  }
+
+  /**
+   * Set by {@link ReadPoolAspect} for the time of a method marked with {@link ReadPool}.
+   */
+  static void setReadPoolAllowed(boolean isReadPoolAllowed) {
+    READ_POOL_ALLOWED.set(isReadPoolAllowed);
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    return READ_POOL_ALLOWED.get() && TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Pool.READ : Pool.PRIMARY;
+  }
+}
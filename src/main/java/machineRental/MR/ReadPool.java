@@ -0,0 +1,19 @@
+package machineRental.MR;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks read only service methods (searches, reports) whose transactions may use connections of read pool. Read only transactions without the marker,
+ * eg. of reading methods of repositories called on their own, use primary pool, so that data just written is read back from primary data base.
+ * Method must also be @Transactional(readOnly = true), see ReadOnlyRoutingDataSource.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReadPool {
+
+}
@@ -0,0 +1,28 @@
+package machineRental.MR;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs methods marked with {@link ReadPool} with read pool allowed. Ordered before transaction advice, so the marker is set before transaction begins.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ReadPoolAspect {
+
+  @Around("@annotation(machineRental.MR.ReadPool)")
+  public Object useReadPool(ProceedingJoinPoint joinPoint) throws Throwable {
+    boolean isReadPoolAllowed = ReadOnlyRoutingDataSource.isReadPoolAllowed();
+    ReadOnlyRoutingDataSource.setReadPoolAllowed(true);
+    try {
+      return joinPoint.proceed();
+    } finally {
+      ReadOnlyRoutingDataSource.setReadPoolAllowed(isReadPoolAllowed);
+    }
+  }
+}
@@ -0,0 +1,91 @@
+package machineRental.MR;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Checks on startup that indexes created by migrations V2__query_indexes and V4__cost_cube exist, so that data base created or changed outside of migrations
+ * does not silently turn searches and reports into full table scans.
+ */
+@Component
+public class SchemaIndexVerifier {
+
+  static final Map<String, List<String>> REQUIRED_INDEXES = new LinkedHashMap<>();
+
+  static {
+    REQUIRED_INDEXES.put("work_documents", Arrays.asList("idx_work_documents_date_id", "idx_work_documents_operator_date", "idx_work_documents_machine_date"));
+    REQUIRED_INDEXES.put("delivery_documents", Arrays.asList("idx_delivery_documents_date"));
+    REQUIRED_INDEXES.put("daily_reports", Arrays.asList("idx_daily_reports_date_id"));
+    REQUIRED_INDEXES.put("orders", Arrays.asList("idx_orders_start_date_id"));
+    REQUIRED_INDEXES.put("hour_prices", Arrays.asList("idx_hour_prices_start_date_id", "idx_hour_prices_machine_dates"));
+    REQUIRED_INDEXES.put("distance_prices", Arrays.asList("idx_distance_prices_start_date_id", "idx_distance_prices_machine_dates"));
+    REQUIRED_INDEXES.put("delivery_prices", Arrays.asList("idx_delivery_prices_start_date_id", "idx_delivery_prices_contractor_dates"));
+    REQUIRED_INDEXES.put("codes", Arrays.asList("idx_codes_project_code"));
+    REQUIRED_INDEXES.put("cost_cube_cells", Arrays.asList("idx_cost_cube_cells_estimate_position_date"));
+  }
+
+  @Autowired
+  private DataSource dataSource;
+
+  @Value("${schema.index-check.enabled:true}")
+  private boolean enabled;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void verify() throws SQLException {
+    if (!enabled) {
+      return;
+    }
+
+    List<String> missingIndexes = findMissingIndexes();
+    if (!missingIndexes.isEmpty()) {
+      throw new IllegalStateException(String.format("Missing data base indexes: %s", missingIndexes));
+    }
+  }
+
+  /**
+   * Returns names of required indexes (as 'table.index') not found in data base metadata.
+   */
+  List<String> findMissingIndexes() throws SQLException {
+    List<String> missingIndexes = new ArrayList<>();
+
+    try (Connection connection = dataSource.getConnection()) {
+      DatabaseMetaData metaData = connection.getMetaData();
+
+      for (Map.Entry<String, List<String>> tableIndexes : REQUIRED_INDEXES.entrySet()) {
+        String table = metaData.storesUpperCaseIdentifiers() ? tableIndexes.getKey().toUpperCase() : tableIndexes.getKey();
+        Set<String> existingIndexes = new HashSet<>();
+
+        try (ResultSet indexInfo = metaData.getIndexInfo(connection.getCatalog(), null, table, false, false)) {
+          while (indexInfo.next()) {
+            String indexName = indexInfo.getString("INDEX_NAME");
+            if (indexName != null) {
+              existingIndexes.add(indexName.toLowerCase());
+            }
+          }
+        }
+
+        for (String index : tableIndexes.getValue()) {
+          if (!existingIndexes.contains(index)) {
+            missingIndexes.add(tableIndexes.getKey() + "." + index);
+          }
+        }
+      }
+    }
+    return missingIndexes;
+  }
+}
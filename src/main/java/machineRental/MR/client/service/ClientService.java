@@ -1,13 +1,16 @@
 package machineRental.MR.client.service;
 
+import machineRental.MR.ReadPool;
 import machineRental.MR.client.model.Client;
 import machineRental.MR.exception.BindingResultException;
 import machineRental.MR.exception.NotFoundException;
+import machineRental.MR.price.PriceResolver;
 import machineRental.MR.repository.ClientRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 
@@ -19,6 +22,9 @@ public class ClientService {
     @Autowired
     private ClientRepository clientRepository;
 
+    @Autowired
+    private PriceResolver priceResolver;
+
     public Client create(Client client, BindingResult bindingResult) {
 
         validateClientMpkConsistency(client.getMpk(), null, bindingResult);
@@ -26,6 +32,8 @@ public class ClientService {
     }
 
 
+    @ReadPool
+    @Transactional(readOnly = true)
     public Page<Client> search(String mpk, String name, String city, String postalCode, String email, String contactPerson, String phoneNumber, Pageable pageable) {
         return clientRepository.findByMpkContainingAndNameContainingAndCityContainingAndPostalCodeContainingAndEmailContainingAndContactPersonContainingAndPhoneNumberContaining(mpk, name, city, postalCode, email, contactPerson, phoneNumber, pageable);
     }
@@ -49,7 +57,12 @@ public class ClientService {
         validateClientMpkConsistency(client.getMpk(), dbClient.get().getMpk(), bindingResult);
 
         client.setId(id);
-        return clientRepository.save(client);
+        Client savedClient = clientRepository.save(client);
+
+//        prices cached by price resolver keep contractor they refer to
+        priceResolver.evictAll();
+
+        return savedClient;
     }
 
     private void validateClientMpkConsistency(String mpk, String currentMpk, BindingResult bindingResult) {
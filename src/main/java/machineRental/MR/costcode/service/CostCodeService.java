@@ -2,6 +2,7 @@ package machineRental.MR.costcode.service;
 
 import java.util.List;
 import java.util.Optional;
+import machineRental.MR.ReadPool;
 import machineRental.MR.costcode.model.CostCode;
 import machineRental.MR.delivery.entry.service.DeliveryDocumentEntryService;
 import machineRental.MR.estimate.model.EstimatePosition;
@@ -15,6 +16,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 
@@ -45,6 +47,8 @@ public class CostCodeService {
     return costCodeRepository.save(costCode);
   }
 
+  @ReadPool
+  @Transactional(readOnly = true)
   public Page<CostCode> search(String projectCode, String costType, Pageable pageable) {
     return costCodeRepository.findByProjectCodeContainingAndCostTypeContaining(projectCode, costType, pageable);
   }
@@ -8,6 +8,7 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
@@ -24,7 +25,8 @@ import machineRental.MR.estimate.model.EstimatePosition;
 public class DailyReport {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.AUTO)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "daily_reports_seq")
+  @SequenceGenerator(name = "daily_reports_seq", sequenceName = "daily_reports_seq", allocationSize = 50)
   private Long id;
 
   @NotNull
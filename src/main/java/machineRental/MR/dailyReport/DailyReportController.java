@@ -4,6 +4,7 @@ import java.time.LocalDate;
 import javax.validation.Valid;
 import machineRental.MR.delivery.document.model.DeliveryDocumentDto;
 import machineRental.MR.estimate.model.EstimatePosition;
+import machineRental.MR.page.KeysetPage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -48,6 +49,20 @@ public class DailyReportController {
     return dailyReportService.search(date, estimatePositionName, estimatePositionCostCode, location, pageable);
   }
 
+  @GetMapping("/keyset")
+  @ResponseStatus(HttpStatus.OK)
+  public KeysetPage<DailyReportDto> search(
+      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+      @RequestParam(value = "date", required = false) LocalDate date,
+      @RequestParam(name = "estimatePositionName", required = false, defaultValue = "") String estimatePositionName,
+      @RequestParam(name = "estimatePositionCostCode", required = false, defaultValue = "") String estimatePositionCostCode,
+      @RequestParam(name = "location", required = false, defaultValue = "") String location,
+      @RequestParam(name = "cursor", required = false) String cursor,
+      @RequestParam(name = "size", required = false) Integer size) {
+
+    return dailyReportService.search(date, estimatePositionName, estimatePositionCostCode, location, cursor, size);
+  }
+
   @PutMapping("/{id}")
   @ResponseStatus(HttpStatus.OK)
   public DailyReportDto update(@PathVariable Long id, @RequestBody @Valid DailyReportDto dailyReportDto, BindingResult bindingResult) {
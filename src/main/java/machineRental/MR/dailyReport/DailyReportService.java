@@ -1,18 +1,21 @@
 package machineRental.MR.dailyReport;
 
 import java.time.LocalDate;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
+import machineRental.MR.ReadPool;
 import machineRental.MR.estimate.model.EstimatePosition;
 import machineRental.MR.exception.BindingResultException;
 import machineRental.MR.exception.NotFoundException;
+import machineRental.MR.page.KeysetCursor;
+import machineRental.MR.page.KeysetPage;
+import machineRental.MR.reports.cost.LongDoubleMap;
 import machineRental.MR.repository.DailyReportRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 
@@ -127,6 +130,8 @@ public class DailyReportService {
     dailyReportRepository.deleteById(id);
   }
 
+  @ReadPool
+  @Transactional(readOnly = true)
   public Page<DailyReportDto> search(LocalDate date, String estimatePositionName, String estimatePositionCostCode, String location, Pageable pageable) {
 
     Page<DailyReport> dailyReports;
@@ -140,31 +145,35 @@ public class DailyReportService {
     return dailyReports.map(this::convertToDto);
   }
 
+  /**
+   * Searches daily reports ordered by date and id, reading page of given size after given cursor instead of skipping rows of previous pages.
+   */
+  @ReadPool
+  @Transactional(readOnly = true)
+  public KeysetPage<DailyReportDto> search(LocalDate date, String estimatePositionName, String estimatePositionCostCode, String location, String cursor, Integer size) {
+    KeysetCursor after = KeysetCursor.decode(cursor);
+    List<DailyReport> dailyReports = dailyReportRepository.findKeysetPage(date, estimatePositionName, estimatePositionCostCode, location, after.getDate(),
+        after.getLongId(), KeysetPage.limit(size));
+
+    return KeysetPage.of(dailyReports, size, dailyReport -> KeysetCursor.of(dailyReport.getDate(), dailyReport.getId())).map(this::convertToDto);
+  }
+
   public List<DailyReport> getDailyReportsForProjectCodeBetweenDates(LocalDate startDate, LocalDate endDate, String projectCode) {
     return dailyReportRepository.findByDateBetweenAndEstimatePosition_CostCode_ProjectCode(startDate, endDate, projectCode);
   }
 
-  public Map<EstimatePosition, Double> getDailyReportQuantityPerEstimatePosition(LocalDate startDate, LocalDate endDate, String projectCode) {
+  /**
+   * @return Total daily report quantity by estimate position id.
+   */
+  public LongDoubleMap getDailyReportQuantityPerEstimatePositionId(LocalDate startDate, LocalDate endDate, String projectCode) {
     List<DailyReport> dailyReports = getDailyReportsForProjectCodeBetweenDates(startDate, endDate, projectCode);
 
-    Map<EstimatePosition, Double> estimatePositionToTotalDailyReportQuantity = new HashMap<>();
+    LongDoubleMap estimatePositionIdToTotalDailyReportQuantity = new LongDoubleMap();
 
     for (DailyReport dailyReport : dailyReports) {
-
-      EstimatePosition estimatePosition = dailyReport.getEstimatePosition();
-
-      double currentDailyReportQuantity = dailyReport.getQuantity();
-
-      Double dailyReportQuantity = estimatePositionToTotalDailyReportQuantity.get(estimatePosition);
-
-      if (dailyReportQuantity == null) {
-        estimatePositionToTotalDailyReportQuantity.put(estimatePosition, currentDailyReportQuantity);
-      } else {
-        dailyReportQuantity += currentDailyReportQuantity;
-        estimatePositionToTotalDailyReportQuantity.put(estimatePosition, dailyReportQuantity);
-      }
+      estimatePositionIdToTotalDailyReportQuantity.add(dailyReport.getEstimatePosition().getId(), dailyReport.getQuantity());
     }
 
-    return estimatePositionToTotalDailyReportQuantity;
+    return estimatePositionIdToTotalDailyReportQuantity;
   }
 }
@@ -3,7 +3,7 @@ package machineRental.MR.delivery.document.service;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
-import javax.transaction.Transactional;
+import machineRental.MR.ReadPool;
 import machineRental.MR.client.model.Client;
 import machineRental.MR.delivery.document.model.DeliveryDocument;
 import machineRental.MR.delivery.document.model.DeliveryDocumentDto;
@@ -17,6 +17,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 
@@ -62,6 +63,8 @@ public class DeliveryDocumentService {
     return deliveryDocumentDto;
   }
 
+  @ReadPool
+  @Transactional(readOnly = true)
   public Page<DeliveryDocumentDto> search(String contractorName, String documentNumber, LocalDate date, Pageable pageable) {
 
     Page<DeliveryDocument> deliveryDocuments;
@@ -7,6 +7,7 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import javax.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -27,7 +28,8 @@ import machineRental.MR.price.delivery.model.DeliveryPrice;
 public class DeliveryDocumentEntry {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.AUTO)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "delivery_documents_entries_seq")
+  @SequenceGenerator(name = "delivery_documents_entries_seq", sequenceName = "delivery_documents_entries_seq", allocationSize = 50)
   private Long id;
 
   @ManyToOne
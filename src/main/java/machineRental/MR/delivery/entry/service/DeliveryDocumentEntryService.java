@@ -5,6 +5,7 @@ import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.transaction.Transactional;
 import machineRental.MR.client.model.Client;
 import machineRental.MR.costcode.model.CostCode;
@@ -16,10 +17,10 @@ import machineRental.MR.estimate.model.EstimatePosition;
 import machineRental.MR.exception.BindingResultException;
 import machineRental.MR.exception.NotFoundException;
 import machineRental.MR.material.model.Material;
+import machineRental.MR.price.PriceResolver;
 import machineRental.MR.price.PriceType;
 import machineRental.MR.price.delivery.DeliveryPriceChecker;
 import machineRental.MR.price.delivery.model.DeliveryPrice;
-import machineRental.MR.price.delivery.model.DeliveryPriceDto;
 import machineRental.MR.price.delivery.service.DeliveryPriceService;
 import machineRental.MR.repository.DeliveryDocumentEntryRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -38,6 +39,9 @@ public class DeliveryDocumentEntryService {
   @Autowired
   private DeliveryPriceService deliveryPriceService;
 
+  @Autowired
+  private PriceResolver priceResolver;
+
   @Autowired
   private DeliveryDocumentService deliveryDocumentService;
 
@@ -149,31 +153,20 @@ public class DeliveryDocumentEntryService {
 
     for (DeliveryDocumentEntry deliveryDocumentEntry : deliveryDocumentEntries) {
       String mpk = deliveryDocumentEntry.getContractor().getMpk();
-      List<DeliveryPriceDto> matchingPrices = deliveryPriceService.getMatchingPrices(mpk, editedDate);
-
-      boolean isMatchingPrice = false;
-
-      MATCHING_PRICES:
-      for (DeliveryPriceDto matchingPriceDto : matchingPrices) {
-        DeliveryPrice matchingPrice = deliveryPriceService.convertToEntity(matchingPriceDto);
+      DeliveryPrice deliveryPrice = deliveryDocumentEntry.getDeliveryPrice();
 
-        DeliveryPrice deliveryPrice = deliveryDocumentEntry.getDeliveryPrice();
-
-        if (deliveryPriceService.isPriceMatching(editedDate, deliveryPrice, matchingPrice)) {
-          deliveryDocumentEntry.setDeliveryPrice(matchingPrice);
-          isMatchingPrice = true;
-          break MATCHING_PRICES;
-        }
-      }
+      Optional<DeliveryPrice> matchingPrice = priceResolver.findDeliveryPrice(
+          deliveryPrice.getContractor().getMpk(), deliveryPrice.getMaterial().getType(), deliveryPrice.getPriceType(), deliveryPrice.getProjectCode(), editedDate);
 
       String materialType = deliveryDocumentEntry.getMaterial().getType();
-      PriceType priceType = deliveryDocumentEntry.getDeliveryPrice().getPriceType();
+      PriceType priceType = deliveryPrice.getPriceType();
       String projectCode = deliveryDocumentEntry.getCostCode().getProjectCode();
 
-      if (!isMatchingPrice) {
+      if (!matchingPrice.isPresent()) {
         throw new NotFoundException(String.format("There is no delivery price matching editedDate %s and price paramters: %s, %s, %s, %s.", editedDate, mpk, materialType, priceType, projectCode));
       }
 
+      deliveryDocumentEntry.setDeliveryPrice(matchingPrice.get());
     }
   }
 
@@ -249,8 +242,8 @@ public class DeliveryDocumentEntryService {
     return deliveryDocumentEntryRepository.findByEstimatePosition_CostCode_ProjectCode(projectCode);
   }
 
-  public List<DeliveryDocumentEntry> getDeliveryDocumentEntriesBetweenDates(LocalDate startDate, LocalDate endDate) {
-    return deliveryDocumentEntryRepository.findByDeliveryDocument_DateBetween(startDate, endDate);
+  public Stream<DeliveryDocumentEntry> streamDeliveryDocumentEntriesBetweenDates(LocalDate startDate, LocalDate endDate) {
+    return deliveryDocumentEntryRepository.streamForReportByDeliveryDocument_DateBetween(startDate, endDate);
   }
 
   public List<DeliveryDocumentEntry> getDeliveryDocumentEntriesBetweenDatesByEstimateProjectCode(LocalDate startDate, LocalDate endDate, String projectCode) {
@@ -1,31 +1,34 @@
 package machineRental.MR.estimate.service;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import machineRental.MR.ReadPool;
 import machineRental.MR.costcode.model.CostCode;
 import machineRental.MR.costcode.service.CostCodeService;
 import machineRental.MR.delivery.entry.service.DeliveryDocumentEntryService;
 import machineRental.MR.estimate.model.EstimatePosition;
 import machineRental.MR.excel.AlreadyInDbException;
-import machineRental.MR.excel.ExcelHelper;
+import machineRental.MR.excel.ExcelImportSaver;
+import machineRental.MR.excel.ExcelImporter;
+import machineRental.MR.excel.ExcelRow;
+import machineRental.MR.excel.ExcelRows;
 import machineRental.MR.excel.NotPresentInDbException;
 import machineRental.MR.exception.BindingResultException;
 import machineRental.MR.exception.NotFoundException;
 import machineRental.MR.excel.WrongDataTypeException;
+import machineRental.MR.repository.CostCodeRepository;
 import machineRental.MR.repository.EstimatePositionRepository;
 import machineRental.MR.workDocumentEntry.service.RoadCardEntryService;
 import machineRental.MR.workDocumentEntry.service.WorkReportEntryService;
+import org.apache.commons.collections4.map.MultiKeyMap;
 import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.multipart.MultipartFile;
@@ -37,7 +40,13 @@ public class EstimatePositionService {
   private EstimatePositionRepository estimatePositionRepository;
 
   @Autowired
-  private ExcelHelper excelHelper;
+  private ExcelImporter excelImporter;
+
+  @Autowired
+  private ExcelImportSaver excelImportSaver;
+
+  @Autowired
+  private CostCodeRepository costCodeRepository;
 
   @Autowired
   private CostCodeService costCodeService;
@@ -56,98 +65,98 @@ public class EstimatePositionService {
 
     List<EstimatePosition> estimatePositions = readDataFromExcel(file);
 
-      for (EstimatePosition estimatePosition : estimatePositions) {
-        estimatePositionRepository.save(estimatePosition);
-    }
+    excelImportSaver.saveInChunks(estimatePositions);
   }
 
   private List<EstimatePosition> readDataFromExcel(MultipartFile file) {
-    final List<EstimatePosition> estimatePositionsFromExcelFile = new ArrayList<>();
-
-    if (excelHelper.isProperFileType(file)) {
-      Workbook workbook = excelHelper.getWorkBook(file);
-      Sheet sheet = workbook.getSheetAt(0);
-      Iterator<Row> rows = sheet.iterator();
-      rows.next();
-      while (rows.hasNext()) {
-        Row row = rows.next();
-        EstimatePosition estimatePosition = new EstimatePosition();
-        String name = "";
-        if (row.getCell(0) != null && Cell.CELL_TYPE_STRING == row.getCell(0).getCellType()) {
-          name = String.valueOf(row.getCell(0));
-
-          estimatePosition.setName(name);
-        } else {
-          throw new WrongDataTypeException("Wrong data type in column \'name\'. It must be a string (text)!");
-        }
-
-        if (row.getCell(1).getCellType() == Cell.CELL_TYPE_STRING) {
-          String cellValue = String.valueOf(row.getCell(1));
-
-          if (!costCodeService.existsByFullCode(cellValue)) {
-            throw new NotPresentInDbException(String.format("Cost code %s is not present in data base. Please correct or add to data base.", cellValue));
-          }
-
-          CostCode dbCostCode = costCodeService.getByFullCode(cellValue);
-          String projectCode = dbCostCode.getProjectCode();
-
-          if (estimatePositionRepository.existsByNameAndCostCode_ProjectCode(name, projectCode)) {
-            throw new AlreadyInDbException(String.format("Estimate position with name and project code \'%s + %s\' already exists in data base. Name must be unique.", name, projectCode));
-          }
-
-          estimatePosition.setCostCode(dbCostCode);
-        } else {
-          throw new WrongDataTypeException("Wrong data type in column \'cost code\'. It must be a string (text)!");
-        }
-
-        double quantity = 0.0;
-        if (row.getCell(2).getCellType() == Cell.CELL_TYPE_NUMERIC) {
-          quantity = row.getCell(2).getNumericCellValue();
-          estimatePosition.setQuantity(quantity);
-        } else {
-          throw new WrongDataTypeException("Wrong data type in column \'quantity\'. It must be a number!");
-        }
-
-        if (row.getCell(3).getCellType() == Cell.CELL_TYPE_STRING) {
-          String cellValue = String.valueOf(row.getCell(3));
-          estimatePosition.setMeasureUnit(cellValue);
-        } else {
-          throw new WrongDataTypeException("Wrong data type in column \'measure unit\'. It must be a string (text)!");
-        }
-
-        BigDecimal sellPrice = new BigDecimal(0);
-        if (row.getCell(4).getCellType() == Cell.CELL_TYPE_NUMERIC) {
-          double cellDoubleValue = row.getCell(4).getNumericCellValue();
-          sellPrice = BigDecimal.valueOf(cellDoubleValue);
-          estimatePosition.setSellPrice(sellPrice);
-          estimatePosition.setSellValue(sellPrice.multiply(BigDecimal.valueOf(quantity)));
-        } else {
-          throw new WrongDataTypeException("Wrong data type in column \'sellPrice\'. It must be a number!");
-        }
-
-        if (row.getCell(6).getCellType() == Cell.CELL_TYPE_STRING) {
-          String cellValue = String.valueOf(row.getCell(6));
-          estimatePosition.setRemarks(cellValue);
-        } else {
-          throw new WrongDataTypeException("Wrong data type in column \'remarks\'. It must be a string (text)!");
-        }
-
-        BigDecimal costPrice = new BigDecimal(0);
-        if (row.getCell(7).getCellType() == Cell.CELL_TYPE_NUMERIC) {
-          double cellDoubleValue = row.getCell(7).getNumericCellValue();
-          costPrice = BigDecimal.valueOf(cellDoubleValue);
-          estimatePosition.setCostPrice(costPrice);
-          estimatePosition.setCostValue(costPrice.multiply(BigDecimal.valueOf(quantity)));
-        } else {
-          throw new WrongDataTypeException("Wrong data type in column \'costPrice\'. It must be a number!");
-        }
-
-        estimatePositionsFromExcelFile.add(estimatePosition);
+    ExcelRows rows = excelImporter.readRows(file, 0, 1);
+    Map<String, CostCode> costCodes = costCodeRepository.mapByFullCode(rows.getStringColumnValues(1));
+
+    MultiKeyMap<String, EstimatePosition> dbEstimatePositions = new MultiKeyMap<>();
+    for (EstimatePosition dbEstimatePosition : estimatePositionRepository.findByNames(rows.getStringColumnValues(0))) {
+      dbEstimatePositions.put(dbEstimatePosition.getName(), dbEstimatePosition.getCostCode().getProjectCode(), dbEstimatePosition);
+    }
+
+    return rows.map(row -> mapRow(row, costCodes, dbEstimatePositions));
+  }
+
+  private EstimatePosition mapRow(ExcelRow row, Map<String, CostCode> costCodes, MultiKeyMap<String, EstimatePosition> dbEstimatePositions) {
+    EstimatePosition estimatePosition = new EstimatePosition();
+    String name = "";
+    if (Cell.CELL_TYPE_STRING == row.getCellType(0)) {
+      name = row.getStringCellValue(0);
+
+      estimatePosition.setName(name);
+    } else {
+      throw new WrongDataTypeException("Wrong data type in column \'name\'. It must be a string (text)!");
+    }
+
+    if (row.getCellType(1) == Cell.CELL_TYPE_STRING) {
+      String cellValue = row.getStringCellValue(1);
+
+      CostCode dbCostCode = costCodes.get(cellValue);
+      if (dbCostCode == null) {
+        throw new NotPresentInDbException(String.format("Cost code %s is not present in data base. Please correct or add to data base.", cellValue));
       }
+
+      String projectCode = dbCostCode.getProjectCode();
+
+      if (dbEstimatePositions.containsKey(name, projectCode)) {
+        throw new AlreadyInDbException(String.format("Estimate position with name and project code \'%s + %s\' already exists in data base. Name must be unique.", name, projectCode));
+      }
+
+      estimatePosition.setCostCode(dbCostCode);
+    } else {
+      throw new WrongDataTypeException("Wrong data type in column \'cost code\'. It must be a string (text)!");
+    }
+
+    double quantity = 0.0;
+    if (row.getCellType(2) == Cell.CELL_TYPE_NUMERIC) {
+      quantity = row.getNumericCellValue(2);
+      estimatePosition.setQuantity(quantity);
+    } else {
+      throw new WrongDataTypeException("Wrong data type in column \'quantity\'. It must be a number!");
+    }
+
+    if (row.getCellType(3) == Cell.CELL_TYPE_STRING) {
+      String cellValue = row.getStringCellValue(3);
+      estimatePosition.setMeasureUnit(cellValue);
+    } else {
+      throw new WrongDataTypeException("Wrong data type in column \'measure unit\'. It must be a string (text)!");
     }
-    return estimatePositionsFromExcelFile;
+
+    BigDecimal sellPrice = new BigDecimal(0);
+    if (row.getCellType(4) == Cell.CELL_TYPE_NUMERIC) {
+      double cellDoubleValue = row.getNumericCellValue(4);
+      sellPrice = BigDecimal.valueOf(cellDoubleValue);
+      estimatePosition.setSellPrice(sellPrice);
+      estimatePosition.setSellValue(sellPrice.multiply(BigDecimal.valueOf(quantity)));
+    } else {
+      throw new WrongDataTypeException("Wrong data type in column \'sellPrice\'. It must be a number!");
+    }
+
+    if (row.getCellType(6) == Cell.CELL_TYPE_STRING) {
+      String cellValue = row.getStringCellValue(6);
+      estimatePosition.setRemarks(cellValue);
+    } else {
+      throw new WrongDataTypeException("Wrong data type in column \'remarks\'. It must be a string (text)!");
+    }
+
+    BigDecimal costPrice = new BigDecimal(0);
+    if (row.getCellType(7) == Cell.CELL_TYPE_NUMERIC) {
+      double cellDoubleValue = row.getNumericCellValue(7);
+      costPrice = BigDecimal.valueOf(cellDoubleValue);
+      estimatePosition.setCostPrice(costPrice);
+      estimatePosition.setCostValue(costPrice.multiply(BigDecimal.valueOf(quantity)));
+    } else {
+      throw new WrongDataTypeException("Wrong data type in column \'costPrice\'. It must be a number!");
+    }
+
+    return estimatePosition;
   }
 
+  @ReadPool
+  @Transactional(readOnly = true)
   public Page<EstimatePosition> search(String name, String projectCode, String costType, String remarks, Pageable pageable) {
     return estimatePositionRepository.findByNameContainingAndCostCode_ProjectCodeContainingAndCostCode_CostTypeContainingAndRemarksContaining(name, projectCode, costType, remarks, pageable);
   }
@@ -0,0 +1,50 @@
+package machineRental.MR.excel;
+
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Saves entities read from Excel file in chunks. Every chunk is persisted, flushed as JDBC batch (see hibernate.jdbc.batch_size) and committed in its own
+ * transaction, after which persistence context is cleared, so memory used by import does not grow with number of rows.
+ * All rows must be validated before saving, as chunks committed before a failing one are not rolled back.
+ */
+@Service
+public class ExcelImportSaver {
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Value("${excel.import.chunk-size:1000}")
+  private int chunkSize;
+
+  /**
+   * @param entities New entities. They are persisted without checking if they already exist in data base.
+   */
+  public <T> void saveInChunks(List<T> entities) {
+    TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+    transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+    for (int chunkStart = 0; chunkStart < entities.size(); chunkStart += chunkSize) {
+      List<T> chunk = entities.subList(chunkStart, Math.min(chunkStart + chunkSize, entities.size()));
+
+      transactionTemplate.execute(status -> {
+        for (T entity : chunk) {
+          entityManager.persist(entity);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return null;
+      });
+    }
+  }
+}
@@ -0,0 +1,289 @@
+package machineRental.MR.excel;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Reads first sheet of uploaded Excel file row by row and passes every data row (header row is skipped) to a given {@link ExcelRowMapper}.
+ * Xlsx files are parsed with SAX straight from sheet XML, so workbook is never built in memory. Xls files (limited to 65536 rows) are read with HSSF.
+ * Rows without any value are skipped.
+ */
+@Service
+public class ExcelImporter {
+
+  @Autowired
+  private ExcelHelper excelHelper;
+
+  public <T> List<T> readRows(MultipartFile file, ExcelRowMapper<T> rowMapper) {
+    final List<T> result = new ArrayList<>();
+    readRows(file, rowMapper, result::add);
+    return result;
+  }
+
+  /**
+   * Reads all data rows in a single pass over the file and collects distinct values of string cells from given columns on the way, so that all entities
+   * referenced by the file can be loaded with one query per entity type before rows are mapped.
+   */
+  public ExcelRows readRows(MultipartFile file, int... stringColumns) {
+    final ExcelRows rows = new ExcelRows(stringColumns);
+    readRows(file, row -> row, rows::add);
+    return rows;
+  }
+
+  public <T> void readRows(MultipartFile file, ExcelRowMapper<T> rowMapper, Consumer<T> rowConsumer) {
+
+    if (!excelHelper.isProperFileType(file)) {
+      return;
+    }
+
+    Consumer<ExcelRow> excelRowConsumer = excelRow -> rowConsumer.accept(rowMapper.mapRow(excelRow));
+
+    try {
+      if ("xlsx".equalsIgnoreCase(FilenameUtils.getExtension(file.getOriginalFilename()))) {
+        readXlsxRows(file, excelRowConsumer);
+      } else {
+        readXlsRows(file, excelRowConsumer);
+      }
+    } catch (IOException | OpenXML4JException | SAXException | ParserConfigurationException e) {
+      throw new WrongFileTypeException(String.format("File \'%s\' cannot be read as Excel file.", file.getOriginalFilename()));
+    }
+  }
+
+  private void readXlsxRows(MultipartFile file, Consumer<ExcelRow> excelRowConsumer)
+      throws IOException, OpenXML4JException, SAXException, ParserConfigurationException {
+
+//    package opened from file reads only requested parts, package opened from input stream would unzip all of them into memory
+    Path tempFile = Files.createTempFile("excel-import", ".xlsx");
+    try (InputStream inputStream = file.getInputStream()) {
+      Files.copy(inputStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
+
+      OPCPackage opcPackage = OPCPackage.open(tempFile.toString(), PackageAccess.READ);
+      try {
+        XSSFReader xssfReader = new XSSFReader(opcPackage);
+        ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(opcPackage);
+
+        WorkbookHandler workbookHandler = new WorkbookHandler();
+        parse(xssfReader.getWorkbookData(), workbookHandler);
+
+        Iterator<InputStream> sheets = xssfReader.getSheetsData();
+        if (sheets.hasNext()) {
+          parse(sheets.next(), new SheetHandler(sharedStrings, workbookHandler.date1904, excelRowConsumer));
+        }
+      } finally {
+        opcPackage.revert();
+      }
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  private void parse(InputStream inputStream, DefaultHandler handler) throws IOException, SAXException, ParserConfigurationException {
+    SAXParserFactory saxParserFactory = SAXParserFactory.newInstance();
+    saxParserFactory.setNamespaceAware(true);
+    saxParserFactory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+
+    XMLReader xmlReader = saxParserFactory.newSAXParser().getXMLReader();
+    xmlReader.setContentHandler(handler);
+
+    try (InputStream sheetInputStream = inputStream) {
+      xmlReader.parse(new InputSource(sheetInputStream));
+    }
+  }
+
+  private void readXlsRows(MultipartFile file, Consumer<ExcelRow> excelRowConsumer) throws IOException {
+    Sheet sheet;
+    try (InputStream inputStream = file.getInputStream()) {
+      sheet = new HSSFWorkbook(inputStream).getSheetAt(0);
+    }
+
+    boolean date1904 = isUsing1904DateWindowing(sheet);
+
+    Iterator<Row> rows = sheet.iterator();
+    if (rows.hasNext()) {
+      rows.next();
+    }
+
+    while (rows.hasNext()) {
+      Row row = rows.next();
+      ExcelRow excelRow = new ExcelRow(row.getRowNum(), date1904);
+
+      for (Cell cell : row) {
+        int cellType = cell.getCellType() == Cell.CELL_TYPE_FORMULA ? cell.getCachedFormulaResultType() : cell.getCellType();
+
+        if (cellType == Cell.CELL_TYPE_STRING) {
+          excelRow.setCell(cell.getColumnIndex(), cellType, cell.getStringCellValue());
+        } else if (cellType == Cell.CELL_TYPE_NUMERIC) {
+          excelRow.setCell(cell.getColumnIndex(), cellType, cell.getNumericCellValue());
+        } else if (cellType != Cell.CELL_TYPE_BLANK) {
+          excelRow.setCell(cell.getColumnIndex(), cellType, null);
+        }
+      }
+
+      if (!excelRow.isEmpty()) {
+        excelRowConsumer.accept(excelRow);
+      }
+    }
+  }
+
+  /**
+   * HSSF does not expose workbook date windowing, so it is checked on the first numeric cell. Dates in 1904 windowing differ by 1462 days.
+   */
+  private boolean isUsing1904DateWindowing(Sheet sheet) {
+    for (Row row : sheet) {
+      for (Cell cell : row) {
+        if (cell.getCellType() == Cell.CELL_TYPE_NUMERIC && DateUtil.isValidExcelDate(cell.getNumericCellValue())) {
+          return !cell.getDateCellValue().equals(DateUtil.getJavaDate(cell.getNumericCellValue(), false));
+        }
+      }
+    }
+    return false;
+  }
+
+  private static class WorkbookHandler extends DefaultHandler {
+
+    private boolean date1904;
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes) {
+      if ("workbookPr".equals(localName)) {
+        String date1904Value = attributes.getValue("date1904");
+        date1904 = "1".equals(date1904Value) || "true".equalsIgnoreCase(date1904Value);
+      }
+    }
+  }
+
+  /**
+   * Handles sheet XML, eg. {@code <row r="2"><c r="A2" t="s"><v>0</v></c><c r="B2"><v>43831</v></c></row>}.
+   * Cell type is taken from 't' attribute: 's' - shared string, 'inlineStr' - inline string, 'str' - string result of formula, 'b' - boolean, 'e' - error,
+   * no attribute or 'n' - number. Formula cells get type of their cached result.
+   */
+  private static class SheetHandler extends DefaultHandler {
+
+    private final ReadOnlySharedStringsTable sharedStrings;
+
+    private final boolean date1904;
+
+    private final Consumer<ExcelRow> excelRowConsumer;
+
+    private final StringBuilder value = new StringBuilder();
+
+    private boolean isHeaderRowSkipped;
+
+    private boolean isValueCollected;
+
+    private ExcelRow excelRow;
+
+    private int rowNum = -1;
+
+    private int column;
+
+    private String cellType;
+
+    SheetHandler(ReadOnlySharedStringsTable sharedStrings, boolean date1904, Consumer<ExcelRow> excelRowConsumer) {
+      this.sharedStrings = sharedStrings;
+      this.date1904 = date1904;
+      this.excelRowConsumer = excelRowConsumer;
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes) {
+      switch (localName) {
+        case "row":
+          String rowReference = attributes.getValue("r");
+          rowNum = rowReference != null ? Integer.parseInt(rowReference) - 1 : rowNum + 1;
+          excelRow = new ExcelRow(rowNum, date1904);
+          column = -1;
+          break;
+        case "c":
+          String cellReference = attributes.getValue("r");
+          column = cellReference != null ? new CellReference(cellReference).getCol() : column + 1;
+          cellType = attributes.getValue("t");
+          value.setLength(0);
+          break;
+        case "v":
+        case "t":
+          isValueCollected = true;
+          break;
+        default:
+          break;
+      }
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) {
+      if (isValueCollected) {
+        value.append(ch, start, length);
+      }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) {
+      switch (localName) {
+        case "v":
+        case "t":
+          isValueCollected = false;
+          break;
+        case "c":
+          setCell();
+          break;
+        case "row":
+          if (!isHeaderRowSkipped) {
+            isHeaderRowSkipped = true;
+          } else if (!excelRow.isEmpty()) {
+            excelRowConsumer.accept(excelRow);
+          }
+          excelRow = null;
+          break;
+        default:
+          break;
+      }
+    }
+
+    private void setCell() {
+      if (value.length() == 0 && !"inlineStr".equals(cellType)) {
+        return;
+      }
+
+      if (cellType == null || "n".equals(cellType)) {
+        excelRow.setCell(column, Cell.CELL_TYPE_NUMERIC, Double.parseDouble(value.toString()));
+      } else if ("s".equals(cellType)) {
+        excelRow.setCell(column, Cell.CELL_TYPE_STRING, sharedStrings.getEntryAt(Integer.parseInt(value.toString())));
+      } else if ("inlineStr".equals(cellType) || "str".equals(cellType)) {
+        excelRow.setCell(column, Cell.CELL_TYPE_STRING, value.toString());
+      } else if ("b".equals(cellType)) {
+        excelRow.setCell(column, Cell.CELL_TYPE_BOOLEAN, "1".equals(value.toString()));
+      } else {
+        excelRow.setCell(column, Cell.CELL_TYPE_ERROR, value.toString());
+      }
+    }
+  }
+}
@@ -0,0 +1,74 @@
+package machineRental.MR.excel;
+
+import java.util.Arrays;
+import java.util.Date;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+
+/**
+ * Single row read from uploaded Excel file. Holds only cell types and values, so rows can be mapped one by one without keeping whole workbook in memory.
+ * Cell types are the same as in {@link Cell}, eg. {@link Cell#CELL_TYPE_STRING}. Missing cells are {@link Cell#CELL_TYPE_BLANK}.
+ */
+public class ExcelRow {
+
+  private final int rowNum;
+
+  private final boolean date1904;
+
+  private int[] cellTypes = new int[0];
+
+  private Object[] values = new Object[0];
+
+  public ExcelRow(int rowNum, boolean date1904) {
+    this.rowNum = rowNum;
+    this.date1904 = date1904;
+  }
+
+  void setCell(int column, int cellType, Object value) {
+    if (column >= cellTypes.length) {
+      int oldLength = cellTypes.length;
+      cellTypes = Arrays.copyOf(cellTypes, column + 1);
+      values = Arrays.copyOf(values, column + 1);
+      Arrays.fill(cellTypes, oldLength, cellTypes.length, Cell.CELL_TYPE_BLANK);
+    }
+    cellTypes[column] = cellType;
+    values[column] = value;
+  }
+
+  public int getRowNum() {
+    return rowNum;
+  }
+
+  public int getCellType(int column) {
+    return column < cellTypes.length ? cellTypes[column] : Cell.CELL_TYPE_BLANK;
+  }
+
+  public String getStringCellValue(int column) {
+    return String.valueOf(values[column]);
+  }
+
+  /**
+   * @throws WrongDataTypeException if cell is not numeric, eg. number typed in as text.
+   */
+  public double getNumericCellValue(int column) {
+    if (getCellType(column) != Cell.CELL_TYPE_NUMERIC) {
+      throw new WrongDataTypeException(String.format("Wrong data type in row %d, column \'%s\'. It must be a number!",
+          rowNum + 1, CellReference.convertNumToColString(column)));
+    }
+    return (Double) values[column];
+  }
+
+  public Date getDateCellValue(int column) {
+    return DateUtil.getJavaDate(getNumericCellValue(column), date1904);
+  }
+
+  public boolean isEmpty() {
+    for (int cellType : cellTypes) {
+      if (cellType != Cell.CELL_TYPE_BLANK) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,12 @@
+package machineRental.MR.excel;
+
+@FunctionalInterface
+public interface ExcelRowMapper<T> {
+
+  /**
+   * @param row Data row from Excel file (header row is never passed).
+   * @return Object created from row. Mapper should throw exception (eg. {@link WrongDataTypeException}) when row is not valid.
+   */
+  T mapRow(ExcelRow row);
+
+}
@@ -0,0 +1,60 @@
+package machineRental.MR.excel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.poi.ss.usermodel.Cell;
+
+/**
+ * Data rows of uploaded Excel file read in a single pass, together with distinct values of string cells from columns requested by importer. Values are
+ * used to load all entities referenced by the file with one query per entity type, after which rows are mapped without reading the file again.
+ */
+public class ExcelRows {
+
+  private final List<ExcelRow> rows = new ArrayList<>();
+
+  private final Map<Integer, Set<String>> stringColumnValues = new HashMap<>();
+
+  ExcelRows(int... stringColumns) {
+    for (int column : stringColumns) {
+      stringColumnValues.put(column, new HashSet<>());
+    }
+  }
+
+  void add(ExcelRow row) {
+    rows.add(row);
+//    cells of other types are skipped here and reported by row mapper
+    stringColumnValues.forEach((column, values) -> {
+      if (row.getCellType(column) == Cell.CELL_TYPE_STRING) {
+        values.add(row.getStringCellValue(column));
+      }
+    });
+  }
+
+  /**
+   * @param column One of columns given to {@link ExcelImporter#readRows(org.springframework.web.multipart.MultipartFile, int...)}.
+   * @return Distinct values of string cells of a given column.
+   */
+  public Set<String> getStringColumnValues(int column) {
+    return stringColumnValues.getOrDefault(column, Collections.emptySet());
+  }
+
+  /**
+   * Maps rows in the order of the file. Mapping stops at first row for which mapper throws exception.
+   */
+  public <T> List<T> map(ExcelRowMapper<T> rowMapper) {
+    List<T> result = new ArrayList<>(rows.size());
+    for (ExcelRow row : rows) {
+      result.add(rowMapper.mapRow(row));
+    }
+    return result;
+  }
+
+  public int size() {
+    return rows.size();
+  }
+}
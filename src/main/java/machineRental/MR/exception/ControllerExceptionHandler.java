@@ -23,6 +23,41 @@ public class ControllerExceptionHandler {
     return new ExceptionMessage(e.getMessage());
   }
 
+  @ExceptionHandler(InvalidCursorException.class)
+  @ResponseStatus(HttpStatus.BAD_REQUEST)
+  @ResponseBody
+  public ExceptionMessage handleInvalidCursorException(InvalidCursorException e) {
+    return new ExceptionMessage(e.getMessage());
+  }
+
+  @ExceptionHandler(TooManyReportJobsException.class)
+  @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+  @ResponseBody
+  public ExceptionMessage handleTooManyReportJobsException(TooManyReportJobsException e) {
+    return new ExceptionMessage(e.getMessage());
+  }
+
+  @ExceptionHandler(ReportJobNotFinishedException.class)
+  @ResponseStatus(HttpStatus.CONFLICT)
+  @ResponseBody
+  public ExceptionMessage handleReportJobNotFinishedException(ReportJobNotFinishedException e) {
+    return new ExceptionMessage(e.getMessage());
+  }
+
+  @ExceptionHandler(ReportResultGoneException.class)
+  @ResponseStatus(HttpStatus.GONE)
+  @ResponseBody
+  public ExceptionMessage handleReportResultGoneException(ReportResultGoneException e) {
+    return new ExceptionMessage(e.getMessage());
+  }
+
+  @ExceptionHandler(CostReportTimeoutException.class)
+  @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+  @ResponseBody
+  public ExceptionMessage handleCostReportTimeoutException(CostReportTimeoutException e) {
+    return new ExceptionMessage(e.getMessage());
+  }
+
   @ExceptionHandler(BindingResultException.class)
   @ResponseStatus(HttpStatus.BAD_REQUEST)
   @ResponseBody
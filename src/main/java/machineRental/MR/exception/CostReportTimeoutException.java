@@ -0,0 +1,8 @@
+package machineRental.MR.exception;
+
+public class CostReportTimeoutException extends RuntimeException {
+
+  public CostReportTimeoutException(final String message) {
+    super(message);
+  }
+}
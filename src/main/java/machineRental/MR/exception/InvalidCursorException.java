@@ -0,0 +1,8 @@
+package machineRental.MR.exception;
+
+public class InvalidCursorException extends RuntimeException {
+
+  public InvalidCursorException(final String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,8 @@
+package machineRental.MR.exception;
+
+public class ReportJobNotFinishedException extends RuntimeException {
+
+  public ReportJobNotFinishedException(final String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,8 @@
+package machineRental.MR.exception;
+
+public class ReportResultGoneException extends RuntimeException {
+
+  public ReportResultGoneException(final String message) {
+    super(message);
+  }
+}
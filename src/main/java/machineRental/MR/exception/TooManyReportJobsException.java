@@ -0,0 +1,8 @@
+package machineRental.MR.exception;
+
+public class TooManyReportJobsException extends RuntimeException {
+
+  public TooManyReportJobsException(final String message) {
+    super(message);
+  }
+}
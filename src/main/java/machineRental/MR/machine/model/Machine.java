@@ -11,11 +11,15 @@ import javax.persistence.*;
 import javax.validation.constraints.*;
 import machineRental.MR.client.model.Client;
 import machineRental.MR.machineType.model.MachineType;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Type;
 
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 //@EqualsAndHashCode(of = "uuid")
 @Table(name = "machines")
@@ -1,10 +1,12 @@
 package machineRental.MR.machine.service;
 
+import machineRental.MR.ReadPool;
 import machineRental.MR.exception.AlreadyUsedException;
 import machineRental.MR.exception.BindingResultException;
 import machineRental.MR.exception.NotFoundException;
 import machineRental.MR.machine.model.Machine;
 import machineRental.MR.order.service.OrderService;
+import machineRental.MR.price.PriceResolver;
 import machineRental.MR.price.distance.service.DistancePriceService;
 import machineRental.MR.price.hour.service.HourPriceService;
 import machineRental.MR.price.rental.service.RentalPriceService;
@@ -15,6 +17,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 
@@ -44,6 +47,9 @@ public class MachineService {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private PriceResolver priceResolver;
+
 
     public Machine create(Machine machine, BindingResult bindingResult) {
 
@@ -62,6 +68,8 @@ public class MachineService {
         return machineRepository.save(machine);
     }
 
+    @ReadPool
+    @Transactional(readOnly = true)
     public Page<Machine> search(String internalId, String name, String producer, String model, Integer productionYear, String owner, String machineStatus, String type, Pageable pageable) {
 
         if(productionYear == null) {
@@ -93,7 +101,12 @@ public class MachineService {
         }
 
         machine.setId(id);
-        return machineRepository.save(machine);
+        Machine savedMachine = machineRepository.save(machine);
+
+//        prices cached by price resolver keep machine they refer to
+        priceResolver.evictAll();
+
+        return savedMachine;
     }
 
 
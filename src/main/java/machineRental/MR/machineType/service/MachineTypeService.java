@@ -1,5 +1,6 @@
 package machineRental.MR.machineType.service;
 
+import machineRental.MR.ReadPool;
 import machineRental.MR.exception.BindingResultException;
 import machineRental.MR.exception.NotFoundException;
 import machineRental.MR.machineType.model.MachineType;
@@ -8,6 +9,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 
@@ -33,6 +35,8 @@ public class MachineTypeService {
         return type.get();
     }
 
+    @ReadPool
+    @Transactional(readOnly = true)
     public Page<MachineType> search(String type, Pageable pageable) {
         return machineTypeRepository.findByMachineTypeContaining(type, pageable);
     }
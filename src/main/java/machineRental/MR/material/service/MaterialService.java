@@ -1,14 +1,17 @@
 package machineRental.MR.material.service;
 
 import java.util.Optional;
+import machineRental.MR.ReadPool;
 import machineRental.MR.exception.BindingResultException;
 import machineRental.MR.exception.NotFoundException;
 import machineRental.MR.material.model.Material;
+import machineRental.MR.price.PriceResolver;
 import machineRental.MR.repository.MaterialRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 
@@ -18,6 +21,9 @@ public class MaterialService {
     @Autowired
     private MaterialRepository materialRepository;
 
+    @Autowired
+    private PriceResolver priceResolver;
+
     public Material create(Material material, BindingResult bindingResult) {
         validateMaterialConsistency(material.getType(), null, bindingResult);
         return materialRepository.save(material);
@@ -32,6 +38,8 @@ public class MaterialService {
         return material.get();
     }
 
+    @ReadPool
+    @Transactional(readOnly = true)
     public Page<Material> search(String type, Pageable pageable) {
         return materialRepository.findByTypeContaining(type, pageable);
     }
@@ -46,7 +54,12 @@ public class MaterialService {
         validateMaterialConsistency(type.getType(), dbMaterial.get().getType(), bindingResult);
 
         type.setId(id);
-        return materialRepository.save(type);
+        Material savedMaterial = materialRepository.save(type);
+
+//        prices cached by price resolver keep material they refer to
+        priceResolver.evictAll();
+
+        return savedMaterial;
     }
 
     private void validateMaterialConsistency(String type, String currentType, BindingResult bindingResult) {
@@ -3,6 +3,7 @@ package machineRental.MR.operator.service;
 import static java.lang.String.format;
 
 import java.util.Optional;
+import machineRental.MR.ReadPool;
 import machineRental.MR.exception.BindingResultException;
 import machineRental.MR.exception.NotFoundException;
 import machineRental.MR.operator.model.Operator;
@@ -12,6 +13,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 
@@ -32,6 +34,8 @@ public class OperatorService {
     return operatorRepository.save(operator);
   }
 
+  @ReadPool
+  @Transactional(readOnly = true)
   public Page<Operator> search(String name, String qualifications, String companyMpk, Pageable pageable) {
 
     return operatorRepository.findByNameContainingAndQualificationsContainingAndCompany_MpkContaining(name, qualifications, companyMpk, pageable);
@@ -4,12 +4,12 @@ import static java.lang.String.format;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.List;
 import machineRental.MR.exception.NotFoundException;
+import machineRental.MR.machine.model.Machine;
+import machineRental.MR.order.availability.MachineAvailabilityService;
 import machineRental.MR.order.model.Order;
 import machineRental.MR.repository.ClientRepository;
 import machineRental.MR.repository.MachineRepository;
-import machineRental.MR.repository.OrderRepository;
 import machineRental.MR.repository.SellerRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -28,7 +28,7 @@ public class OrderValidator {
   private MachineRepository machineRepository;
 
   @Autowired
-  private OrderRepository orderRepository;
+  private MachineAvailabilityService machineAvailabilityService;
 
   private ErrorOrder errorOrder = new ErrorOrder();
 
@@ -101,21 +101,8 @@ public class OrderValidator {
   }
 
   private int getAvailableQuantity(Order order, Long editedOrderId) {
-    int totalQuantity = machineRepository.findByInternalId(order.getMachine().getInternalId()).getTotalPhysicalQuantity();
-    int availableQuantity = totalQuantity;
-    List<Order> createdOrders = orderRepository.findByMachine_InternalId(order.getMachine().getInternalId());
-    for (Order createdOrder : createdOrders) {
-
-      if (checkOrderDatesCoverPast(order, createdOrder) || checkOrderDatesCoverFuture(order, createdOrder) || isCreatedOrderInBetweenNewOrder(order, createdOrder)) {
-        availableQuantity -= createdOrder.getQuantity();
-
-        if (createdOrder.getId() == editedOrderId) {
-          availableQuantity += createdOrder.getQuantity();
-        }
-      }
-
-    }
-    return availableQuantity;
+    Machine machine = machineRepository.findByInternalId(order.getMachine().getInternalId());
+    return machineAvailabilityService.getAvailableQuantity(machine, order.getStartDate(), order.getEndDate(), editedOrderId);
   }
 
 
@@ -133,31 +120,6 @@ public class OrderValidator {
     return availableQuantity >= order.getQuantity();
   }
 
-  private boolean checkOrderDatesCoverPast(Order newOrder, Order createdOrder) {
-    LocalDate newOrderEndDate = newOrder.getEndDate();
-    LocalDate createdOrderStartDate = createdOrder.getStartDate();
-    LocalDate createdOrderEndDate = createdOrder.getEndDate();
-
-    return newOrderEndDate.isAfter(createdOrderStartDate) && newOrderEndDate.isBefore(createdOrderEndDate) || newOrderEndDate.isEqual(createdOrderEndDate);
-  }
-
-  private boolean checkOrderDatesCoverFuture(Order newOrder, Order createdOrder) {
-    LocalDate newOrderStartDate = newOrder.getStartDate();
-    LocalDate createdOrderStartDate = createdOrder.getStartDate();
-    LocalDate createdOrderEndDate = createdOrder.getEndDate();
-
-    return newOrderStartDate.isBefore(createdOrderEndDate) && newOrderStartDate.isAfter(createdOrderStartDate) || newOrderStartDate.isEqual(createdOrderStartDate);
-  }
-
-  private boolean isCreatedOrderInBetweenNewOrder(Order newOrder, Order createdOrder) {
-    LocalDate newOrderStartDate = newOrder.getStartDate();
-    LocalDate newOrderEndDate = newOrder.getEndDate();
-    LocalDate createdOrderStartDate = createdOrder.getStartDate();
-    LocalDate createdOrderEndDate = createdOrder.getEndDate();
-
-    return newOrderStartDate.isBefore(createdOrderStartDate) && newOrderEndDate.isAfter(createdOrderEndDate);
-  }
-
   public void checkUserDefinedPrice(BigDecimal enteredPrice, BindingResult bindingResult) {
     if (enteredPrice.floatValue() < 0) {
       errorOrder.wrongPriceValueError(bindingResult);
@@ -0,0 +1,18 @@
+package machineRental.MR.order.availability;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MachineAvailability {
+
+  private String internalId;
+  private String name;
+  private String machineStatus;
+  private int totalPhysicalQuantity;
+//  lowest quantity not reserved on any day of requested period
+  private int availableQuantity;
+}
@@ -0,0 +1,31 @@
+package machineRental.MR.order.availability;
+
+import java.time.LocalDate;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/machines/availability")
+public class MachineAvailabilityController {
+
+  @Autowired
+  private MachineAvailabilityService machineAvailabilityService;
+
+  @GetMapping
+  @ResponseStatus(HttpStatus.OK)
+  public List<MachineAvailability> getFleetAvailability(
+      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+      @RequestParam(name = "startDate") LocalDate startDate,
+      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+      @RequestParam(name = "endDate") LocalDate endDate) {
+
+    return machineAvailabilityService.getFleetAvailability(startDate, endDate);
+  }
+}
@@ -0,0 +1,241 @@
+package machineRental.MR.order.availability;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import machineRental.MR.machine.model.Machine;
+import machineRental.MR.order.model.Order;
+import machineRental.MR.repository.MachineRepository;
+import machineRental.MR.repository.MachineReservationVersionRepository;
+import machineRental.MR.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Answers how many units of machines are free in a given period and serializes reservations of the same machine.
+ * Reservations of a machine are loaded once into {@link ReservationTimeline}, which is then kept up to date when orders are saved or deleted (after
+ * transaction commits), so order history is not read again on every order. Every change of reservations increments reservation version of machine
+ * (see {@link MachineReservationVersion}), and cached timeline is reloaded when its version differs from version in data base, eg. after orders were
+ * changed by another application instance.
+ */
+@Service
+public class MachineAvailabilityService {
+
+  private static final int LOCK_STRIPES = 64;
+
+  @Autowired
+  private OrderRepository orderRepository;
+
+  @Autowired
+  private MachineRepository machineRepository;
+
+  @Autowired
+  private MachineReservationVersionRepository machineReservationVersionRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  private final ConcurrentMap<Long, ReservationTimeline> timelinesByMachine = new ConcurrentHashMap<>();
+
+//  orders of machines with the same lock stripe wait for each other in this instance, instead of all waiting for data base row lock
+  private final Lock[] locks = new Lock[LOCK_STRIPES];
+
+  public MachineAvailabilityService() {
+    for (int i = 0; i < LOCK_STRIPES; i++) {
+      locks[i] = new ReentrantLock();
+    }
+  }
+
+  /**
+   * Runs availability check and saving of order in a single transaction, which starts with locking rows of given machines in data base. Orders of other
+   * machines are processed in parallel.
+   * @param machineInternalIds Machines, for which quantity is reserved or released, eg. machine of edited order and machine it is changed to.
+   */
+  public <T> T withReservationLock(Collection<String> machineInternalIds, Supplier<T> reservation) {
+    TreeSet<Integer> stripes = new TreeSet<>();
+    for (String machineInternalId : machineInternalIds) {
+      stripes.add(Math.floorMod(Objects.hashCode(machineInternalId), LOCK_STRIPES));
+    }
+
+//    stripes are always locked in the same order, so that two orders changing machines cannot wait for each other
+    List<Lock> lockedStripes = new ArrayList<>();
+    try {
+      for (int stripe : stripes) {
+        locks[stripe].lock();
+        lockedStripes.add(locks[stripe]);
+      }
+
+      return new TransactionTemplate(transactionManager).execute(status -> {
+        machineRepository.findAndLockByInternalIdIn(machineInternalIds);
+        return reservation.get();
+      });
+    } finally {
+      for (Lock lock : lockedStripes) {
+        lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * To get quantity, which cannot be reserved by another order in the meantime, call it inside {@link #withReservationLock(Collection, Supplier)}.
+   * @param excludedOrderId Id of edited order, whose current reservation is not counted.
+   * @return The lowest quantity of a machine free on any day between given dates.
+   */
+  public int getAvailableQuantity(Machine machine, LocalDate startDate, LocalDate endDate, Long excludedOrderId) {
+    return machine.getTotalPhysicalQuantity() - getTimeline(machine).getMaxReservedQuantity(startDate, endDate, excludedOrderId);
+  }
+
+  public List<MachineAvailability> getFleetAvailability(LocalDate startDate, LocalDate endDate) {
+    List<Machine> machines = machineRepository.findAll();
+    Map<Long, ReservationTimeline> timelines = getTimelines(machines, getVersions(machines));
+
+    List<MachineAvailability> result = new ArrayList<>();
+    for (Machine machine : machines) {
+      int availableQuantity = machine.getTotalPhysicalQuantity() - timelines.get(machine.getId()).getMaxReservedQuantity(startDate, endDate);
+      result.add(new MachineAvailability(machine.getInternalId(), machine.getName(), machine.getMachineStatus(), machine.getTotalPhysicalQuantity(),
+          availableQuantity));
+    }
+    return result;
+  }
+
+  /**
+   * Updates timelines with saved order. Must be called in the transaction, in which order is saved.
+   * @param previousMachineId Id of machine ordered before order was edited, null for new order.
+   */
+  public void reserve(Long previousMachineId, Order order) {
+    Reservation reservation = new Reservation(order.getId(), order.getMachine().getId(), order.getStartDate(), order.getEndDate(), order.getQuantity());
+
+    if (previousMachineId != null && !previousMachineId.equals(reservation.getMachineId())) {
+      long previousMachineVersion = incrementVersion(previousMachineId);
+      afterCommit(previousMachineId, previousMachineVersion, timeline -> timeline.withoutReservation(reservation.getOrderId(), previousMachineVersion));
+    }
+
+    long version = incrementVersion(reservation.getMachineId());
+    afterCommit(reservation.getMachineId(), version, timeline -> timeline.withReservation(reservation, version));
+  }
+
+  /**
+   * Updates timeline with deleted order. Must be called in the transaction, in which order is deleted.
+   */
+  public void release(Long machineId, Long orderId) {
+    long version = incrementVersion(machineId);
+    afterCommit(machineId, version, timeline -> timeline.withoutReservation(orderId, version));
+  }
+
+  private long incrementVersion(Long machineId) {
+    if (machineReservationVersionRepository.incrementVersion(machineId) == 0) {
+//      first change of orders of machine, no other transaction can insert its version in the meantime, as machine row is locked
+      machineReservationVersionRepository.save(new MachineReservationVersion(machineId, 1));
+      return 1;
+    }
+    return getVersion(machineId);
+  }
+
+  private long getVersion(Long machineId) {
+    Long version = machineReservationVersionRepository.findVersionByMachineId(machineId);
+    return version != null ? version : 0;
+  }
+
+  private Map<Long, Long> getVersions(List<Machine> machines) {
+    List<Long> machineIds = new ArrayList<>();
+    for (Machine machine : machines) {
+      machineIds.add(machine.getId());
+    }
+
+    Map<Long, Long> versions = new HashMap<>();
+    for (MachineReservationVersion version : machineReservationVersionRepository.findByMachineIdIn(machineIds)) {
+      versions.put(version.getMachineId(), version.getVersion());
+    }
+    return versions;
+  }
+
+  /**
+   * Applies change to cached timeline, if it is built for the previous version. Otherwise timeline is dropped and loaded again when needed.
+   */
+  private void afterCommit(Long machineId, long version, UnaryOperator<ReservationTimeline> change) {
+    Runnable update = () -> timelinesByMachine.computeIfPresent(machineId,
+        (id, timeline) -> timeline.getVersion() == version - 1 ? change.apply(timeline) : null);
+
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+        @Override
+        public void afterCommit() {
+          update.run();
+        }
+      });
+    } else {
+      update.run();
+    }
+  }
+
+  private ReservationTimeline getTimeline(Machine machine) {
+//    machine may have been loaded before its row was locked (eg. with edited order) and lock does not refresh it, so version is read from data base
+    long version = getVersion(machine.getId());
+    ReservationTimeline timeline = timelinesByMachine.get(machine.getId());
+    if (timeline != null && timeline.getVersion() == version) {
+      return timeline;
+    }
+
+    timeline = new ReservationTimeline(orderRepository.findReservationsByMachineId(machine.getId()), version);
+    keep(machine.getId(), timeline);
+    return timeline;
+  }
+
+  private Map<Long, ReservationTimeline> getTimelines(List<Machine> machines, Map<Long, Long> versions) {
+    Map<Long, ReservationTimeline> result = new HashMap<>();
+    List<Machine> notLoadedMachines = new ArrayList<>();
+    for (Machine machine : machines) {
+      ReservationTimeline timeline = timelinesByMachine.get(machine.getId());
+      if (timeline != null && timeline.getVersion() == versions.getOrDefault(machine.getId(), 0L)) {
+        result.put(machine.getId(), timeline);
+      } else {
+        notLoadedMachines.add(machine);
+      }
+    }
+
+    if (notLoadedMachines.isEmpty()) {
+      return result;
+    }
+
+    List<Long> notLoadedMachineIds = new ArrayList<>();
+    for (Machine machine : notLoadedMachines) {
+      notLoadedMachineIds.add(machine.getId());
+    }
+
+    Map<Long, List<Reservation>> reservationsByMachine = new HashMap<>();
+    for (Reservation reservation : orderRepository.findReservationsByMachineIdIn(notLoadedMachineIds)) {
+      reservationsByMachine.computeIfAbsent(reservation.getMachineId(), machineId -> new ArrayList<>()).add(reservation);
+    }
+
+    for (Machine machine : notLoadedMachines) {
+      ReservationTimeline timeline = new ReservationTimeline(reservationsByMachine.getOrDefault(machine.getId(), Collections.emptyList()),
+          versions.getOrDefault(machine.getId(), 0L));
+      keep(machine.getId(), timeline);
+      result.put(machine.getId(), timeline);
+    }
+    return result;
+  }
+
+  /**
+   * Caches loaded timeline, unless timeline of a newer version is already cached.
+   */
+  private void keep(Long machineId, ReservationTimeline timeline) {
+    timelinesByMachine.merge(machineId, timeline, (cached, loaded) -> loaded.getVersion() >= cached.getVersion() ? loaded : cached);
+  }
+}
@@ -0,0 +1,27 @@
+package machineRental.MR.order.availability;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Version of reservations of a machine, incremented under machine row lock whenever an order of the machine is created, edited or deleted. It is kept
+ * apart from cached {@link machineRental.MR.machine.model.Machine}, so that changes of orders do not evict machines from second-level cache.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "machine_reservation_versions")
+public class MachineReservationVersion {
+
+  @Id
+  private Long machineId;
+
+  @Column(nullable = false)
+  private long version;
+}
@@ -0,0 +1,19 @@
+package machineRental.MR.order.availability;
+
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Part of order needed to check machine availability. Loaded with constructor expression, so that orders are read without their client and seller.
+ */
+@Data
+@AllArgsConstructor
+public class Reservation {
+
+  private Long orderId;
+  private Long machineId;
+  private LocalDate startDate;
+  private LocalDate endDate;
+  private int quantity;
+}
@@ -0,0 +1,152 @@
+package machineRental.MR.order.availability;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable timeline of reservations of a single machine. Start date and day after end date of every reservation split time into segments, in which
+ * reserved quantity does not change. Reserved quantities of segments are kept in segment tree, so that the highest quantity reserved on any day of
+ * a given period is found with binary search of segment dates and a range query, both logarithmic in number of reservations.
+ * Timeline is built for a given reservation version of machine (see {@link MachineReservationVersion}).
+ */
+public class ReservationTimeline {
+
+  private final Map<Long, Reservation> reservationsByOrderId;
+
+//  segment i starts on day segmentStartDays[i] and lasts until the next segment starts, nothing is reserved before the first segment
+  private final long[] segmentStartDays;
+
+//  leaves (from index segmentsCount) hold reserved quantity of segments, every inner node holds maximum of its two children
+  private final int[] maxReservedTree;
+
+  private final int segmentsCount;
+
+  private final long version;
+
+  public ReservationTimeline(Collection<Reservation> reservations, long version) {
+    this.version = version;
+    reservationsByOrderId = new HashMap<>();
+    for (Reservation reservation : reservations) {
+      reservationsByOrderId.put(reservation.getOrderId(), reservation);
+    }
+
+//    every event is encoded as [day, quantity change]
+    long[][] events = new long[2 * reservationsByOrderId.size()][];
+    int eventsCount = 0;
+    for (Reservation reservation : reservationsByOrderId.values()) {
+      events[eventsCount++] = new long[]{reservation.getStartDate().toEpochDay(), reservation.getQuantity()};
+      events[eventsCount++] = new long[]{reservation.getEndDate().toEpochDay() + 1, -reservation.getQuantity()};
+    }
+    Arrays.sort(events, (first, second) -> Long.compare(first[0], second[0]));
+
+    long[] startDays = new long[eventsCount];
+    int[] reservedQuantities = new int[eventsCount];
+    int count = 0;
+    int reservedQuantity = 0;
+    for (int i = 0; i < eventsCount; i++) {
+      reservedQuantity += events[i][1];
+      if (i + 1 == eventsCount || events[i + 1][0] != events[i][0]) {
+        startDays[count] = events[i][0];
+        reservedQuantities[count] = reservedQuantity;
+        count++;
+      }
+    }
+
+    segmentsCount = count;
+    segmentStartDays = Arrays.copyOf(startDays, count);
+    maxReservedTree = new int[2 * count];
+    System.arraycopy(reservedQuantities, 0, maxReservedTree, count, count);
+    for (int node = count - 1; node > 0; node--) {
+      maxReservedTree[node] = Math.max(maxReservedTree[2 * node], maxReservedTree[2 * node + 1]);
+    }
+  }
+
+  /**
+   * @return The highest quantity reserved on any day between given dates (inclusive).
+   */
+  public int getMaxReservedQuantity(LocalDate startDate, LocalDate endDate) {
+    return getMaxReservedQuantity(startDate.toEpochDay(), endDate.toEpochDay());
+  }
+
+  /**
+   * Same as {@link #getMaxReservedQuantity(LocalDate, LocalDate)}, but without reservation of a given order, used when the order is edited.
+   * The order is excluded by checking separately days before, during and after its reservation.
+   */
+  public int getMaxReservedQuantity(LocalDate startDate, LocalDate endDate, Long excludedOrderId) {
+    Reservation excludedReservation = reservationsByOrderId.get(excludedOrderId);
+    if (excludedReservation == null) {
+      return getMaxReservedQuantity(startDate, endDate);
+    }
+
+    long startDay = startDate.toEpochDay();
+    long endDay = endDate.toEpochDay();
+    long excludedStartDay = excludedReservation.getStartDate().toEpochDay();
+    long excludedEndDay = excludedReservation.getEndDate().toEpochDay();
+
+    int maxReservedQuantity = Math.max(
+        getMaxReservedQuantity(startDay, Math.min(endDay, excludedStartDay - 1)),
+        getMaxReservedQuantity(Math.max(startDay, excludedEndDay + 1), endDay));
+
+    if (startDay <= excludedEndDay && endDay >= excludedStartDay) {
+      int reservedDuringExcluded = getMaxReservedQuantity(Math.max(startDay, excludedStartDay), Math.min(endDay, excludedEndDay));
+      maxReservedQuantity = Math.max(maxReservedQuantity, reservedDuringExcluded - excludedReservation.getQuantity());
+    }
+    return maxReservedQuantity;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * @return New timeline in which reservation of the same order (if any) is replaced by a given one.
+   */
+  public ReservationTimeline withReservation(Reservation reservation, long version) {
+    Map<Long, Reservation> reservations = new HashMap<>(reservationsByOrderId);
+    reservations.put(reservation.getOrderId(), reservation);
+    return new ReservationTimeline(reservations.values(), version);
+  }
+
+  public ReservationTimeline withoutReservation(Long orderId, long version) {
+    Map<Long, Reservation> reservations = new HashMap<>(reservationsByOrderId);
+    reservations.remove(orderId);
+    return new ReservationTimeline(reservations.values(), version);
+  }
+
+  private int getMaxReservedQuantity(long startDay, long endDay) {
+    int lastSegment = lastSegmentStartingNotAfter(endDay);
+    if (startDay > endDay || lastSegment < 0) {
+      return 0;
+    }
+//    nothing is reserved before the first segment, so period starting earlier is checked from the first segment
+    int firstSegment = Math.max(lastSegmentStartingNotAfter(startDay), 0);
+
+    int maxReservedQuantity = 0;
+    for (int left = firstSegment + segmentsCount, right = lastSegment + segmentsCount + 1; left < right; left >>= 1, right >>= 1) {
+      if ((left & 1) == 1) {
+        maxReservedQuantity = Math.max(maxReservedQuantity, maxReservedTree[left++]);
+      }
+      if ((right & 1) == 1) {
+        maxReservedQuantity = Math.max(maxReservedQuantity, maxReservedTree[--right]);
+      }
+    }
+    return maxReservedQuantity;
+  }
+
+  private int lastSegmentStartingNotAfter(long day) {
+    int low = 0;
+    int high = segmentsCount - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      if (segmentStartDays[middle] > day) {
+        high = middle - 1;
+      } else {
+        low = middle + 1;
+      }
+    }
+    return high;
+  }
+}
@@ -12,6 +12,7 @@ import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import machineRental.MR.page.KeysetPage;
 
 //@CrossOrigin(origins = "http://localhost:4200")
 @RestController
@@ -48,6 +49,27 @@ public class OrderController {
         return orderService.search(machineInternalId, status, orderStartDateStart, orderStartDateEnd, orderEndDateStart, orderEndDateEnd, priceType, clientName, sellerName, pageable);
     }
 
+    @GetMapping("/keyset")
+    @ResponseStatus(HttpStatus.OK)
+    public KeysetPage<Order> search(@RequestParam(value = "machineInternalId", required = false, defaultValue = "") String machineInternalId,
+                                    @RequestParam(value = "status", required = false, defaultValue = "") String status,
+                                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                    @RequestParam(value = "orderStartDateStart", required = false) LocalDate orderStartDateStart,
+                                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                    @RequestParam(value = "orderStartDateEnd", required = false) LocalDate orderStartDateEnd,
+                                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                    @RequestParam(value = "orderEndDateStart", required = false) LocalDate orderEndDateStart,
+                                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                    @RequestParam(value = "orderEndDateEnd", required = false) LocalDate orderEndDateEnd,
+                                    @RequestParam(value = "priceType", required = false, defaultValue = "") String priceType,
+                                    @RequestParam(value = "clientName", required = false, defaultValue = "") String clientName,
+                                    @RequestParam(value = "sellerName", required = false, defaultValue = "") String sellerName,
+                                    @RequestParam(value = "cursor", required = false) String cursor,
+                                    @RequestParam(value = "size", required = false) Integer size)
+    {
+        return orderService.search(machineInternalId, status, orderStartDateStart, orderStartDateEnd, orderEndDateStart, orderEndDateEnd, priceType, clientName, sellerName, cursor, size);
+    }
+
     @GetMapping("/{id}")
     @ResponseStatus(HttpStatus.OK)
     public Order getOrderById(@PathVariable Long id) {
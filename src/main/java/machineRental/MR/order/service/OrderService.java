@@ -1,8 +1,11 @@
 package machineRental.MR.order.service;
 
+import machineRental.MR.ReadPool;
 import machineRental.MR.exception.BindingResultException;
 import machineRental.MR.exception.DeleteException;
 import machineRental.MR.exception.NotFoundException;
+import machineRental.MR.machine.model.Machine;
+import machineRental.MR.order.availability.MachineAvailabilityService;
 import machineRental.MR.order.model.Order;
 import machineRental.MR.price.rental.model.RentalPrice;
 import machineRental.MR.repository.OrderRepository;
@@ -13,12 +16,18 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.BindingResult;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import machineRental.MR.page.KeysetCursor;
+import machineRental.MR.page.KeysetPage;
 
 @Service
 public class OrderService {
@@ -36,19 +45,27 @@ public class OrderService {
   @Autowired
   private OrderValidator orderValidator;
 
+  @Autowired
+  private MachineAvailabilityService machineAvailabilityService;
+
   private ErrorOrder errorOrder = new ErrorOrder();
 
   public Order create(Order order, BindingResult bindingResult) {
+    List<String> machineInternalIds = Collections.singletonList(order.getMachine().getInternalId());
 
-    orderValidator.triggerVadlidators(order, CREATION_MODE_ORDER_ID, bindingResult);
+    return machineAvailabilityService.withReservationLock(machineInternalIds, () -> {
+      orderValidator.triggerVadlidators(order, CREATION_MODE_ORDER_ID, bindingResult);
 
-    setOrderDetails(order, bindingResult);
+      setOrderDetails(order, bindingResult);
 
-    if (bindingResult.hasErrors()) {
-      throw new BindingResultException(bindingResult);
-    }
+      if (bindingResult.hasErrors()) {
+        throw new BindingResultException(bindingResult);
+      }
 
-    return orderRepository.save(order);
+      Order savedOrder = orderRepository.save(order);
+      machineAvailabilityService.reserve(null, savedOrder);
+      return savedOrder;
+    });
   }
 
 
@@ -190,15 +207,22 @@ public class OrderService {
       throw new NotFoundException(String.format("Order with id \'%s\' doesn`t exist!", editedOrderId));
     }
 
-    orderValidator.triggerVadlidators(order, editedOrderId, bindingResult);
+    Machine previousMachine = dbOrder.get().getMachine();
+    List<String> machineInternalIds = Arrays.asList(previousMachine.getInternalId(), order.getMachine().getInternalId());
 
-    setOrderDetails(order, bindingResult);
+    return machineAvailabilityService.withReservationLock(machineInternalIds, () -> {
+      orderValidator.triggerVadlidators(order, editedOrderId, bindingResult);
 
-    if (bindingResult.hasErrors()) {
-      throw new BindingResultException(bindingResult);
-    }
-    order.setId(editedOrderId);
-    return orderRepository.save(order);
+      setOrderDetails(order, bindingResult);
+
+      if (bindingResult.hasErrors()) {
+        throw new BindingResultException(bindingResult);
+      }
+      order.setId(editedOrderId);
+      Order savedOrder = orderRepository.save(order);
+      machineAvailabilityService.reserve(previousMachine.getId(), savedOrder);
+      return savedOrder;
+    });
   }
 
   public void delete(Long id) {
@@ -210,9 +234,17 @@ public class OrderService {
     } else if ("Settled".equals(dbOrder.get().getStatus())) {
       throw new DeleteException("It is not allowed to delete order with status 'Settled'!");
     }
-    orderRepository.deleteById(id);
+
+    Machine machine = dbOrder.get().getMachine();
+    machineAvailabilityService.withReservationLock(Collections.singletonList(machine.getInternalId()), () -> {
+      orderRepository.deleteById(id);
+      machineAvailabilityService.release(machine.getId(), id);
+      return null;
+    });
   }
 
+  @ReadPool
+  @Transactional(readOnly = true)
   public Page<Order> search(String machineInternalId, String status, LocalDate orderStartDateStart, LocalDate orderStartDateEnd,
       LocalDate orderEndDateStart, LocalDate orderEndDateEnd, String priceType, String clientName, String sellerName, Pageable pageable) {
 
@@ -242,6 +274,26 @@ public class OrderService {
 
   }
 
+  /**
+   * Searches orders ordered by start date and id, reading page of given size after given cursor instead of skipping rows of previous pages.
+   */
+  @ReadPool
+  @Transactional(readOnly = true)
+  public KeysetPage<Order> search(String machineInternalId, String status, LocalDate orderStartDateStart, LocalDate orderStartDateEnd,
+      LocalDate orderEndDateStart, LocalDate orderEndDateEnd, String priceType, String clientName, String sellerName, String cursor, Integer size) {
+
+    LocalDate minDefaultDate = LocalDate.of(1900, 1, 1);
+    LocalDate maxDefaultDate = LocalDate.of(2100, 12, 31);
+
+    KeysetCursor after = KeysetCursor.decode(cursor);
+    List<Order> orders = orderRepository.findKeysetPage(machineInternalId, status,
+        orderStartDateStart == null ? minDefaultDate : orderStartDateStart, orderStartDateEnd == null ? maxDefaultDate : orderStartDateEnd,
+        orderEndDateStart == null ? minDefaultDate : orderEndDateStart, orderEndDateEnd == null ? maxDefaultDate : orderEndDateEnd,
+        priceType, clientName, sellerName, after.getDate(), after.getLongId(), KeysetPage.limit(size));
+
+    return KeysetPage.of(orders, size, order -> KeysetCursor.of(order.getStartDate(), order.getId()));
+  }
+
   public Order getById(Long id) {
     Optional<Order> dbOrder = orderRepository.findById(id);
 
@@ -0,0 +1,64 @@
+package machineRental.MR.page;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import machineRental.MR.exception.InvalidCursorException;
+
+/**
+ * Date and id of the last row of a keyset page. Rows are ordered by date and id, so that the next page starts right after this row.
+ * It is passed to client as an opaque token.
+ */
+@Data
+@AllArgsConstructor
+public class KeysetCursor {
+
+  private static final char SEPARATOR = '|';
+
+  private LocalDate date;
+
+  private String id;
+
+  public static KeysetCursor of(LocalDate date, Object id) {
+    return new KeysetCursor(date, String.valueOf(id));
+  }
+
+  public Long getLongId() {
+    if (id == null) {
+      return null;
+    }
+
+    try {
+      return Long.valueOf(id);
+    } catch (NumberFormatException e) {
+      throw new InvalidCursorException(String.format("Cursor id: \'%s\' is not a number", id));
+    }
+  }
+
+  public String encode() {
+    return Base64.getUrlEncoder().withoutPadding().encodeToString((date.toString() + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * @return Cursor encoded in given token. Empty token means the first page, for which cursor has no date and id.
+   */
+  public static KeysetCursor decode(String token) {
+    if (token == null || token.isEmpty()) {
+      return new KeysetCursor(null, null);
+    }
+
+    try {
+      String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      int separatorIndex = value.indexOf(SEPARATOR);
+      if (separatorIndex < 0) {
+        throw new InvalidCursorException(String.format("Cursor: \'%s\' is not valid", token));
+      }
+      return new KeysetCursor(LocalDate.parse(value.substring(0, separatorIndex)), value.substring(separatorIndex + 1));
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      throw new InvalidCursorException(String.format("Cursor: \'%s\' is not valid", token));
+    }
+  }
+}
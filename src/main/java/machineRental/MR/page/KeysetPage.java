@@ -0,0 +1,56 @@
+package machineRental.MR.page;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Page of search results read with keyset (seek) pagination: instead of skipping rows of previous pages, query continues after the last row
+ * of the previous page given by cursor. Next cursor is null on the last page.
+ */
+@Data
+@AllArgsConstructor
+public class KeysetPage<T> {
+
+  public static final int DEFAULT_SIZE = 100;
+
+  public static final int MAX_SIZE = 1000;
+
+  private List<T> content;
+
+  private String nextCursor;
+
+  /**
+   * @return Limit of rows to read for a page of given size (default size if null). One more row is read to find out if there is a next page.
+   */
+  public static Pageable limit(Integer size) {
+    return PageRequest.of(0, getSize(size) + 1);
+  }
+
+  /**
+   * @param rows rows read with {@link #limit(Integer)}
+   * @param cursorOf cursor pointing at given row
+   */
+  public static <T> KeysetPage<T> of(List<T> rows, Integer size, Function<T, KeysetCursor> cursorOf) {
+    int pageSize = getSize(size);
+    if (rows.size() <= pageSize) {
+      return new KeysetPage<>(rows, null);
+    }
+
+    List<T> content = new ArrayList<>(rows.subList(0, pageSize));
+    return new KeysetPage<>(content, cursorOf.apply(content.get(pageSize - 1)).encode());
+  }
+
+  public <R> KeysetPage<R> map(Function<T, R> converter) {
+    return new KeysetPage<>(content.stream().map(converter).collect(Collectors.toList()), nextCursor);
+  }
+
+  private static int getSize(Integer size) {
+    return size == null ? DEFAULT_SIZE : Math.min(Math.max(size, 1), MAX_SIZE);
+  }
+}
@@ -0,0 +1,304 @@
+package machineRental.MR.price;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import machineRental.MR.price.delivery.model.DeliveryPrice;
+import machineRental.MR.price.distance.model.DistancePrice;
+import machineRental.MR.price.hour.model.HourPrice;
+import machineRental.MR.repository.DeliveryPriceRepository;
+import machineRental.MR.repository.DistancePriceRepository;
+import machineRental.MR.repository.HourPriceRepository;
+import machineRental.MR.workDocumentEntry.WorkCode;
+import org.apache.commons.collections4.keyvalue.MultiKey;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Finds prices matching work document entries without querying data base for every entry.
+ * Prices are loaded once per machine (hour and distance prices) or contractor (delivery prices) into an immutable index of price snapshots, in which
+ * prices with the same parameters are sorted by start date and searched by date with binary search. Index of a given machine or contractor is evicted
+ * whenever its prices are created, updated or deleted, and evicted again after transaction completes, so that index loaded from uncommitted data is not kept.
+ * Index is shared between threads, so it keeps snapshots of price values only. Found prices are returned as entities of caller's persistence context.
+ */
+@Service
+public class PriceResolver {
+
+  @Autowired
+  private HourPriceRepository hourPriceRepository;
+
+  @Autowired
+  private DistancePriceRepository distancePriceRepository;
+
+  @Autowired
+  private DeliveryPriceRepository deliveryPriceRepository;
+
+  private final ConcurrentMap<String, PriceIndex> hourPricesByMachine = new ConcurrentHashMap<>();
+
+  private final ConcurrentMap<String, PriceIndex> distancePricesByMachine = new ConcurrentHashMap<>();
+
+  private final ConcurrentMap<String, PriceIndex> deliveryPricesByContractor = new ConcurrentHashMap<>();
+
+//  incremented on every eviction, so that index loaded concurrently with eviction is not kept
+  private final AtomicLong evictions = new AtomicLong();
+
+  public Optional<HourPrice> findHourPrice(String machineInternalId, WorkCode workCode, PriceType priceType, String projectCode, LocalDate date) {
+    return getHourPrices(machineInternalId).findFirst(new MultiKey<>(workCode, priceType, projectCode), date, price -> true)
+        .map(price -> hourPriceRepository.getOne(price.getId()));
+  }
+
+  public List<HourPrice> findHourPrices(String machineInternalId, LocalDate date) {
+    return findAllById(hourPriceRepository, getHourPrices(machineInternalId).findAll(date), HourPrice::getId);
+  }
+
+  /**
+   * @return Any hour price of a given machine with given parameters, which dates have common part with given dates and which matches given condition.
+   */
+  public Optional<PriceSnapshot> findHourPriceOverlapping(String machineInternalId, WorkCode workCode, PriceType priceType, String projectCode,
+      LocalDate startDate, LocalDate endDate, Predicate<PriceSnapshot> condition) {
+    return getHourPrices(machineInternalId).findFirstOverlapping(new MultiKey<>(workCode, priceType, projectCode), startDate, endDate, condition);
+  }
+
+  public Optional<DistancePrice> findDistancePrice(String machineInternalId, WorkCode workCode, PriceType priceType, String projectCode, LocalDate date,
+      double distance) {
+    return getDistancePrices(machineInternalId).findFirst(new MultiKey<>(workCode, priceType, projectCode), date, price -> price.isDistanceMatching(distance))
+        .map(price -> distancePriceRepository.getOne(price.getId()));
+  }
+
+  public List<DistancePrice> findDistancePrices(String machineInternalId, LocalDate date) {
+    return findAllById(distancePriceRepository, getDistancePrices(machineInternalId).findAll(date), DistancePrice::getId);
+  }
+
+  /**
+   * @return Any distance price of a given machine with given parameters, which dates have common part with given dates and which matches given condition.
+   */
+  public Optional<PriceSnapshot> findDistancePriceOverlapping(String machineInternalId, WorkCode workCode, PriceType priceType, String projectCode,
+      LocalDate startDate, LocalDate endDate, Predicate<PriceSnapshot> condition) {
+    return getDistancePrices(machineInternalId).findFirstOverlapping(new MultiKey<>(workCode, priceType, projectCode), startDate, endDate, condition);
+  }
+
+  public Optional<DeliveryPrice> findDeliveryPrice(String contractorMpk, String materialType, PriceType priceType, String projectCode, LocalDate date) {
+    return getDeliveryPrices(contractorMpk).findFirst(new MultiKey<>(materialType, priceType, projectCode), date, price -> true)
+        .map(price -> deliveryPriceRepository.getOne(price.getId()));
+  }
+
+  /**
+   * @return Any delivery price of a given contractor with given parameters, which dates have common part with given dates and which matches given condition.
+   */
+  public Optional<PriceSnapshot> findDeliveryPriceOverlapping(String contractorMpk, String materialType, PriceType priceType, String projectCode,
+      LocalDate startDate, LocalDate endDate, Predicate<PriceSnapshot> condition) {
+    return getDeliveryPrices(contractorMpk).findFirstOverlapping(new MultiKey<>(materialType, priceType, projectCode), startDate, endDate, condition);
+  }
+
+  public void evictHourPrices(String machineInternalId) {
+    evict(hourPricesByMachine, machineInternalId);
+  }
+
+  public void evictDistancePrices(String machineInternalId) {
+    evict(distancePricesByMachine, machineInternalId);
+  }
+
+  public void evictDeliveryPrices(String contractorMpk) {
+    evict(deliveryPricesByContractor, contractorMpk);
+  }
+
+  /**
+   * Evicts all indexes. Used when machine, contractor or material is edited, as it may change keys under which prices are indexed.
+   */
+  public void evictAll() {
+    evictions.incrementAndGet();
+    hourPricesByMachine.clear();
+    distancePricesByMachine.clear();
+    deliveryPricesByContractor.clear();
+  }
+
+  private PriceIndex getHourPrices(String machineInternalId) {
+    return getIndex(hourPricesByMachine, machineInternalId, hourPriceRepository::findByMachineInternalIdEquals,
+        price -> new PriceSnapshot(price.getId(), new MultiKey<>(price.getWorkCode(), price.getPriceType(), price.getProjectCode()),
+            price.getStartDate(), price.getEndDate()));
+  }
+
+  private PriceIndex getDistancePrices(String machineInternalId) {
+    return getIndex(distancePricesByMachine, machineInternalId, distancePriceRepository::findByMachineInternalIdEquals,
+        price -> new PriceSnapshot(price.getId(), new MultiKey<>(price.getWorkCode(), price.getPriceType(), price.getProjectCode()),
+            price.getStartDate(), price.getEndDate(), price.getRangeMin(), price.getRangeMax()));
+  }
+
+  private PriceIndex getDeliveryPrices(String contractorMpk) {
+    return getIndex(deliveryPricesByContractor, contractorMpk, deliveryPriceRepository::findByContractor_Mpk,
+        price -> new PriceSnapshot(price.getId(), new MultiKey<>(price.getMaterial().getType(), price.getPriceType(), price.getProjectCode()),
+            price.getStartDate(), price.getEndDate()));
+  }
+
+  private <T> PriceIndex getIndex(ConcurrentMap<String, PriceIndex> indexes, String key, Function<String, List<T>> loader,
+      Function<T, PriceSnapshot> snapshotFunction) {
+
+    if (key == null) {
+      return new PriceIndex(Collections.emptyList());
+    }
+
+    PriceIndex index = indexes.get(key);
+    if (index != null) {
+      return index;
+    }
+
+    long evictionsBeforeLoad = evictions.get();
+    List<PriceSnapshot> prices = new ArrayList<>();
+    loader.apply(key).forEach(price -> prices.add(snapshotFunction.apply(price)));
+    index = new PriceIndex(prices);
+
+    if (evictions.get() == evictionsBeforeLoad) {
+      indexes.putIfAbsent(key, index);
+//      eviction may have happened between check and put
+      if (evictions.get() != evictionsBeforeLoad) {
+        indexes.remove(key, index);
+      }
+    }
+    return index;
+  }
+
+  /**
+   * Loads prices by ids of snapshots, keeping order of snapshots.
+   */
+  private <T> List<T> findAllById(JpaRepository<T, Long> repository, List<PriceSnapshot> prices, Function<T, Long> idFunction) {
+    if (prices.isEmpty()) {
+      return new ArrayList<>();
+    }
+
+    List<Long> ids = new ArrayList<>();
+    prices.forEach(price -> ids.add(price.getId()));
+
+    Map<Long, T> pricesById = new HashMap<>();
+    repository.findAllById(ids).forEach(price -> pricesById.put(idFunction.apply(price), price));
+
+    List<T> result = new ArrayList<>();
+    for (Long id : ids) {
+      T price = pricesById.get(id);
+//      price deleted after index was loaded
+      if (price != null) {
+        result.add(price);
+      }
+    }
+    return result;
+  }
+
+  private void evict(ConcurrentMap<String, ?> indexes, String key) {
+    if (key == null) {
+      return;
+    }
+
+    evictions.incrementAndGet();
+    indexes.remove(key);
+
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+        @Override
+        public void afterCompletion(int status) {
+          evictions.incrementAndGet();
+          indexes.remove(key);
+        }
+      });
+    }
+  }
+
+  private static class PriceIndex {
+
+    private final List<PriceSnapshot> prices;
+
+    private final Map<MultiKey<?>, PriceGroup> groups = new HashMap<>();
+
+    PriceIndex(List<PriceSnapshot> prices) {
+      this.prices = prices;
+
+      Map<MultiKey<?>, List<PriceSnapshot>> pricesByKey = new HashMap<>();
+      for (PriceSnapshot price : prices) {
+        pricesByKey.computeIfAbsent(price.getParameters(), key -> new ArrayList<>()).add(price);
+      }
+      pricesByKey.forEach((key, pricesWithKey) -> groups.put(key, new PriceGroup(pricesWithKey)));
+    }
+
+    Optional<PriceSnapshot> findFirst(MultiKey<?> key, LocalDate date, Predicate<PriceSnapshot> condition) {
+      return findFirstOverlapping(key, date, date, condition);
+    }
+
+    Optional<PriceSnapshot> findFirstOverlapping(MultiKey<?> key, LocalDate startDate, LocalDate endDate, Predicate<PriceSnapshot> condition) {
+      PriceGroup group = groups.get(key);
+      return group == null ? Optional.empty() : group.findFirstOverlapping(startDate, endDate, condition);
+    }
+
+    List<PriceSnapshot> findAll(LocalDate date) {
+      List<PriceSnapshot> result = new ArrayList<>();
+      for (PriceSnapshot price : prices) {
+        if (!date.isBefore(price.getStartDate()) && !date.isAfter(price.getEndDate())) {
+          result.add(price);
+        }
+      }
+      return result;
+    }
+  }
+
+  /**
+   * Prices with the same parameters sorted by start date. maxEndDates[i] is the latest end date of prices 0..i, so that search for prices overlapping
+   * given dates can stop at the first price, before which all prices end earlier than these dates start.
+   */
+  private static class PriceGroup {
+
+    private final List<PriceSnapshot> prices;
+
+    private final LocalDate[] maxEndDates;
+
+    PriceGroup(List<PriceSnapshot> prices) {
+      prices.sort(Comparator.comparing(PriceSnapshot::getStartDate));
+      this.prices = prices;
+
+      maxEndDates = new LocalDate[prices.size()];
+      LocalDate maxEndDate = LocalDate.MIN;
+      for (int i = 0; i < prices.size(); i++) {
+        LocalDate endDate = prices.get(i).getEndDate();
+        maxEndDate = endDate.isAfter(maxEndDate) ? endDate : maxEndDate;
+        maxEndDates[i] = maxEndDate;
+      }
+    }
+
+    Optional<PriceSnapshot> findFirstOverlapping(LocalDate startDate, LocalDate endDate, Predicate<PriceSnapshot> condition) {
+//      checked dates are not validated yet when edited price is checked
+      LocalDate from = startDate.isAfter(endDate) ? endDate : startDate;
+      LocalDate to = startDate.isAfter(endDate) ? startDate : endDate;
+
+      for (int i = lastStartingNotAfter(to); i >= 0 && !maxEndDates[i].isBefore(from); i--) {
+        PriceSnapshot price = prices.get(i);
+        if (!from.isAfter(price.getEndDate()) && condition.test(price)) {
+          return Optional.of(price);
+        }
+      }
+      return Optional.empty();
+    }
+
+    private int lastStartingNotAfter(LocalDate date) {
+      int low = 0;
+      int high = prices.size() - 1;
+      while (low <= high) {
+        int middle = (low + high) >>> 1;
+        if (prices.get(middle).getStartDate().isAfter(date)) {
+          high = middle - 1;
+        } else {
+          low = middle + 1;
+        }
+      }
+      return high;
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package machineRental.MR.price;
+
+import java.time.LocalDate;
+import machineRental.MR.price.distance.service.DateCheckerObject;
+import org.apache.commons.collections4.keyvalue.MultiKey;
+
+/**
+ * Immutable copy of price values kept by PriceResolver. Entities are not cached, as they belong to persistence context of a thread which loaded them.
+ * Parameters are the values (work code or material type, price type, project code), by which prices of the same machine or contractor are grouped.
+ */
+public final class PriceSnapshot extends DateCheckerObject {
+
+  private final Long id;
+
+  private final MultiKey<?> parameters;
+
+  private final LocalDate startDate;
+
+  private final LocalDate endDate;
+
+  private final double rangeMin;
+
+  private final double rangeMax;
+
+  public PriceSnapshot(Long id, MultiKey<?> parameters, LocalDate startDate, LocalDate endDate) {
+    this(id, parameters, startDate, endDate, 0, 0);
+  }
+
+  public PriceSnapshot(Long id, MultiKey<?> parameters, LocalDate startDate, LocalDate endDate, double rangeMin, double rangeMax) {
+    this.id = id;
+    this.parameters = parameters;
+    this.startDate = startDate;
+    this.endDate = endDate;
+    this.rangeMin = rangeMin;
+    this.rangeMax = rangeMax;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public MultiKey<?> getParameters() {
+    return parameters;
+  }
+
+  @Override
+  public LocalDate getStartDate() {
+    return startDate;
+  }
+
+  @Override
+  public LocalDate getEndDate() {
+    return endDate;
+  }
+
+  /**
+   * Distance range of distance price, 0 - 0 for other prices.
+   */
+  public double getRangeMin() {
+    return rangeMin;
+  }
+
+  public double getRangeMax() {
+    return rangeMax;
+  }
+
+  public boolean isDistanceMatching(double distance) {
+    return distance >= rangeMin && distance <= rangeMax;
+  }
+}
@@ -2,18 +2,20 @@ package machineRental.MR.price.delivery;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 import machineRental.MR.client.model.Client;
 import machineRental.MR.delivery.document.model.DeliveryDocument;
 import machineRental.MR.delivery.entry.model.DeliveryDocumentEntry;
 import machineRental.MR.exception.NotFoundException;
 import machineRental.MR.price.PriceChecker;
+import machineRental.MR.price.PriceResolver;
+import machineRental.MR.price.PriceSnapshot;
 import machineRental.MR.price.PriceType;
 import machineRental.MR.price.delivery.model.DeliveryPrice;
 import machineRental.MR.price.distance.service.DateChecker;
 import machineRental.MR.price.hour.exception.OverlappingDatesException;
 import machineRental.MR.price.hour.model.HourPrice;
 import machineRental.MR.repository.DeliveryDocumentEntryRepository;
-import machineRental.MR.repository.DeliveryPriceRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -24,7 +26,7 @@ public class DeliveryPriceChecker implements PriceChecker {
   private DeliveryDocumentEntryRepository deliveryDocumentEntryRepository;
 
   @Autowired
-  private DeliveryPriceRepository deliveryPriceRepository;
+  private PriceResolver priceResolver;
 
   private DateChecker dateChecker = new DateChecker();
 
@@ -50,19 +52,20 @@ public class DeliveryPriceChecker implements PriceChecker {
 
   private void checkDeliveryPriceUniquness(DeliveryPrice currentDeliveryPrice, DeliveryPrice editedDeliveryPrice, String contractorMpk) {
     //    uniqueness of editedDeliveryPrice needs to be checked ony against existing hour prices for a given machine. All prices for different machines will be unique by definition.
-    List<DeliveryPrice> deliveryPricesByContractor = deliveryPriceRepository.findByContractor_Mpk(contractorMpk);
+    if (!contractorMpk.equals(editedDeliveryPrice.getContractor().getMpk())) {
+      return;
+    }
 
-    for (DeliveryPrice deliveryPriceByContractor : deliveryPricesByContractor) {
-//      useless to check if current price to be edited is unique against itself
-      if (currentDeliveryPrice == deliveryPriceByContractor) {
-        continue;
-      }
+    Optional<PriceSnapshot> overlappingPrice = priceResolver.findDeliveryPriceOverlapping(contractorMpk,
+        editedDeliveryPrice.getMaterial().getType(), editedDeliveryPrice.getPriceType(), editedDeliveryPrice.getProjectCode(),
+        editedDeliveryPrice.getStartDate(), editedDeliveryPrice.getEndDate(),
+//        useless to check if current price to be edited is unique against itself
+        price -> !price.getId().equals(currentDeliveryPrice.getId()) && dateChecker.areDatesOverlapping(editedDeliveryPrice, price));
 
-      if (!isPriceUnique(editedDeliveryPrice, deliveryPriceByContractor)) {
-        throw new OverlappingDatesException(
-            String.format("Delivery price for a given contractor (%s), material (%s), price type (%s) cannot overlap in time with the same entry.",
-                editedDeliveryPrice.getContractor().getName(), editedDeliveryPrice.getMaterial().getType(), editedDeliveryPrice.getPriceType()));
-      }
+    if (overlappingPrice.isPresent()) {
+      throw new OverlappingDatesException(
+          String.format("Delivery price for a given contractor (%s), material (%s), price type (%s) cannot overlap in time with the same entry.",
+              editedDeliveryPrice.getContractor().getName(), editedDeliveryPrice.getMaterial().getType(), editedDeliveryPrice.getPriceType()));
     }
   }
 
@@ -3,6 +3,7 @@ package machineRental.MR.price.delivery.controller;
 import java.time.LocalDate;
 import java.util.List;
 import javax.validation.Valid;
+import machineRental.MR.page.KeysetPage;
 import machineRental.MR.price.delivery.model.DeliveryPriceDto;
 import machineRental.MR.price.delivery.model.DoubleDeliveryPrice;
 import machineRental.MR.price.delivery.service.DeliveryPriceService;
@@ -77,6 +78,17 @@ public class DeliveryPriceController {
     return deliveryPriceService.search(contractorName, materialType, priceType, projectCode, pageable);
   }
 
+  @GetMapping("/keyset")
+  @ResponseStatus(HttpStatus.OK)
+  public KeysetPage<DeliveryPriceDto> search(@RequestParam(value = "contractorName", required = false, defaultValue = "") String contractorName,
+                            @RequestParam(value = "matrialType", required = false, defaultValue = "") String materialType,
+                            @RequestParam(value = "priceType", required = false) List<PriceType> priceType,
+                            @RequestParam(value = "projectCode", required = false, defaultValue = "") String projectCode,
+                            @RequestParam(value = "cursor", required = false) String cursor,
+                            @RequestParam(value = "size", required = false) Integer size) {
+    return deliveryPriceService.search(contractorName, materialType, priceType, projectCode, cursor, size);
+  }
+
   @GetMapping("/matchingPrice")
   @ResponseStatus(HttpStatus.OK)
   public List<DeliveryPriceDto> getPrice(
@@ -88,9 +100,9 @@ public class DeliveryPriceController {
 
   @PutMapping("/editAndSave/{id}")
   @ResponseStatus(HttpStatus.OK)
-  public void updateOnCrossChange(
+  public int updateOnCrossChange(
       @PathVariable Long id, @RequestBody @Valid DoubleDeliveryPrice doubleDeliveryPrice) {
-    deliveryPriceService.updateOnDoubleChange(id, doubleDeliveryPrice);
+    return deliveryPriceService.updateOnDoubleChange(id, doubleDeliveryPrice);
   }
 
 }
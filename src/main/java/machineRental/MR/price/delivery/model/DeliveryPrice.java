@@ -11,6 +11,7 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import javax.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -29,7 +30,8 @@ import machineRental.MR.price.PriceType;
 public class DeliveryPrice extends DateCheckerObject {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.AUTO)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "delivery_prices_seq")
+  @SequenceGenerator(name = "delivery_prices_seq", sequenceName = "delivery_prices_seq", allocationSize = 50)
   private Long id;
 
   @ManyToOne
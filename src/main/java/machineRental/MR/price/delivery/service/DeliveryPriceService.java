@@ -8,27 +8,36 @@ import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.EnumSet;
-import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
+import machineRental.MR.ReadPool;
 import machineRental.MR.client.model.Client;
 import machineRental.MR.delivery.document.model.DeliveryDocument;
 import machineRental.MR.delivery.entry.model.DeliveryDocumentEntry;
 import machineRental.MR.delivery.entry.service.DeliveryDocumentEntryService;
-import machineRental.MR.excel.ExcelHelper;
+import machineRental.MR.excel.ExcelImportSaver;
+import machineRental.MR.excel.ExcelImporter;
+import machineRental.MR.excel.ExcelRow;
+import machineRental.MR.excel.ExcelRows;
 import machineRental.MR.excel.WrongDataTypeException;
 import machineRental.MR.exception.NotFoundException;
 import machineRental.MR.material.model.Material;
+import machineRental.MR.page.KeysetCursor;
+import machineRental.MR.page.KeysetPage;
 import machineRental.MR.price.delivery.DeliveryPriceChecker;
 import machineRental.MR.price.delivery.model.DeliveryPrice;
 import machineRental.MR.price.delivery.model.DeliveryPriceDto;
 import machineRental.MR.price.delivery.model.DoubleDeliveryPrice;
 import machineRental.MR.price.distance.service.DateChecker;
+import machineRental.MR.price.PriceResolver;
 import machineRental.MR.price.PriceType;
 import machineRental.MR.price.hour.exception.IncorrectDateException;
 import machineRental.MR.price.hour.exception.NothingChangedException;
 import machineRental.MR.price.hour.exception.OverlappingDatesException;
+import machineRental.MR.reports.cost.cube.CostCubeChangeTracker;
 import machineRental.MR.repository.ClientRepository;
 import machineRental.MR.repository.CostCodeRepository;
 import machineRental.MR.repository.DeliveryDocumentEntryRepository;
@@ -36,13 +45,11 @@ import machineRental.MR.repository.DeliveryPriceRepository;
 import machineRental.MR.repository.MaterialRepository;
 import org.apache.commons.lang3.EnumUtils;
 import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 @Service
@@ -63,16 +70,25 @@ public class DeliveryPriceService {
   @Autowired
   private DeliveryPriceChecker deliveryPriceChecker;
 
+  @Autowired
+  private PriceResolver priceResolver;
+
   @Autowired
   private DeliveryDocumentEntryService deliveryDocumentEntryService;
 
   @Autowired
   private DeliveryDocumentEntryRepository deliveryDocumentEntryRepository;
 
+  @Autowired
+  private CostCubeChangeTracker costCubeChangeTracker;
+
   private DateChecker dateChecker = new DateChecker();
 
   @Autowired
-  private ExcelHelper excelHelper;
+  private ExcelImporter excelImporter;
+
+  @Autowired
+  private ExcelImportSaver excelImportSaver;
 
   public List<DeliveryPrice> findAll() {
     return (List<DeliveryPrice>) deliveryPriceRepository.findAll();
@@ -82,112 +98,106 @@ public class DeliveryPriceService {
 
     List<DeliveryPrice> prices = readDataFromExcel(file);
 
-    if (isPriceUnique(file)) {
-      for (DeliveryPrice price : prices) {
-//        createPriceId(price);
-        deliveryPriceRepository.save(price);
-      }
+    if (isPriceUnique(prices)) {
+      excelImportSaver.saveInChunks(prices);
+      prices.stream().map(price -> price.getContractor().getMpk()).distinct().forEach(priceResolver::evictDeliveryPrices);
     }
   }
 
   public List<DeliveryPrice> readDataFromExcel(MultipartFile file) {
 
-    final List<DeliveryPrice> deliveryPricesFromExcelFile = new ArrayList<>();
-
-    if (excelHelper.isProperFileType(file)) {
-      Workbook workbook = excelHelper.getWorkBook(file);
-      Sheet sheet = workbook.getSheetAt(0);
-      Iterator<Row> rows = sheet.iterator();
-      rows.next();
-      while (rows.hasNext()) {
-        Row row = rows.next();
-        DeliveryPrice deliveryPrice = new DeliveryPrice();
-        if (row.getCell(0).getCellType() == Cell.CELL_TYPE_STRING) {
-          String contractorMpk = row.getCell(0).getStringCellValue();
-
-          if (!clientRepository.existsByMpk(contractorMpk)) {
-            throw new NotFoundException(String.format("Contractor with NIP \'%s\' does not exist.", contractorMpk));
-          }
-
-          Client contractor = clientRepository.findByMpk(contractorMpk);
-          deliveryPrice.setContractor(contractor);
-        } else {
-          throw new WrongDataTypeException("Wrong data type in column \'contractor NIP\'. It must be a string (text).");
-        }
+    ExcelRows rows = excelImporter.readRows(file, 0, 1, 6);
+    Map<String, Client> contractors = clientRepository.mapByMpk(rows.getStringColumnValues(0));
+    Map<String, Material> materials = materialRepository.mapByType(rows.getStringColumnValues(1));
+    Set<String> projectCodes = costCodeRepository.findExistingProjectCodes(rows.getStringColumnValues(6));
 
-        if (row.getCell(1).getCellType() == Cell.CELL_TYPE_STRING) {
-          String materialType = String.valueOf(row.getCell(1));
+    return rows.map(row -> mapRow(row, contractors, materials, projectCodes));
+  }
 
-          if (!materialRepository.existsByType(materialType)) {
-            throw new NotFoundException(String.format("Material \'%s\' does not exist.", materialType));
-          }
+  private DeliveryPrice mapRow(ExcelRow row, Map<String, Client> contractors, Map<String, Material> materials, Set<String> projectCodes) {
+    DeliveryPrice deliveryPrice = new DeliveryPrice();
+    if (row.getCellType(0) == Cell.CELL_TYPE_STRING) {
+      String contractorMpk = row.getStringCellValue(0);
 
-          Material material = materialRepository.findByType(materialType);
+      Client contractor = contractors.get(contractorMpk);
+      if (contractor == null) {
+        throw new NotFoundException(String.format("Contractor with NIP \'%s\' does not exist.", contractorMpk));
+      }
 
-          deliveryPrice.setMaterial(material);
-        } else {
-          throw new WrongDataTypeException("Wrong data type in column \'material type\'. It must be a string (text)!");
-        }
+      deliveryPrice.setContractor(contractor);
+    } else {
+      throw new WrongDataTypeException("Wrong data type in column \'contractor NIP\'. It must be a string (text).");
+    }
 
-        if (row.getCell(2).getCellType() == Cell.CELL_TYPE_STRING) {
-          String priceType = String.valueOf(row.getCell(2));
+    if (row.getCellType(1) == Cell.CELL_TYPE_STRING) {
+      String materialType = row.getStringCellValue(1);
 
-          if (!EnumUtils.isValidEnum(PriceType.class, priceType)) {
-            throw new NotFoundException(String.format("Price type \'%s\' does not exist.", priceType));
-          }
-          deliveryPrice.setPriceType(Enum.valueOf(PriceType.class, priceType));
-        } else {
-          throw new WrongDataTypeException("Wrong data type in column \'sellPrice\'. It must be a number!");
-        }
+      Material material = materials.get(materialType);
+      if (material == null) {
+        throw new NotFoundException(String.format("Material \'%s\' does not exist.", materialType));
+      }
 
-        if (row.getCell(3).getCellType() == Cell.CELL_TYPE_NUMERIC) {
-          double cellDoubleValue = row.getCell(3).getNumericCellValue();
-          BigDecimal price = BigDecimal.valueOf(cellDoubleValue);
-          deliveryPrice.setPrice(price);
-        } else {
-          throw new WrongDataTypeException("Wrong data type in column \'price\'. It must be a number!");
-        }
+      deliveryPrice.setMaterial(material);
+    } else {
+      throw new WrongDataTypeException("Wrong data type in column \'material type\'. It must be a string (text)!");
+    }
 
-        LocalDate startDate;
-        if (row.getCell(4).getCellType() == Cell.CELL_TYPE_NUMERIC) {
-          Date cellDateValue = row.getCell(4).getDateCellValue();
-          startDate = convertToLocalDateViaInstant(cellDateValue);
-          deliveryPrice.setStartDate(startDate);
-        } else {
-          throw new WrongDataTypeException("Wrong data type in column \'startDate\'. It must be a Date!");
-        }
+    if (row.getCellType(2) == Cell.CELL_TYPE_STRING) {
+      String priceType = row.getStringCellValue(2);
 
-        if (row.getCell(5).getCellType() == Cell.CELL_TYPE_NUMERIC) {
-          Date cellDateValue = row.getCell(5).getDateCellValue();
-          LocalDate endDate = convertToLocalDateViaInstant(cellDateValue);
+      if (!EnumUtils.isValidEnum(PriceType.class, priceType)) {
+        throw new NotFoundException(String.format("Price type \'%s\' does not exist.", priceType));
+      }
+      deliveryPrice.setPriceType(Enum.valueOf(PriceType.class, priceType));
+    } else {
+      throw new WrongDataTypeException("Wrong data type in column \'sellPrice\'. It must be a number!");
+    }
 
-          if (endDate.isBefore(startDate)) {
-            throw new IncorrectDateException("End date must be equal or greater than start date.");
-          }
+    if (row.getCellType(3) == Cell.CELL_TYPE_NUMERIC) {
+      double cellDoubleValue = row.getNumericCellValue(3);
+      BigDecimal price = BigDecimal.valueOf(cellDoubleValue);
+      deliveryPrice.setPrice(price);
+    } else {
+      throw new WrongDataTypeException("Wrong data type in column \'price\'. It must be a number!");
+    }
 
-          deliveryPrice.setEndDate(endDate);
-        } else {
-          throw new WrongDataTypeException("Wrong data type in column \'endDate\'. It must be a Date!");
-        }
+    LocalDate startDate;
+    if (row.getCellType(4) == Cell.CELL_TYPE_NUMERIC) {
+      Date cellDateValue = row.getDateCellValue(4);
+      startDate = convertToLocalDateViaInstant(cellDateValue);
+      deliveryPrice.setStartDate(startDate);
+    } else {
+      throw new WrongDataTypeException("Wrong data type in column \'startDate\'. It must be a Date!");
+    }
 
-        if (row.getCell(6).getCellType() == Cell.CELL_TYPE_STRING) {
-          String projectCode = row.getCell(6).getStringCellValue();
+    if (row.getCellType(5) == Cell.CELL_TYPE_NUMERIC) {
+      Date cellDateValue = row.getDateCellValue(5);
+      LocalDate endDate = convertToLocalDateViaInstant(cellDateValue);
 
-          if (!costCodeRepository.existsByProjectCode(projectCode)) {
-            throw new NotFoundException(String.format("Project code \'%s\' does not exist.", projectCode));
-          }
+      if (endDate.isBefore(startDate)) {
+        throw new IncorrectDateException("End date must be equal or greater than start date.");
+      }
 
-          deliveryPrice.setProjectCode(projectCode);
-        } else {
-          throw new WrongDataTypeException("Wrong data type in column \'project code\'. It must be a string (text).");
-        }
+      deliveryPrice.setEndDate(endDate);
+    } else {
+      throw new WrongDataTypeException("Wrong data type in column \'endDate\'. It must be a Date!");
+    }
 
-//        createPriceId(deliveryPrice);
-        deliveryPrice.setModificationDate(LocalDate.now());
-        deliveryPricesFromExcelFile.add(deliveryPrice);
+    if (row.getCellType(6) == Cell.CELL_TYPE_STRING) {
+      String projectCode = row.getStringCellValue(6);
+
+      if (!projectCodes.contains(projectCode)) {
+        throw new NotFoundException(String.format("Project code \'%s\' does not exist.", projectCode));
       }
+
+      deliveryPrice.setProjectCode(projectCode);
+    } else {
+      throw new WrongDataTypeException("Wrong data type in column \'project code\'. It must be a string (text).");
     }
-    return deliveryPricesFromExcelFile;
+
+//        createPriceId(deliveryPrice);
+    deliveryPrice.setModificationDate(LocalDate.now());
+    return deliveryPrice;
   }
 
   public LocalDate convertToLocalDateViaInstant(Date dateToConvert) {
@@ -196,11 +206,10 @@ public class DeliveryPriceService {
         .toLocalDate();
   }
 
-  private boolean isPriceUnique(MultipartFile file) {
+  private boolean isPriceUnique(List<DeliveryPrice> pricesFromExcelFile) {
 
     boolean isUnique = true;
     final List<DeliveryPrice> pricesFromDb = findAll();
-    final List<DeliveryPrice> pricesFromExcelFile = readDataFromExcel(file);
     final List<DeliveryPrice> pricesFromDbAndExcelFile = new ArrayList<>();
     pricesFromDbAndExcelFile.addAll(pricesFromDb);
     pricesFromDbAndExcelFile.addAll(pricesFromExcelFile);
@@ -272,6 +281,9 @@ public class DeliveryPriceService {
     editedDeliveryPrice.setModificationDate(LocalDate.now());
     deliveryPriceRepository.save(editedDeliveryPrice);
 
+    priceResolver.evictDeliveryPrices(dbPriceOptional.get().getContractor().getMpk());
+    priceResolver.evictDeliveryPrices(editedDeliveryPrice.getContractor().getMpk());
+
     return convertToDto(editedDeliveryPrice);
   }
 
@@ -304,6 +316,8 @@ public class DeliveryPriceService {
     return isUnique;
   }
 
+  @ReadPool
+  @Transactional(readOnly = true)
   public Page<DeliveryPriceDto> search(String contractorName, String materialType, List<PriceType> priceType, String projectCode, Pageable pageable) {
 
     Page<DeliveryPrice> deliveryPrices;
@@ -317,6 +331,25 @@ public class DeliveryPriceService {
     return deliveryPrices.map(this::convertToDto);
   }
 
+  /**
+   * Searches prices ordered by start date and id, reading page of given size after given cursor instead of skipping rows of previous pages.
+   */
+  @ReadPool
+  @Transactional(readOnly = true)
+  public KeysetPage<DeliveryPriceDto> search(String contractorName, String materialType, List<PriceType> priceType, String projectCode, String cursor, Integer size) {
+
+    if (isEmpty(priceType)) {
+      priceType = new ArrayList<>(EnumSet.allOf(PriceType.class));
+    }
+
+    KeysetCursor after = KeysetCursor.decode(cursor);
+    List<DeliveryPrice> deliveryPrices = deliveryPriceRepository.findKeysetPage(contractorName, materialType, priceType, projectCode, after.getDate(),
+        after.getLongId(), KeysetPage.limit(size));
+
+    return KeysetPage.of(deliveryPrices, size, deliveryPrice -> KeysetCursor.of(deliveryPrice.getStartDate(), deliveryPrice.getId())).map(this::convertToDto);
+  }
+
+//  not served by PriceResolver, as prices are searched by part of contractor mpk, while resolver indexes prices of a contractor by its whole mpk
   public List<DeliveryPriceDto> getMatchingPrices(String contractorMpk, LocalDate date) {
     List<DeliveryPrice> result = new ArrayList<>();
 
@@ -333,16 +366,12 @@ public class DeliveryPriceService {
     return result.stream().map(this::convertToDto).collect(Collectors.toList());
   }
 
-  public boolean isPriceMatching(LocalDate date, DeliveryPrice newPrice, DeliveryPrice price) {
-    return newPrice.getContractor().equals(price.getContractor())
-        && newPrice.getMaterial().equals(price.getMaterial())
-        && newPrice.getPriceType() == price.getPriceType()
-        && newPrice.getProjectCode().equals(price.getProjectCode())
-        && (date.isAfter(price.getStartDate()) || date.isEqual(price.getStartDate()))
-        && (date.isBefore(price.getEndDate()) || date.isEqual(price.getEndDate()));
-  }
-
-  public void updateOnDoubleChange(Long id, DoubleDeliveryPrice doubleDeliveryPrice) {
+  /**
+   * Splits price into edited price (keeping id) and new price. Entries dated within new price are moved to it with a single update.
+   * @return Number of entries moved to new price.
+   */
+  @Transactional
+  public int updateOnDoubleChange(Long id, DoubleDeliveryPrice doubleDeliveryPrice) {
 
     DeliveryPrice editedDeliveryPrice = doubleDeliveryPrice.getEditedDeliveryPrice();
     DeliveryPrice newDeliveryPrice = doubleDeliveryPrice.getNewDeliveryPrice();
@@ -365,86 +394,75 @@ public class DeliveryPriceService {
       throw new OverlappingDatesException("Dates cannot overlap in time.");
     }
 
-    List<DeliveryDocumentEntry> deliveryDocumentEntries = deliveryDocumentEntryService.getDeliveryDocumentEntriesByDeliveryPrice(id);
     Client newDeliveryPriceContractor = newDeliveryPrice.getContractor();
-    List<DeliveryPrice> allDeliveryPricesByContractor = deliveryPriceRepository.findAllByContractor(newDeliveryPriceContractor);
-
-    for (DeliveryDocumentEntry deliveryDocumentEntry : deliveryDocumentEntries) {
-      DeliveryDocument deliveryDocument = deliveryDocumentEntry.getDeliveryDocument();
-      LocalDate date = deliveryDocument.getDate();
-
-
-      if (dateChecker.isDateMatching(date, editedDeliveryPrice)) {
-        for (DeliveryPrice dbDelievryPrice : allDeliveryPricesByContractor) {
 
-          if (dbPrice == dbDelievryPrice) {
-            continue;
-          }
+//    every entry using the price has to fall into dates of either edited or new price
+    long editedDeliveryPriceEntriesCount = deliveryDocumentEntryRepository
+        .countByDeliveryPrice_IdAndDeliveryDocument_DateBetween(id, editedDeliveryPrice.getStartDate(), editedDeliveryPrice.getEndDate());
+    long newDeliveryPriceEntriesCount = deliveryDocumentEntryRepository
+        .countByDeliveryPrice_IdAndDeliveryDocument_DateBetween(id, newDeliveryPrice.getStartDate(), newDeliveryPrice.getEndDate());
 
-          if (!deliveryPriceChecker.isPriceUnique(editedDeliveryPrice, dbDelievryPrice)) {
-            throw new OverlappingDatesException("Edited delivery price cannot overlap in time with the same entry.");
-          }
-        }
-      } else if (dateChecker.isDateMatching(date, newDeliveryPrice)) {
-
-        for (DeliveryPrice dbDeliveryPrice : allDeliveryPricesByContractor) {
+    if (editedDeliveryPriceEntriesCount + newDeliveryPriceEntriesCount < deliveryDocumentEntryRepository.countByDeliveryPrice_Id(id)) {
+      throwNoMatchingPrice(id, editedDeliveryPrice, newDeliveryPrice);
+    }
 
-          if (dbPrice == dbDeliveryPrice) {
-            continue;
-          }
+    List<DeliveryPrice> allDeliveryPricesByContractor = deliveryPriceRepository.findAllByContractor(newDeliveryPriceContractor);
 
-          if (!deliveryPriceChecker.isPriceUnique(newDeliveryPrice, dbDeliveryPrice)) {
-            throw new OverlappingDatesException("New delivery price cannot overlap in time with the same entry.");
-          }
-        }
-      } else {
-        throw new NotFoundException(String.format("There is no delivery price matching delivery document: %s position: %s, %s, %s, %s, %s",
-            deliveryDocument.getDocumentNumber(),
-            deliveryDocumentEntry.getContractor().getMpk(),
-            deliveryDocumentEntry.getMaterial().getType(),
-            deliveryDocumentEntry.getMeasureUnit(),
-            deliveryDocumentEntry.getQuantity(),
-            deliveryDocumentEntry.getCostCode().getFullCode()));
-      }
+    if (editedDeliveryPriceEntriesCount > 0) {
+      checkDeliveryPriceUniqueness(editedDeliveryPrice, dbPrice, allDeliveryPricesByContractor, "Edited delivery price cannot overlap in time with the same entry.");
     }
 
-    Material newDeliveryPriceMaterial = newDeliveryPrice.getMaterial();
-    PriceType newDeliveryPricePriceType = newDeliveryPrice.getPriceType();
-    BigDecimal newDeliveryPricePrice = newDeliveryPrice.getPrice();
-    LocalDate newDeliveryPriceStartDate = newDeliveryPrice.getStartDate();
-    LocalDate newDeliveryPriceEndDate = newDeliveryPrice.getEndDate();
-    String newDeliveryPriceProjectCode = newDeliveryPrice.getProjectCode();
+    if (newDeliveryPriceEntriesCount > 0) {
+      checkDeliveryPriceUniqueness(newDeliveryPrice, dbPrice, allDeliveryPricesByContractor, "New delivery price cannot overlap in time with the same entry.");
+    }
 
     newDeliveryPrice.setModificationDate(LocalDate.now());
-    deliveryPriceRepository.save(newDeliveryPrice);
-
-    DeliveryPrice newDeliveryPriceFromDb = deliveryPriceRepository
-        .findByContractorAndMaterialAndPriceTypeInAndPriceAndStartDateAndEndDateAndProjectCode(
-            newDeliveryPriceContractor, newDeliveryPriceMaterial, newDeliveryPricePriceType, newDeliveryPricePrice, newDeliveryPriceStartDate, newDeliveryPriceEndDate, newDeliveryPriceProjectCode
-        );
+    DeliveryPrice newDeliveryPriceFromDb = deliveryPriceRepository.saveAndFlush(newDeliveryPrice);
 
     editedDeliveryPrice.setId(id);
     editedDeliveryPrice.setModificationDate(LocalDate.now());
-    deliveryPriceRepository.save(editedDeliveryPrice);
-    Optional<DeliveryPrice> editedDeliveryPriceFromDb = deliveryPriceRepository.findById(id);
+    deliveryPriceRepository.saveAndFlush(editedDeliveryPrice);
 
-    for (DeliveryDocumentEntry deliveryDocumentEntry : deliveryDocumentEntries) {
-      DeliveryDocument deliveryDocument = deliveryDocumentEntry.getDeliveryDocument();
-      LocalDate date = deliveryDocument.getDate();
+//    entries dated within edited price keep its id, so only entries dated within new price need to be moved
+    int movedEntriesCount = deliveryDocumentEntryRepository
+        .updateDeliveryPriceByDate(id, newDeliveryPriceFromDb, newDeliveryPrice.getStartDate(), newDeliveryPrice.getEndDate());
+//    bulk update does not fire entity events, so cost cube is told which entries were moved
+    costCubeChangeTracker.deliveryPriceChanged(newDeliveryPriceFromDb.getId());
 
-      if (dateChecker.isDateMatching(date, editedDeliveryPrice)) {
+    priceResolver.evictDeliveryPrices(dbPrice.getContractor().getMpk());
+    priceResolver.evictDeliveryPrices(newDeliveryPriceContractor.getMpk());
 
-        deliveryDocumentEntry.setDeliveryPrice(editedDeliveryPriceFromDb.get());
-        deliveryDocumentEntryRepository.save(deliveryDocumentEntry);
-      } else if (dateChecker.isDateMatching(date, newDeliveryPrice)) {
+    return movedEntriesCount;
+  }
+
+  private void checkDeliveryPriceUniqueness(DeliveryPrice checkedDeliveryPrice, DeliveryPrice dbPrice, List<DeliveryPrice> deliveryPricesByContractor, String message) {
+    for (DeliveryPrice dbDeliveryPrice : deliveryPricesByContractor) {
 
-        deliveryDocumentEntry.setDeliveryPrice(newDeliveryPriceFromDb);
-        deliveryDocumentEntryRepository.save(deliveryDocumentEntry);
-      } else {
-        return;
+      if (dbPrice == dbDeliveryPrice) {
+        continue;
+      }
+
+      if (!deliveryPriceChecker.isPriceUnique(checkedDeliveryPrice, dbDeliveryPrice)) {
+        throw new OverlappingDatesException(message);
       }
     }
+  }
 
+  private void throwNoMatchingPrice(Long id, DeliveryPrice editedDeliveryPrice, DeliveryPrice newDeliveryPrice) {
+    for (DeliveryDocumentEntry deliveryDocumentEntry : deliveryDocumentEntryService.getDeliveryDocumentEntriesByDeliveryPrice(id)) {
+      DeliveryDocument deliveryDocument = deliveryDocumentEntry.getDeliveryDocument();
+      LocalDate date = deliveryDocument.getDate();
+
+      if (!dateChecker.isDateMatching(date, editedDeliveryPrice) && !dateChecker.isDateMatching(date, newDeliveryPrice)) {
+        throw new NotFoundException(String.format("There is no delivery price matching delivery document: %s position: %s, %s, %s, %s, %s",
+            deliveryDocument.getDocumentNumber(),
+            deliveryDocumentEntry.getContractor().getMpk(),
+            deliveryDocumentEntry.getMaterial().getType(),
+            deliveryDocumentEntry.getMeasureUnit(),
+            deliveryDocumentEntry.getQuantity(),
+            deliveryDocumentEntry.getCostCode().getFullCode()));
+      }
+    }
   }
 
   public List<DeliveryPrice> getDeliveryPricesByProjectCode(String projectCode) {
@@ -462,6 +480,7 @@ public class DeliveryPriceService {
 
 // if price is not used in any road card entry it can be deleted
     deliveryPriceRepository.deleteById(id);
+    priceResolver.evictDeliveryPrices(dbDeliveryPrice.get().getContractor().getMpk());
   }
 
 }
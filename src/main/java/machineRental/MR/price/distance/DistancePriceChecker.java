@@ -2,13 +2,15 @@ package machineRental.MR.price.distance;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 import machineRental.MR.exception.NotFoundException;
 import machineRental.MR.price.PriceChecker;
+import machineRental.MR.price.PriceResolver;
+import machineRental.MR.price.PriceSnapshot;
 import machineRental.MR.price.PriceType;
 import machineRental.MR.price.distance.model.DistancePrice;
 import machineRental.MR.price.distance.service.DateChecker;
 import machineRental.MR.price.hour.exception.OverlappingDatesException;
-import machineRental.MR.repository.DistancePriceRepository;
 import machineRental.MR.repository.RoadCardEntryRepository;
 import machineRental.MR.workDocument.model.WorkDocument;
 import machineRental.MR.workDocumentEntry.WorkCode;
@@ -23,7 +25,7 @@ public class DistancePriceChecker implements PriceChecker {
   private RoadCardEntryRepository roadCardEntryRepository;
 
   @Autowired
-  private DistancePriceRepository distancePriceRepository;
+  private PriceResolver priceResolver;
 
   private DateChecker dateChecker = new DateChecker();
 
@@ -49,23 +51,26 @@ public class DistancePriceChecker implements PriceChecker {
 
   private void checkDistancePriceUniquness(DistancePrice currentDistancePrice, DistancePrice editedDistancePrice, String machineInternalId) {
     //    uniqueness of editedDistancePrice needs to be checked ony against existing hour prices for a given machine. All prices for different machines will be unique by definition.
-    List<DistancePrice> distancePricesByMachine = distancePriceRepository.findByMachineInternalIdEquals(machineInternalId);
-
-    for (DistancePrice distancePriceByMachine : distancePricesByMachine) {
-//      useless to check if current price to be edited is unique against itself
-      if (currentDistancePrice == distancePriceByMachine) {
-        continue;
-      }
+    if (!machineInternalId.equals(editedDistancePrice.getMachine().getInternalId())) {
+      return;
+    }
 
-      if (!isPriceUnique(editedDistancePrice, distancePriceByMachine)) {
-        throw new OverlappingDatesException(
-            String.format("Distance price for a given work code (%s), machine number (%s), price type (%s), distance ranges %s - %s cannot overlap in time with the same entry.",
-                editedDistancePrice.getWorkCode(),
-                editedDistancePrice.getMachine().getInternalId(),
-                editedDistancePrice.getPriceType(),
-                editedDistancePrice.getRangeMin(),
-                editedDistancePrice.getRangeMax()));
-      }
+    Optional<PriceSnapshot> overlappingPrice = priceResolver.findDistancePriceOverlapping(machineInternalId,
+        editedDistancePrice.getWorkCode(), editedDistancePrice.getPriceType(), editedDistancePrice.getProjectCode(),
+        editedDistancePrice.getStartDate(), editedDistancePrice.getEndDate(),
+//        useless to check if current price to be edited is unique against itself
+        price -> !price.getId().equals(currentDistancePrice.getId())
+            && dateChecker.areDatesOverlapping(editedDistancePrice, price)
+            && areDistanceRangesOverlapping(editedDistancePrice.getRangeMin(), editedDistancePrice.getRangeMax(), price.getRangeMin()));
+
+    if (overlappingPrice.isPresent()) {
+      throw new OverlappingDatesException(
+          String.format("Distance price for a given work code (%s), machine number (%s), price type (%s), distance ranges %s - %s cannot overlap in time with the same entry.",
+              editedDistancePrice.getWorkCode(),
+              editedDistancePrice.getMachine().getInternalId(),
+              editedDistancePrice.getPriceType(),
+              editedDistancePrice.getRangeMin(),
+              editedDistancePrice.getRangeMax()));
     }
   }
 
@@ -79,10 +84,12 @@ public class DistancePriceChecker implements PriceChecker {
   }
 
   public boolean areDistanceRangesOverlapping(DistancePrice newPrice, DistancePrice price) {
-    double newDistancePriceRangeMin = newPrice.getRangeMin();
-    double newDistancePriceRangeMax = newPrice.getRangeMax();
-    double createdDistancePriceRrangeMin = price.getRangeMin();
-    double createdDistancePriceRrangeMax = price.getRangeMin();
+    return areDistanceRangesOverlapping(newPrice.getRangeMin(), newPrice.getRangeMax(), price.getRangeMin());
+  }
+
+//  range max of created price is not used, edited range is compared with range min of created price only
+  private boolean areDistanceRangesOverlapping(double newDistancePriceRangeMin, double newDistancePriceRangeMax, double createdDistancePriceRrangeMin) {
+    double createdDistancePriceRrangeMax = createdDistancePriceRrangeMin;
 
     return newDistancePriceRangeMin >= createdDistancePriceRrangeMin && newDistancePriceRangeMin <= createdDistancePriceRrangeMax
         || newDistancePriceRangeMax <= createdDistancePriceRrangeMax && newDistancePriceRangeMax >= createdDistancePriceRrangeMin;
@@ -0,0 +1,247 @@
+package machineRental.MR.price.distance;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import machineRental.MR.price.distance.model.DistancePrice;
+import org.apache.commons.collections4.map.MultiKeyMap;
+
+/**
+ * Distance prices grouped by work code, machine, price type and project code. Prices from different groups are unique by definition, so overlap checks
+ * are done only inside a group. Inside a group prices are indexed by distance range and by dates, so only prices which can overlap with checked price
+ * are compared with it. Final decision whether two prices overlap (dates and distance ranges) is always taken by
+ * {@link DistancePriceChecker#isPriceUnique(DistancePrice, DistancePrice)}.
+ * <p>
+ * {@link DistancePriceChecker#areDistanceRangesOverlapping(DistancePrice, DistancePrice)} compares both ends of new price range with range start of
+ * the other price only, so new price can overlap only with prices whose range start equals one of its range ends. Prices are therefore kept in maps
+ * sorted by range start (and by range end, to check pairs in both directions), which makes every look up logarithmic.
+ */
+public class DistancePriceOverlapIndex {
+
+  private static final Comparator<DistancePrice> BY_START_DATE = Comparator.comparing(DistancePrice::getStartDate);
+
+  private static final Comparator<DistancePrice> BY_END_DATE = Comparator.comparing(DistancePrice::getEndDate);
+
+  private final DistancePriceChecker distancePriceChecker;
+
+  private final MultiKeyMap<Object, PriceGroup> priceGroups = new MultiKeyMap<>();
+
+  public DistancePriceOverlapIndex(DistancePriceChecker distancePriceChecker, Collection<DistancePrice> prices) {
+    this.distancePriceChecker = distancePriceChecker;
+
+    for (DistancePrice price : prices) {
+      PriceGroup priceGroup = priceGroups.get(price.getWorkCode(), price.getMachine().getInternalId(), price.getPriceType(), price.getProjectCode());
+
+      if (priceGroup == null) {
+        priceGroup = new PriceGroup();
+        priceGroups.put(price.getWorkCode(), price.getMachine().getInternalId(), price.getPriceType(), price.getProjectCode(), priceGroup);
+      }
+
+      priceGroup.add(price);
+    }
+
+    for (PriceGroup priceGroup : priceGroups.values()) {
+      priceGroup.sort();
+    }
+  }
+
+  /**
+   * Sweeps every group in start date order keeping only prices which have not ended before the currently checked one starts. Active prices are
+   * indexed by range start and range end, so checked price is compared only with active prices whose range start equals one of its range ends or
+   * whose range end equals its range start. Each pair is checked in both directions, the same way as comparing every price against every other price.
+   * @return Price overlapping with at least one other price from the index.
+   */
+  public Optional<DistancePrice> findOverlappingPrice() {
+
+    for (PriceGroup priceGroup : priceGroups.values()) {
+      ActivePrices activePrices = new ActivePrices();
+
+      for (DistancePrice checkedPrice : priceGroup.prices) {
+        activePrices.removeEndedBefore(checkedPrice.getStartDate());
+
+        for (DistancePrice activePrice : activePrices.findPricesWhichCanOverlap(checkedPrice)) {
+          if (!distancePriceChecker.isPriceUnique(activePrice, checkedPrice) || !distancePriceChecker.isPriceUnique(checkedPrice, activePrice)) {
+            return Optional.of(activePrice);
+          }
+        }
+
+        activePrices.add(checkedPrice);
+      }
+    }
+
+    return Optional.empty();
+  }
+
+  /**
+   * @param checkedPrice Price checked against prices from the index.
+   * @param excludedPriceId Id of price which should be skipped, eg. db version of edited price. May be null.
+   * @return Price from the index which checked price overlaps with.
+   */
+  public Optional<DistancePrice> findPriceOverlapping(DistancePrice checkedPrice, Long excludedPriceId) {
+
+    PriceGroup priceGroup = priceGroups.get(checkedPrice.getWorkCode(), checkedPrice.getMachine().getInternalId(), checkedPrice.getPriceType(), checkedPrice.getProjectCode());
+
+    if (priceGroup == null) {
+      return Optional.empty();
+    }
+
+    Optional<DistancePrice> overlappingPrice = findPriceOverlapping(checkedPrice, excludedPriceId, priceGroup.pricesByRangeMin.get(toKey(checkedPrice.getRangeMin())));
+    if (!overlappingPrice.isPresent() && !toKey(checkedPrice.getRangeMax()).equals(toKey(checkedPrice.getRangeMin()))) {
+      overlappingPrice = findPriceOverlapping(checkedPrice, excludedPriceId, priceGroup.pricesByRangeMin.get(toKey(checkedPrice.getRangeMax())));
+    }
+    return overlappingPrice;
+  }
+
+  private Optional<DistancePrice> findPriceOverlapping(DistancePrice checkedPrice, Long excludedPriceId, DateSortedPrices dateSortedPrices) {
+
+    if (dateSortedPrices == null) {
+      return Optional.empty();
+    }
+
+    LocalDate checkedStartDate = checkedPrice.getStartDate();
+
+//    only prices starting not later than checked price ends can overlap with it
+    for (int i = dateSortedPrices.lastIndexStartingNotAfter(checkedPrice.getEndDate()); i >= 0; i--) {
+
+//      none of remaining prices ends on or after checked price start date
+      if (dateSortedPrices.maxEndDates[i].isBefore(checkedStartDate)) {
+        break;
+      }
+
+      DistancePrice price = dateSortedPrices.prices.get(i);
+
+      if (Objects.equals(excludedPriceId, price.getId())) {
+        continue;
+      }
+
+      if (!distancePriceChecker.isPriceUnique(checkedPrice, price)) {
+        return Optional.of(price);
+      }
+    }
+
+    return Optional.empty();
+  }
+
+  /**
+   * Distance ranges are compared with ==, which does not tell 0.0 from -0.0, unlike Double keys of maps.
+   */
+  private static Double toKey(double rangeEnd) {
+    return rangeEnd == 0 ? 0.0 : rangeEnd;
+  }
+
+  private static class PriceGroup {
+
+    private final List<DistancePrice> prices = new ArrayList<>();
+
+    private final Map<Double, DateSortedPrices> pricesByRangeMin = new TreeMap<>();
+
+    private void add(DistancePrice price) {
+      prices.add(price);
+      pricesByRangeMin.computeIfAbsent(toKey(price.getRangeMin()), rangeMin -> new DateSortedPrices()).prices.add(price);
+    }
+
+    private void sort() {
+      prices.sort(BY_START_DATE);
+      pricesByRangeMin.values().forEach(DateSortedPrices::sort);
+    }
+  }
+
+  /**
+   * Prices with the same range start, sorted by start date.
+   */
+  private static class DateSortedPrices {
+
+    private final List<DistancePrice> prices = new ArrayList<>();
+
+    /**
+     * maxEndDates[i] is the latest end date of prices from 0 to i.
+     */
+    private LocalDate[] maxEndDates;
+
+    private void sort() {
+      prices.sort(BY_START_DATE);
+
+      maxEndDates = new LocalDate[prices.size()];
+      LocalDate maxEndDate = LocalDate.MIN;
+      for (int i = 0; i < prices.size(); i++) {
+        LocalDate endDate = prices.get(i).getEndDate();
+        if (endDate.isAfter(maxEndDate)) {
+          maxEndDate = endDate;
+        }
+        maxEndDates[i] = maxEndDate;
+      }
+    }
+
+    private int lastIndexStartingNotAfter(LocalDate date) {
+      int low = 0;
+      int high = prices.size() - 1;
+      int result = -1;
+
+      while (low <= high) {
+        int middle = (low + high) >>> 1;
+        if (prices.get(middle).getStartDate().isAfter(date)) {
+          high = middle - 1;
+        } else {
+          result = middle;
+          low = middle + 1;
+        }
+      }
+
+      return result;
+    }
+  }
+
+  /**
+   * Prices of a sweep which have not ended yet, by end date and by both ends of their distance ranges. All of them overlap in dates with each other,
+   * so as long as no overlap is found, every range start is held by a single price.
+   */
+  private static class ActivePrices {
+
+    private final PriorityQueue<DistancePrice> byEndDate = new PriorityQueue<>(BY_END_DATE);
+
+    private final TreeMap<Double, List<DistancePrice>> byRangeMin = new TreeMap<>();
+
+    private final TreeMap<Double, List<DistancePrice>> byRangeMax = new TreeMap<>();
+
+    private void add(DistancePrice price) {
+      byEndDate.add(price);
+      byRangeMin.computeIfAbsent(toKey(price.getRangeMin()), rangeMin -> new ArrayList<>()).add(price);
+      byRangeMax.computeIfAbsent(toKey(price.getRangeMax()), rangeMax -> new ArrayList<>()).add(price);
+    }
+
+    private void removeEndedBefore(LocalDate date) {
+      while (!byEndDate.isEmpty() && byEndDate.peek().getEndDate().isBefore(date)) {
+        DistancePrice price = byEndDate.poll();
+        remove(byRangeMin, toKey(price.getRangeMin()), price);
+        remove(byRangeMax, toKey(price.getRangeMax()), price);
+      }
+    }
+
+    private List<DistancePrice> findPricesWhichCanOverlap(DistancePrice checkedPrice) {
+      List<DistancePrice> prices = new ArrayList<>();
+      prices.addAll(byRangeMin.getOrDefault(toKey(checkedPrice.getRangeMin()), Collections.emptyList()));
+      if (!toKey(checkedPrice.getRangeMax()).equals(toKey(checkedPrice.getRangeMin()))) {
+        prices.addAll(byRangeMin.getOrDefault(toKey(checkedPrice.getRangeMax()), Collections.emptyList()));
+      }
+      prices.addAll(byRangeMax.getOrDefault(toKey(checkedPrice.getRangeMin()), Collections.emptyList()));
+      return prices;
+    }
+
+    private static void remove(TreeMap<Double, List<DistancePrice>> pricesByRangeEnd, Double rangeEnd, DistancePrice price) {
+      List<DistancePrice> prices = pricesByRangeEnd.get(rangeEnd);
+//      prices are compared by identity, equal prices may come from both data base and Excel file
+      prices.removeIf(activePrice -> activePrice == price);
+      if (prices.isEmpty()) {
+        pricesByRangeEnd.remove(rangeEnd);
+      }
+    }
+  }
+}
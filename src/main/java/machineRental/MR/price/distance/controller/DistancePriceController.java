@@ -3,6 +3,7 @@ package machineRental.MR.price.distance.controller;
 import java.time.LocalDate;
 import java.util.List;
 import javax.validation.Valid;
+import machineRental.MR.page.KeysetPage;
 import machineRental.MR.price.distance.model.DoubleDistancePrice;
 import machineRental.MR.price.distance.service.DistancePriceService;
 import machineRental.MR.price.distance.model.DistancePrice;
@@ -77,6 +78,16 @@ public class DistancePriceController {
     return distancePriceService.search(workCode, machineNumber, priceType, pageable);
   }
 
+  @GetMapping("/keyset")
+  @ResponseStatus(HttpStatus.OK)
+  public KeysetPage<DistancePrice> search(@RequestParam(value = "workCode", required = false) List<WorkCode> workCode,
+                            @RequestParam(value = "machineNumber", required = false, defaultValue = "") String machineNumber,
+                            @RequestParam(value = "priceType", required = false) List<PriceType> priceType,
+                            @RequestParam(value = "cursor", required = false) String cursor,
+                            @RequestParam(value = "size", required = false) Integer size) {
+    return distancePriceService.search(workCode, machineNumber, priceType, cursor, size);
+  }
+
   @GetMapping("/matchingPrice")
   @ResponseStatus(HttpStatus.OK)
   public List<DistancePrice> getPrice(
@@ -88,9 +99,9 @@ public class DistancePriceController {
 
   @PutMapping("/editAndSave/{id}")
   @ResponseStatus(HttpStatus.OK)
-  public void updateOnCrossChange(
+  public int updateOnCrossChange(
       @PathVariable Long id, @RequestBody @Valid DoubleDistancePrice doubleDistancePrice) {
-    distancePriceService.updateOnDoubleChange(id, doubleDistancePrice);
+    return distancePriceService.updateOnDoubleChange(id, doubleDistancePrice);
   }
 
 }
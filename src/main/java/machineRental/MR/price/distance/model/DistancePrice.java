@@ -12,6 +12,7 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import javax.persistence.Transient;
 import javax.validation.constraints.NotEmpty;
@@ -29,7 +30,8 @@ import org.springframework.web.multipart.MultipartFile;
 public class DistancePrice extends DateCheckerObject {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "distance_prices_seq")
+    @SequenceGenerator(name = "distance_prices_seq", sequenceName = "distance_prices_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "Work code is required.")
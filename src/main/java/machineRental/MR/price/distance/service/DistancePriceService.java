@@ -8,21 +8,32 @@ import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.EnumSet;
-import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import machineRental.MR.excel.ExcelHelper;
+import java.util.Set;
+import java.util.stream.Collectors;
+import machineRental.MR.ReadPool;
+import machineRental.MR.excel.ExcelImportSaver;
+import machineRental.MR.excel.ExcelImporter;
+import machineRental.MR.excel.ExcelRow;
+import machineRental.MR.excel.ExcelRows;
 import machineRental.MR.excel.WrongDataTypeException;
 import machineRental.MR.exception.NotFoundException;
 import machineRental.MR.machine.model.Machine;
+import machineRental.MR.page.KeysetCursor;
+import machineRental.MR.page.KeysetPage;
 import machineRental.MR.price.distance.DistancePriceChecker;
+import machineRental.MR.price.distance.DistancePriceOverlapIndex;
 import machineRental.MR.price.distance.exception.OverlappingDistanceRangesException;
 import machineRental.MR.price.distance.model.DistancePrice;
+import machineRental.MR.price.PriceResolver;
 import machineRental.MR.price.PriceType;
 import machineRental.MR.price.distance.model.DoubleDistancePrice;
 import machineRental.MR.price.hour.exception.IncorrectDateException;
 import machineRental.MR.price.hour.exception.NothingChangedException;
 import machineRental.MR.price.hour.exception.OverlappingDatesException;
+import machineRental.MR.reports.cost.cube.CostCubeChangeTracker;
 import machineRental.MR.repository.CostCodeRepository;
 import machineRental.MR.repository.DistancePriceRepository;
 import machineRental.MR.repository.MachineRepository;
@@ -33,13 +44,11 @@ import machineRental.MR.workDocumentEntry.model.RoadCardEntry;
 import machineRental.MR.workDocumentEntry.service.RoadCardEntryService;
 import org.apache.commons.lang3.EnumUtils;
 import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 @Service
@@ -52,17 +61,26 @@ public class DistancePriceService {
   private MachineRepository machineRepository;
 
   @Autowired
-  private ExcelHelper excelHelper;
+  private ExcelImporter excelImporter;
+
+  @Autowired
+  private ExcelImportSaver excelImportSaver;
 
   @Autowired
   private DistancePriceChecker distancePriceChecker;
 
+  @Autowired
+  private PriceResolver priceResolver;
+
   @Autowired
   private RoadCardEntryService roadCardEntryService;
 
   @Autowired
   private RoadCardEntryRepository roadCardEntryRepository;
 
+  @Autowired
+  private CostCubeChangeTracker costCubeChangeTracker;
+
   @Autowired
   private CostCodeRepository costCodeRepository;
 
@@ -76,122 +94,116 @@ public class DistancePriceService {
 
     List<DistancePrice> prices = readDataFromExcel(file);
 
-    if (isPriceUnique(file)) {
-      for (DistancePrice price : prices) {
-//        createPriceId(price);
-        distancePriceRepository.save(price);
-      }
+    if (isPriceUnique(prices)) {
+      excelImportSaver.saveInChunks(prices);
+      prices.stream().map(price -> price.getMachine().getInternalId()).distinct().forEach(priceResolver::evictDistancePrices);
     }
   }
 
   public List<DistancePrice> readDataFromExcel(MultipartFile file) {
 
-    final List<DistancePrice> distancePricesFromExcelFile = new ArrayList<>();
-
-    if (excelHelper.isProperFileType(file)) {
-      Workbook workbook = excelHelper.getWorkBook(file);
-      Sheet sheet = workbook.getSheetAt(0);
-      Iterator<Row> rows = sheet.iterator();
-      rows.next();
-      while (rows.hasNext()) {
-        Row row = rows.next();
-        DistancePrice distancePrice = new DistancePrice();
-        if (row.getCell(0).getCellType() == Cell.CELL_TYPE_STRING) {
-          String workCode = row.getCell(0).getStringCellValue();
-
-          if (!EnumUtils.isValidEnum(WorkCode.class, workCode)) {
-            throw new NotFoundException(String.format("Work code \'%s\' does not exist.", workCode));
-          }
-          distancePrice.setWorkCode(Enum.valueOf(WorkCode.class, workCode));
-        } else {
-          throw new WrongDataTypeException("Wrong data type in column \'work code\'. It must be a valid work code (eg. PS).");
-        }
-
-        if (row.getCell(1).getCellType() == Cell.CELL_TYPE_STRING) {
-          String machineInternalId = String.valueOf(row.getCell(1));
-          if (!machineRepository.existsByInternalId(machineInternalId)) {
-            throw new NotFoundException(String.format("Machine with internal ID \'%s\' does not exist.", machineInternalId));
-          }
-
-          Machine machine = machineRepository.findByInternalId(machineInternalId);
-          distancePrice.setMachine(machine);
-        } else {
-          throw new WrongDataTypeException("Wrong data type in column \'machineInternalId\'. It must be a string (text)!");
-        }
-
-        if (row.getCell(2).getCellType() == Cell.CELL_TYPE_STRING) {
-          String priceType = String.valueOf(row.getCell(2));
-
-          if (!EnumUtils.isValidEnum(PriceType.class, priceType)) {
-            throw new NotFoundException(String.format("Price type \'%s\' does not exist.", priceType));
-          }
-          distancePrice.setPriceType(Enum.valueOf(PriceType.class, priceType));
-        } else {
-          throw new WrongDataTypeException("Wrong data type in column \'priceType\'. It must be a number!");
-        }
-
-        if (row.getCell(3).getCellType() == Cell.CELL_TYPE_NUMERIC) {
-          double cellDoubleValue = row.getCell(3).getNumericCellValue();
-          BigDecimal price = BigDecimal.valueOf(cellDoubleValue);
-          distancePrice.setPrice(price);
-        } else {
-          throw new WrongDataTypeException("Wrong data type in column \'price\'. It must be a number!");
-        }
-
-        if (row.getCell(4).getCellType() == Cell.CELL_TYPE_NUMERIC) {
-          double rangeMin = row.getCell(4).getNumericCellValue();
-          distancePrice.setRangeMin(rangeMin);
-        } else {
-          throw new WrongDataTypeException("Wrong data type in column \'rangeMin\'. It must be a number!");
-        }
-
-        if (row.getCell(5).getCellType() == Cell.CELL_TYPE_NUMERIC) {
-          double rangeMax = row.getCell(5).getNumericCellValue();
-          distancePrice.setRangeMax(rangeMax);
-        } else {
-          throw new WrongDataTypeException("Wrong data type in column \'rangeMax\'. It must be a number!");
-        }
-
-        LocalDate startDate;
-        if (row.getCell(6).getCellType() == Cell.CELL_TYPE_NUMERIC) {
-          Date cellDateValue = row.getCell(6).getDateCellValue();
-          startDate = convertToLocalDateViaInstant(cellDateValue);
-          distancePrice.setStartDate(startDate);
-        } else {
-          throw new WrongDataTypeException("Wrong data type in column \'startDate\'. It must be a Date!");
-        }
-
-        if (row.getCell(7).getCellType() == Cell.CELL_TYPE_NUMERIC) {
-          Date cellDateValue = row.getCell(7).getDateCellValue();
-          LocalDate endDate = convertToLocalDateViaInstant(cellDateValue);
-
-          if (endDate.isBefore(startDate)) {
-            throw new IncorrectDateException("End date must be equal or greater than start date.");
-          }
-
-          distancePrice.setEndDate(endDate);
-        } else {
-          throw new WrongDataTypeException("Wrong data type in column \'endDate\'. It must be a Date!");
-        }
-
-        if (row.getCell(8).getCellType() == Cell.CELL_TYPE_STRING) {
-          String projectCode = row.getCell(8).getStringCellValue();
-
-          if (!costCodeRepository.existsByProjectCode(projectCode)) {
-            throw new NotFoundException(String.format("Project code \'%s\' does not exist.", projectCode));
-          }
-
-          distancePrice.setProjectCode(projectCode);
-        } else {
-          throw new WrongDataTypeException("Wrong data type in column \'project code\'. It must be a string (text).");
-        }
+    ExcelRows rows = excelImporter.readRows(file, 1, 8);
+    Map<String, Machine> machines = machineRepository.mapByInternalId(rows.getStringColumnValues(1));
+    Set<String> projectCodes = costCodeRepository.findExistingProjectCodes(rows.getStringColumnValues(8));
 
-//        createPriceId(distancePrice);
-        distancePrice.setModificationDate(LocalDate.now());
-        distancePricesFromExcelFile.add(distancePrice);
+    return rows.map(row -> mapRow(row, machines, projectCodes));
+  }
+
+  private DistancePrice mapRow(ExcelRow row, Map<String, Machine> machines, Set<String> projectCodes) {
+    DistancePrice distancePrice = new DistancePrice();
+    if (row.getCellType(0) == Cell.CELL_TYPE_STRING) {
+      String workCode = row.getStringCellValue(0);
+
+      if (!EnumUtils.isValidEnum(WorkCode.class, workCode)) {
+        throw new NotFoundException(String.format("Work code \'%s\' does not exist.", workCode));
+      }
+      distancePrice.setWorkCode(Enum.valueOf(WorkCode.class, workCode));
+    } else {
+      throw new WrongDataTypeException("Wrong data type in column \'work code\'. It must be a valid work code (eg. PS).");
+    }
+
+    if (row.getCellType(1) == Cell.CELL_TYPE_STRING) {
+      String machineInternalId = row.getStringCellValue(1);
+      Machine machine = machines.get(machineInternalId);
+      if (machine == null) {
+        throw new NotFoundException(String.format("Machine with internal ID \'%s\' does not exist.", machineInternalId));
       }
+
+      distancePrice.setMachine(machine);
+    } else {
+      throw new WrongDataTypeException("Wrong data type in column \'machineInternalId\'. It must be a string (text)!");
+    }
+
+    if (row.getCellType(2) == Cell.CELL_TYPE_STRING) {
+      String priceType = row.getStringCellValue(2);
+
+      if (!EnumUtils.isValidEnum(PriceType.class, priceType)) {
+        throw new NotFoundException(String.format("Price type \'%s\' does not exist.", priceType));
+      }
+      distancePrice.setPriceType(Enum.valueOf(PriceType.class, priceType));
+    } else {
+      throw new WrongDataTypeException("Wrong data type in column \'priceType\'. It must be a number!");
+    }
+
+    if (row.getCellType(3) == Cell.CELL_TYPE_NUMERIC) {
+      double cellDoubleValue = row.getNumericCellValue(3);
+      BigDecimal price = BigDecimal.valueOf(cellDoubleValue);
+      distancePrice.setPrice(price);
+    } else {
+      throw new WrongDataTypeException("Wrong data type in column \'price\'. It must be a number!");
     }
-    return distancePricesFromExcelFile;
+
+    if (row.getCellType(4) == Cell.CELL_TYPE_NUMERIC) {
+      double rangeMin = row.getNumericCellValue(4);
+      distancePrice.setRangeMin(rangeMin);
+    } else {
+      throw new WrongDataTypeException("Wrong data type in column \'rangeMin\'. It must be a number!");
+    }
+
+    if (row.getCellType(5) == Cell.CELL_TYPE_NUMERIC) {
+      double rangeMax = row.getNumericCellValue(5);
+      distancePrice.setRangeMax(rangeMax);
+    } else {
+      throw new WrongDataTypeException("Wrong data type in column \'rangeMax\'. It must be a number!");
+    }
+
+    LocalDate startDate;
+    if (row.getCellType(6) == Cell.CELL_TYPE_NUMERIC) {
+      Date cellDateValue = row.getDateCellValue(6);
+      startDate = convertToLocalDateViaInstant(cellDateValue);
+      distancePrice.setStartDate(startDate);
+    } else {
+      throw new WrongDataTypeException("Wrong data type in column \'startDate\'. It must be a Date!");
+    }
+
+    if (row.getCellType(7) == Cell.CELL_TYPE_NUMERIC) {
+      Date cellDateValue = row.getDateCellValue(7);
+      LocalDate endDate = convertToLocalDateViaInstant(cellDateValue);
+
+      if (endDate.isBefore(startDate)) {
+        throw new IncorrectDateException("End date must be equal or greater than start date.");
+      }
+
+      distancePrice.setEndDate(endDate);
+    } else {
+      throw new WrongDataTypeException("Wrong data type in column \'endDate\'. It must be a Date!");
+    }
+
+    if (row.getCellType(8) == Cell.CELL_TYPE_STRING) {
+      String projectCode = row.getStringCellValue(8);
+
+      if (!projectCodes.contains(projectCode)) {
+        throw new NotFoundException(String.format("Project code \'%s\' does not exist.", projectCode));
+      }
+
+      distancePrice.setProjectCode(projectCode);
+    } else {
+      throw new WrongDataTypeException("Wrong data type in column \'project code\'. It must be a string (text).");
+    }
+
+//        createPriceId(distancePrice);
+    distancePrice.setModificationDate(LocalDate.now());
+    return distancePrice;
   }
 
   public LocalDate convertToLocalDateViaInstant(Date dateToConvert) {
@@ -200,33 +212,28 @@ public class DistancePriceService {
         .toLocalDate();
   }
 
-  private boolean isPriceUnique(MultipartFile file) {
+  private boolean isPriceUnique(List<DistancePrice> pricesFromExcelFile) {
 
-    boolean isUnique = true;
-    final List<DistancePrice> pricesFromDb = findAll();
-    final List<DistancePrice> pricesFromExcelFile = readDataFromExcel(file);
+    final Set<String> machineInternalIds = pricesFromExcelFile.stream()
+        .map(price -> price.getMachine().getInternalId())
+        .collect(Collectors.toSet());
+
+//    prices for machines not present in Excel file cannot overlap with any of uploaded prices
     final List<DistancePrice> pricesFromDbAndExcelFile = new ArrayList<>();
-    pricesFromDbAndExcelFile.addAll(pricesFromDb);
+    if (!machineInternalIds.isEmpty()) {
+      pricesFromDbAndExcelFile.addAll(distancePriceRepository.findByMachineInternalIdIn(machineInternalIds));
+    }
     pricesFromDbAndExcelFile.addAll(pricesFromExcelFile);
 
-    for (DistancePrice checkedPrice : pricesFromDbAndExcelFile) {
-
-      for (DistancePrice price : pricesFromDbAndExcelFile) {
+    Optional<DistancePrice> overlappingPrice = new DistancePriceOverlapIndex(distancePriceChecker, pricesFromDbAndExcelFile).findOverlappingPrice();
 
-        if (checkedPrice == price) {
-          continue;
-        }
-
-        if (!distancePriceChecker.isPriceUnique(checkedPrice, price)) {
-          isUnique = false;
-          throw new OverlappingDatesException(String.format("Distance price for a given work code (%s), machine (%s) and price type (%s) cannot overlap in time with the same entry",
-              checkedPrice.getWorkCode().toString(), checkedPrice.getMachine().getInternalId(), checkedPrice.getPriceType().toString()));
-        }
-
-      }
+    if (overlappingPrice.isPresent()) {
+      DistancePrice checkedPrice = overlappingPrice.get();
+      throw new OverlappingDatesException(String.format("Distance price for a given work code (%s), machine (%s) and price type (%s) cannot overlap in time with the same entry",
+          checkedPrice.getWorkCode().toString(), checkedPrice.getMachine().getInternalId(), checkedPrice.getPriceType().toString()));
     }
 
-    return isUnique;
+    return true;
   }
 
   public DistancePrice update(Long id, DistancePrice editedDistancePrice) {
@@ -247,7 +254,12 @@ public class DistancePriceService {
 
     editedDistancePrice.setId(id);
     editedDistancePrice.setModificationDate(LocalDate.now());
-    return distancePriceRepository.save(editedDistancePrice);
+    DistancePrice savedDistancePrice = distancePriceRepository.save(editedDistancePrice);
+
+    priceResolver.evictDistancePrices(dbPrice.get().getMachine().getInternalId());
+    priceResolver.evictDistancePrices(editedDistancePrice.getMachine().getInternalId());
+
+    return savedDistancePrice;
   }
 
   private boolean isOnlyPriceValueDifferent(DistancePrice dbPrice, DistancePrice editedPrice) {
@@ -273,27 +285,19 @@ public class DistancePriceService {
   }
 
   private boolean isPriceUnique(Long id, DistancePrice editedPrice) {
-    boolean isUnique = true;
-    final List<DistancePrice> pricesFromDb = findAll();
-
-    for (DistancePrice dbPrice : pricesFromDb) {
-
-      if (id == dbPrice.getId()) {
-        continue;
-      }
-
-      if (!distancePriceChecker.isPriceUnique(editedPrice, dbPrice)) {
-        isUnique = false;
-        throw new OverlappingDatesException(
-            String.format("Distance price for a given work code (%s), machine number (%s), price type (%s) cannot overlap in time with the same entry.",
-                editedPrice.getWorkCode(), editedPrice.getMachine().getInternalId(), editedPrice.getPriceType().toString()));
-      }
+    final List<DistancePrice> pricesFromDb = distancePriceRepository.findByMachineInternalIdEquals(editedPrice.getMachine().getInternalId());
 
+    if (new DistancePriceOverlapIndex(distancePriceChecker, pricesFromDb).findPriceOverlapping(editedPrice, id).isPresent()) {
+      throw new OverlappingDatesException(
+          String.format("Distance price for a given work code (%s), machine number (%s), price type (%s) cannot overlap in time with the same entry.",
+              editedPrice.getWorkCode(), editedPrice.getMachine().getInternalId(), editedPrice.getPriceType().toString()));
     }
 
-    return isUnique;
+    return true;
   }
 
+  @ReadPool
+  @Transactional(readOnly = true)
   public Page<DistancePrice> search(List<WorkCode> workCode, String machineInternalId, List<PriceType> priceType, Pageable pageable) {
 
     if (isEmpty(workCode)) {
@@ -307,33 +311,37 @@ public class DistancePriceService {
     return distancePriceRepository.findByWorkCodeInAndMachineInternalIdContainingAndPriceTypeIn(workCode, machineInternalId, priceType, pageable);
   }
 
-  public List<DistancePrice> getMatchingPrices(String machineNumber, LocalDate date) {
+  /**
+   * Searches prices ordered by start date and id, reading page of given size after given cursor instead of skipping rows of previous pages.
+   */
+  @ReadPool
+  @Transactional(readOnly = true)
+  public KeysetPage<DistancePrice> search(List<WorkCode> workCode, String machineInternalId, List<PriceType> priceType, String cursor, Integer size) {
 
-    List<DistancePrice> result = new ArrayList<>();
+    if (isEmpty(workCode)) {
+      workCode = new ArrayList<>(EnumSet.allOf(WorkCode.class));
+    }
 
-    List<DistancePrice> distancePrices = distancePriceRepository.findByMachineInternalIdEquals(machineNumber);
+    if (isEmpty(priceType)) {
+      priceType = new ArrayList<>(EnumSet.allOf(PriceType.class));
+    }
 
-    for (DistancePrice price : distancePrices) {
-      if ((date.isAfter(price.getStartDate()) || date.isEqual(price.getStartDate()))
-          && (date.isBefore(price.getEndDate()) || date.isEqual(price.getEndDate()))) {
+    KeysetCursor after = KeysetCursor.decode(cursor);
+    List<DistancePrice> distancePrices = distancePriceRepository.findKeysetPage(workCode, machineInternalId, priceType, after.getDate(), after.getLongId(), KeysetPage.limit(size));
 
-        result.add(price);
-      }
-    }
-    return result;
+    return KeysetPage.of(distancePrices, size, distancePrice -> KeysetCursor.of(distancePrice.getStartDate(), distancePrice.getId()));
   }
 
-  public boolean isPriceMatching(LocalDate date, DistancePrice newPrice, DistancePrice matchingPrice, String editedMachineNumber) {
-    return newPrice.getWorkCode() == matchingPrice.getWorkCode()
-        && editedMachineNumber.equals(matchingPrice.getMachine().getInternalId())
-        && newPrice.getPriceType() == matchingPrice.getPriceType()
-        && newPrice.getProjectCode().equals(matchingPrice.getProjectCode())
-        && (date.isAfter(matchingPrice.getStartDate()) || date.isEqual(matchingPrice.getStartDate()))
-        && (date.isBefore(matchingPrice.getEndDate()) || date.isEqual(matchingPrice.getEndDate()));
+  public List<DistancePrice> getMatchingPrices(String machineNumber, LocalDate date) {
+    return priceResolver.findDistancePrices(machineNumber, date);
   }
 
-
-  public void updateOnDoubleChange(Long id, DoubleDistancePrice doubleDistancePrice) {
+  /**
+   * Splits price into edited price (keeping id) and new price. Entries matching dates and distance range of new price are moved to it with a single update.
+   * @return Number of entries moved to new price.
+   */
+  @Transactional
+  public int updateOnDoubleChange(Long id, DoubleDistancePrice doubleDistancePrice) {
 
     DistancePrice editedDistancePrice = doubleDistancePrice.getEditedDistancePrice();
     DistancePrice newDistancePrice = doubleDistancePrice.getNewDistancePrice();
@@ -360,42 +368,68 @@ public class DistancePriceService {
 //      throw new OverlappingDistanceRangesException("Distance ranges cannot overlap with each other.");
 //    }
 
-    List<RoadCardEntry> roadCardEntries = roadCardEntryService.getWorkReportEntriesByDistancePrice(id);
     String newDistancePriceMachineInternalId = newDistancePrice.getMachine().getInternalId();
+
+//    every entry using the price has to fall into dates and distance range of either edited or new price
+    long editedDistancePriceEntriesCount = roadCardEntryRepository.countByDistancePrice_IdAndWorkDocument_DateBetweenAndDistanceBetween(
+        id, editedDistancePrice.getStartDate(), editedDistancePrice.getEndDate(), editedDistancePrice.getRangeMin(), editedDistancePrice.getRangeMax());
+    long newDistancePriceEntriesCount = roadCardEntryRepository.countByDistancePrice_IdAndWorkDocument_DateBetweenAndDistanceBetween(
+        id, newDistancePrice.getStartDate(), newDistancePrice.getEndDate(), newDistancePrice.getRangeMin(), newDistancePrice.getRangeMax());
+
+    if (editedDistancePriceEntriesCount + newDistancePriceEntriesCount < roadCardEntryRepository.countByDistancePrice_Id(id)) {
+      throwNoMatchingPrice(id, editedDistancePrice, newDistancePrice);
+    }
+
     List<DistancePrice> allDistancePricesByMachineInternalId = distancePriceRepository.findAllByMachineInternalId(newDistancePriceMachineInternalId);
 
-    for (RoadCardEntry roadCardEntry : roadCardEntries) {
-      WorkDocument workDocument = roadCardEntry.getWorkDocument();
-      LocalDate date = workDocument.getDate();
+    if (editedDistancePriceEntriesCount > 0) {
+      checkDistancePriceUniqueness(editedDistancePrice, dbPrice, allDistancePricesByMachineInternalId, "Edited distance price cannot overlap in time with the same entry.");
+    }
 
-      double distance = roadCardEntry.getDistance();
+    if (newDistancePriceEntriesCount > 0) {
+      checkDistancePriceUniqueness(newDistancePrice, dbPrice, allDistancePricesByMachineInternalId, "New distance price cannot overlap in time with the same entry.");
+    }
 
+    newDistancePrice.setModificationDate(LocalDate.now());
+    DistancePrice newDistancePriceFromDb = distancePriceRepository.saveAndFlush(newDistancePrice);
 
-      if (dateChecker.isDateMatching(date, editedDistancePrice) && distancePriceChecker.isDistanceMatching(distance, editedDistancePrice)) {
+    editedDistancePrice.setId(id);
+    editedDistancePrice.setModificationDate(LocalDate.now());
+    distancePriceRepository.saveAndFlush(editedDistancePrice);
 
-        for (DistancePrice dbDistancePrice : allDistancePricesByMachineInternalId) {
+//    entries matching edited price keep its id, so only entries matching new price need to be moved
+    int movedEntriesCount = roadCardEntryRepository.updateDistancePriceByDateAndDistance(
+        id, newDistancePriceFromDb, newDistancePrice.getStartDate(), newDistancePrice.getEndDate(), newDistancePrice.getRangeMin(), newDistancePrice.getRangeMax());
+//    bulk update does not fire entity events, so cost cube is told which entries were moved
+    costCubeChangeTracker.distancePriceChanged(newDistancePriceFromDb.getId());
 
-          if (dbPrice == dbDistancePrice) {
-            continue;
-          }
+    priceResolver.evictDistancePrices(dbPrice.getMachine().getInternalId());
+    priceResolver.evictDistancePrices(newDistancePriceMachineInternalId);
 
-          if (!distancePriceChecker.isPriceUnique(editedDistancePrice, dbDistancePrice)) {
-            throw new OverlappingDatesException("Edited distance price cannot overlap in time with the same entry.");
-          }
-        }
-      } else if (dateChecker.isDateMatching(date, newDistancePrice) && distancePriceChecker.isDistanceMatching(distance, newDistancePrice)) {
+    return movedEntriesCount;
+  }
+
+  private void checkDistancePriceUniqueness(DistancePrice checkedDistancePrice, DistancePrice dbPrice, List<DistancePrice> distancePricesByMachine, String message) {
+    for (DistancePrice dbDistancePrice : distancePricesByMachine) {
+
+      if (dbPrice == dbDistancePrice) {
+        continue;
+      }
 
-        for (DistancePrice dbDistancePrice : allDistancePricesByMachineInternalId) {
+      if (!distancePriceChecker.isPriceUnique(checkedDistancePrice, dbDistancePrice)) {
+        throw new OverlappingDatesException(message);
+      }
+    }
+  }
 
-          if (dbPrice == dbDistancePrice) {
-            continue;
-          }
+  private void throwNoMatchingPrice(Long id, DistancePrice editedDistancePrice, DistancePrice newDistancePrice) {
+    for (RoadCardEntry roadCardEntry : roadCardEntryService.getWorkReportEntriesByDistancePrice(id)) {
+      WorkDocument workDocument = roadCardEntry.getWorkDocument();
+      LocalDate date = workDocument.getDate();
+      double distance = roadCardEntry.getDistance();
 
-          if (!distancePriceChecker.isPriceUnique(newDistancePrice, dbDistancePrice)) {
-            throw new OverlappingDatesException("New distance price cannot overlap in time with the same entry.");
-          }
-        }
-      } else {
+      if (!(dateChecker.isDateMatching(date, editedDistancePrice) && distancePriceChecker.isDistanceMatching(distance, editedDistancePrice))
+          && !(dateChecker.isDateMatching(date, newDistancePrice) && distancePriceChecker.isDistanceMatching(distance, newDistancePrice))) {
         throw new NotFoundException(String.format("There is no distance price matching work document: %s entry dated at %s, %s, %s, %s, %s, %s, %s, %s, %s, %s, %s, %s, %s",
             workDocument.getId(),
             date,
@@ -413,52 +447,6 @@ public class DistancePriceService {
             roadCardEntry.getAcceptingPerson().getName()));
       }
     }
-
-
-    WorkCode newDistancePriceWorkCode = newDistancePrice.getWorkCode();
-    PriceType newDistancePricePriceType = newDistancePrice.getPriceType();
-    BigDecimal newDistancePricePrice = newDistancePrice.getPrice();
-    double newDistancePriceRangeMin = newDistancePrice.getRangeMin();
-    double newDistancePriceRangeMax = newDistancePrice.getRangeMax();
-    LocalDate newDistancePriceStartDate = newDistancePrice.getStartDate();
-    LocalDate newDistancePriceEndDate = newDistancePrice.getEndDate();
-    String newDistancePriceProjectCode = newDistancePrice.getProjectCode();
-
-    newDistancePrice.setModificationDate(LocalDate.now());
-    distancePriceRepository.save(newDistancePrice);
-
-    DistancePrice newDistancePriceFromDb = distancePriceRepository
-        .findByWorkCodeInAndMachineInternalIdAndPriceTypeInAndPriceAndRangeMinAndRangeMaxAndStartDateAndEndDateAndProjectCode(
-            newDistancePriceWorkCode, newDistancePriceMachineInternalId, newDistancePricePriceType, newDistancePricePrice, newDistancePriceRangeMin, newDistancePriceRangeMax, newDistancePriceStartDate, newDistancePriceEndDate, newDistancePriceProjectCode
-        );
-
-    editedDistancePrice.setId(id);
-    editedDistancePrice.setModificationDate(LocalDate.now());
-    distancePriceRepository.save(editedDistancePrice);
-    Optional<DistancePrice> editedDistancePriceFromDb = distancePriceRepository.findById(id);
-
-
-    for (RoadCardEntry roadCardEntry : roadCardEntries) {
-      WorkDocument workDocument = roadCardEntry.getWorkDocument();
-      LocalDate date = workDocument.getDate();
-
-      double distance = roadCardEntry.getDistance();
-
-
-      if (dateChecker.isDateMatching(date, editedDistancePrice) && distancePriceChecker.isDistanceMatching(distance, editedDistancePrice)) {
-
-        roadCardEntry.setDistancePrice(editedDistancePriceFromDb.get());
-        roadCardEntryRepository.save(roadCardEntry);
-      } else if (dateChecker.isDateMatching(date, newDistancePrice) && distancePriceChecker.isDistanceMatching(distance, newDistancePrice)) {
-
-        roadCardEntry.setDistancePrice(newDistancePriceFromDb);
-        roadCardEntryRepository.save(roadCardEntry);
-      } else {
-        return;
-      }
-    }
-
-
   }
 
   private boolean areSameDates(DistancePrice editedDistancePrice, DistancePrice dbPrice) {
@@ -480,6 +468,7 @@ public class DistancePriceService {
 
 // if price is not used in any road card entry it can be deleted
     distancePriceRepository.deleteById(id);
+    priceResolver.evictDistancePrices(dbDistancePrice.get().getMachine().getInternalId());
   }
 
   public boolean isMachineUsed(Long machineId) {
@@ -2,13 +2,15 @@ package machineRental.MR.price.hour;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 import machineRental.MR.exception.NotFoundException;
 import machineRental.MR.price.PriceChecker;
+import machineRental.MR.price.PriceResolver;
+import machineRental.MR.price.PriceSnapshot;
 import machineRental.MR.price.PriceType;
 import machineRental.MR.price.distance.service.DateChecker;
 import machineRental.MR.price.hour.exception.OverlappingDatesException;
 import machineRental.MR.price.hour.model.HourPrice;
-import machineRental.MR.repository.HourPriceRepository;
 import machineRental.MR.repository.WorkReportEntryRepository;
 import machineRental.MR.workDocument.model.WorkDocument;
 import machineRental.MR.workDocumentEntry.WorkCode;
@@ -23,7 +25,7 @@ public class HourPriceChecker implements PriceChecker {
   private WorkReportEntryRepository workReportEntryRepository;
 
   @Autowired
-  private HourPriceRepository hourPriceRepository;
+  private PriceResolver priceResolver;
 
   private DateChecker dateChecker = new DateChecker();
 
@@ -49,19 +51,19 @@ public class HourPriceChecker implements PriceChecker {
 
   private void checkHourPriceUniquness(HourPrice currentHourPrice, HourPrice editedHourPrice, String machineInternalId) {
     //    uniqueness of editedHourPrice needs to be checked ony against existing hour prices for a given machine. All prices for different machines will be unique by definition.
-    List<HourPrice> hourPricesByMachine = hourPriceRepository.findByMachineInternalIdEquals(machineInternalId);
+    if (!machineInternalId.equals(editedHourPrice.getMachine().getInternalId())) {
+      return;
+    }
 
-    for (HourPrice hourPriceByMachine : hourPricesByMachine) {
-//      useless to check if current price to be edited is unique against itself
-      if (currentHourPrice == hourPriceByMachine) {
-        continue;
-      }
+    Optional<PriceSnapshot> overlappingPrice = priceResolver.findHourPriceOverlapping(machineInternalId,
+        editedHourPrice.getWorkCode(), editedHourPrice.getPriceType(), editedHourPrice.getProjectCode(), editedHourPrice.getStartDate(), editedHourPrice.getEndDate(),
+//        useless to check if current price to be edited is unique against itself
+        price -> !price.getId().equals(currentHourPrice.getId()) && dateChecker.areDatesOverlapping(editedHourPrice, price));
 
-      if (!isPriceUnique(editedHourPrice, hourPriceByMachine)) {
-        throw new OverlappingDatesException(
-            String.format("Hour price for a given work code (%s), machine number (%s), price type (%s) cannot overlap in time with the same entry.",
-                editedHourPrice.getWorkCode(), editedHourPrice.getMachine().getInternalId(), editedHourPrice.getPriceType().toString()));
-      }
+    if (overlappingPrice.isPresent()) {
+      throw new OverlappingDatesException(
+          String.format("Hour price for a given work code (%s), machine number (%s), price type (%s) cannot overlap in time with the same entry.",
+              editedHourPrice.getWorkCode(), editedHourPrice.getMachine().getInternalId(), editedHourPrice.getPriceType().toString()));
     }
   }
 
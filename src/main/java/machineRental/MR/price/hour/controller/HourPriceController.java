@@ -3,6 +3,7 @@ package machineRental.MR.price.hour.controller;
 import java.time.LocalDate;
 import java.util.List;
 import javax.validation.Valid;
+import machineRental.MR.page.KeysetPage;
 import machineRental.MR.price.PriceType;
 import machineRental.MR.price.hour.model.DoubleHourPrice;
 import machineRental.MR.price.hour.model.HourPrice;
@@ -76,6 +77,16 @@ public class HourPriceController {
     return hourPriceService.search(workCode, machineNumber, priceType, pageable);
   }
 
+  @GetMapping("/keyset")
+  @ResponseStatus(HttpStatus.OK)
+  public KeysetPage<HourPrice> search(@RequestParam(value = "workCode", required = false) List<WorkCode> workCode,
+                            @RequestParam(value = "machineNumber", required = false, defaultValue = "") String machineNumber,
+                            @RequestParam(value = "priceType", required = false) List<PriceType> priceType,
+                            @RequestParam(value = "cursor", required = false) String cursor,
+                            @RequestParam(value = "size", required = false) Integer size) {
+    return hourPriceService.search(workCode, machineNumber, priceType, cursor, size);
+  }
+
   @GetMapping("/matchingPrice")
   @ResponseStatus(HttpStatus.OK)
   public List<HourPrice> getPrice(
@@ -102,9 +113,9 @@ public class HourPriceController {
 
   @PutMapping("/editAndSave/{id}")
   @ResponseStatus(HttpStatus.OK)
-  public void updateOnCrossChange(
+  public int updateOnCrossChange(
       @PathVariable Long id, @RequestBody @Valid DoubleHourPrice doubleHourPrice) {
-    hourPriceService.updateOnDoubleChange(id, doubleHourPrice);
+    return hourPriceService.updateOnDoubleChange(id, doubleHourPrice);
   }
 
 //  @GetMapping("/{id}")
@@ -8,21 +8,30 @@ import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.EnumSet;
-import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import machineRental.MR.excel.ExcelHelper;
+import java.util.Set;
+import machineRental.MR.ReadPool;
+import machineRental.MR.excel.ExcelImportSaver;
+import machineRental.MR.excel.ExcelImporter;
+import machineRental.MR.excel.ExcelRow;
+import machineRental.MR.excel.ExcelRows;
 import machineRental.MR.excel.WrongDataTypeException;
 import machineRental.MR.exception.NotFoundException;
 import machineRental.MR.machine.model.Machine;
+import machineRental.MR.page.KeysetCursor;
+import machineRental.MR.page.KeysetPage;
 import machineRental.MR.price.hour.HourPriceChecker;
 import machineRental.MR.price.distance.service.DateChecker;
+import machineRental.MR.price.PriceResolver;
 import machineRental.MR.price.PriceType;
 import machineRental.MR.price.hour.exception.IncorrectDateException;
 import machineRental.MR.price.hour.exception.NothingChangedException;
 import machineRental.MR.price.hour.exception.OverlappingDatesException;
 import machineRental.MR.price.hour.model.DoubleHourPrice;
 import machineRental.MR.price.hour.model.HourPrice;
+import machineRental.MR.reports.cost.cube.CostCubeChangeTracker;
 import machineRental.MR.repository.CostCodeRepository;
 import machineRental.MR.repository.HourPriceRepository;
 import machineRental.MR.repository.MachineRepository;
@@ -33,13 +42,11 @@ import machineRental.MR.workDocumentEntry.model.WorkReportEntry;
 import machineRental.MR.workDocumentEntry.service.WorkReportEntryService;
 import org.apache.commons.lang3.EnumUtils;
 import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 @Service
@@ -52,17 +59,26 @@ public class HourPriceService {
   private MachineRepository machineRepository;
 
   @Autowired
-  private ExcelHelper excelHelper;
+  private ExcelImporter excelImporter;
+
+  @Autowired
+  private ExcelImportSaver excelImportSaver;
 
   @Autowired
   private HourPriceChecker hourPriceChecker;
 
+  @Autowired
+  private PriceResolver priceResolver;
+
   @Autowired
   private WorkReportEntryService workReportEntryService;
 
   @Autowired
   private WorkReportEntryRepository workReportEntryRepository;
 
+  @Autowired
+  private CostCubeChangeTracker costCubeChangeTracker;
+
   @Autowired
   private CostCodeRepository costCodeRepository;
 
@@ -76,108 +92,102 @@ public class HourPriceService {
 
     List<HourPrice> prices = readDataFromExcel(file);
 
-    if (isPriceUnique(file)) {
-      for (HourPrice price : prices) {
-//        createPriceId(price);
-        hourPriceRepository.save(price);
-      }
+    if (isPriceUnique(prices)) {
+      excelImportSaver.saveInChunks(prices);
+      prices.stream().map(price -> price.getMachine().getInternalId()).distinct().forEach(priceResolver::evictHourPrices);
     }
   }
 
   public List<HourPrice> readDataFromExcel(MultipartFile file) {
 
-    final List<HourPrice> hourPricesFromExcelFile = new ArrayList<>();
-
-    if (excelHelper.isProperFileType(file)) {
-      Workbook workbook = excelHelper.getWorkBook(file);
-      Sheet sheet = workbook.getSheetAt(0);
-      Iterator<Row> rows = sheet.iterator();
-      rows.next();
-      while (rows.hasNext()) {
-        Row row = rows.next();
-        HourPrice hourPrice = new HourPrice();
-        if (row.getCell(0).getCellType() == Cell.CELL_TYPE_STRING) {
-          String workCode = row.getCell(0).getStringCellValue();
-
-          if (!EnumUtils.isValidEnum(WorkCode.class, workCode)) {
-            throw new NotFoundException(String.format("Work code \'%s\' does not exist.", workCode));
-          }
-          hourPrice.setWorkCode(Enum.valueOf(WorkCode.class, workCode));
-        } else {
-          throw new WrongDataTypeException("Wrong data type in column \'work code\'. It must be a valid work code (eg. PS).");
-        }
+    ExcelRows rows = excelImporter.readRows(file, 1, 6);
+    Map<String, Machine> machines = machineRepository.mapByInternalId(rows.getStringColumnValues(1));
+    Set<String> projectCodes = costCodeRepository.findExistingProjectCodes(rows.getStringColumnValues(6));
 
-        if (row.getCell(1).getCellType() == Cell.CELL_TYPE_STRING) {
-          String machineInternalId = String.valueOf(row.getCell(1));
-          if (!machineRepository.existsByInternalId(machineInternalId)) {
-            throw new NotFoundException(String.format("Machine with internal ID \'%s\' does not exist.", machineInternalId));
-          }
+    return rows.map(row -> mapRow(row, machines, projectCodes));
+  }
 
-          Machine machine = machineRepository.findByInternalId(machineInternalId);
-          hourPrice.setMachine(machine);
-        } else {
-          throw new WrongDataTypeException("Wrong data type in column \'machineInternalId\'. It must be a string (text)!");
-        }
+  private HourPrice mapRow(ExcelRow row, Map<String, Machine> machines, Set<String> projectCodes) {
+    HourPrice hourPrice = new HourPrice();
+    if (row.getCellType(0) == Cell.CELL_TYPE_STRING) {
+      String workCode = row.getStringCellValue(0);
 
-        if (row.getCell(2).getCellType() == Cell.CELL_TYPE_STRING) {
-          String priceType = String.valueOf(row.getCell(2));
+      if (!EnumUtils.isValidEnum(WorkCode.class, workCode)) {
+        throw new NotFoundException(String.format("Work code \'%s\' does not exist.", workCode));
+      }
+      hourPrice.setWorkCode(Enum.valueOf(WorkCode.class, workCode));
+    } else {
+      throw new WrongDataTypeException("Wrong data type in column \'work code\'. It must be a valid work code (eg. PS).");
+    }
 
-          if (!EnumUtils.isValidEnum(PriceType.class, priceType)) {
-            throw new NotFoundException(String.format("Price type \'%s\' does not exist.", priceType));
-          }
-          hourPrice.setPriceType(Enum.valueOf(PriceType.class, priceType));
-        } else {
-          throw new WrongDataTypeException("Wrong data type in column \'priceType\'. It must be a number!");
-        }
+    if (row.getCellType(1) == Cell.CELL_TYPE_STRING) {
+      String machineInternalId = row.getStringCellValue(1);
+      Machine machine = machines.get(machineInternalId);
+      if (machine == null) {
+        throw new NotFoundException(String.format("Machine with internal ID \'%s\' does not exist.", machineInternalId));
+      }
 
-        if (row.getCell(3).getCellType() == Cell.CELL_TYPE_NUMERIC) {
-          double cellDoubleValue = row.getCell(3).getNumericCellValue();
-          BigDecimal price = BigDecimal.valueOf(cellDoubleValue);
-          hourPrice.setPrice(price);
-        } else {
-          throw new WrongDataTypeException("Wrong data type in column \'price\'. It must be a number!");
-        }
+      hourPrice.setMachine(machine);
+    } else {
+      throw new WrongDataTypeException("Wrong data type in column \'machineInternalId\'. It must be a string (text)!");
+    }
 
-        LocalDate startDate;
-        if (row.getCell(4).getCellType() == Cell.CELL_TYPE_NUMERIC) {
-          Date cellDateValue = row.getCell(4).getDateCellValue();
-          startDate = convertToLocalDateViaInstant(cellDateValue);
-          hourPrice.setStartDate(startDate);
-        } else {
-          throw new WrongDataTypeException("Wrong data type in column \'startDate\'. It must be a Date!");
-        }
+    if (row.getCellType(2) == Cell.CELL_TYPE_STRING) {
+      String priceType = row.getStringCellValue(2);
 
-        if (row.getCell(5).getCellType() == Cell.CELL_TYPE_NUMERIC) {
-          Date cellDateValue = row.getCell(5).getDateCellValue();
-          LocalDate endDate = convertToLocalDateViaInstant(cellDateValue);
+      if (!EnumUtils.isValidEnum(PriceType.class, priceType)) {
+        throw new NotFoundException(String.format("Price type \'%s\' does not exist.", priceType));
+      }
+      hourPrice.setPriceType(Enum.valueOf(PriceType.class, priceType));
+    } else {
+      throw new WrongDataTypeException("Wrong data type in column \'priceType\'. It must be a number!");
+    }
 
-          if (endDate.isBefore(startDate)) {
-            throw new IncorrectDateException("End date must be equal or greater than start date.");
-          }
+    if (row.getCellType(3) == Cell.CELL_TYPE_NUMERIC) {
+      double cellDoubleValue = row.getNumericCellValue(3);
+      BigDecimal price = BigDecimal.valueOf(cellDoubleValue);
+      hourPrice.setPrice(price);
+    } else {
+      throw new WrongDataTypeException("Wrong data type in column \'price\'. It must be a number!");
+    }
 
-          hourPrice.setEndDate(endDate);
-        } else {
-          throw new WrongDataTypeException("Wrong data type in column \'endDate\'. It must be a Date!");
-        }
+    LocalDate startDate;
+    if (row.getCellType(4) == Cell.CELL_TYPE_NUMERIC) {
+      Date cellDateValue = row.getDateCellValue(4);
+      startDate = convertToLocalDateViaInstant(cellDateValue);
+      hourPrice.setStartDate(startDate);
+    } else {
+      throw new WrongDataTypeException("Wrong data type in column \'startDate\'. It must be a Date!");
+    }
 
-        if (row.getCell(6).getCellType() == Cell.CELL_TYPE_STRING) {
-          String projectCode = row.getCell(6).getStringCellValue();
+    if (row.getCellType(5) == Cell.CELL_TYPE_NUMERIC) {
+      Date cellDateValue = row.getDateCellValue(5);
+      LocalDate endDate = convertToLocalDateViaInstant(cellDateValue);
 
-          if (!costCodeRepository.existsByProjectCode(projectCode)) {
-            throw new NotFoundException(String.format("Project code \'%s\' does not exist.", projectCode));
-          }
+      if (endDate.isBefore(startDate)) {
+        throw new IncorrectDateException("End date must be equal or greater than start date.");
+      }
 
-          hourPrice.setProjectCode(projectCode);
-        } else {
-          throw new WrongDataTypeException("Wrong data type in column \'project code\'. It must be a string (text).");
-        }
+      hourPrice.setEndDate(endDate);
+    } else {
+      throw new WrongDataTypeException("Wrong data type in column \'endDate\'. It must be a Date!");
+    }
 
-//        createPriceId(hourPrice);
-        hourPrice.setModificationDate(LocalDate.now());
-        hourPricesFromExcelFile.add(hourPrice);
+    if (row.getCellType(6) == Cell.CELL_TYPE_STRING) {
+      String projectCode = row.getStringCellValue(6);
+
+      if (!projectCodes.contains(projectCode)) {
+        throw new NotFoundException(String.format("Project code \'%s\' does not exist.", projectCode));
       }
+
+      hourPrice.setProjectCode(projectCode);
+    } else {
+      throw new WrongDataTypeException("Wrong data type in column \'project code\'. It must be a string (text).");
     }
-    return hourPricesFromExcelFile;
+
+//        createPriceId(hourPrice);
+    hourPrice.setModificationDate(LocalDate.now());
+    return hourPrice;
   }
 
   public LocalDate convertToLocalDateViaInstant(Date dateToConvert) {
@@ -186,11 +196,10 @@ public class HourPriceService {
         .toLocalDate();
   }
 
-  private boolean isPriceUnique(MultipartFile file) {
+  private boolean isPriceUnique(List<HourPrice> pricesFromExcelFile) {
 
     boolean isUnique = true;
     final List<HourPrice> pricesFromDb = findAll();
-    final List<HourPrice> pricesFromExcelFile = readDataFromExcel(file);
     final List<HourPrice> pricesFromDbAndExcelFile = new ArrayList<>();
     pricesFromDbAndExcelFile.addAll(pricesFromDb);
     pricesFromDbAndExcelFile.addAll(pricesFromExcelFile);
@@ -231,7 +240,12 @@ public class HourPriceService {
 
     editedHourPrice.setId(id);
     editedHourPrice.setModificationDate(LocalDate.now());
-    return hourPriceRepository.save(editedHourPrice);
+    HourPrice savedHourPrice = hourPriceRepository.save(editedHourPrice);
+
+    priceResolver.evictHourPrices(dbPrice.get().getMachine().getInternalId());
+    priceResolver.evictHourPrices(editedHourPrice.getMachine().getInternalId());
+
+    return savedHourPrice;
   }
 
   private boolean isOnlyPriceValueDifferent(HourPrice dbPrice, HourPrice editedPrice) {
@@ -276,6 +290,8 @@ public class HourPriceService {
     return isUnique;
   }
 
+  @ReadPool
+  @Transactional(readOnly = true)
   public Page<HourPrice> search(List<WorkCode> workCode, String machineInternalId, List<PriceType> priceType, Pageable pageable) {
 
     if (isEmpty(workCode)) {
@@ -289,31 +305,37 @@ public class HourPriceService {
     return hourPriceRepository.findByWorkCodeInAndMachineInternalIdContainingAndPriceTypeIn(workCode, machineInternalId, priceType, pageable);
   }
 
-  public List<HourPrice> getMatchingPrices(String machineNumber, LocalDate date) {
-    List<HourPrice> result = new ArrayList<>();
-
-    List<HourPrice> hourPrices = hourPriceRepository.findByMachineInternalIdEquals(machineNumber);
+  /**
+   * Searches prices ordered by start date and id, reading page of given size after given cursor instead of skipping rows of previous pages.
+   */
+  @ReadPool
+  @Transactional(readOnly = true)
+  public KeysetPage<HourPrice> search(List<WorkCode> workCode, String machineInternalId, List<PriceType> priceType, String cursor, Integer size) {
 
-    for (HourPrice price : hourPrices) {
-      if ((date.isAfter(price.getStartDate()) || date.isEqual(price.getStartDate()))
-          && (date.isBefore(price.getEndDate()) || date.isEqual(price.getEndDate()))) {
+    if (isEmpty(workCode)) {
+      workCode = new ArrayList<>(EnumSet.allOf(WorkCode.class));
+    }
 
-       result.add(price);
-      }
+    if (isEmpty(priceType)) {
+      priceType = new ArrayList<>(EnumSet.allOf(PriceType.class));
     }
-    return result;
+
+    KeysetCursor after = KeysetCursor.decode(cursor);
+    List<HourPrice> hourPrices = hourPriceRepository.findKeysetPage(workCode, machineInternalId, priceType, after.getDate(), after.getLongId(), KeysetPage.limit(size));
+
+    return KeysetPage.of(hourPrices, size, hourPrice -> KeysetCursor.of(hourPrice.getStartDate(), hourPrice.getId()));
   }
 
-  public boolean isPriceMatching(LocalDate date, HourPrice hourPrice, HourPrice matchingPrice, String editedMachineNumber) {
-    return hourPrice.getWorkCode() == matchingPrice.getWorkCode()
-        && editedMachineNumber.equals(matchingPrice.getMachine().getInternalId())
-        && hourPrice.getPriceType() == matchingPrice.getPriceType()
-        && hourPrice.getProjectCode().equals(matchingPrice.getProjectCode())
-        && (date.isAfter(matchingPrice.getStartDate()) || date.isEqual(matchingPrice.getStartDate()))
-        && (date.isBefore(matchingPrice.getEndDate()) || date.isEqual(matchingPrice.getEndDate()));
+  public List<HourPrice> getMatchingPrices(String machineNumber, LocalDate date) {
+    return priceResolver.findHourPrices(machineNumber, date);
   }
 
-  public void updateOnDoubleChange(Long id, DoubleHourPrice doubleHourPrice) {
+  /**
+   * Splits price into edited price (keeping id) and new price. Entries dated within new price are moved to it with a single update.
+   * @return Number of entries moved to new price.
+   */
+  @Transactional
+  public int updateOnDoubleChange(Long id, DoubleHourPrice doubleHourPrice) {
 
     HourPrice editedHourPrice = doubleHourPrice.getEditedHourPrice();
     HourPrice newHourPrice = doubleHourPrice.getNewHourPrice();
@@ -336,39 +358,65 @@ public class HourPriceService {
       throw new OverlappingDatesException("Dates cannot overlap in time.");
     }
 
-    List<WorkReportEntry> workReportEntries = workReportEntryService.getWorkReportEntriesByHourPrice(id);
     String newHourPriceMachineInternalId = newHourPrice.getMachine().getInternalId();
+
+//    every entry using the price has to fall into dates of either edited or new price
+    long editedHourPriceEntriesCount = workReportEntryRepository
+        .countByHourPrice_IdAndWorkDocument_DateBetween(id, editedHourPrice.getStartDate(), editedHourPrice.getEndDate());
+    long newHourPriceEntriesCount = workReportEntryRepository
+        .countByHourPrice_IdAndWorkDocument_DateBetween(id, newHourPrice.getStartDate(), newHourPrice.getEndDate());
+
+    if (editedHourPriceEntriesCount + newHourPriceEntriesCount < workReportEntryRepository.countByHourPrice_Id(id)) {
+      throwNoMatchingPrice(id, editedHourPrice, newHourPrice);
+    }
+
     List<HourPrice> allHourPricesByMachineInternalId = hourPriceRepository.findByMachineInternalIdEquals(newHourPriceMachineInternalId);
 
-    for (WorkReportEntry workReportEntry : workReportEntries) {
-      WorkDocument workDocument = workReportEntry.getWorkDocument();
-      LocalDate date = workDocument.getDate();
+    if (editedHourPriceEntriesCount > 0) {
+      checkHourPriceUniqueness(editedHourPrice, dbPrice, allHourPricesByMachineInternalId, "Edited hour price cannot overlap in time with the same entry.");
+    }
 
-      if (dateChecker.isDateMatching(date, editedHourPrice)) {
-        for (HourPrice dbHourPrice : allHourPricesByMachineInternalId) {
+    if (newHourPriceEntriesCount > 0) {
+      checkHourPriceUniqueness(newHourPrice, dbPrice, allHourPricesByMachineInternalId, "New hour price cannot overlap in time with the same entry.");
+    }
 
-          if (dbPrice == dbHourPrice) {
-            continue;
-          }
+    newHourPrice.setModificationDate(LocalDate.now());
+    HourPrice newHourPriceFromDb = hourPriceRepository.saveAndFlush(newHourPrice);
 
-          if (!hourPriceChecker.isPriceUnique(editedHourPrice, dbHourPrice)) {
-            throw new OverlappingDatesException("Edited hour price cannot overlap in time with the same entry.");
-          }
-        }
-      } else if (dateChecker.isDateMatching(date, newHourPrice)) {
+    editedHourPrice.setId(id);
+    editedHourPrice.setModificationDate(LocalDate.now());
+    hourPriceRepository.saveAndFlush(editedHourPrice);
 
+//    entries dated within edited price keep its id, so only entries dated within new price need to be moved
+    int movedEntriesCount = workReportEntryRepository.updateHourPriceByDate(id, newHourPriceFromDb, newHourPrice.getStartDate(), newHourPrice.getEndDate());
+//    bulk update does not fire entity events, so cost cube is told which entries were moved
+    costCubeChangeTracker.hourPriceChanged(newHourPriceFromDb.getId());
 
-        for (HourPrice dbHourPrice : allHourPricesByMachineInternalId) {
+    priceResolver.evictHourPrices(dbPrice.getMachine().getInternalId());
+    priceResolver.evictHourPrices(newHourPriceMachineInternalId);
 
-          if (dbPrice == dbHourPrice) {
-            continue;
-          }
+    return movedEntriesCount;
+  }
 
-          if (!hourPriceChecker.isPriceUnique(newHourPrice, dbHourPrice)) {
-            throw new OverlappingDatesException("New hour price cannot overlap in time with the same entry.");
-          }
-        }
-      } else {
+  private void checkHourPriceUniqueness(HourPrice checkedHourPrice, HourPrice dbPrice, List<HourPrice> hourPricesByMachine, String message) {
+    for (HourPrice dbHourPrice : hourPricesByMachine) {
+
+      if (dbPrice == dbHourPrice) {
+        continue;
+      }
+
+      if (!hourPriceChecker.isPriceUnique(checkedHourPrice, dbHourPrice)) {
+        throw new OverlappingDatesException(message);
+      }
+    }
+  }
+
+  private void throwNoMatchingPrice(Long id, HourPrice editedHourPrice, HourPrice newHourPrice) {
+    for (WorkReportEntry workReportEntry : workReportEntryService.getWorkReportEntriesByHourPrice(id)) {
+      WorkDocument workDocument = workReportEntry.getWorkDocument();
+      LocalDate date = workDocument.getDate();
+
+      if (!dateChecker.isDateMatching(date, editedHourPrice) && !dateChecker.isDateMatching(date, newHourPrice)) {
         throw new NotFoundException(String.format("There is no hour price matching work document: %s entry dated at %s, %s, %s, %s, %s, %s, %s, %s, %s, %s",
             workDocument.getId(),
             date,
@@ -383,47 +431,6 @@ public class HourPriceService {
             workReportEntry.getAcceptingPerson().getName()));
       }
     }
-
-
-    WorkCode newHourPriceWorkCode = newHourPrice.getWorkCode();
-    PriceType newHourPricePriceType = newHourPrice.getPriceType();
-    BigDecimal newHourPricePrice = newHourPrice.getPrice();
-    LocalDate newHourPriceStartDate = newHourPrice.getStartDate();
-    LocalDate newHourPriceEndDate = newHourPrice.getEndDate();
-    String newHourPriceProjectCode = newHourPrice.getProjectCode();
-
-    newHourPrice.setModificationDate(LocalDate.now());
-    hourPriceRepository.save(newHourPrice);
-
-    HourPrice newHourPriceFromDb = hourPriceRepository
-        .findByWorkCodeInAndMachineInternalIdAndPriceTypeInAndPriceAndStartDateAndEndDateAndProjectCode(
-            newHourPriceWorkCode, newHourPriceMachineInternalId, newHourPricePriceType, newHourPricePrice, newHourPriceStartDate, newHourPriceEndDate, newHourPriceProjectCode
-        );
-
-
-    editedHourPrice.setId(id);
-    editedHourPrice.setModificationDate(LocalDate.now());
-    hourPriceRepository.save(editedHourPrice);
-    Optional<HourPrice> editedHourPriceFromDb = hourPriceRepository.findById(id);
-
-    for (WorkReportEntry workReportEntry : workReportEntries) {
-      WorkDocument workDocument = workReportEntry.getWorkDocument();
-      LocalDate date = workDocument.getDate();
-
-      if (dateChecker.isDateMatching(date, editedHourPrice)) {
-
-        workReportEntry.setHourPrice(editedHourPriceFromDb.get());
-        workReportEntryRepository.save(workReportEntry);
-      } else if (dateChecker.isDateMatching(date, newHourPrice)) {
-
-        workReportEntry.setHourPrice(newHourPriceFromDb);
-        workReportEntryRepository.save(workReportEntry);
-      } else {
-        return;
-      }
-    }
-
-
   }
 
   public List<HourPrice> getHourPricesByProjectCode(String projectCode) {
@@ -441,6 +448,7 @@ public class HourPriceService {
 
 // if price is not used in any work report entry it can be deleted
     hourPriceRepository.deleteById(id);
+    priceResolver.evictHourPrices(dbHourPrice.get().getMachine().getInternalId());
   }
 
   public boolean isMachineUsed(Long machineId) {
@@ -3,7 +3,11 @@ package machineRental.MR.price.rental.service;
 import java.time.LocalDate;
 import java.util.HashSet;
 import java.util.Set;
-import machineRental.MR.excel.ExcelHelper;
+import java.util.stream.Collectors;
+import machineRental.MR.ReadPool;
+import machineRental.MR.excel.ExcelImportSaver;
+import machineRental.MR.excel.ExcelImporter;
+import machineRental.MR.excel.ExcelRow;
 import machineRental.MR.price.rental.exception.NotUniquePriceYearAndMachineId;
 import machineRental.MR.excel.WrongDataTypeException;
 import org.springframework.data.domain.Pageable;
@@ -15,20 +19,16 @@ import machineRental.MR.repository.MachineRepository;
 import machineRental.MR.repository.OrderRepository;
 import machineRental.MR.repository.RentalPriceRepository;
 import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.multipart.MultipartFile;
 
-import javax.transaction.Transactional;
 import java.math.BigDecimal;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 
@@ -46,7 +46,10 @@ public class RentalPriceService {
   private OrderRepository orderRepository;
 
   @Autowired
-  private ExcelHelper excelHelper;
+  private ExcelImporter excelImporter;
+
+  @Autowired
+  private ExcelImportSaver excelImportSaver;
 
   public List<RentalPrice> findAll() {
     return (List<RentalPrice>) rentalPriceRepository.findAll();
@@ -54,97 +57,91 @@ public class RentalPriceService {
 
   public List<RentalPrice> readDataFromExcel(MultipartFile file) {
 
-    final List<RentalPrice> pricesFromExcelFile = new ArrayList<>();
-
-    if (excelHelper.isProperFileType(file)) {
-      Workbook workbook = excelHelper.getWorkBook(file);
-      Sheet sheet = workbook.getSheetAt(0);
-      Iterator<Row> rows = sheet.iterator();
-      rows.next();
-      while (rows.hasNext()) {
-        Row row = rows.next();
-        RentalPrice rentalPrice = new RentalPrice();
-        if (row.getCell(0).getCellType() == Cell.CELL_TYPE_NUMERIC && row.getCell(0).getNumericCellValue() > 1900 && row.getCell(0).getNumericCellValue() < 2100) {
-          double cellDoubleValue = row.getCell(0).getNumericCellValue();
-          String cellStringFromDouble = String.valueOf(cellDoubleValue);
-          String properStringFormat = cellStringFromDouble.substring(0, cellStringFromDouble.length() - 2);
-          Integer cellInteger = Integer.parseInt(properStringFormat);
-          rentalPrice.setYear(cellInteger);
-        } else {
-          throw new WrongDataTypeException("Wrong data type in column \'year\'. It must be a number between 1900 and 2100.");
-        }
-
-        if (row.getCell(1).getCellType() == Cell.CELL_TYPE_STRING) {
-          String cellValue = String.valueOf(row.getCell(1));
-          rentalPrice.setPriceType(cellValue);
-        } else {
-          throw new WrongDataTypeException("Wrong data type in column \'priceType\'. It must be a string (text)!");
-        }
-
-        if (row.getCell(2).getCellType() == Cell.CELL_TYPE_NUMERIC) {
-          double cellDoubleValue = row.getCell(2).getNumericCellValue();
-          BigDecimal cellBigDecimal = BigDecimal.valueOf(cellDoubleValue);
-          rentalPrice.setPrice(cellBigDecimal);
-        } else {
-          throw new WrongDataTypeException("Wrong data type in column \'price\'. It must be a number!");
-        }
-
-//        if (row.getCell(2).getCellType() == Cell.CELL_TYPE_NUMERIC) {
-//          double cellDoubleValue = row.getCell(2).getNumericCellValue();
+    final Set<Long> machineIds = new HashSet<>();
+    excelImporter.readRows(file, row -> row, row -> {
+      if (row.getCellType(3) == Cell.CELL_TYPE_NUMERIC) {
+        machineIds.add(getMachineId(row));
+      }
+    });
+
+    final Set<Long> dbMachineIds = machineRepository.findAllById(machineIds).stream()
+        .map(Machine::getId)
+        .collect(Collectors.toSet());
+
+    return excelImporter.readRows(file, row -> mapRow(row, dbMachineIds));
+  }
+
+  private RentalPrice mapRow(ExcelRow row, Set<Long> dbMachineIds) {
+    RentalPrice rentalPrice = new RentalPrice();
+    if (row.getCellType(0) == Cell.CELL_TYPE_NUMERIC && row.getNumericCellValue(0) > 1900 && row.getNumericCellValue(0) < 2100) {
+      double cellDoubleValue = row.getNumericCellValue(0);
+      String cellStringFromDouble = String.valueOf(cellDoubleValue);
+      String properStringFormat = cellStringFromDouble.substring(0, cellStringFromDouble.length() - 2);
+      Integer cellInteger = Integer.parseInt(properStringFormat);
+      rentalPrice.setYear(cellInteger);
+    } else {
+      throw new WrongDataTypeException("Wrong data type in column \'year\'. It must be a number between 1900 and 2100.");
+    }
+
+    if (row.getCellType(1) == Cell.CELL_TYPE_STRING) {
+      String cellValue = row.getStringCellValue(1);
+      rentalPrice.setPriceType(cellValue);
+    } else {
+      throw new WrongDataTypeException("Wrong data type in column \'priceType\'. It must be a string (text)!");
+    }
+
+    if (row.getCellType(2) == Cell.CELL_TYPE_NUMERIC) {
+      double cellDoubleValue = row.getNumericCellValue(2);
+      BigDecimal cellBigDecimal = BigDecimal.valueOf(cellDoubleValue);
+      rentalPrice.setPrice(cellBigDecimal);
+    } else {
+      throw new WrongDataTypeException("Wrong data type in column \'price\'. It must be a number!");
+    }
+
+//        if (row.getCellType(2) == Cell.CELL_TYPE_NUMERIC) {
+//          double cellDoubleValue = row.getNumericCellValue(2);
 //          BigDecimal cellBigDecimal = BigDecimal.valueOf(cellDoubleValue);
 //          sellPrice.setPriceFor7Days(cellBigDecimal);
 //        } else {
 //          throw new WrongDataTypeException("Wrong data type in column \'priceFor7Days\'. It must be a number!");
 //        }
 
-//        if (row.getCell(3).getCellType() == Cell.CELL_TYPE_NUMERIC) {
-//          double cellDoubleValue = row.getCell(3).getNumericCellValue();
+//        if (row.getCellType(3) == Cell.CELL_TYPE_NUMERIC) {
+//          double cellDoubleValue = row.getNumericCellValue(3);
 //          BigDecimal cellBigDecimal = BigDecimal.valueOf(cellDoubleValue);
 //          sellPrice.setPriceFor30Days(cellBigDecimal);
 //        } else {
 //          throw new WrongDataTypeException("Wrong data type in column \'priceFor30Days\'. It must be a number!");
 //        }
 
-        if (row.getCell(3).getCellType() == Cell.CELL_TYPE_NUMERIC) {
-          double cellDoubleValue = row.getCell(3).getNumericCellValue();
-          String cellString = String.valueOf(cellDoubleValue);
-          String properStringFormat = cellString.substring(0, cellString.length() - 2);
-          Long cellLong = Long.valueOf(properStringFormat);
-          if (isMachinePresentInDb(cellLong)) {
-            Machine machine = new Machine();
-            machine.setId(cellLong);
-            rentalPrice.setMachine(machine);
-          } else {
-            throw new NotFoundException(String.format("Machine with id \'%s\' doesn`t exist. File not uploaded to data base.", cellLong));
-          }
-        } else {
-          throw new WrongDataTypeException("Wrong data type in column \'machineId\'. It must be a number!");
-        }
-
-        createPriceId(rentalPrice);
-        pricesFromExcelFile.add(rentalPrice);
+    if (row.getCellType(3) == Cell.CELL_TYPE_NUMERIC) {
+      Long cellLong = getMachineId(row);
+      if (dbMachineIds.contains(cellLong)) {
+        Machine machine = new Machine();
+        machine.setId(cellLong);
+        rentalPrice.setMachine(machine);
+      } else {
+        throw new NotFoundException(String.format("Machine with id \'%s\' doesn`t exist. File not uploaded to data base.", cellLong));
       }
+    } else {
+      throw new WrongDataTypeException("Wrong data type in column \'machineId\'. It must be a number!");
     }
-    return pricesFromExcelFile;
-  }
 
-  private boolean isMachinePresentInDb(Long machineId) {
-    boolean isMachineInDb = false;
-    Optional<Machine> dbMachine = machineRepository.findById(machineId);
+    createPriceId(rentalPrice);
+    return rentalPrice;
+  }
 
-    if (dbMachine.isPresent()) {
-      isMachineInDb = true;
-    } else {
-      isMachineInDb = false;
-    }
-    return isMachineInDb;
+  private Long getMachineId(ExcelRow row) {
+    double cellDoubleValue = row.getNumericCellValue(3);
+    String cellString = String.valueOf(cellDoubleValue);
+    String properStringFormat = cellString.substring(0, cellString.length() - 2);
+    return Long.valueOf(properStringFormat);
   }
 
-  private boolean isPriceUnique(MultipartFile file) {
+  private boolean isPriceUnique(List<RentalPrice> pricesFromExcelFile) {
 
     boolean isUnique = false;
     final List<RentalPrice> pricesFromDb = findAll();
-    final List<RentalPrice> pricesFromExcelFile = readDataFromExcel(file);
     final List<RentalPrice> pricesFromDbAndExcelFile = new ArrayList<>();
     pricesFromDbAndExcelFile.addAll(pricesFromDb);
     pricesFromDbAndExcelFile.addAll(pricesFromExcelFile);
@@ -186,11 +183,8 @@ public class RentalPriceService {
 
     List<RentalPrice> rentalPrices = readDataFromExcel(file);
 
-    if (isPriceUnique(file)) {
-      for (RentalPrice rentalPrice : rentalPrices) {
-        createPriceId(rentalPrice);
-        rentalPriceRepository.save(rentalPrice);
-      }
+    if (isPriceUnique(rentalPrices)) {
+      excelImportSaver.saveInChunks(rentalPrices);
     }
   }
 
@@ -260,6 +254,8 @@ public class RentalPriceService {
     rentalPriceRepository.deleteById(id);
   }
 
+  @ReadPool
+  @Transactional(readOnly = true)
   public Page<RentalPrice> search(Integer year, String machineInternalId, String priceType, Pageable pageable) {
     if (year == null) {
       return rentalPriceRepository.findByMachine_InternalIdContainingAndPriceTypeContaining(machineInternalId, priceType, pageable);
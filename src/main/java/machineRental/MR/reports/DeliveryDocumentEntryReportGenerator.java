@@ -1,7 +1,7 @@
 package machineRental.MR.reports;
 
 import java.time.LocalDate;
-import java.util.List;
+import java.util.stream.Stream;
 import machineRental.MR.delivery.entry.model.DeliveryDocumentEntry;
 import machineRental.MR.delivery.entry.service.DeliveryDocumentEntryService;
 import org.apache.poi.ss.usermodel.Cell;
@@ -67,59 +67,55 @@ public class DeliveryDocumentEntryReportGenerator extends ExcelReportGenerator{
   @Override
   void writeDataLines(LocalDate startDate, LocalDate endDate, Sheet sheet) {
 
-    List<DeliveryDocumentEntry> deliveryDocumentEntries = deliveryDocumentEntryService.getDeliveryDocumentEntriesBetweenDates(startDate, endDate);
-
-    int rowNumber = 1;
-
-    for (DeliveryDocumentEntry deliveryDocumentEntry : deliveryDocumentEntries) {
-      Row row = sheet.createRow(rowNumber);
-
-      Cell rowCell = row.createCell(0);
-      rowCell.setCellValue(deliveryDocumentEntry.getDeliveryDocument().getContractor().getMpk());
+    try (Stream<DeliveryDocumentEntry> deliveryDocumentEntries = deliveryDocumentEntryService.streamDeliveryDocumentEntriesBetweenDates(startDate, endDate)) {
+      writeRows(deliveryDocumentEntries, sheet, this::writeDataLine);
+    }
+  }
 
-      rowCell = row.createCell(1);
-      rowCell.setCellValue(deliveryDocumentEntry.getDeliveryDocument().getDocumentNumber());
+  private void writeDataLine(DeliveryDocumentEntry deliveryDocumentEntry, Row row) {
 
-      rowCell = row.createCell(2);
-      rowCell.setCellValue(convertToDateViaSqlDate(deliveryDocumentEntry.getDeliveryDocument().getDate()));
+    Cell rowCell = row.createCell(0);
+    rowCell.setCellValue(deliveryDocumentEntry.getDeliveryDocument().getContractor().getMpk());
 
-      rowCell = row.createCell(3);
-      rowCell.setCellValue(deliveryDocumentEntry.getContractor().getMpk());
+    rowCell = row.createCell(1);
+    rowCell.setCellValue(deliveryDocumentEntry.getDeliveryDocument().getDocumentNumber());
 
-      rowCell = row.createCell(4);
-      rowCell.setCellValue(deliveryDocumentEntry.getMaterial().getType());
+    rowCell = row.createCell(2);
+    rowCell.setCellValue(convertToDateViaSqlDate(deliveryDocumentEntry.getDeliveryDocument().getDate()));
 
-      rowCell = row.createCell(5);
-      rowCell.setCellValue(deliveryDocumentEntry.getQuantity());
+    rowCell = row.createCell(3);
+    rowCell.setCellValue(deliveryDocumentEntry.getContractor().getMpk());
 
-      rowCell = row.createCell(6);
-      rowCell.setCellValue(deliveryDocumentEntry.getMeasureUnit());
+    rowCell = row.createCell(4);
+    rowCell.setCellValue(deliveryDocumentEntry.getMaterial().getType());
 
-      rowCell = row.createCell(7);
-      rowCell.setCellValue(deliveryDocumentEntry.getDeliveryPrice().getPriceType().name());
+    rowCell = row.createCell(5);
+    rowCell.setCellValue(deliveryDocumentEntry.getQuantity());
 
-      rowCell = row.createCell(8);
-      double price = deliveryDocumentEntry.getDeliveryPrice().getPrice().doubleValue();
-      rowCell.setCellValue(price);
+    rowCell = row.createCell(6);
+    rowCell.setCellValue(deliveryDocumentEntry.getMeasureUnit());
 
-      rowCell = row.createCell(9);
-      rowCell.setCellValue(deliveryDocumentEntry.getQuantity() * price);
+    rowCell = row.createCell(7);
+    rowCell.setCellValue(deliveryDocumentEntry.getDeliveryPrice().getPriceType().name());
 
-      rowCell = row.createCell(10);
-      rowCell.setCellValue(deliveryDocumentEntry.getEstimatePosition().getName());
+    rowCell = row.createCell(8);
+    double price = deliveryDocumentEntry.getDeliveryPrice().getPrice().doubleValue();
+    rowCell.setCellValue(price);
 
-      rowCell = row.createCell(11);
-      rowCell.setCellValue(deliveryDocumentEntry.getEstimatePosition().getCostCode().getFullCode());
+    rowCell = row.createCell(9);
+    rowCell.setCellValue(deliveryDocumentEntry.getQuantity() * price);
 
-      rowCell = row.createCell(12);
-      rowCell.setCellValue(deliveryDocumentEntry.getCostCode().getFullCode());
+    rowCell = row.createCell(10);
+    rowCell.setCellValue(deliveryDocumentEntry.getEstimatePosition().getName());
 
-      rowCell = row.createCell(13);
-      rowCell.setCellValue(deliveryDocumentEntry.getInvoiceNumber());
+    rowCell = row.createCell(11);
+    rowCell.setCellValue(deliveryDocumentEntry.getEstimatePosition().getCostCode().getFullCode());
 
-      rowNumber++;
+    rowCell = row.createCell(12);
+    rowCell.setCellValue(deliveryDocumentEntry.getCostCode().getFullCode());
 
-    }
+    rowCell = row.createCell(13);
+    rowCell.setCellValue(deliveryDocumentEntry.getInvoiceNumber());
   }
 
 }
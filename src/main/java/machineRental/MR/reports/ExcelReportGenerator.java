@@ -1,35 +1,77 @@
 package machineRental.MR.reports;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.sql.Date;
 import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import machineRental.MR.ReadPool;
+import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * Writes Excel reports straight to a given output stream. Workbook is streamed (SXSSF), so only last ROW_ACCESS_WINDOW_SIZE rows are kept in memory
+ * and older ones are flushed to temporary file, and data rows are read from data base as a stream, so memory used by export does not grow with date range.
+ */
 public abstract class ExcelReportGenerator {
 
-  public ByteArrayInputStream exportExcelReport(LocalDate startDate, LocalDate endDate, String sheetName) throws IOException {
+  static final int ROW_ACCESS_WINDOW_SIZE = 100;
 
-    XSSFWorkbook workbook = new XSSFWorkbook();
-    Sheet sheet = workbook.createSheet(sheetName);
+  static final int PERSISTENCE_CONTEXT_CLEAR_INTERVAL = 1000;
 
-    writeHeaderLine(sheet);
+  @PersistenceContext
+  private EntityManager entityManager;
 
-    writeDataLines(startDate, endDate, sheet);
+  @ReadPool
+  @Transactional(readOnly = true)
+  public void exportExcelReport(LocalDate startDate, LocalDate endDate, String sheetName, OutputStream out) throws IOException {
 
-    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW_SIZE);
+    try {
+      Sheet sheet = workbook.createSheet(sheetName);
 
-    workbook.write(out);
+      writeHeaderLine(sheet);
 
-    return new ByteArrayInputStream(out.toByteArray());
+      writeDataLines(startDate, endDate, sheet);
+
+      workbook.write(out);
+    } finally {
+//      deletes temporary file with flushed rows
+      workbook.dispose();
+    }
   }
 
   abstract void writeHeaderLine(Sheet sheet);
 
   abstract void writeDataLines(LocalDate startDate, LocalDate endDate, Sheet sheet);
 
+  /**
+   * Writes every entry to its own row, starting below header row. Every written entry is detached right away, so entries are not kept in persistence
+   * context until the report is done, and the context is cleared every PERSISTENCE_CONTEXT_CLEAR_INTERVAL rows to release documents, machines etc.
+   * fetched with them.
+   */
+  <T> void writeRows(Stream<T> entries, Sheet sheet, BiConsumer<T, Row> rowWriter) {
+    int rowNumber = 1;
+
+    Iterator<T> iterator = entries.iterator();
+    while (iterator.hasNext()) {
+      T entry = iterator.next();
+      rowWriter.accept(entry, sheet.createRow(rowNumber));
+      entityManager.detach(entry);
+
+      if (rowNumber % PERSISTENCE_CONTEXT_CLEAR_INTERVAL == 0) {
+        entityManager.clear();
+      }
+      rowNumber++;
+    }
+  }
+
   Date convertToDateViaSqlDate(LocalDate dateToConvert) {
     return java.sql.Date.valueOf(dateToConvert);
   }
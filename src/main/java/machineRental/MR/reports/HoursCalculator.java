@@ -45,6 +45,15 @@ public class HoursCalculator {
     return result;
   }
 
+  /**
+   * @return Number of seconds of entry, also of entry lasting past midnight, so that costs can be calculated without rounding hours.
+   */
+  public long getNumberOfSeconds(WorkDocumentEntry workDocumentEntry) {
+    long seconds = workDocumentEntry.getEndHour().toSecondOfDay() - workDocumentEntry.getStartHour().toSecondOfDay();
+
+    return seconds < 0 ? seconds + 24 * 3600 : seconds;
+  }
+
   private double getOneDayNumberOfHours(WorkDocumentEntry workDocumentEntry) {
     return (double) Duration.between(workDocumentEntry.getStartHour(), workDocumentEntry.getEndHour()).toSeconds() / 3600;
   }
@@ -1,10 +1,7 @@
 package machineRental.MR.reports;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
 import java.time.LocalDate;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.InputStreamResource;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
@@ -12,6 +9,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/reports")
@@ -28,71 +26,50 @@ public class ReportsController {
 
 
   @GetMapping("/workReportEntriesReport")
-  public ResponseEntity<InputStreamResource> exportExcelWorkReportEntryReport(
+  public ResponseEntity<StreamingResponseBody> exportExcelWorkReportEntryReport(
       @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
       @RequestParam(name = "startDate") LocalDate startDate,
       @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
-      @RequestParam(name = "endDate") LocalDate endDate) throws IOException {
+      @RequestParam(name = "endDate") LocalDate endDate) {
 
     String sheetName = "WorkReportEntries";
 
-    try (ByteArrayInputStream in = workReportEntryReportGenerator.exportExcelReport(startDate, endDate, sheetName)) {
-      HttpHeaders headers = new HttpHeaders();
-      headers.add("Content-Disposition", "attachment; filename=workReportEntries.xlsx");
-      headers.add("Content-Type", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
-
-      return ResponseEntity
-          .ok()
-          .headers(headers)
-          .body(new InputStreamResource(in));
-    } catch (IOException ioe) {
-      throw new RuntimeException("Failed to export data to Excel file" + ioe.getMessage());
-    }
+    return createExcelReportResponse("workReportEntries.xlsx", out -> workReportEntryReportGenerator.exportExcelReport(startDate, endDate, sheetName, out));
   }
 
   @GetMapping("/roadCardEntriesReport")
-  public ResponseEntity<InputStreamResource> exportExcelRoadCardEntryReport(
+  public ResponseEntity<StreamingResponseBody> exportExcelRoadCardEntryReport(
       @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
       @RequestParam(name = "startDate") LocalDate startDate,
       @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
-      @RequestParam(name = "endDate") LocalDate endDate) throws IOException {
+      @RequestParam(name = "endDate") LocalDate endDate) {
 
     String sheetName = "RoadCardEntries";
 
-    try (ByteArrayInputStream in = roadCardEntryReportGenerator.exportExcelReport(startDate, endDate, sheetName)) {
-      HttpHeaders headers = new HttpHeaders();
-      headers.add("Content-Disposition", "attachment; filename=roadCardEntries.xlsx");
-      headers.add("Content-Type", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
-
-      return ResponseEntity
-          .ok()
-          .headers(headers)
-          .body(new InputStreamResource(in));
-    } catch (IOException ioe) {
-      throw new RuntimeException("Failed to export data to Excel file" + ioe.getMessage());
-    }
+    return createExcelReportResponse("roadCardEntries.xlsx", out -> roadCardEntryReportGenerator.exportExcelReport(startDate, endDate, sheetName, out));
   }
 
   @GetMapping("/deliveryDocumentEntriesReport")
-  public ResponseEntity<InputStreamResource> exportExcelDeliveryDocumentEntryReport(
+  public ResponseEntity<StreamingResponseBody> exportExcelDeliveryDocumentEntryReport(
       @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
       @RequestParam(name = "startDate") LocalDate startDate,
       @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
-      @RequestParam(name = "endDate") LocalDate endDate) throws IOException {
+      @RequestParam(name = "endDate") LocalDate endDate) {
 
     String sheetName = "DelivertDocumentEntries";
 
-    try (ByteArrayInputStream in = deliveryDocumentEntryReportGenerator.exportExcelReport(startDate, endDate, sheetName)) {
-      HttpHeaders headers = new HttpHeaders();
-      headers.add("Content-Disposition", "attachment; filename=deliveryDocumentEntries.xlsx");
-      headers.add("Content-Type", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
-
-      return ResponseEntity
-          .ok()
-          .headers(headers)
-          .body(new InputStreamResource(in));
-    } catch (IOException ioe) {
-      throw new RuntimeException("Failed to export data to Excel file" + ioe.getMessage());
-    }
+    return createExcelReportResponse("deliveryDocumentEntries.xlsx", out -> deliveryDocumentEntryReportGenerator.exportExcelReport(startDate, endDate, sheetName, out));
+  }
+
+//  workbook is written to response output stream by async request processing thread, after the controller method returns
+  private ResponseEntity<StreamingResponseBody> createExcelReportResponse(String fileName, StreamingResponseBody body) {
+    HttpHeaders headers = new HttpHeaders();
+    headers.add("Content-Disposition", "attachment; filename=" + fileName);
+    headers.add("Content-Type", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+    return ResponseEntity
+        .ok()
+        .headers(headers)
+        .body(body);
   }
 }
@@ -3,7 +3,7 @@ package machineRental.MR.reports;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalTime;
-import java.util.List;
+import java.util.stream.Stream;
 import machineRental.MR.workDocumentEntry.model.RoadCardEntry;
 import machineRental.MR.workDocumentEntry.model.WorkReportEntry;
 import machineRental.MR.workDocumentEntry.service.RoadCardEntryService;
@@ -105,95 +105,91 @@ public class RoadCardEntryReportGenerator extends ExcelReportGenerator{
   @Override
   void writeDataLines(LocalDate startDate, LocalDate endDate, Sheet sheet) {
 
-    List<RoadCardEntry> roadCardEntries = roadCardEntryService.getRoadCardEntriesBetweenDates(startDate, endDate);
-
-    int rowNumber = 1;
-
-    for (RoadCardEntry roadCardEntry : roadCardEntries) {
-      Row row = sheet.createRow(rowNumber);
-
-      Cell rowCell = row.createCell(0);
-      rowCell.setCellValue(roadCardEntry.getWorkDocument().getId());
+    try (Stream<RoadCardEntry> roadCardEntries = roadCardEntryService.streamRoadCardEntriesBetweenDates(startDate, endDate)) {
+      writeRows(roadCardEntries, sheet, this::writeDataLine);
+    }
+  }
 
-      rowCell = row.createCell(1);
-      rowCell.setCellValue(roadCardEntry.getWorkDocument().getDocumentType().name());
+  private void writeDataLine(RoadCardEntry roadCardEntry, Row row) {
 
-      rowCell = row.createCell(2);
-      rowCell.setCellValue(convertToDateViaSqlDate(roadCardEntry.getWorkDocument().getDate()));
+    Cell rowCell = row.createCell(0);
+    rowCell.setCellValue(roadCardEntry.getWorkDocument().getId());
 
-      rowCell = row.createCell(3);
-      rowCell.setCellValue(roadCardEntry.getWorkDocument().getMachine().getInternalId());
+    rowCell = row.createCell(1);
+    rowCell.setCellValue(roadCardEntry.getWorkDocument().getDocumentType().name());
 
-      rowCell = row.createCell(4);
-      rowCell.setCellValue(roadCardEntry.getWorkDocument().getOperator().getName());
+    rowCell = row.createCell(2);
+    rowCell.setCellValue(convertToDateViaSqlDate(roadCardEntry.getWorkDocument().getDate()));
 
-      rowCell = row.createCell(5);
-      rowCell.setCellValue(roadCardEntry.getWorkDocument().getDelegation());
+    rowCell = row.createCell(3);
+    rowCell.setCellValue(roadCardEntry.getWorkDocument().getMachine().getInternalId());
 
-      rowCell = row.createCell(6);
-      rowCell.setCellValue(roadCardEntry.getWorkDocument().getInvoiceNumber());
+    rowCell = row.createCell(4);
+    rowCell.setCellValue(roadCardEntry.getWorkDocument().getOperator().getName());
 
-      rowCell = row.createCell(7);
-      rowCell.setCellValue(roadCardEntry.getWorkCode().toString());
+    rowCell = row.createCell(5);
+    rowCell.setCellValue(roadCardEntry.getWorkDocument().getDelegation());
 
-      rowCell = row.createCell(8);
-      rowCell.setCellValue(roadCardEntry.getStartHour().toString());
+    rowCell = row.createCell(6);
+    rowCell.setCellValue(roadCardEntry.getWorkDocument().getInvoiceNumber());
 
-      rowCell = row.createCell(9);
-      rowCell.setCellValue(roadCardEntry.getEndHour().toString());
+    rowCell = row.createCell(7);
+    rowCell.setCellValue(roadCardEntry.getWorkCode().toString());
 
-//      in case of entry starting in one day and ending in the next one, number of hours must be divided into 2 days
-      double firstDayHours = hoursCalculator.getFirstDayNumberOfHours(roadCardEntry);
-      double secondDayHours = hoursCalculator.getSecondDayNumberOfHours(roadCardEntry);
+    rowCell = row.createCell(8);
+    rowCell.setCellValue(roadCardEntry.getStartHour().toString());
 
-      rowCell = row.createCell(10);
-      rowCell.setCellValue(firstDayHours);
+    rowCell = row.createCell(9);
+    rowCell.setCellValue(roadCardEntry.getEndHour().toString());
 
-      rowCell = row.createCell(11);
-      rowCell.setCellValue(secondDayHours);
+//    in case of entry starting in one day and ending in the next one, number of hours must be divided into 2 days
+    double firstDayHours = hoursCalculator.getFirstDayNumberOfHours(roadCardEntry);
+    double secondDayHours = hoursCalculator.getSecondDayNumberOfHours(roadCardEntry);
 
-      rowCell = row.createCell(12);
-      rowCell.setCellValue(roadCardEntry.getLoadingPlace());
+    rowCell = row.createCell(10);
+    rowCell.setCellValue(firstDayHours);
 
-      rowCell = row.createCell(13);
-      rowCell.setCellValue(roadCardEntry.getMaterial());
+    rowCell = row.createCell(11);
+    rowCell.setCellValue(secondDayHours);
 
-      rowCell = row.createCell(14);
-      rowCell.setCellValue(roadCardEntry.getUnloadingPlace());
+    rowCell = row.createCell(12);
+    rowCell.setCellValue(roadCardEntry.getLoadingPlace());
 
-      rowCell = row.createCell(15);
-      rowCell.setCellValue(roadCardEntry.getQuantity());
+    rowCell = row.createCell(13);
+    rowCell.setCellValue(roadCardEntry.getMaterial());
 
-      rowCell = row.createCell(16);
-      rowCell.setCellValue(roadCardEntry.getMeasureUnit());
+    rowCell = row.createCell(14);
+    rowCell.setCellValue(roadCardEntry.getUnloadingPlace());
 
-      rowCell = row.createCell(17);
-      rowCell.setCellValue(roadCardEntry.getRunsNumber());
+    rowCell = row.createCell(15);
+    rowCell.setCellValue(roadCardEntry.getQuantity());
 
-      rowCell = row.createCell(18);
-      rowCell.setCellValue(roadCardEntry.getDistance());
+    rowCell = row.createCell(16);
+    rowCell.setCellValue(roadCardEntry.getMeasureUnit());
 
-      rowCell = row.createCell(19);
-      rowCell.setCellValue(roadCardEntry.getDistancePrice().getPriceType().name());
+    rowCell = row.createCell(17);
+    rowCell.setCellValue(roadCardEntry.getRunsNumber());
 
-      rowCell = row.createCell(20);
-      rowCell.setCellValue(roadCardEntry.getDistancePrice().getPrice().doubleValue());
+    rowCell = row.createCell(18);
+    rowCell.setCellValue(roadCardEntry.getDistance());
 
-      rowCell = row.createCell(21);
-      rowCell.setCellValue(roadCardEntry.getEstimatePosition().getName());
+    rowCell = row.createCell(19);
+    rowCell.setCellValue(roadCardEntry.getDistancePrice().getPriceType().name());
 
-      rowCell = row.createCell(22);
-      rowCell.setCellValue(roadCardEntry.getEstimatePosition().getCostCode().getFullCode());
+    rowCell = row.createCell(20);
+    rowCell.setCellValue(roadCardEntry.getDistancePrice().getPrice().doubleValue());
 
-      rowCell = row.createCell(23);
-      rowCell.setCellValue(roadCardEntry.getCostCode().getFullCode());
+    rowCell = row.createCell(21);
+    rowCell.setCellValue(roadCardEntry.getEstimatePosition().getName());
 
-      rowCell = row.createCell(24);
-      rowCell.setCellValue(roadCardEntry.getAcceptingPerson().getName());
+    rowCell = row.createCell(22);
+    rowCell.setCellValue(roadCardEntry.getEstimatePosition().getCostCode().getFullCode());
 
-      rowNumber++;
+    rowCell = row.createCell(23);
+    rowCell.setCellValue(roadCardEntry.getCostCode().getFullCode());
 
-    }
+    rowCell = row.createCell(24);
+    rowCell.setCellValue(roadCardEntry.getAcceptingPerson().getName());
   }
 
 }
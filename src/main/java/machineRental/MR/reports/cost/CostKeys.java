@@ -0,0 +1,22 @@
+package machineRental.MR.reports.cost;
+
+import machineRental.MR.price.PriceType;
+
+/**
+ * Composite keys of cost calculators packed into a single long, so that they can be used as keys of LongObjectMap.
+ */
+public final class CostKeys {
+
+  private static final int PRICE_TYPES_COUNT = PriceType.values().length;
+
+  private CostKeys() {
+  }
+
+  /**
+   * @param id Id of machine type or material.
+   * @return Key unique for every pair of id and price type.
+   */
+  public static long of(long id, PriceType priceType) {
+    return id * PRICE_TYPES_COUNT + priceType.ordinal();
+  }
+}
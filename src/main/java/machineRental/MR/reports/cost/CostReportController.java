@@ -1,15 +1,21 @@
 package machineRental.MR.reports.cost;
 
 import java.time.LocalDate;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import machineRental.MR.exception.CostReportTimeoutException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
 
 @RestController
 @RequestMapping("/costReport")
@@ -18,6 +24,12 @@ public class CostReportController {
   @Autowired
   private CostReportService costReportService;
 
+  @Autowired
+  private PortfolioCostReportService portfolioCostReportService;
+
+  @Autowired
+  private CostReportStageExecutor costReportStageExecutor;
+
 //  @GetMapping
 //  @ResponseStatus(HttpStatus.OK)
 //  public List<TotalEquipmentCost> getEquipmentCost(
@@ -30,16 +42,59 @@ public class CostReportController {
 //    return costReportService.getTotalEquipmentCostByEstimatePosition(startDate, endDate, projectCode);
 //  }
 
+  /**
+   * Stages of report are read at the same time (see CostReportStageExecutor) and their durations are sent in Server-Timing header. Report not done
+   * in cost-report.timeout-seconds is cancelled, as it is when client disconnects before it is done.
+   */
   @GetMapping
-  @ResponseStatus(HttpStatus.OK)
-  public List<CostReport> getCostReports(
+  public DeferredResult<ResponseEntity<List<CostReport>>> getCostReports(
       @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
       @RequestParam(name = "startDate") LocalDate startDate,
       @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
       @RequestParam(name = "endDate") LocalDate endDate,
       @RequestParam(name = "projectCode") String projectCode) {
 
-    return costReportService.getCostReports(startDate, endDate, projectCode);
+    CostReportExecution execution = costReportStageExecutor.start();
+    return getDeferredResult(execution, costReportService.getCostReports(startDate, endDate, projectCode, execution),
+        String.format("Cost report of project %s", projectCode));
+  }
+
+  /**
+   * Cost reports of given projects (of all projects if none is given) read at once, see PortfolioCostReportService. Timeout and Server-Timing header
+   * are the same as of cost report of a single project.
+   */
+  @GetMapping("/portfolio")
+  public DeferredResult<ResponseEntity<PortfolioCostReport>> getPortfolioCostReport(
+      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+      @RequestParam(name = "startDate") LocalDate startDate,
+      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+      @RequestParam(name = "endDate") LocalDate endDate,
+      @RequestParam(name = "projectCodes", required = false) List<String> projectCodes) {
+
+    CostReportExecution execution = costReportStageExecutor.start();
+    return getDeferredResult(execution, portfolioCostReportService.getPortfolioCostReport(startDate, endDate,
+        projectCodes == null ? Collections.emptyList() : projectCodes, execution), "Portfolio cost report");
+  }
+
+  private <T> DeferredResult<ResponseEntity<T>> getDeferredResult(CostReportExecution execution, CompletableFuture<T> report, String reportName) {
+    DeferredResult<ResponseEntity<T>> deferredResult = new DeferredResult<>(execution.getTimeoutMillis());
+
+    deferredResult.onTimeout(() -> {
+      execution.cancel();
+      deferredResult.setErrorResult(new CostReportTimeoutException(String.format("%s was not done in %s ms", reportName, execution.getTimeoutMillis())));
+    });
+    deferredResult.onError(error -> execution.cancel());
+
+    report.whenComplete((result, error) -> {
+      if (error != null) {
+        deferredResult.setErrorResult(error instanceof CompletionException ? error.getCause() : error);
+      } else {
+        deferredResult.setResult(ResponseEntity.ok()
+            .header("Server-Timing", execution.getTimings().toServerTiming())
+            .body(result));
+      }
+    });
+    return deferredResult;
   }
 
 }
@@ -0,0 +1,106 @@
+package machineRental.MR.reports.cost;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.function.Supplier;
+import lombok.Getter;
+import machineRental.MR.ReadOnlyRoutingDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Stages of a single cost report. Every stage runs in its own read only transaction on read pool, which times out when the report does, so statements still
+ * running are stopped by data base. Cancelling the report interrupts stages waiting for a connection and skips stages not started yet.
+ */
+public class CostReportExecution {
+
+  private final Executor executor;
+
+  private final PlatformTransactionManager transactionManager;
+
+  @Getter
+  private final long timeoutMillis;
+
+  private final long deadlineNanos;
+
+  @Getter
+  private final CostReportTimings timings = new CostReportTimings();
+
+  private final List<FutureTask<Void>> tasks = new ArrayList<>();
+
+  private final List<CompletableFuture<?>> results = new ArrayList<>();
+
+//  stages submitted after cancelling (by stages depending on finished ones) are cancelled at once
+  private boolean cancelled;
+
+  CostReportExecution(Executor executor, PlatformTransactionManager transactionManager, long timeoutMillis) {
+    this.executor = executor;
+    this.transactionManager = transactionManager;
+    this.timeoutMillis = timeoutMillis;
+    this.deadlineNanos = System.nanoTime() + timeoutMillis * 1_000_000;
+  }
+
+  public <T> CompletableFuture<T> stage(String stageName, Supplier<T> calculation) {
+    return submit(stageName, () -> {
+      TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+      transactionTemplate.setReadOnly(true);
+      transactionTemplate.setTimeout(getRemainingSeconds());
+      return ReadOnlyRoutingDataSource.withReadPool(() -> transactionTemplate.execute(status -> calculation.get()));
+    });
+  }
+
+  /**
+   * Stage calculating data already read by other stages, run without transaction, so that it does not hold a connection.
+   */
+  public <T> CompletableFuture<T> compute(String stageName, Supplier<T> calculation) {
+    return submit(stageName, calculation);
+  }
+
+  public void cancel() {
+    synchronized (tasks) {
+      cancelled = true;
+      results.forEach(result -> result.cancel(false));
+      tasks.forEach(task -> task.cancel(true));
+    }
+  }
+
+  private <T> CompletableFuture<T> submit(String stageName, Supplier<T> calculation) {
+    CompletableFuture<T> result = new CompletableFuture<>();
+
+    FutureTask<Void> task = new FutureTask<>(() -> {
+      long stageStartNanos = System.nanoTime();
+      T value;
+      try {
+        value = calculation.get();
+      } catch (RuntimeException e) {
+        timings.record(stageName, stageStartNanos);
+        result.completeExceptionally(e);
+        return null;
+      }
+//      recorded before completing, because stages depending on the result run in this thread when it is completed
+      timings.record(stageName, stageStartNanos);
+      result.complete(value);
+      return null;
+    });
+
+    synchronized (tasks) {
+      if (cancelled) {
+        result.cancel(false);
+        return result;
+      }
+      tasks.add(task);
+      results.add(result);
+    }
+    executor.execute(task);
+    return result;
+  }
+
+//  transaction timeout is given in whole seconds, stage started just before deadline still gets one
+  private int getRemainingSeconds() {
+    long remainingNanos = deadlineNanos - System.nanoTime();
+    return (int) Math.max(1, (remainingNanos + 999_999_999) / 1_000_000_000);
+  }
+}
@@ -4,26 +4,27 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import machineRental.MR.ReadPool;
 import machineRental.MR.dailyReport.DailyReportService;
 import machineRental.MR.estimate.model.EstimatePosition;
 import machineRental.MR.estimate.service.EstimatePositionService;
+import machineRental.MR.reports.cost.cube.CostCubeService;
 import machineRental.MR.reports.cost.delivery.DeliveryCostCalculator;
 import machineRental.MR.reports.cost.delivery.TotalDeliveryCost;
-import machineRental.MR.reports.cost.equipment.EquipmentCostCalculator;
 import machineRental.MR.reports.cost.equipment.TotalEquipmentCost;
-import machineRental.MR.reports.cost.labour.LabourCostCalculator;
 import machineRental.MR.reports.cost.labour.TotalLabourCost;
 import machineRental.MR.reports.cost.transport.TotalTransportCost;
-import machineRental.MR.reports.cost.transport.TransportCostCalculator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class CostReportService {
 
   @Autowired
-  private EquipmentCostCalculator equipmentCostCalculator;
+  private WorkDocumentEntryCostAggregator workDocumentEntryCostAggregator;
 
   @Autowired
   private EstimatePositionService estimatePositionService;
@@ -35,11 +36,10 @@ public class CostReportService {
   private DeliveryCostCalculator deliveryCostCalculator;
 
   @Autowired
-  private TransportCostCalculator transportCostCalculator;
-
-  @Autowired
-  private LabourCostCalculator labourCostCalculator;
+  private CostCubeService costCubeService;
 
+  @Value("${cost-report.use-cube:false}")
+  private boolean useCube;
 
   /**
    * @param startDate Date after which data should be found.
@@ -49,34 +49,97 @@ public class CostReportService {
    * Mapping is done by estimate position. If total daily report quantity equals 0 it means that there is no daily report data for given estimate position.
    * If total work hours count equals 0 it means there is no work report entry data for a given estimate position.
    */
+  @ReadPool
+  @Transactional(readOnly = true)
   public List<CostReport> getCostReports(LocalDate startDate, LocalDate endDate, String projectCode) {
+    return isFromCube() ? getCostReportsFromCube(startDate, endDate, projectCode) : getCostReportsFromEntries(startDate, endDate, projectCode);
+  }
 
-    List<CostReport> costReports = new ArrayList<>();
+  /**
+   * Cost reports summed up from cost cube, by day buckets of estimate positions.
+   */
+  @ReadPool
+  @Transactional(readOnly = true)
+  public List<CostReport> getCostReportsFromCube(LocalDate startDate, LocalDate endDate, String projectCode) {
+    return getCostReports(estimatePositionService.getEstimatePositionsByProjectCode(projectCode),
+        costCubeService.getWorkDocumentEntryCosts(startDate, endDate, projectCode),
+        costCubeService.getTotalDeliveryCostByEstimatePositionId(startDate, endDate, projectCode),
+        costCubeService.getDailyReportQuantityPerEstimatePositionId(startDate, endDate, projectCode));
+  }
+
+  /**
+   * Cost reports summed up from entries and daily reports.
+   */
+  @ReadPool
+  @Transactional(readOnly = true)
+  public List<CostReport> getCostReportsFromEntries(LocalDate startDate, LocalDate endDate, String projectCode) {
+    return getCostReports(estimatePositionService.getEstimatePositionsByProjectCode(projectCode),
+        workDocumentEntryCostAggregator.getWorkDocumentEntryCosts(startDate, endDate, projectCode),
+        deliveryCostCalculator.getTotalDeliveryCostByEstimatePositionId(startDate, endDate, projectCode),
+        dailyReportService.getDailyReportQuantityPerEstimatePositionId(startDate, endDate, projectCode));
+  }
+
+  /**
+   * Cost reports with data read in stages of given execution: costs of work document entries, delivery costs, daily report quantities and estimate
+   * positions of project, each stage in its own read only transaction. Stages are run at the same time unless cost-report.parallel=false, so
+   * estimate positions changed while report is made may be read by one stage before the change and by another after it.
+   */
+  public CompletableFuture<List<CostReport>> getCostReports(LocalDate startDate, LocalDate endDate, String projectCode, CostReportExecution execution) {
+    boolean fromCube = isFromCube();
+
+    CompletableFuture<WorkDocumentEntryCosts> workDocumentEntryCosts = execution.stage("workDocumentEntries", () -> fromCube
+        ? costCubeService.getWorkDocumentEntryCosts(startDate, endDate, projectCode)
+        : workDocumentEntryCostAggregator.getWorkDocumentEntryCosts(startDate, endDate, projectCode));
+
+    CompletableFuture<LongObjectMap<TotalDeliveryCost>> estimatePositionTotalDeliveryCostMap = execution.stage("delivery", () -> fromCube
+        ? costCubeService.getTotalDeliveryCostByEstimatePositionId(startDate, endDate, projectCode)
+        : deliveryCostCalculator.getTotalDeliveryCostByEstimatePositionId(startDate, endDate, projectCode));
+
+    CompletableFuture<LongDoubleMap> estimatePositionToTotalDailyReportQuantity = execution.stage("dailyReports", () -> fromCube
+        ? costCubeService.getDailyReportQuantityPerEstimatePositionId(startDate, endDate, projectCode)
+        : dailyReportService.getDailyReportQuantityPerEstimatePositionId(startDate, endDate, projectCode));
+
+    CompletableFuture<List<EstimatePosition>> estimatePositions = execution.stage("estimatePositions",
+        () -> estimatePositionService.getEstimatePositionsByProjectCode(projectCode));
+
+    return CompletableFuture.allOf(workDocumentEntryCosts, estimatePositionTotalDeliveryCostMap, estimatePositionToTotalDailyReportQuantity, estimatePositions)
+        .thenApply(ignored -> {
+          long mergeStartNanos = System.nanoTime();
+          try {
+            return getCostReports(estimatePositions.join(), workDocumentEntryCosts.join(), estimatePositionTotalDeliveryCostMap.join(),
+                estimatePositionToTotalDailyReportQuantity.join());
+          } finally {
+            execution.getTimings().record("merge", mergeStartNanos);
+          }
+        });
+  }
 
-    Map<EstimatePosition, TotalEquipmentCost> estimatePositionTotalEquipmentCostMap = equipmentCostCalculator.getTotalEquipmentCostByEstimatePosition(startDate, endDate, projectCode);
+  /**
+   * Cost cube is not read while changes of failed refreshes are behind entries, see {@link CostCubeService#isUpToDate()}.
+   */
+  boolean isFromCube() {
+    return useCube && costCubeService.isUpToDate();
+  }
 
-    Map<EstimatePosition, TotalTransportCost> estimatePositionTotalTransportCostMap = transportCostCalculator.getTotalTransportCostByEstimatePosition(startDate, endDate, projectCode);
+  List<CostReport> getCostReports(List<EstimatePosition> estimatePositions, WorkDocumentEntryCosts workDocumentEntryCosts,
+      LongObjectMap<TotalDeliveryCost> estimatePositionTotalDeliveryCostMap, LongDoubleMap estimatePositionToTotalDailyReportQuantity) {
 
-    Map<EstimatePosition, TotalDeliveryCost> estimatePositionTotalDeliveryCostMap = deliveryCostCalculator.getTotalDeliveryCostByEstimatePosition(startDate, endDate, projectCode);
+    List<CostReport> costReports = new ArrayList<>();
 
-    Map<EstimatePosition, TotalLabourCost> estimatePositionTotalLabourCostMap = labourCostCalculator.getTotalLabourCostForEstimatePosition(startDate, endDate, projectCode);
+    LongObjectMap<TotalEquipmentCost> estimatePositionTotalEquipmentCostMap = workDocumentEntryCosts.getEquipmentCosts().getTotalEquipmentCostByEstimatePositionId();
 
-    Map<EstimatePosition, Double> estimatePositionToTotalDailyReportQuantity = dailyReportService.getDailyReportQuantityPerEstimatePosition(startDate, endDate, projectCode);
+    LongObjectMap<TotalTransportCost> estimatePositionTotalTransportCostMap = workDocumentEntryCosts.getTransportCosts().getTotalTransportCostByEstimatePositionId();
 
-    List<EstimatePosition> estimatePositions = estimatePositionService.getEstimatePositionsByProjectCode(projectCode);
+    LongObjectMap<TotalLabourCost> estimatePositionTotalLabourCostMap = workDocumentEntryCosts.getLabourCosts().getTotalLabourCostByEstimatePositionId();
 
     for (EstimatePosition estimatePosition : estimatePositions) {
 
       CostReport costReport = new CostReport();
       costReport.setEstimatePosition(estimatePosition);
 
-      Double totalDailyReportQuantity = estimatePositionToTotalDailyReportQuantity.get(estimatePosition);
-      if (totalDailyReportQuantity == null) {
-        totalDailyReportQuantity = 0.0;
-      }
-      costReport.setTotalDailyReportQuantity(totalDailyReportQuantity);
+      costReport.setTotalDailyReportQuantity(estimatePositionToTotalDailyReportQuantity.get(estimatePosition.getId()));
 
-      TotalEquipmentCost totalEquipmentCost = estimatePositionTotalEquipmentCostMap.get(estimatePosition);
+      TotalEquipmentCost totalEquipmentCost = estimatePositionTotalEquipmentCostMap.get(estimatePosition.getId());
       if (totalEquipmentCost == null) {
         totalEquipmentCost = new TotalEquipmentCost();
         totalEquipmentCost.setEquipmentCosts(new ArrayList<>());
@@ -88,7 +151,7 @@ public class CostReportService {
         costReport.setTotalEquipmentCost(totalEquipmentCost);
       }
 
-      TotalTransportCost totalTransportCost = estimatePositionTotalTransportCostMap.get(estimatePosition);
+      TotalTransportCost totalTransportCost = estimatePositionTotalTransportCostMap.get(estimatePosition.getId());
       if (totalTransportCost == null) {
         totalTransportCost = new TotalTransportCost();
         totalTransportCost.setTransportCosts(new ArrayList<>());
@@ -100,7 +163,7 @@ public class CostReportService {
         costReport.setTotalTransportCost(totalTransportCost);
       }
 
-      TotalDeliveryCost totalDeliveryCost = estimatePositionTotalDeliveryCostMap.get(estimatePosition);
+      TotalDeliveryCost totalDeliveryCost = estimatePositionTotalDeliveryCostMap.get(estimatePosition.getId());
       if (totalDeliveryCost == null) {
         totalDeliveryCost = new TotalDeliveryCost();
         totalDeliveryCost.setDeliveryCosts(new ArrayList<>());
@@ -111,7 +174,7 @@ public class CostReportService {
         costReport.setTotalDeliveryCost(totalDeliveryCost);
       }
 
-      TotalLabourCost totalLabourCost = estimatePositionTotalLabourCostMap.get(estimatePosition);
+      TotalLabourCost totalLabourCost = estimatePositionTotalLabourCostMap.get(estimatePosition.getId());
       if (totalLabourCost == null) {
         totalLabourCost = new TotalLabourCost();
         totalLabourCost.setTotalWorkHoursCount(0);
@@ -0,0 +1,53 @@
+package machineRental.MR.reports.cost;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Bounded pool of threads running stages of cost reports. With cost-report.parallel=true stages of a report read data base at the same time, each
+ * with a connection of read pool, so report takes as long as its slowest stage instead of all of them together. When pool and queue are full,
+ * stage runs in the thread which started it. With cost-report.parallel=false every stage runs in that thread, one after another.
+ */
+@Component
+public class CostReportStageExecutor {
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Value("${cost-report.parallel:true}")
+  private boolean parallel;
+
+  @Value("${cost-report.parallel.pool-size:8}")
+  private int poolSize;
+
+  @Value("${cost-report.parallel.queue-capacity:32}")
+  private int queueCapacity;
+
+  @Value("${cost-report.timeout-seconds:60}")
+  private long timeoutSeconds;
+
+  private ThreadPoolExecutor executor;
+
+  @PostConstruct
+  public void init() {
+    executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+        new CustomizableThreadFactory("cost-report-"), new ThreadPoolExecutor.CallerRunsPolicy());
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  public CostReportExecution start() {
+    return new CostReportExecution(parallel ? executor : Runnable::run, transactionManager, TimeUnit.SECONDS.toMillis(timeoutSeconds));
+  }
+}
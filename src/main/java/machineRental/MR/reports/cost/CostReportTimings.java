@@ -0,0 +1,41 @@
+package machineRental.MR.reports.cost;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Durations of stages of a single cost report, recorded by threads running the stages and sent back in Server-Timing response header, eg.
+ * "workDocumentEntries;dur=120.4, delivery;dur=35.0, dailyReports;dur=12.7, estimatePositions;dur=3.1, merge;dur=0.8, total;dur=125.2".
+ * Stages of the same name (such as partitions of portfolio report) are given as a single entry, with durations summed up and number of stages,
+ * eg. "partition;dur=310.6;desc=\"4 stages\"", so that the header does not grow with number of projects.
+ */
+public class CostReportTimings {
+
+  private final long startNanos = System.nanoTime();
+
+//  summed up duration in nanoseconds and number of stages by stage name, in order of first recorded stage
+  private final Map<String, long[]> stageTimings = new LinkedHashMap<>();
+
+  public void record(String stageName, long stageStartNanos) {
+    long durationNanos = System.nanoTime() - stageStartNanos;
+    synchronized (stageTimings) {
+      long[] stageTiming = stageTimings.computeIfAbsent(stageName, name -> new long[2]);
+      stageTiming[0] += durationNanos;
+      stageTiming[1]++;
+    }
+  }
+
+  public String toServerTiming() {
+    List<String> timings = new ArrayList<>();
+    synchronized (stageTimings) {
+      stageTimings.forEach((stageName, stageTiming) -> timings.add(stageTiming[1] == 1
+          ? String.format(Locale.ROOT, "%s;dur=%.1f", stageName, stageTiming[0] / 1_000_000.0)
+          : String.format(Locale.ROOT, "%s;dur=%.1f;desc=\"%d stages\"", stageName, stageTiming[0] / 1_000_000.0, stageTiming[1])));
+    }
+    timings.add(String.format(Locale.ROOT, "total;dur=%.1f", (System.nanoTime() - startNanos) / 1_000_000.0));
+    return String.join(", ", timings);
+  }
+}
@@ -0,0 +1,42 @@
+package machineRental.MR.reports.cost;
+
+import java.math.BigDecimal;
+import lombok.Data;
+
+/**
+ * Costs of cost reports summed up by cost category, for a project or for all projects of a portfolio cost report.
+ */
+@Data
+public class CostTotals {
+
+  private double equipmentWorkHoursCount;
+  private BigDecimal equipmentCostValue = BigDecimal.valueOf(0);
+  private double transportWorkHoursCount;
+  private BigDecimal transportCostValue = BigDecimal.valueOf(0);
+  private BigDecimal deliveryCostValue = BigDecimal.valueOf(0);
+  private double labourWorkHoursCount;
+  private BigDecimal labourCostValue = BigDecimal.valueOf(0);
+  private BigDecimal totalCostValue = BigDecimal.valueOf(0);
+
+  public void add(CostReport costReport) {
+    equipmentWorkHoursCount += costReport.getTotalEquipmentCost().getTotalWorkHoursCount();
+    equipmentCostValue = equipmentCostValue.add(costReport.getTotalEquipmentCost().getTotalCostValue());
+    transportWorkHoursCount += costReport.getTotalTransportCost().getTotalWorkHoursCount();
+    transportCostValue = transportCostValue.add(costReport.getTotalTransportCost().getTotalCostValue());
+    deliveryCostValue = deliveryCostValue.add(costReport.getTotalDeliveryCost().getTotalCostValue());
+    labourWorkHoursCount += costReport.getTotalLabourCost().getTotalWorkHoursCount();
+    labourCostValue = labourCostValue.add(costReport.getTotalLabourCost().getTotalCostValue());
+    totalCostValue = equipmentCostValue.add(transportCostValue).add(deliveryCostValue).add(labourCostValue);
+  }
+
+  public void add(CostTotals costTotals) {
+    equipmentWorkHoursCount += costTotals.getEquipmentWorkHoursCount();
+    equipmentCostValue = equipmentCostValue.add(costTotals.getEquipmentCostValue());
+    transportWorkHoursCount += costTotals.getTransportWorkHoursCount();
+    transportCostValue = transportCostValue.add(costTotals.getTransportCostValue());
+    deliveryCostValue = deliveryCostValue.add(costTotals.getDeliveryCostValue());
+    labourWorkHoursCount += costTotals.getLabourWorkHoursCount();
+    labourCostValue = labourCostValue.add(costTotals.getLabourCostValue());
+    totalCostValue = equipmentCostValue.add(transportCostValue).add(deliveryCostValue).add(labourCostValue);
+  }
+}
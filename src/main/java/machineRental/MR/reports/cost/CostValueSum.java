@@ -0,0 +1,174 @@
+package machineRental.MR.reports.cost;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Sum of cost values of a cost report, added up entry by entry without allocating BigDecimal for every entry. Values are kept as long numbers of
+ * 10^-8 (quantities with up to 6 decimal places multiplied by prices with up to 2 decimal places), costs of hour prices are kept separately as
+ * seconds multiplied by price and divided by 3600 only once, when sum is read - the same way as sums made in data base (see WorkReportEntryCostSum).
+ * Values which do not fit into these scales, and sums which would overflow long, are added up as BigDecimal instead, so the sum is exact until it
+ * is read. Sum is read as BigDecimal rounded half up to 10 decimal places.
+ */
+public class CostValueSum {
+
+  public static final int RESULT_SCALE = 10;
+
+  private static final int SCALE = 8;
+
+  private static final int PRICE_SCALE = 2;
+
+  private static final double QUANTITY_MULTIPLIER = 1_000_000;
+
+//  quantities below 10^7 with 6 decimal places have at most 13 significant digits, so no other decimal of at most 17 digits (BigDecimal.valueOf)
+//  gives the same double
+  private static final double MAX_QUANTITY = 10_000_000;
+
+//  prices are converted through double, which is exact for unscaled values far below 2^52
+  private static final double MAX_UNSCALED_PRICE = 1L << 40;
+
+  private static final long NOT_EXACT = Long.MIN_VALUE;
+
+  private static final long[] POWERS_OF_TEN = {1, 10, 100};
+
+  private static final BigDecimal SECONDS_PER_HOUR = BigDecimal.valueOf(3600);
+
+//  value in 10^-8
+  private long unscaledValue;
+
+//  seconds multiplied by hour price, in 10^-2
+  private long unscaledSecondsValue;
+
+//  values not fitting into unscaledValue or unscaledSecondsValue, null until first such value is added
+  private BigDecimal overflowValue;
+
+  private BigDecimal overflowSecondsValue;
+
+  /**
+   * Adds quantity multiplied by price, the same value as BigDecimal.valueOf(quantity).multiply(price).
+   */
+  public void add(double quantity, BigDecimal price) {
+    long unscaledQuantity = toUnscaledQuantity(quantity);
+    long unscaledPrice = toUnscaledPrice(price);
+
+    if (unscaledQuantity != NOT_EXACT && unscaledPrice != NOT_EXACT) {
+      try {
+        unscaledValue = Math.addExact(unscaledValue, Math.multiplyExact(unscaledQuantity, unscaledPrice));
+        return;
+      } catch (ArithmeticException e) {
+//        falls back to BigDecimal below
+      }
+    }
+    overflowValue = add(overflowValue, BigDecimal.valueOf(quantity).multiply(price));
+  }
+
+  /**
+   * Adds value summed up in data base, the same value as BigDecimal.valueOf(value).
+   */
+  public void add(double value) {
+    add(value, BigDecimal.ONE);
+  }
+
+  /**
+   * Adds value summed up in data base (such as runs multiplied by price).
+   */
+  public void add(BigDecimal value) {
+    try {
+      unscaledValue = Math.addExact(unscaledValue, value.movePointRight(SCALE).longValueExact());
+    } catch (ArithmeticException e) {
+      overflowValue = add(overflowValue, value);
+    }
+  }
+
+  /**
+   * Adds cost of work of given number of seconds with given hour price.
+   */
+  public void addSeconds(long seconds, BigDecimal hourPrice) {
+    long unscaledPrice = toUnscaledPrice(hourPrice);
+
+    if (unscaledPrice != NOT_EXACT) {
+      try {
+        unscaledSecondsValue = Math.addExact(unscaledSecondsValue, Math.multiplyExact(seconds, unscaledPrice));
+        return;
+      } catch (ArithmeticException e) {
+//        falls back to BigDecimal below
+      }
+    }
+    overflowSecondsValue = add(overflowSecondsValue, BigDecimal.valueOf(seconds).multiply(hourPrice));
+  }
+
+  /**
+   * Adds seconds multiplied by hour price summed up in data base (see WorkReportEntryCostSum.getWorkSecondsValue).
+   */
+  public void addSecondsValue(BigDecimal secondsValue) {
+    try {
+      unscaledSecondsValue = Math.addExact(unscaledSecondsValue, secondsValue.movePointRight(PRICE_SCALE).longValueExact());
+    } catch (ArithmeticException e) {
+      overflowSecondsValue = add(overflowSecondsValue, secondsValue);
+    }
+  }
+
+  public void add(CostValueSum costValueSum) {
+    try {
+      unscaledValue = Math.addExact(unscaledValue, costValueSum.unscaledValue);
+    } catch (ArithmeticException e) {
+      overflowValue = add(overflowValue, BigDecimal.valueOf(costValueSum.unscaledValue, SCALE));
+    }
+    try {
+      unscaledSecondsValue = Math.addExact(unscaledSecondsValue, costValueSum.unscaledSecondsValue);
+    } catch (ArithmeticException e) {
+      overflowSecondsValue = add(overflowSecondsValue, BigDecimal.valueOf(costValueSum.unscaledSecondsValue, PRICE_SCALE));
+    }
+    if (costValueSum.overflowValue != null) {
+      overflowValue = add(overflowValue, costValueSum.overflowValue);
+    }
+    if (costValueSum.overflowSecondsValue != null) {
+      overflowSecondsValue = add(overflowSecondsValue, costValueSum.overflowSecondsValue);
+    }
+  }
+
+  /**
+   * @return Exact sum rounded half up to RESULT_SCALE decimal places, the only rounding made.
+   */
+  public BigDecimal toBigDecimal() {
+    BigDecimal value = add(overflowValue, BigDecimal.valueOf(unscaledValue, SCALE));
+
+    if (unscaledSecondsValue == 0 && overflowSecondsValue == null) {
+      return value.setScale(RESULT_SCALE, RoundingMode.HALF_UP);
+    }
+
+    BigDecimal secondsValue = add(overflowSecondsValue, BigDecimal.valueOf(unscaledSecondsValue, PRICE_SCALE));
+    return value.multiply(SECONDS_PER_HOUR).add(secondsValue).divide(SECONDS_PER_HOUR, RESULT_SCALE, RoundingMode.HALF_UP);
+  }
+
+  /**
+   * @return Quantity in 10^-6, NOT_EXACT if it has more decimal places or is too large.
+   */
+  private static long toUnscaledQuantity(double quantity) {
+    if (!(Math.abs(quantity) < MAX_QUANTITY)) {
+      return NOT_EXACT;
+    }
+    long unscaledQuantity = Math.round(quantity * QUANTITY_MULTIPLIER);
+    return unscaledQuantity / QUANTITY_MULTIPLIER == quantity ? unscaledQuantity : NOT_EXACT;
+  }
+
+  /**
+   * @return Price in 10^-2, NOT_EXACT if it has more decimal places or is too large. Price is read through doubleValue, which (unlike unscaledValue)
+   * does not allocate for prices of up to 2 decimal places.
+   */
+  private static long toUnscaledPrice(BigDecimal price) {
+    int scale = price.scale();
+    if (scale < 0 || scale > PRICE_SCALE) {
+      return NOT_EXACT;
+    }
+    double unscaledPrice = price.doubleValue() * POWERS_OF_TEN[scale];
+    if (!(Math.abs(unscaledPrice) < MAX_UNSCALED_PRICE)) {
+      return NOT_EXACT;
+    }
+    return Math.round(unscaledPrice) * POWERS_OF_TEN[PRICE_SCALE - scale];
+  }
+
+  private static BigDecimal add(BigDecimal sum, BigDecimal value) {
+    return sum == null ? value : sum.add(value);
+  }
+}
@@ -0,0 +1,30 @@
+package machineRental.MR.reports.cost;
+
+/**
+ * Sums of double values by primitive long keys (ids of estimate positions), without boxing keys or values. Missing keys have sum 0.
+ */
+public class LongDoubleMap {
+
+  private final LongObjectMap<double[]> sums;
+
+  public LongDoubleMap() {
+    sums = new LongObjectMap<>();
+  }
+
+  public LongDoubleMap(int expectedSize) {
+    sums = new LongObjectMap<>(expectedSize);
+  }
+
+  public void add(long key, double value) {
+    sums.computeIfAbsent(key, ignored -> new double[1])[0] += value;
+  }
+
+  public double get(long key) {
+    double[] sum = sums.get(key);
+    return sum == null ? 0 : sum[0];
+  }
+
+  public int size() {
+    return sums.size();
+  }
+}
@@ -0,0 +1,146 @@
+package machineRental.MR.reports.cost;
+
+import java.util.function.LongFunction;
+
+/**
+ * Hash map with primitive long keys (ids of entities or composite keys packed into a long, see CostKeys), used by cost calculators instead of maps
+ * keyed by entities, whose hashCode and equals go through all their fields. Keys are kept in open addressing table with linear probing, values
+ * cannot be null and entries cannot be removed.
+ */
+public class LongObjectMap<V> {
+
+  private static final int MIN_CAPACITY = 16;
+
+  private long[] keys;
+
+  private Object[] values;
+
+  private int size;
+
+  private int shift;
+
+  public LongObjectMap() {
+    this(MIN_CAPACITY);
+  }
+
+  public LongObjectMap(int expectedSize) {
+    int capacity = MIN_CAPACITY;
+    while (capacity < expectedSize * 2) {
+      capacity <<= 1;
+    }
+    allocate(capacity);
+  }
+
+  @SuppressWarnings("unchecked")
+  public V get(long key) {
+    for (int slot = slot(key); values[slot] != null; slot = (slot + 1) & (keys.length - 1)) {
+      if (keys[slot] == key) {
+        return (V) values[slot];
+      }
+    }
+    return null;
+  }
+
+  public V getOrDefault(long key, V defaultValue) {
+    V value = get(key);
+    return value == null ? defaultValue : value;
+  }
+
+  @SuppressWarnings("unchecked")
+  public V put(long key, V value) {
+    if (value == null) {
+      throw new IllegalArgumentException("Null values are not supported");
+    }
+
+    int slot = slot(key);
+    for (; values[slot] != null; slot = (slot + 1) & (keys.length - 1)) {
+      if (keys[slot] == key) {
+        V previousValue = (V) values[slot];
+        values[slot] = value;
+        return previousValue;
+      }
+    }
+
+    keys[slot] = key;
+    values[slot] = value;
+    if (++size * 2 > keys.length) {
+      resize();
+    }
+    return null;
+  }
+
+  /**
+   * Single lookup for the common "get or create" of accumulators. As in Map.computeIfAbsent, nothing is inserted when mapping function returns null.
+   */
+  @SuppressWarnings("unchecked")
+  public V computeIfAbsent(long key, LongFunction<V> mappingFunction) {
+    int slot = slot(key);
+    for (; values[slot] != null; slot = (slot + 1) & (keys.length - 1)) {
+      if (keys[slot] == key) {
+        return (V) values[slot];
+      }
+    }
+
+    V value = mappingFunction.apply(key);
+    if (value == null) {
+      return null;
+    }
+    keys[slot] = key;
+    values[slot] = value;
+    if (++size * 2 > keys.length) {
+      resize();
+    }
+    return value;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @SuppressWarnings("unchecked")
+  public void forEach(EntryConsumer<? super V> consumer) {
+    for (int slot = 0; slot < keys.length; slot++) {
+      if (values[slot] != null) {
+        consumer.accept(keys[slot], (V) values[slot]);
+      }
+    }
+  }
+
+  @FunctionalInterface
+  public interface EntryConsumer<V> {
+
+    void accept(long key, V value);
+  }
+
+//  fibonacci hashing spreads sequential ids over the whole table
+  private int slot(long key) {
+    return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+  }
+
+  private void allocate(int capacity) {
+    keys = new long[capacity];
+    values = new Object[capacity];
+    shift = 64 - Integer.numberOfTrailingZeros(capacity);
+  }
+
+  private void resize() {
+    long[] oldKeys = keys;
+    Object[] oldValues = values;
+    allocate(keys.length * 2);
+
+    for (int oldSlot = 0; oldSlot < oldKeys.length; oldSlot++) {
+      if (oldValues[oldSlot] != null) {
+        int slot = slot(oldKeys[oldSlot]);
+        while (values[slot] != null) {
+          slot = (slot + 1) & (keys.length - 1);
+        }
+        keys[slot] = oldKeys[oldSlot];
+        values[slot] = oldValues[oldSlot];
+      }
+    }
+  }
+}
@@ -0,0 +1,19 @@
+package machineRental.MR.reports.cost;
+
+import java.time.LocalDate;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PortfolioCostReport {
+
+  private LocalDate startDate;
+  private LocalDate endDate;
+  private List<ProjectCostReport> projectCostReports;
+  private CostTotals totals;
+
+}
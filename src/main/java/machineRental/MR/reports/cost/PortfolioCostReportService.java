@@ -0,0 +1,251 @@
+package machineRental.MR.reports.cost;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import machineRental.MR.estimate.model.EstimatePosition;
+import machineRental.MR.machineType.model.MachineType;
+import machineRental.MR.material.model.Material;
+import machineRental.MR.reports.cost.cube.CostCubeService;
+import machineRental.MR.reports.cost.cube.DailyReportQuantitySum;
+import machineRental.MR.reports.cost.delivery.DeliveryCostCalculator;
+import machineRental.MR.reports.cost.delivery.DeliveryDocumentEntryCostSum;
+import machineRental.MR.repository.CostCodeRepository;
+import machineRental.MR.repository.CostCubeCellRepository;
+import machineRental.MR.repository.DailyReportRepository;
+import machineRental.MR.repository.DeliveryDocumentEntryRepository;
+import machineRental.MR.repository.EstimatePositionRepository;
+import machineRental.MR.repository.MachineTypeRepository;
+import machineRental.MR.repository.MaterialRepository;
+import machineRental.MR.repository.RoadCardEntryRepository;
+import machineRental.MR.repository.WorkReportEntryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Cost reports of several projects made in a single request. Projects are split into partitions of cost-report.portfolio.projects-per-partition
+ * projects, sums of entries of every partition are read in a stage of their own by streaming queries of all its projects and sorted out by project
+ * as they are read. Machine types and materials are read once for all projects, then cost reports of every project are made in a stage of their own,
+ * so partitions are read, and projects are calculated, at the same time on threads of CostReportStageExecutor.
+ * Entries are always summed up in data base (from cost cube with cost-report.use-cube=true), cost-report.sum-in-database is not applied.
+ */
+@Service
+public class PortfolioCostReportService {
+
+  @Autowired
+  private CostReportService costReportService;
+
+  @Autowired
+  private WorkDocumentEntryCostAggregator workDocumentEntryCostAggregator;
+
+  @Autowired
+  private DeliveryCostCalculator deliveryCostCalculator;
+
+  @Autowired
+  private CostCodeRepository costCodeRepository;
+
+  @Autowired
+  private EstimatePositionRepository estimatePositionRepository;
+
+  @Autowired
+  private CostCubeCellRepository costCubeCellRepository;
+
+  @Autowired
+  private CostCubeService costCubeService;
+
+  @Autowired
+  private WorkReportEntryRepository workReportEntryRepository;
+
+  @Autowired
+  private RoadCardEntryRepository roadCardEntryRepository;
+
+  @Autowired
+  private DeliveryDocumentEntryRepository deliveryDocumentEntryRepository;
+
+  @Autowired
+  private DailyReportRepository dailyReportRepository;
+
+  @Autowired
+  private MachineTypeRepository machineTypeRepository;
+
+  @Autowired
+  private MaterialRepository materialRepository;
+
+  @Value("${cost-report.use-cube:false}")
+  private boolean useCube;
+
+  @Value("${cost-report.portfolio.projects-per-partition:4}")
+  private int projectsPerPartition;
+
+  /**
+   * @param startDate Date after which data should be found.
+   * @param endDate Date before which data shoud be found.
+   * @param projectCodes Project codes for which data should be found, all projects if empty.
+   * @return Cost reports of every project, ordered by project code, with totals of every project and of all of them.
+   */
+  public CompletableFuture<PortfolioCostReport> getPortfolioCostReport(LocalDate startDate, LocalDate endDate, Collection<String> projectCodes,
+      CostReportExecution execution) {
+
+//    cube is not read while changes of failed refreshes are behind entries
+    boolean fromCube = useCube && costCubeService.isUpToDate();
+
+    CompletableFuture<List<String>> portfolioProjectCodes = projectCodes.isEmpty()
+        ? execution.stage("projects", costCodeRepository::findAllProjectCodes)
+        : CompletableFuture.completedFuture(new ArrayList<>(new TreeSet<>(projectCodes)));
+
+    return portfolioProjectCodes
+        .thenCompose(codes -> readPartitions(startDate, endDate, codes, fromCube, execution))
+        .thenCompose(projects -> execution.stage("referenceData", () -> readReferenceData(projects))
+            .thenCompose(referenceData -> getProjectCostReports(projects, referenceData, execution)))
+        .thenApply(projectCostReports -> {
+          long mergeStartNanos = System.nanoTime();
+          try {
+            CostTotals totals = new CostTotals();
+            projectCostReports.forEach(projectCostReport -> totals.add(projectCostReport.getTotals()));
+            return new PortfolioCostReport(startDate, endDate, projectCostReports, totals);
+          } finally {
+            execution.getTimings().record("merge", mergeStartNanos);
+          }
+        });
+  }
+
+  private CompletableFuture<List<ProjectCostData>> readPartitions(LocalDate startDate, LocalDate endDate, List<String> projectCodes, boolean fromCube,
+      CostReportExecution execution) {
+
+    int partitionSize = Math.max(1, projectsPerPartition);
+    List<CompletableFuture<List<ProjectCostData>>> partitions = new ArrayList<>();
+    for (int i = 0; i < projectCodes.size(); i += partitionSize) {
+      List<String> partitionProjectCodes = projectCodes.subList(i, Math.min(projectCodes.size(), i + partitionSize));
+      partitions.add(execution.stage("partition", () -> readPartition(startDate, endDate, partitionProjectCodes, fromCube)));
+    }
+
+    return CompletableFuture.allOf(partitions.toArray(new CompletableFuture[0]))
+        .thenApply(ignored -> partitions.stream().flatMap(partition -> partition.join().stream()).collect(Collectors.toList()));
+  }
+
+  private List<ProjectCostData> readPartition(LocalDate startDate, LocalDate endDate, List<String> projectCodes, boolean fromCube) {
+    Map<String, ProjectCostData> projects = new LinkedHashMap<>();
+    projectCodes.forEach(projectCode -> projects.put(projectCode, new ProjectCostData(projectCode)));
+
+    LongObjectMap<ProjectCostData> projectsByEstimatePositionId = new LongObjectMap<>();
+    for (EstimatePosition estimatePosition : estimatePositionRepository.findByCostCode_ProjectCodeIn(projectCodes)) {
+      ProjectCostData project = projects.get(estimatePosition.getCostCode().getProjectCode());
+      project.estimatePositions.add(estimatePosition);
+      projectsByEstimatePositionId.put(estimatePosition.getId(), project);
+    }
+
+    partition(fromCube
+            ? costCubeCellRepository.streamWorkReportEntryCosts(startDate, endDate, projectCodes)
+            : workReportEntryRepository.streamCostsBetweenDatesByEstimateProjectCodes(startDate, endDate, projectCodes),
+        WorkReportEntryCostSum::getEstimatePositionId, projectsByEstimatePositionId, (project, costSum) -> project.workReportEntryCostSums.add(costSum));
+
+    partition(fromCube
+            ? costCubeCellRepository.streamRoadCardEntryCosts(startDate, endDate, projectCodes)
+            : roadCardEntryRepository.streamCostsBetweenDatesByEstimateProjectCodes(startDate, endDate, projectCodes),
+        RoadCardEntryCostSum::getEstimatePositionId, projectsByEstimatePositionId, (project, costSum) -> project.roadCardEntryCostSums.add(costSum));
+
+    partition(fromCube
+            ? costCubeCellRepository.streamDeliveryDocumentEntryCosts(startDate, endDate, projectCodes)
+            : deliveryDocumentEntryRepository.streamCostsBetweenDatesByEstimateProjectCodes(startDate, endDate, projectCodes),
+        DeliveryDocumentEntryCostSum::getEstimatePositionId, projectsByEstimatePositionId,
+        (project, costSum) -> project.deliveryDocumentEntryCostSums.add(costSum));
+
+    partition(fromCube
+            ? costCubeCellRepository.streamDailyReportQuantities(startDate, endDate, projectCodes)
+            : dailyReportRepository.streamQuantitiesBetweenDatesByEstimateProjectCodes(startDate, endDate, projectCodes),
+        DailyReportQuantitySum::getEstimatePositionId, projectsByEstimatePositionId,
+        (project, quantitySum) -> project.dailyReportQuantities.add(quantitySum.getEstimatePositionId(), quantitySum.getQuantityCount()));
+
+    return new ArrayList<>(projects.values());
+  }
+
+//  sums of estimate positions not read before them are left out, as cost reports are made for estimate positions read
+  private <T> void partition(Stream<T> costSums, ToLongFunction<T> estimatePositionId, LongObjectMap<ProjectCostData> projectsByEstimatePositionId,
+      BiConsumer<ProjectCostData, T> consumer) {
+
+    try (Stream<T> stream = costSums) {
+      stream.forEach(costSum -> {
+        ProjectCostData project = projectsByEstimatePositionId.get(estimatePositionId.applyAsLong(costSum));
+        if (project != null) {
+          consumer.accept(project, costSum);
+        }
+      });
+    }
+  }
+
+  private ReferenceData readReferenceData(List<ProjectCostData> projects) {
+    Set<Long> machineTypeIds = new HashSet<>();
+    Set<Long> materialIds = new HashSet<>();
+    for (ProjectCostData project : projects) {
+      project.workReportEntryCostSums.forEach(costSum -> machineTypeIds.add(costSum.getMachineTypeId()));
+      project.roadCardEntryCostSums.forEach(costSum -> machineTypeIds.add(costSum.getMachineTypeId()));
+      project.deliveryDocumentEntryCostSums.forEach(costSum -> materialIds.add(costSum.getMaterialId()));
+    }
+
+    ReferenceData referenceData = new ReferenceData(machineTypeIds.size(), materialIds.size());
+    machineTypeRepository.findAllById(machineTypeIds).forEach(machineType -> referenceData.machineTypes.put(machineType.getId(), machineType));
+    materialRepository.findAllById(materialIds).forEach(material -> referenceData.materials.put(material.getId(), material));
+    return referenceData;
+  }
+
+  private CompletableFuture<List<ProjectCostReport>> getProjectCostReports(List<ProjectCostData> projects, ReferenceData referenceData,
+      CostReportExecution execution) {
+
+    List<CompletableFuture<ProjectCostReport>> projectCostReports = projects.stream()
+        .map(project -> execution.compute("project", () -> getProjectCostReport(project, referenceData)))
+        .collect(Collectors.toList());
+
+    return CompletableFuture.allOf(projectCostReports.toArray(new CompletableFuture[0]))
+        .thenApply(ignored -> projectCostReports.stream().map(CompletableFuture::join).collect(Collectors.toList()));
+  }
+
+  private ProjectCostReport getProjectCostReport(ProjectCostData project, ReferenceData referenceData) {
+    List<CostReport> costReports = costReportService.getCostReports(project.estimatePositions,
+        workDocumentEntryCostAggregator.getWorkDocumentEntryCosts(project.workReportEntryCostSums, project.roadCardEntryCostSums, referenceData.machineTypes),
+        deliveryCostCalculator.getTotalDeliveryCostByEstimatePositionId(project.deliveryDocumentEntryCostSums, referenceData.materials),
+        project.dailyReportQuantities);
+
+    CostTotals totals = new CostTotals();
+    costReports.forEach(totals::add);
+    return new ProjectCostReport(project.projectCode, costReports, totals);
+  }
+
+//  estimate positions and sums of a single project, read by stage of its partition
+  private static class ProjectCostData {
+
+    private final String projectCode;
+    private final List<EstimatePosition> estimatePositions = new ArrayList<>();
+    private final List<WorkReportEntryCostSum> workReportEntryCostSums = new ArrayList<>();
+    private final List<RoadCardEntryCostSum> roadCardEntryCostSums = new ArrayList<>();
+    private final List<DeliveryDocumentEntryCostSum> deliveryDocumentEntryCostSums = new ArrayList<>();
+    private final LongDoubleMap dailyReportQuantities = new LongDoubleMap();
+
+    private ProjectCostData(String projectCode) {
+      this.projectCode = projectCode;
+    }
+  }
+
+//  machine types and materials of sums of all projects, by their ids
+  private static class ReferenceData {
+
+    private final LongObjectMap<MachineType> machineTypes;
+    private final LongObjectMap<Material> materials;
+
+    private ReferenceData(int machineTypesCount, int materialsCount) {
+      this.machineTypes = new LongObjectMap<>(machineTypesCount);
+      this.materials = new LongObjectMap<>(materialsCount);
+    }
+  }
+}
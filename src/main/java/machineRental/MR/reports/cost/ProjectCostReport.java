@@ -0,0 +1,17 @@
+package machineRental.MR.reports.cost;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProjectCostReport {
+
+  private String projectCode;
+  private List<CostReport> costReports;
+  private CostTotals totals;
+
+}
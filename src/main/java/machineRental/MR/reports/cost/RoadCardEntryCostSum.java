@@ -0,0 +1,38 @@
+package machineRental.MR.reports.cost;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import machineRental.MR.price.PriceType;
+import machineRental.MR.workDocumentEntry.WorkCode;
+
+/**
+ * Road card entries summed up in data base for a given estimate position, machine type, work code and price type. Every value multiplied by distance
+ * price is summed up separately, as it depends on cost category and price type which one is cost of entries.
+ */
+@Data
+@AllArgsConstructor
+public class RoadCardEntryCostSum {
+
+  private Long estimatePositionId;
+  private Long machineTypeId;
+  private WorkCode workCode;
+  private PriceType priceType;
+  private Long workSeconds;
+  private BigDecimal workSecondsValue;
+  private Double distanceCount;
+//  distance and quantity columns are floating point, so are their products with price
+  private Double distanceValue;
+  private Double quantityCount;
+  private Double quantityValue;
+  private BigDecimal runsValue;
+
+  public double getWorkHoursCount() {
+    return (double) workSeconds / 3600;
+  }
+
+  public BigDecimal getWorkHoursValue() {
+    return workSecondsValue.divide(BigDecimal.valueOf(3600), 10, RoundingMode.HALF_UP);
+  }
+}
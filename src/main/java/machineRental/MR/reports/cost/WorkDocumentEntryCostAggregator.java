@@ -0,0 +1,118 @@
+package machineRental.MR.reports.cost;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import machineRental.MR.ReadPool;
+import machineRental.MR.machineType.model.MachineType;
+import machineRental.MR.repository.MachineTypeRepository;
+import machineRental.MR.repository.RoadCardEntryRepository;
+import machineRental.MR.repository.WorkReportEntryRepository;
+import machineRental.MR.workDocumentEntry.model.RoadCardEntry;
+import machineRental.MR.workDocumentEntry.model.WorkReportEntry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Calculates equipment, transport and labour costs of a cost report in a single pass over work report entries and road card entries.
+ * By default entries are streamed and detached from persistence context as soon as they are added, so they are not kept in memory until the report
+ * is done. With cost-report.sum-in-database=true hours and costs are summed up in data base instead, grouped by estimate position, machine type,
+ * work code and price type, so only a few rows are read per estimate position.
+ */
+@Service
+public class WorkDocumentEntryCostAggregator {
+
+  @Autowired
+  private WorkReportEntryRepository workReportEntryRepository;
+
+  @Autowired
+  private RoadCardEntryRepository roadCardEntryRepository;
+
+  @Autowired
+  private MachineTypeRepository machineTypeRepository;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Value("${cost-report.sum-in-database:false}")
+  private boolean sumInDatabase;
+
+  /**
+   * @param startDate Date after which data should be found.
+   * @param endDate Date before which data shoud be found.
+   * @param projectCode Project code for which data should be found.
+   */
+  @ReadPool
+  @Transactional(readOnly = true)
+  public WorkDocumentEntryCosts getWorkDocumentEntryCosts(LocalDate startDate, LocalDate endDate, String projectCode) {
+    return sumInDatabase ? sumWorkDocumentEntryCosts(startDate, endDate, projectCode) : streamWorkDocumentEntryCosts(startDate, endDate, projectCode);
+  }
+
+  private WorkDocumentEntryCosts sumWorkDocumentEntryCosts(LocalDate startDate, LocalDate endDate, String projectCode) {
+    List<WorkReportEntryCostSum> workReportEntryCostSums = workReportEntryRepository.sumCostsBetweenDatesByEstimateProjectCode(startDate, endDate, projectCode);
+    List<RoadCardEntryCostSum> roadCardEntryCostSums = roadCardEntryRepository.sumCostsBetweenDatesByEstimateProjectCode(startDate, endDate, projectCode);
+
+    return getWorkDocumentEntryCosts(workReportEntryCostSums, roadCardEntryCostSums);
+  }
+
+  /**
+   * Adds sums of entries, calculated in data base from entries or from cost cube, with their machine types read at once. Estimate positions are not
+   * read, costs are kept by their ids.
+   */
+  public WorkDocumentEntryCosts getWorkDocumentEntryCosts(List<WorkReportEntryCostSum> workReportEntryCostSums, List<RoadCardEntryCostSum> roadCardEntryCostSums) {
+    Set<Long> machineTypeIds = new HashSet<>();
+    workReportEntryCostSums.forEach(costSum -> machineTypeIds.add(costSum.getMachineTypeId()));
+    roadCardEntryCostSums.forEach(costSum -> machineTypeIds.add(costSum.getMachineTypeId()));
+
+    LongObjectMap<MachineType> machineTypes = new LongObjectMap<>(machineTypeIds.size());
+    machineTypeRepository.findAllById(machineTypeIds).forEach(machineType -> machineTypes.put(machineType.getId(), machineType));
+
+    return getWorkDocumentEntryCosts(workReportEntryCostSums, roadCardEntryCostSums, machineTypes);
+  }
+
+  /**
+   * Adds sums of entries with machine types already read (by portfolio cost report, once for all projects).
+   */
+  public WorkDocumentEntryCosts getWorkDocumentEntryCosts(List<WorkReportEntryCostSum> workReportEntryCostSums, List<RoadCardEntryCostSum> roadCardEntryCostSums,
+      LongObjectMap<MachineType> machineTypes) {
+    WorkDocumentEntryCosts workDocumentEntryCosts = new WorkDocumentEntryCosts();
+    for (WorkReportEntryCostSum costSum : workReportEntryCostSums) {
+      workDocumentEntryCosts.add(costSum, machineTypes.get(costSum.getMachineTypeId()));
+    }
+    for (RoadCardEntryCostSum costSum : roadCardEntryCostSums) {
+      workDocumentEntryCosts.add(costSum, machineTypes.get(costSum.getMachineTypeId()));
+    }
+    return workDocumentEntryCosts;
+  }
+
+  private WorkDocumentEntryCosts streamWorkDocumentEntryCosts(LocalDate startDate, LocalDate endDate, String projectCode) {
+    WorkDocumentEntryCosts workDocumentEntryCosts = new WorkDocumentEntryCosts();
+
+//    work report entries are added before road card entries, the order in which equipment and labour costs added them before entries were read once.
+//    Transport costs added road card entries first, so hours (summed up as double) of a transport cost may differ in last places, but only when an
+//    hour price and a distance price of its machine type have the same price type. Costs are exact sums, which do not depend on the order.
+    try (Stream<WorkReportEntry> workReportEntries = workReportEntryRepository
+        .streamByWorkDocument_DateBetweenAndEstimatePosition_CostCode_ProjectCodeEquals(startDate, endDate, projectCode)) {
+      workReportEntries.forEach(workReportEntry -> {
+        workDocumentEntryCosts.add(workReportEntry);
+        entityManager.detach(workReportEntry);
+      });
+    }
+
+    try (Stream<RoadCardEntry> roadCardEntries = roadCardEntryRepository
+        .streamByWorkDocument_DateBetweenAndEstimatePosition_CostCode_ProjectCodeEquals(startDate, endDate, projectCode)) {
+      roadCardEntries.forEach(roadCardEntry -> {
+        workDocumentEntryCosts.add(roadCardEntry);
+        entityManager.detach(roadCardEntry);
+      });
+    }
+
+    return workDocumentEntryCosts;
+  }
+}
@@ -0,0 +1,84 @@
+package machineRental.MR.reports.cost;
+
+import machineRental.MR.machineType.CostCategory;
+import machineRental.MR.machineType.model.MachineType;
+import machineRental.MR.reports.cost.equipment.EquipmentCostAccumulator;
+import machineRental.MR.reports.cost.labour.LabourCostAccumulator;
+import machineRental.MR.reports.cost.transport.TransportCostAccumulator;
+import machineRental.MR.workDocumentEntry.WorkCode;
+import machineRental.MR.workDocumentEntry.model.RoadCardEntry;
+import machineRental.MR.workDocumentEntry.model.WorkReportEntry;
+
+/**
+ * Costs of work report entries and road card entries of a single cost report. Every entry is passed to one accumulator: PR activity is labour cost,
+ * other activities are equipment or transport cost depending on cost category of machine type. Entries can be added one by one or as sums calculated
+ * in data base. Costs are kept by ids of estimate positions, estimate positions themselves are matched to costs only when cost report is made.
+ */
+public class WorkDocumentEntryCosts {
+
+  private final EquipmentCostAccumulator equipmentCostAccumulator = new EquipmentCostAccumulator();
+
+  private final TransportCostAccumulator transportCostAccumulator = new TransportCostAccumulator();
+
+  private final LabourCostAccumulator labourCostAccumulator = new LabourCostAccumulator();
+
+  public void add(WorkReportEntry workReportEntry) {
+    if (WorkCode.PR == workReportEntry.getWorkCode()) {
+      labourCostAccumulator.add(workReportEntry);
+    } else if (CostCategory.EQUIPMENT == getCostCategory(workReportEntry)) {
+      equipmentCostAccumulator.add(workReportEntry);
+    } else if (CostCategory.TRANSPORT == getCostCategory(workReportEntry)) {
+      transportCostAccumulator.add(workReportEntry);
+    }
+  }
+
+  public void add(RoadCardEntry roadCardEntry) {
+    if (WorkCode.PR == roadCardEntry.getWorkCode()) {
+      labourCostAccumulator.add(roadCardEntry);
+    } else if (CostCategory.EQUIPMENT == getCostCategory(roadCardEntry)) {
+      equipmentCostAccumulator.add(roadCardEntry);
+    } else if (CostCategory.TRANSPORT == getCostCategory(roadCardEntry)) {
+      transportCostAccumulator.add(roadCardEntry);
+    }
+  }
+
+  public void add(WorkReportEntryCostSum costSum, MachineType machineType) {
+    if (WorkCode.PR == costSum.getWorkCode()) {
+      labourCostAccumulator.add(costSum.getEstimatePositionId(), costSum.getWorkHoursCount(), costSum.getWorkSecondsValue());
+    } else if (CostCategory.EQUIPMENT == machineType.getCostCategory()) {
+      equipmentCostAccumulator.add(machineType, costSum);
+    } else if (CostCategory.TRANSPORT == machineType.getCostCategory()) {
+      transportCostAccumulator.add(machineType, costSum);
+    }
+  }
+
+  public void add(RoadCardEntryCostSum costSum, MachineType machineType) {
+    if (WorkCode.PR == costSum.getWorkCode()) {
+      labourCostAccumulator.add(costSum.getEstimatePositionId(), costSum.getWorkHoursCount(), costSum.getWorkSecondsValue());
+    } else if (CostCategory.EQUIPMENT == machineType.getCostCategory()) {
+      equipmentCostAccumulator.add(machineType, costSum);
+    } else if (CostCategory.TRANSPORT == machineType.getCostCategory()) {
+      transportCostAccumulator.add(machineType, costSum);
+    }
+  }
+
+  public EquipmentCostAccumulator getEquipmentCosts() {
+    return equipmentCostAccumulator;
+  }
+
+  public TransportCostAccumulator getTransportCosts() {
+    return transportCostAccumulator;
+  }
+
+  public LabourCostAccumulator getLabourCosts() {
+    return labourCostAccumulator;
+  }
+
+  private CostCategory getCostCategory(WorkReportEntry workReportEntry) {
+    return workReportEntry.getWorkDocument().getMachine().getMachineType().getCostCategory();
+  }
+
+  private CostCategory getCostCategory(RoadCardEntry roadCardEntry) {
+    return roadCardEntry.getWorkDocument().getMachine().getMachineType().getCostCategory();
+  }
+}
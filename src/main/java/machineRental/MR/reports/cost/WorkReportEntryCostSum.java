@@ -0,0 +1,33 @@
+package machineRental.MR.reports.cost;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import machineRental.MR.price.PriceType;
+import machineRental.MR.workDocumentEntry.WorkCode;
+
+/**
+ * Work report entries summed up in data base for a given estimate position, machine type, work code and price type.
+ * Time is summed up in seconds, so that hours (also of entries lasting past midnight) are divided by 3600 only once.
+ */
+@Data
+@AllArgsConstructor
+public class WorkReportEntryCostSum {
+
+  private Long estimatePositionId;
+  private Long machineTypeId;
+  private WorkCode workCode;
+  private PriceType priceType;
+  private Long workSeconds;
+//  sum of work seconds multiplied by hour price
+  private BigDecimal workSecondsValue;
+
+  public double getWorkHoursCount() {
+    return (double) workSeconds / 3600;
+  }
+
+  public BigDecimal getWorkHoursValue() {
+    return workSecondsValue.divide(BigDecimal.valueOf(3600), 10, RoundingMode.HALF_UP);
+  }
+}
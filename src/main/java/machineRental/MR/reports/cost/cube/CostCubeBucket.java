@@ -0,0 +1,16 @@
+package machineRental.MR.reports.cost.cube;
+
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Estimate position and day whose cells are recomputed together.
+ */
+@Data
+@AllArgsConstructor
+public class CostCubeBucket {
+
+  private Long estimatePositionId;
+  private LocalDate date;
+}
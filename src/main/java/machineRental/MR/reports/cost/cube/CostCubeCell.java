@@ -0,0 +1,124 @@
+package machineRental.MR.reports.cost.cube;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import lombok.Data;
+import machineRental.MR.price.PriceType;
+import machineRental.MR.workDocumentEntry.WorkCode;
+
+/**
+ * Sums of a single estimate position and day, grouped the same way as cost report groups them: entries of work documents by machine type, work code
+ * and price type, delivery document entries by material and price type, daily reports by estimate position only. Measures not applicable to a
+ * source are null. Cost category is not stored, it is taken from machine type when report is made, as it is for entries.
+ */
+@Data
+@Entity
+@Table(name = "cost_cube_cells")
+public class CostCubeCell {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cost_cube_cells_seq")
+  @SequenceGenerator(name = "cost_cube_cells_seq", sequenceName = "cost_cube_cells_seq", allocationSize = 50)
+  private Long id;
+
+  @Column(nullable = false)
+  private Long estimatePositionId;
+
+  @Column(nullable = false)
+  private LocalDate date;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false)
+  private CostCubeSource source;
+
+  @Column
+  private Long machineTypeId;
+
+  @Column
+  private Long materialId;
+
+  @Column
+  private WorkCode workCode;
+
+  @Enumerated(EnumType.STRING)
+  @Column
+  private PriceType priceType;
+
+  @Column
+  private Long workSeconds;
+
+  @Column
+  private BigDecimal workSecondsValue;
+
+  @Column
+  private Double distanceCount;
+
+  @Column
+  private Double distanceValue;
+
+  @Column
+  private Double quantityCount;
+
+  @Column
+  private Double quantityValue;
+
+  @Column
+  private BigDecimal runsValue;
+
+  public CostCubeCell() {
+  }
+
+//  constructors below are used by queries summing up entries of a day
+  public CostCubeCell(Long estimatePositionId, LocalDate date, Long machineTypeId, WorkCode workCode, PriceType priceType, Long workSeconds,
+      BigDecimal workSecondsValue) {
+    this(CostCubeSource.WORK_REPORT_ENTRY, estimatePositionId, date);
+    this.machineTypeId = machineTypeId;
+    this.workCode = workCode;
+    this.priceType = priceType;
+    this.workSeconds = workSeconds;
+    this.workSecondsValue = workSecondsValue;
+  }
+
+  public CostCubeCell(Long estimatePositionId, LocalDate date, Long machineTypeId, WorkCode workCode, PriceType priceType, Long workSeconds,
+      BigDecimal workSecondsValue, Double distanceCount, Double distanceValue, Double quantityCount, Double quantityValue, BigDecimal runsValue) {
+    this(CostCubeSource.ROAD_CARD_ENTRY, estimatePositionId, date);
+    this.machineTypeId = machineTypeId;
+    this.workCode = workCode;
+    this.priceType = priceType;
+    this.workSeconds = workSeconds;
+    this.workSecondsValue = workSecondsValue;
+    this.distanceCount = distanceCount;
+    this.distanceValue = distanceValue;
+    this.quantityCount = quantityCount;
+    this.quantityValue = quantityValue;
+    this.runsValue = runsValue;
+  }
+
+  public CostCubeCell(Long estimatePositionId, LocalDate date, Long materialId, PriceType priceType, Double quantityCount, Double quantityValue) {
+    this(CostCubeSource.DELIVERY_DOCUMENT_ENTRY, estimatePositionId, date);
+    this.materialId = materialId;
+    this.priceType = priceType;
+    this.quantityCount = quantityCount;
+    this.quantityValue = quantityValue;
+  }
+
+  public CostCubeCell(Long estimatePositionId, LocalDate date, Double quantityCount) {
+    this(CostCubeSource.DAILY_REPORT, estimatePositionId, date);
+    this.quantityCount = quantityCount;
+  }
+
+  private CostCubeCell(CostCubeSource source, Long estimatePositionId, LocalDate date) {
+    this.source = source;
+    this.estimatePositionId = estimatePositionId;
+    this.date = date;
+  }
+}
@@ -0,0 +1,247 @@
+package machineRental.MR.reports.cost.cube;
+
+import java.time.LocalDate;
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import machineRental.MR.dailyReport.DailyReport;
+import machineRental.MR.delivery.document.model.DeliveryDocument;
+import machineRental.MR.delivery.entry.model.DeliveryDocumentEntry;
+import machineRental.MR.estimate.model.EstimatePosition;
+import machineRental.MR.machine.model.Machine;
+import machineRental.MR.price.delivery.model.DeliveryPrice;
+import machineRental.MR.price.distance.model.DistancePrice;
+import machineRental.MR.price.hour.model.HourPrice;
+import machineRental.MR.workDocument.model.WorkDocument;
+import machineRental.MR.workDocumentEntry.model.RoadCardEntry;
+import machineRental.MR.workDocumentEntry.model.WorkReportEntry;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Collects changes affecting cost cube from Hibernate entity events of a transaction and refreshes cube once transaction is committed:
+ * <ul>
+ *   <li>entries and daily reports - bucket of their estimate position and date, before and after the change,</li>
+ *   <li>work and delivery documents - buckets of their entries, if date (or machine, which gives machine type) changed,</li>
+ *   <li>prices - buckets of entries priced by them, if price or price type changed,</li>
+ *   <li>machines - buckets of their entries, if machine type changed.</li>
+ * </ul>
+ * Bulk updates do not fire entity events, so code moving entries between prices with a single update has to report the price explicitly.
+ */
+@Component
+public class CostCubeChangeTracker implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  private CostCubeService costCubeService;
+
+  @PostConstruct
+  public void registerListeners() {
+    EventListenerRegistry eventListenerRegistry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+        .getServiceRegistry().getService(EventListenerRegistry.class);
+
+    eventListenerRegistry.appendListeners(EventType.POST_INSERT, this);
+    eventListenerRegistry.appendListeners(EventType.POST_UPDATE, this);
+    eventListenerRegistry.appendListeners(EventType.POST_DELETE, this);
+  }
+
+  public void hourPriceChanged(Long hourPriceId) {
+    CostCubeChanges changes = getChanges();
+    if (changes != null) {
+      changes.addHourPrice(hourPriceId);
+    }
+  }
+
+  public void distancePriceChanged(Long distancePriceId) {
+    CostCubeChanges changes = getChanges();
+    if (changes != null) {
+      changes.addDistancePrice(distancePriceId);
+    }
+  }
+
+  public void deliveryPriceChanged(Long deliveryPriceId) {
+    CostCubeChanges changes = getChanges();
+    if (changes != null) {
+      changes.addDeliveryPrice(deliveryPriceId);
+    }
+  }
+
+  @Override
+  public void onPostInsert(PostInsertEvent event) {
+    if (isBucketEntity(event.getEntity())) {
+      addBucket(event.getEntity());
+    }
+  }
+
+  @Override
+  public void onPostDelete(PostDeleteEvent event) {
+    if (isBucketEntity(event.getEntity())) {
+      addBucket(event.getEntity());
+    }
+  }
+
+  @Override
+  public void onPostUpdate(PostUpdateEvent event) {
+    Object entity = event.getEntity();
+
+    if (isBucketEntity(entity)) {
+      addBucket(entity);
+      addPreviousBucket(event);
+    } else if (entity instanceof WorkDocument && isChanged(event, "date", "machine")) {
+      WorkDocument workDocument = (WorkDocument) entity;
+      CostCubeChanges changes = getChanges();
+      if (changes != null) {
+        changes.addWorkDocument(workDocument.getId(), workDocument.getDate());
+        changes.addWorkDocument(workDocument.getId(), (LocalDate) getPreviousValue(event, "date"));
+      }
+    } else if (entity instanceof DeliveryDocument && isChanged(event, "date")) {
+      DeliveryDocument deliveryDocument = (DeliveryDocument) entity;
+      CostCubeChanges changes = getChanges();
+      if (changes != null) {
+        changes.addDeliveryDocument(deliveryDocument.getId(), deliveryDocument.getDate());
+        changes.addDeliveryDocument(deliveryDocument.getId(), (LocalDate) getPreviousValue(event, "date"));
+      }
+    } else if (entity instanceof HourPrice && isChanged(event, "price", "priceType")) {
+      hourPriceChanged(((HourPrice) entity).getId());
+    } else if (entity instanceof DistancePrice && isChanged(event, "price", "priceType")) {
+      distancePriceChanged(((DistancePrice) entity).getId());
+    } else if (entity instanceof DeliveryPrice && isChanged(event, "price", "priceType")) {
+      deliveryPriceChanged(((DeliveryPrice) entity).getId());
+    } else if (entity instanceof Machine && isChanged(event, "machineType")) {
+      CostCubeChanges changes = getChanges();
+      if (changes != null) {
+        changes.addMachine(((Machine) entity).getId());
+      }
+    }
+  }
+
+  @Override
+  public boolean requiresPostCommitHanding(EntityPersister persister) {
+    return false;
+  }
+
+  private boolean isBucketEntity(Object entity) {
+    return entity instanceof WorkReportEntry || entity instanceof RoadCardEntry || entity instanceof DeliveryDocumentEntry || entity instanceof DailyReport;
+  }
+
+  private void addBucket(Object entity) {
+    CostCubeChanges changes = getChanges();
+    if (changes == null) {
+      return;
+    }
+
+    if (entity instanceof WorkReportEntry) {
+      WorkReportEntry workReportEntry = (WorkReportEntry) entity;
+      changes.addBucket(getId(workReportEntry.getEstimatePosition()), getDate(workReportEntry.getWorkDocument()));
+    } else if (entity instanceof RoadCardEntry) {
+      RoadCardEntry roadCardEntry = (RoadCardEntry) entity;
+      changes.addBucket(getId(roadCardEntry.getEstimatePosition()), getDate(roadCardEntry.getWorkDocument()));
+    } else if (entity instanceof DeliveryDocumentEntry) {
+      DeliveryDocumentEntry deliveryDocumentEntry = (DeliveryDocumentEntry) entity;
+      changes.addBucket(getId(deliveryDocumentEntry.getEstimatePosition()), getDate(deliveryDocumentEntry.getDeliveryDocument()));
+    } else if (entity instanceof DailyReport) {
+      DailyReport dailyReport = (DailyReport) entity;
+      changes.addBucket(getId(dailyReport.getEstimatePosition()), dailyReport.getDate());
+    }
+  }
+
+  private void addPreviousBucket(PostUpdateEvent event) {
+    CostCubeChanges changes = getChanges();
+    if (changes == null || event.getOldState() == null) {
+      return;
+    }
+
+    Long estimatePositionId = getId((EstimatePosition) getPreviousValue(event, "estimatePosition"));
+    Object entity = event.getEntity();
+
+    if (entity instanceof WorkReportEntry || entity instanceof RoadCardEntry) {
+      changes.addBucket(estimatePositionId, getDate((WorkDocument) getPreviousValue(event, "workDocument")));
+    } else if (entity instanceof DeliveryDocumentEntry) {
+      changes.addBucket(estimatePositionId, getDate((DeliveryDocument) getPreviousValue(event, "deliveryDocument")));
+    } else if (entity instanceof DailyReport) {
+      changes.addBucket(estimatePositionId, (LocalDate) getPreviousValue(event, "date"));
+    }
+  }
+
+//  without dirty properties (eg. entity updated without being loaded first) every property is taken as changed
+  private boolean isChanged(PostUpdateEvent event, String... propertyNames) {
+    int[] dirtyProperties = event.getDirtyProperties();
+    if (dirtyProperties == null) {
+      return true;
+    }
+
+    for (String propertyName : propertyNames) {
+      int propertyIndex = event.getPersister().getEntityMetamodel().getPropertyIndex(propertyName);
+      for (int dirtyProperty : dirtyProperties) {
+        if (dirtyProperty == propertyIndex) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private Object getPreviousValue(PostUpdateEvent event, String propertyName) {
+    if (event.getOldState() == null) {
+      return null;
+    }
+    return event.getOldState()[event.getPersister().getEntityMetamodel().getPropertyIndex(propertyName)];
+  }
+
+  private Long getId(EstimatePosition estimatePosition) {
+    return estimatePosition == null ? null : estimatePosition.getId();
+  }
+
+  private LocalDate getDate(WorkDocument workDocument) {
+    return workDocument == null ? null : workDocument.getDate();
+  }
+
+  private LocalDate getDate(DeliveryDocument deliveryDocument) {
+    return deliveryDocument == null ? null : deliveryDocument.getDate();
+  }
+
+  /**
+   * Changes of current transaction, registered with the transaction on first change. Null outside of transaction, whose changes cannot be tracked.
+   */
+  private CostCubeChanges getChanges() {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      return null;
+    }
+
+    CostCubeChanges changes = (CostCubeChanges) TransactionSynchronizationManager.getResource(this);
+    if (changes != null) {
+      return changes;
+    }
+
+    CostCubeChanges newChanges = new CostCubeChanges();
+    TransactionSynchronizationManager.bindResource(this, newChanges);
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+      @Override
+      public void afterCommit() {
+        if (!newChanges.isEmpty()) {
+          costCubeService.refresh(newChanges);
+        }
+      }
+
+      @Override
+      public void afterCompletion(int status) {
+        TransactionSynchronizationManager.unbindResourceIfPossible(CostCubeChangeTracker.this);
+      }
+    });
+    return newChanges;
+  }
+}
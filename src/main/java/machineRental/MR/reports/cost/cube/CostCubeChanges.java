@@ -0,0 +1,66 @@
+package machineRental.MR.reports.cost.cube;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import lombok.Getter;
+
+/**
+ * Changes of a single transaction affecting cost cube. Changed entries and daily reports give their buckets directly. Changes of documents, prices
+ * and machines are kept by id and turned into buckets of their entries when cells are recomputed; documents keep also their dates from before the
+ * change, as their entries have to be removed from cells of those days.
+ */
+@Getter
+public class CostCubeChanges {
+
+  private final Set<CostCubeBucket> buckets = new HashSet<>();
+
+  private final Map<String, Set<LocalDate>> workDocumentDates = new HashMap<>();
+
+  private final Map<Long, Set<LocalDate>> deliveryDocumentDates = new HashMap<>();
+
+  private final Set<Long> hourPriceIds = new HashSet<>();
+
+  private final Set<Long> distancePriceIds = new HashSet<>();
+
+  private final Set<Long> deliveryPriceIds = new HashSet<>();
+
+  private final Set<Long> machineIds = new HashSet<>();
+
+  public void addBucket(Long estimatePositionId, LocalDate date) {
+    if (estimatePositionId != null && date != null) {
+      buckets.add(new CostCubeBucket(estimatePositionId, date));
+    }
+  }
+
+  public void addWorkDocument(String workDocumentId, LocalDate date) {
+    workDocumentDates.computeIfAbsent(workDocumentId, key -> new HashSet<>()).add(date);
+  }
+
+  public void addDeliveryDocument(Long deliveryDocumentId, LocalDate date) {
+    deliveryDocumentDates.computeIfAbsent(deliveryDocumentId, key -> new HashSet<>()).add(date);
+  }
+
+  public void addHourPrice(Long hourPriceId) {
+    hourPriceIds.add(hourPriceId);
+  }
+
+  public void addDistancePrice(Long distancePriceId) {
+    distancePriceIds.add(distancePriceId);
+  }
+
+  public void addDeliveryPrice(Long deliveryPriceId) {
+    deliveryPriceIds.add(deliveryPriceId);
+  }
+
+  public void addMachine(Long machineId) {
+    machineIds.add(machineId);
+  }
+
+  public boolean isEmpty() {
+    return buckets.isEmpty() && workDocumentDates.isEmpty() && deliveryDocumentDates.isEmpty() && hourPriceIds.isEmpty() && distancePriceIds.isEmpty()
+        && deliveryPriceIds.isEmpty() && machineIds.isEmpty();
+  }
+}
@@ -0,0 +1,83 @@
+package machineRental.MR.reports.cost.cube;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import machineRental.MR.ReadPool;
+import machineRental.MR.reports.cost.CostReport;
+import machineRental.MR.reports.cost.CostReportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Compares cost reports summed up from cost cube with cost reports summed up from entries. Cube and entries are read in one transaction, so they
+ * differ only if cube missed a change (or if it was not refreshed yet).
+ */
+@Service
+public class CostCubeConsistencyChecker {
+
+//  delivery and road card values are floating point sums, added up in different order by cube and by entries
+  private static final BigDecimal COST_TOLERANCE = new BigDecimal("0.01");
+
+  private static final double QUANTITY_TOLERANCE = 0.000001;
+
+  @Autowired
+  private CostReportService costReportService;
+
+  /**
+   * @param startDate Date after which data should be found.
+   * @param endDate Date before which data shoud be found.
+   * @param projectCode Project code for which data should be found.
+   * @return Measures differing by more than rounding of floating point sums, empty list if cube is consistent with entries.
+   */
+  @ReadPool
+  @Transactional(readOnly = true)
+  public List<CostCubeDifference> check(LocalDate startDate, LocalDate endDate, String projectCode) {
+    Map<Long, CostReport> entriesCostReports = costReportService.getCostReportsFromEntries(startDate, endDate, projectCode).stream()
+        .collect(Collectors.toMap(costReport -> costReport.getEstimatePosition().getId(), Function.identity()));
+
+    List<CostCubeDifference> differences = new ArrayList<>();
+
+    for (CostReport cubeCostReport : costReportService.getCostReportsFromCube(startDate, endDate, projectCode)) {
+      CostReport entriesCostReport = entriesCostReports.get(cubeCostReport.getEstimatePosition().getId());
+
+      compare(differences, cubeCostReport, "totalDailyReportQuantity",
+          cubeCostReport.getTotalDailyReportQuantity(), entriesCostReport.getTotalDailyReportQuantity());
+      compare(differences, cubeCostReport, "totalEquipmentCost.totalWorkHoursCount",
+          cubeCostReport.getTotalEquipmentCost().getTotalWorkHoursCount(), entriesCostReport.getTotalEquipmentCost().getTotalWorkHoursCount());
+      compare(differences, cubeCostReport, "totalEquipmentCost.totalCostValue",
+          cubeCostReport.getTotalEquipmentCost().getTotalCostValue(), entriesCostReport.getTotalEquipmentCost().getTotalCostValue());
+      compare(differences, cubeCostReport, "totalTransportCost.totalWorkHoursCount",
+          cubeCostReport.getTotalTransportCost().getTotalWorkHoursCount(), entriesCostReport.getTotalTransportCost().getTotalWorkHoursCount());
+      compare(differences, cubeCostReport, "totalTransportCost.totalCostValue",
+          cubeCostReport.getTotalTransportCost().getTotalCostValue(), entriesCostReport.getTotalTransportCost().getTotalCostValue());
+      compare(differences, cubeCostReport, "totalDeliveryCost.totalCostValue",
+          cubeCostReport.getTotalDeliveryCost().getTotalCostValue(), entriesCostReport.getTotalDeliveryCost().getTotalCostValue());
+      compare(differences, cubeCostReport, "totalLabourCost.totalWorkHoursCount",
+          cubeCostReport.getTotalLabourCost().getTotalWorkHoursCount(), entriesCostReport.getTotalLabourCost().getTotalWorkHoursCount());
+      compare(differences, cubeCostReport, "totalLabourCost.totalCostValue",
+          cubeCostReport.getTotalLabourCost().getTotalCostValue(), entriesCostReport.getTotalLabourCost().getTotalCostValue());
+    }
+
+    return differences;
+  }
+
+  private void compare(List<CostCubeDifference> differences, CostReport costReport, String measure, double cubeValue, double entriesValue) {
+    if (Math.abs(cubeValue - entriesValue) > QUANTITY_TOLERANCE) {
+      differences.add(new CostCubeDifference(costReport.getEstimatePosition().getId(), costReport.getEstimatePosition().getName(), measure,
+          String.valueOf(cubeValue), String.valueOf(entriesValue)));
+    }
+  }
+
+  private void compare(List<CostCubeDifference> differences, CostReport costReport, String measure, BigDecimal cubeValue, BigDecimal entriesValue) {
+    if (cubeValue.subtract(entriesValue).abs().compareTo(COST_TOLERANCE) > 0) {
+      differences.add(new CostCubeDifference(costReport.getEstimatePosition().getId(), costReport.getEstimatePosition().getName(), measure,
+          cubeValue.toPlainString(), entriesValue.toPlainString()));
+    }
+  }
+}
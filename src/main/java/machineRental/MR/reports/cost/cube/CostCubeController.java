@@ -0,0 +1,50 @@
+package machineRental.MR.reports.cost.cube;
+
+import java.time.LocalDate;
+import java.util.List;
+import machineRental.MR.exception.UnauthorizedException;
+import machineRental.MR.user.service.AuthorizationValidator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/costCube")
+public class CostCubeController {
+
+  @Autowired
+  private CostCubeService costCubeService;
+
+  @Autowired
+  private CostCubeConsistencyChecker costCubeConsistencyChecker;
+
+  @Autowired
+  private AuthorizationValidator authorizationValidator;
+
+  @PostMapping("/rebuild")
+  @ResponseStatus(HttpStatus.OK)
+  public void rebuild() {
+    if (!authorizationValidator.isAdmin()) {
+      throw new UnauthorizedException("You are not permitted to rebuild cost cube.");
+    }
+    costCubeService.rebuild();
+  }
+
+  @GetMapping("/check")
+  @ResponseStatus(HttpStatus.OK)
+  public List<CostCubeDifference> check(
+      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+      @RequestParam(name = "startDate") LocalDate startDate,
+      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+      @RequestParam(name = "endDate") LocalDate endDate,
+      @RequestParam(name = "projectCode") String projectCode) {
+
+    return costCubeConsistencyChecker.check(startDate, endDate, projectCode);
+  }
+}
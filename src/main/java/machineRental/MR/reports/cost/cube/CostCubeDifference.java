@@ -0,0 +1,20 @@
+package machineRental.MR.reports.cost.cube;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Measure of a cost report of an estimate position, which differs when summed up from cost cube and from entries.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CostCubeDifference {
+
+  private Long estimatePositionId;
+  private String estimatePositionName;
+  private String measure;
+  private String cubeValue;
+  private String entriesValue;
+}
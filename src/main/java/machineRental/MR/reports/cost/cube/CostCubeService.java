@@ -0,0 +1,267 @@
+package machineRental.MR.reports.cost.cube;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+import machineRental.MR.ReadPool;
+import machineRental.MR.reports.cost.LongDoubleMap;
+import machineRental.MR.reports.cost.LongObjectMap;
+import machineRental.MR.reports.cost.WorkDocumentEntryCostAggregator;
+import machineRental.MR.reports.cost.WorkDocumentEntryCosts;
+import machineRental.MR.reports.cost.delivery.DeliveryCostCalculator;
+import machineRental.MR.reports.cost.delivery.TotalDeliveryCost;
+import machineRental.MR.repository.CostCubeCellRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps cost cube: sums of entries and daily reports per estimate position and day. Cost report reads sums of cells between dates instead of reading
+ * entries, so its cost depends on number of days and groups, not on number of entries. Cells of a bucket are always recomputed from entries of that
+ * day, never adjusted by difference, so a bucket is correct after every refresh whatever changed in it.
+ * Cells are summed up in data base, like entries with cost-report.sum-in-database=true, so cost reports read them only with cost-report.use-cube=true,
+ * which is off by default until cube is checked against entries on MySQL (see CostCubeConsistencyChecker). Cube is kept up to date either way.
+ */
+@Service
+public class CostCubeService {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(CostCubeService.class);
+
+//  bounds of MySQL date type, used to rebuild cells of all days
+  private static final LocalDate FIRST_DAY = LocalDate.of(1000, 1, 1);
+
+  private static final LocalDate LAST_DAY = LocalDate.of(9999, 12, 31);
+
+  private static final int REBUILD_CHUNK_SIZE = 100;
+
+  @Autowired
+  private CostCubeCellRepository costCubeCellRepository;
+
+  @Autowired
+  private WorkDocumentEntryCostAggregator workDocumentEntryCostAggregator;
+
+  @Autowired
+  private DeliveryCostCalculator deliveryCostCalculator;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+//  changes of committed transactions, whose cells are not recomputed yet because refresh failed (lock timeout, deadlock, lost connection)
+  private final Queue<CostCubeChanges> pendingChanges = new ConcurrentLinkedQueue<>();
+
+  /**
+   * @param startDate Date after which data should be found.
+   * @param endDate Date before which data shoud be found.
+   * @param projectCode Project code for which data should be found.
+   */
+  @ReadPool
+  @Transactional(readOnly = true)
+  public WorkDocumentEntryCosts getWorkDocumentEntryCosts(LocalDate startDate, LocalDate endDate, String projectCode) {
+    return workDocumentEntryCostAggregator.getWorkDocumentEntryCosts(
+        costCubeCellRepository.sumWorkReportEntryCosts(startDate, endDate, projectCode),
+        costCubeCellRepository.sumRoadCardEntryCosts(startDate, endDate, projectCode));
+  }
+
+  /**
+   * @param startDate Date after which data should be found.
+   * @param endDate Date before which data shoud be found.
+   * @param projectCode Project code for which data should be found.
+   * @return Map in which every entry represents TotalDeliveryCost for a specific estimate position id.
+   */
+  @ReadPool
+  @Transactional(readOnly = true)
+  public LongObjectMap<TotalDeliveryCost> getTotalDeliveryCostByEstimatePositionId(LocalDate startDate, LocalDate endDate, String projectCode) {
+    return deliveryCostCalculator.getTotalDeliveryCostByEstimatePositionId(costCubeCellRepository.sumDeliveryDocumentEntryCosts(startDate, endDate, projectCode));
+  }
+
+  /**
+   * @param startDate Date after which data should be found.
+   * @param endDate Date before which data shoud be found.
+   * @param projectCode Project code for which data should be found.
+   * @return Total daily report quantity by estimate position id.
+   */
+  @ReadPool
+  @Transactional(readOnly = true)
+  public LongDoubleMap getDailyReportQuantityPerEstimatePositionId(LocalDate startDate, LocalDate endDate, String projectCode) {
+    List<DailyReportQuantitySum> quantitySums = costCubeCellRepository.sumDailyReportQuantities(startDate, endDate, projectCode);
+
+    LongDoubleMap estimatePositionIdToTotalDailyReportQuantity = new LongDoubleMap(quantitySums.size());
+    for (DailyReportQuantitySum quantitySum : quantitySums) {
+      estimatePositionIdToTotalDailyReportQuantity.add(quantitySum.getEstimatePositionId(), quantitySum.getQuantityCount());
+    }
+    return estimatePositionIdToTotalDailyReportQuantity;
+  }
+
+  /**
+   * Recomputes cells of buckets affected by changes of a committed transaction, together with changes of earlier refreshes which failed. Data is
+   * already committed, so changes of a failed refresh are kept and refreshed again with the next changes or by {@link #isUpToDate()}.
+   */
+  public void refresh(CostCubeChanges changes) {
+    pendingChanges.add(changes);
+    refreshPendingChanges();
+  }
+
+  /**
+   * Refreshes changes of failed refreshes first, if there are any. Cost reports are made from entries when it returns false, as cells of some
+   * buckets are behind entries. Cube is also brought up to date by {@link #rebuild()}.
+   */
+  public boolean isUpToDate() {
+    return pendingChanges.isEmpty() || refreshPendingChanges();
+  }
+
+  /**
+   * Runs in its own transaction reading committed data, with affected estimate positions locked first, so that refresh which started later always
+   * sees data committed by earlier ones.
+   */
+  private boolean refreshPendingChanges() {
+    List<CostCubeChanges> changes = takePendingChanges();
+    if (changes.isEmpty()) {
+      return true;
+    }
+
+    TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+    transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+    try {
+      transactionTemplate.execute(status -> {
+        recomputeBuckets(changes);
+        return null;
+      });
+      return true;
+    } catch (RuntimeException e) {
+      pendingChanges.addAll(changes);
+      LOGGER.error("Cost cube refresh failed, cost reports are made from entries until it is refreshed or rebuilt", e);
+      return false;
+    }
+  }
+
+  private void recomputeBuckets(List<CostCubeChanges> changes) {
+    Set<CostCubeBucket> buckets = new HashSet<>();
+    for (CostCubeChanges change : changes) {
+      buckets.addAll(getBuckets(change));
+    }
+    if (buckets.isEmpty()) {
+      return;
+    }
+
+    Map<LocalDate, Set<Long>> estimatePositionIdsByDate = buckets.stream()
+        .collect(Collectors.groupingBy(CostCubeBucket::getDate, TreeMap::new,
+            Collectors.mapping(CostCubeBucket::getEstimatePositionId, Collectors.toCollection(TreeSet::new))));
+
+    costCubeCellRepository.lockEstimatePositions(buckets.stream().map(CostCubeBucket::getEstimatePositionId).collect(Collectors.toCollection(TreeSet::new)));
+
+    estimatePositionIdsByDate.forEach((date, estimatePositionIds) -> recompute(estimatePositionIds, date, date));
+  }
+
+  /**
+   * Recomputes cells of all estimate positions and days. Estimate positions are rebuilt in chunks, each chunk in its own transaction, which locks
+   * estimate positions of the chunk and replaces their cells. Reports never see an estimate position partially rebuilt, and changes of entries wait
+   * for a single chunk only, not for the whole rebuild.
+   */
+  public void rebuild() {
+//    changes of failed refreshes are covered by rebuild, unless it fails as well; changes failing in the meantime are kept on their own
+    List<CostCubeChanges> rebuiltChanges = takePendingChanges();
+
+    try {
+      List<Long> estimatePositionIds = costCubeCellRepository.findAllEstimatePositionIds();
+      TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+      for (int i = 0; i < estimatePositionIds.size(); i += REBUILD_CHUNK_SIZE) {
+        List<Long> chunk = estimatePositionIds.subList(i, Math.min(i + REBUILD_CHUNK_SIZE, estimatePositionIds.size()));
+
+        transactionTemplate.execute(status -> {
+          costCubeCellRepository.lockEstimatePositions(chunk);
+          recompute(chunk, FIRST_DAY, LAST_DAY);
+          return null;
+        });
+      }
+    } catch (RuntimeException e) {
+      pendingChanges.addAll(rebuiltChanges);
+      throw e;
+    }
+  }
+
+  /**
+   * Builds cube of data base which had entries before cube was introduced. Empty cube of data base without entries is rebuilt as well, which reads
+   * no more than estimate position ids.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void buildIfEmpty() {
+    if (costCubeCellRepository.count() == 0) {
+      rebuild();
+    }
+  }
+
+  private void recompute(Collection<Long> estimatePositionIds, LocalDate startDate, LocalDate endDate) {
+    costCubeCellRepository.deleteByEstimatePositionIdInAndDateBetween(estimatePositionIds, startDate, endDate);
+
+    List<CostCubeCell> cells = new ArrayList<>();
+    cells.addAll(costCubeCellRepository.sumWorkReportEntriesByDay(estimatePositionIds, startDate, endDate));
+    cells.addAll(costCubeCellRepository.sumRoadCardEntriesByDay(estimatePositionIds, startDate, endDate));
+    cells.addAll(costCubeCellRepository.sumDeliveryDocumentEntriesByDay(estimatePositionIds, startDate, endDate));
+    cells.addAll(costCubeCellRepository.sumDailyReportsByDay(estimatePositionIds, startDate, endDate));
+
+    costCubeCellRepository.saveAll(cells);
+  }
+
+  private List<CostCubeChanges> takePendingChanges() {
+    List<CostCubeChanges> changes = new ArrayList<>();
+    for (CostCubeChanges change = pendingChanges.poll(); change != null; change = pendingChanges.poll()) {
+      changes.add(change);
+    }
+    return changes;
+  }
+
+  private Set<CostCubeBucket> getBuckets(CostCubeChanges changes) {
+    Set<CostCubeBucket> buckets = new HashSet<>(changes.getBuckets());
+
+    changes.getWorkDocumentDates().forEach((workDocumentId, dates) -> {
+      Set<Long> estimatePositionIds = new HashSet<>(costCubeCellRepository.findEstimatePositionIdsOfWorkReportEntries(workDocumentId));
+      estimatePositionIds.addAll(costCubeCellRepository.findEstimatePositionIdsOfRoadCardEntries(workDocumentId));
+      addBuckets(buckets, estimatePositionIds, dates);
+    });
+
+    changes.getDeliveryDocumentDates().forEach((deliveryDocumentId, dates) ->
+        addBuckets(buckets, costCubeCellRepository.findEstimatePositionIdsOfDeliveryDocumentEntries(deliveryDocumentId), dates));
+
+    if (!changes.getHourPriceIds().isEmpty()) {
+      buckets.addAll(costCubeCellRepository.findBucketsOfWorkReportEntriesByHourPriceIds(changes.getHourPriceIds()));
+    }
+    if (!changes.getDistancePriceIds().isEmpty()) {
+      buckets.addAll(costCubeCellRepository.findBucketsOfRoadCardEntriesByDistancePriceIds(changes.getDistancePriceIds()));
+    }
+    if (!changes.getDeliveryPriceIds().isEmpty()) {
+      buckets.addAll(costCubeCellRepository.findBucketsOfDeliveryDocumentEntriesByDeliveryPriceIds(changes.getDeliveryPriceIds()));
+    }
+    if (!changes.getMachineIds().isEmpty()) {
+      buckets.addAll(costCubeCellRepository.findBucketsOfWorkReportEntriesByMachineIds(changes.getMachineIds()));
+      buckets.addAll(costCubeCellRepository.findBucketsOfRoadCardEntriesByMachineIds(changes.getMachineIds()));
+    }
+
+    return buckets;
+  }
+
+  private void addBuckets(Set<CostCubeBucket> buckets, Collection<Long> estimatePositionIds, Set<LocalDate> dates) {
+    for (Long estimatePositionId : estimatePositionIds) {
+      for (LocalDate date : dates) {
+        buckets.add(new CostCubeBucket(estimatePositionId, date));
+      }
+    }
+  }
+}
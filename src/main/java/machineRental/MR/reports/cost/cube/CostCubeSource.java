@@ -0,0 +1,8 @@
+package machineRental.MR.reports.cost.cube;
+
+public enum CostCubeSource {
+  WORK_REPORT_ENTRY,
+  ROAD_CARD_ENTRY,
+  DELIVERY_DOCUMENT_ENTRY,
+  DAILY_REPORT
+}
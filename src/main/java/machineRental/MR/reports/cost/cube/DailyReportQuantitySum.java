@@ -0,0 +1,15 @@
+package machineRental.MR.reports.cost.cube;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Daily report quantities summed up in data base for a given estimate position.
+ */
+@Data
+@AllArgsConstructor
+public class DailyReportQuantitySum {
+
+  private Long estimatePositionId;
+  private Double quantityCount;
+}
@@ -1,18 +1,19 @@
 package machineRental.MR.reports.cost.delivery;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 import machineRental.MR.delivery.entry.model.DeliveryDocumentEntry;
 import machineRental.MR.delivery.entry.service.DeliveryDocumentEntryService;
-import machineRental.MR.estimate.model.EstimatePosition;
 import machineRental.MR.material.model.Material;
 import machineRental.MR.price.PriceType;
 import machineRental.MR.price.delivery.model.DeliveryPrice;
-import org.apache.commons.collections4.map.MultiKeyMap;
+import machineRental.MR.reports.cost.CostKeys;
+import machineRental.MR.reports.cost.CostValueSum;
+import machineRental.MR.reports.cost.LongObjectMap;
+import machineRental.MR.repository.MaterialRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -22,6 +23,9 @@ public class DeliveryCostCalculator {
   @Autowired
   private DeliveryDocumentEntryService deliveryDocumentEntryService;
 
+  @Autowired
+  private MaterialRepository materialRepository;
+
 //  public Map<EstimatePosition, BigDecimal> getTotalDeliveryCostPerEstimatePosition(LocalDate startDate, LocalDate endDate, String projectCode) {
 //    List<DeliveryDocumentEntry> deliveryDocumentEntries = deliveryDocumentEntryService
 //        .getDeliveryDocumentEntriesBetweenDatesByEstimateProjectCode(startDate, endDate, projectCode);
@@ -47,99 +51,120 @@ public class DeliveryCostCalculator {
    * @param startDate Date after which data should be found.
    * @param endDate Date before which data shoud be found.
    * @param projectCode Project code for which data should be found.
-   * @return Map in which every entry represents TotalDeliveryCost for a specific estimate position.
+   * @return Map in which every entry represents TotalDeliveryCost for a specific estimate position id.
    */
-  public Map<EstimatePosition, TotalDeliveryCost> getTotalDeliveryCostByEstimatePosition(LocalDate startDate, LocalDate endDate, String projectCode) {
+  public LongObjectMap<TotalDeliveryCost> getTotalDeliveryCostByEstimatePositionId(LocalDate startDate, LocalDate endDate, String projectCode) {
 
-    MultiKeyMap<Object, DeliveryCost> deliveryCostsMultiKeyMap = getDeliveryCostForEstimatePositionAndMaterial(startDate, endDate, projectCode);
+    LongObjectMap<LongObjectMap<DeliveryCostSum>> deliveryCostsByEstimatePositionId = getDeliveryCostForEstimatePositionAndMaterial(startDate, endDate, projectCode);
 
-    Map<EstimatePosition, TotalDeliveryCost> totalDeliveryCostsMap = getTotalDeliveryCostForEstimatePosition(deliveryCostsMultiKeyMap);
+    LongObjectMap<TotalDeliveryCost> totalDeliveryCostsMap = getTotalDeliveryCostForEstimatePosition(deliveryCostsByEstimatePositionId);
 
     return totalDeliveryCostsMap;
   }
 
+  /**
+   * @param costSums Delivery document entries summed up in data base by estimate position, material and price type.
+   * @return Map in which every entry represents TotalDeliveryCost for a specific estimate position id.
+   */
+  public LongObjectMap<TotalDeliveryCost> getTotalDeliveryCostByEstimatePositionId(List<DeliveryDocumentEntryCostSum> costSums) {
+    Set<Long> materialIds = costSums.stream().map(DeliveryDocumentEntryCostSum::getMaterialId).collect(Collectors.toSet());
+
+    LongObjectMap<Material> materials = new LongObjectMap<>(materialIds.size());
+    materialRepository.findAllById(materialIds).forEach(material -> materials.put(material.getId(), material));
+
+    return getTotalDeliveryCostByEstimatePositionId(costSums, materials);
+  }
+
+  /**
+   * @param costSums Delivery document entries summed up in data base by estimate position, material and price type.
+   * @param materials Materials of sums by their ids, already read (by portfolio cost report, once for all projects).
+   * @return Map in which every entry represents TotalDeliveryCost for a specific estimate position id.
+   */
+  public LongObjectMap<TotalDeliveryCost> getTotalDeliveryCostByEstimatePositionId(List<DeliveryDocumentEntryCostSum> costSums, LongObjectMap<Material> materials) {
+    LongObjectMap<LongObjectMap<DeliveryCostSum>> deliveryCostsByEstimatePositionId = new LongObjectMap<>();
+
+    for (DeliveryDocumentEntryCostSum costSum : costSums) {
+      getDeliveryCost(deliveryCostsByEstimatePositionId, costSum.getEstimatePositionId(), materials.get(costSum.getMaterialId()), costSum.getPriceType(),
+          costSum.getQuantityCount()).costValue.add(costSum.getQuantityValue());
+    }
+
+    return getTotalDeliveryCostForEstimatePosition(deliveryCostsByEstimatePositionId);
+  }
+
   /**
    * @param startDate Date after which data should be found.
    * @param endDate Date before which data shoud be found.
    * @param projectCode Project code for which data should be found.
-   * @return Map in which every entry represents DeliveryCost for a given estimate position and material. Delivery cost consists of material, price type, quantity
-   * and sum of cost value for that material.
+   * @return Map of delivery costs by estimate position id, in which every entry sums up delivery costs of a given material and price type (see CostKeys).
    */
-  private MultiKeyMap<Object, DeliveryCost> getDeliveryCostForEstimatePositionAndMaterial(LocalDate startDate, LocalDate endDate, String projectCode) {
+  private LongObjectMap<LongObjectMap<DeliveryCostSum>> getDeliveryCostForEstimatePositionAndMaterial(LocalDate startDate, LocalDate endDate,
+      String projectCode) {
     List<DeliveryDocumentEntry> deliveryDocumentEntries = deliveryDocumentEntryService
         .getDeliveryDocumentEntriesBetweenDatesByEstimateProjectCode(startDate, endDate, projectCode);
 
-    MultiKeyMap<Object, DeliveryCost> deliveryCostsMultiKeyMap = new MultiKeyMap<>();
+    LongObjectMap<LongObjectMap<DeliveryCostSum>> deliveryCostsByEstimatePositionId = new LongObjectMap<>();
 
     for (DeliveryDocumentEntry deliveryDocumentEntry : deliveryDocumentEntries) {
-
-      EstimatePosition estimatePosition = deliveryDocumentEntry.getEstimatePosition();
-      Material material = deliveryDocumentEntry.getMaterial();
       DeliveryPrice deliveryPrice = deliveryDocumentEntry.getDeliveryPrice();
-      PriceType priceType = deliveryPrice.getPriceType();
-
-      BigDecimal currentPrice = deliveryPrice.getPrice();
       double currentQuantity = deliveryDocumentEntry.getQuantity();
 
-      BigDecimal currentDeliveryCost = currentPrice.multiply(BigDecimal.valueOf(currentQuantity));
-
-      DeliveryCost deliveryCost = deliveryCostsMultiKeyMap.get(estimatePosition, material, priceType);
-
-      if (deliveryCost == null) {
-        deliveryCost = new DeliveryCost();
-        deliveryCost.setMaterial(material);
-        deliveryCost.setPriceType(priceType);
-        deliveryCost.setQuantityCount(currentQuantity);
-        deliveryCost.setCostValue(currentDeliveryCost);
-
-        deliveryCostsMultiKeyMap.put(estimatePosition, material, priceType, deliveryCost);
-      } else {
-        double previousQuantityCount = deliveryCost.getQuantityCount();
-        BigDecimal previousCostValue = deliveryCost.getCostValue();
+      getDeliveryCost(deliveryCostsByEstimatePositionId, deliveryDocumentEntry.getEstimatePosition().getId(), deliveryDocumentEntry.getMaterial(),
+          deliveryPrice.getPriceType(), currentQuantity).costValue.add(currentQuantity, deliveryPrice.getPrice());
+    }
+    return deliveryCostsByEstimatePositionId;
+  }
 
-        deliveryCost.setQuantityCount(previousQuantityCount + currentQuantity);
-        deliveryCost.setCostValue(previousCostValue.add(currentDeliveryCost));
+  private DeliveryCostSum getDeliveryCost(LongObjectMap<LongObjectMap<DeliveryCostSum>> deliveryCostsByEstimatePositionId, long estimatePositionId,
+      Material material, PriceType priceType, double currentQuantity) {
 
-        deliveryCostsMultiKeyMap.put(estimatePosition, material, priceType, deliveryCost);
-      }
+    LongObjectMap<DeliveryCostSum> deliveryCosts = deliveryCostsByEstimatePositionId.computeIfAbsent(estimatePositionId, id -> new LongObjectMap<>());
+    long key = CostKeys.of(material.getId(), priceType);
+    DeliveryCostSum deliveryCost = deliveryCosts.get(key);
 
+    if (deliveryCost == null) {
+      deliveryCost = new DeliveryCostSum(material, priceType);
+      deliveryCosts.put(key, deliveryCost);
     }
-    return deliveryCostsMultiKeyMap;
+    deliveryCost.quantityCount += currentQuantity;
+    return deliveryCost;
   }
 
   /**
-   * @param deliveryCostsMultiKeyMap Map in which every entry represents DeliveryCost for a given estimate position and material.
-   * @return Map in which every entry represents TotaDeliveryCost for a given estimate position. TotalDeliveryCost consists of a list of summed up delivery costs
+   * @param deliveryCostsByEstimatePositionId Map of delivery costs by estimate position id, in which every entry sums up delivery costs of a given material.
+   * @return Map in which every entry represents TotaDeliveryCost for a given estimate position id. TotalDeliveryCost consists of a list of summed up delivery costs
    * for each material and total cost value for all materials concerning specific estimate position
    * (that is material from DeliveryCost list).
    */
-  private Map<EstimatePosition, TotalDeliveryCost> getTotalDeliveryCostForEstimatePosition(MultiKeyMap<Object, DeliveryCost> deliveryCostsMultiKeyMap) {
-    Map<EstimatePosition, TotalDeliveryCost> totalDeliveryCostsMap = new HashMap<>();
-
-    deliveryCostsMultiKeyMap.forEach((key, value) -> {
-      EstimatePosition estimatePosition = (EstimatePosition) key.getKey(0);
-      TotalDeliveryCost totalDeliveryCost = totalDeliveryCostsMap.get(estimatePosition);
-
-      BigDecimal currentCostValue = value.getCostValue();
-
-      if (totalDeliveryCost == null) {
-        totalDeliveryCost = new TotalDeliveryCost();
-        List<DeliveryCost> deliveryCosts = new ArrayList<>();
-        deliveryCosts.add(value);
-        totalDeliveryCost.setDeliveryCosts(deliveryCosts);
-        totalDeliveryCost.setTotalCostValue(currentCostValue);
-        totalDeliveryCostsMap.put(estimatePosition, totalDeliveryCost);
-      } else {
-        List<DeliveryCost> deliveryCosts = totalDeliveryCost.getDeliveryCosts();
-        deliveryCosts.add(value);
+  private LongObjectMap<TotalDeliveryCost> getTotalDeliveryCostForEstimatePosition(LongObjectMap<LongObjectMap<DeliveryCostSum>> deliveryCostsByEstimatePositionId) {
+    LongObjectMap<TotalDeliveryCost> totalDeliveryCostsMap = new LongObjectMap<>(deliveryCostsByEstimatePositionId.size());
+
+    deliveryCostsByEstimatePositionId.forEach((estimatePositionId, deliveryCostsByKey) -> {
+      List<DeliveryCost> deliveryCosts = new ArrayList<>(deliveryCostsByKey.size());
+      CostValueSum totalCostValue = new CostValueSum();
+      deliveryCostsByKey.forEach((key, deliveryCost) -> {
+        deliveryCosts.add(new DeliveryCost(deliveryCost.material, deliveryCost.priceType, deliveryCost.quantityCount, deliveryCost.costValue.toBigDecimal()));
+        totalCostValue.add(deliveryCost.costValue);
+      });
+
+      TotalDeliveryCost totalDeliveryCost = new TotalDeliveryCost();
+      totalDeliveryCost.setDeliveryCosts(deliveryCosts);
+      totalDeliveryCost.setTotalCostValue(totalCostValue.toBigDecimal());
+      totalDeliveryCostsMap.put(estimatePositionId, totalDeliveryCost);
+    });
+    return totalDeliveryCostsMap;
+  }
 
-        BigDecimal previousTotalCostValue = totalDeliveryCost.getTotalCostValue();
+//  delivery cost of a material and price type while entries are added, cost value is converted to BigDecimal when cost report is made
+  private static class DeliveryCostSum {
 
-        totalDeliveryCost.setTotalCostValue(previousTotalCostValue.add(currentCostValue));
+    private final Material material;
+    private final PriceType priceType;
+    private double quantityCount;
+    private final CostValueSum costValue = new CostValueSum();
 
-        totalDeliveryCostsMap.put(estimatePosition, totalDeliveryCost);
-      }
-    });
-    return totalDeliveryCostsMap;
+    private DeliveryCostSum(Material material, PriceType priceType) {
+      this.material = material;
+      this.priceType = priceType;
+    }
   }
 }
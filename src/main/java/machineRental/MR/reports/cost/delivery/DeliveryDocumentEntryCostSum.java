@@ -0,0 +1,25 @@
+package machineRental.MR.reports.cost.delivery;
+
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import machineRental.MR.price.PriceType;
+
+/**
+ * Delivery document entries summed up in data base for a given estimate position, material and price type.
+ */
+@Data
+@AllArgsConstructor
+public class DeliveryDocumentEntryCostSum {
+
+  private Long estimatePositionId;
+  private Long materialId;
+  private PriceType priceType;
+  private Double quantityCount;
+//  quantity column is floating point, so is its product with price
+  private Double quantityValue;
+
+  public BigDecimal getCostValue() {
+    return BigDecimal.valueOf(quantityValue);
+  }
+}
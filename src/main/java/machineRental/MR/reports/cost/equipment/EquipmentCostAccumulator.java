@@ -0,0 +1,119 @@
+package machineRental.MR.reports.cost.equipment;
+
+import java.util.ArrayList;
+import java.util.List;
+import machineRental.MR.machineType.model.MachineType;
+import machineRental.MR.price.PriceType;
+import machineRental.MR.price.distance.model.DistancePrice;
+import machineRental.MR.reports.HoursCalculator;
+import machineRental.MR.reports.cost.CostValueSum;
+import machineRental.MR.reports.cost.LongObjectMap;
+import machineRental.MR.reports.cost.RoadCardEntryCostSum;
+import machineRental.MR.reports.cost.WorkReportEntryCostSum;
+import machineRental.MR.workDocumentEntry.WorkDocumentEntryValidator;
+import machineRental.MR.workDocumentEntry.model.RoadCardEntry;
+import machineRental.MR.workDocumentEntry.model.WorkReportEntry;
+
+/**
+ * Sums up costs of entries of machines with cost category EQUIPMENT (except PR activity, which is calculated as TotalLabourCost) for a single cost report.
+ */
+public class EquipmentCostAccumulator {
+
+  private HoursCalculator hoursCalculator = new HoursCalculator();
+
+//  equipment costs by id of estimate position, every entry of inner map sums up costs of a given machine type by its id
+  private final LongObjectMap<LongObjectMap<EquipmentCostSum>> equipmentCostsByEstimatePositionId = new LongObjectMap<>();
+
+  public void add(WorkReportEntry workReportEntry) {
+    double currentHoursCount = hoursCalculator.getNumberOfHours(workReportEntry);
+
+    if (!WorkDocumentEntryValidator.EXPLOITATION_WORK_CODES.contains(workReportEntry.getWorkCode())) {
+      currentHoursCount = 0;
+    }
+
+    getEquipmentCost(workReportEntry.getEstimatePosition().getId(), workReportEntry.getWorkDocument().getMachine().getMachineType(), currentHoursCount)
+        .costValue.addSeconds(hoursCalculator.getNumberOfSeconds(workReportEntry), workReportEntry.getHourPrice().getPrice());
+  }
+
+  public void add(RoadCardEntry roadCardEntry) {
+    double currentHoursCount = hoursCalculator.getNumberOfHours(roadCardEntry);
+
+    DistancePrice distancePrice = roadCardEntry.getDistancePrice();
+    double currentCount = PriceType.DISTANCE_KM == distancePrice.getPriceType() ? roadCardEntry.getDistance() : roadCardEntry.getQuantity();
+
+    if (!WorkDocumentEntryValidator.EXPLOITATION_WORK_CODES.contains(roadCardEntry.getWorkCode())) {
+      currentHoursCount = 0;
+    }
+
+    getEquipmentCost(roadCardEntry.getEstimatePosition().getId(), roadCardEntry.getWorkDocument().getMachine().getMachineType(), currentHoursCount)
+        .costValue.add(currentCount, distancePrice.getPrice());
+  }
+
+  public void add(MachineType machineType, WorkReportEntryCostSum costSum) {
+    double currentHoursCount = WorkDocumentEntryValidator.EXPLOITATION_WORK_CODES.contains(costSum.getWorkCode()) ? costSum.getWorkHoursCount() : 0;
+
+    getEquipmentCost(costSum.getEstimatePositionId(), machineType, currentHoursCount).costValue.addSecondsValue(costSum.getWorkSecondsValue());
+  }
+
+  public void add(MachineType machineType, RoadCardEntryCostSum costSum) {
+    double currentHoursCount = WorkDocumentEntryValidator.EXPLOITATION_WORK_CODES.contains(costSum.getWorkCode()) ? costSum.getWorkHoursCount() : 0;
+    double currentCostValue = PriceType.DISTANCE_KM == costSum.getPriceType() ? costSum.getDistanceValue() : costSum.getQuantityValue();
+
+    getEquipmentCost(costSum.getEstimatePositionId(), machineType, currentHoursCount).costValue.add(currentCostValue);
+  }
+
+  private EquipmentCostSum getEquipmentCost(long estimatePositionId, MachineType machineType, double currentHoursCount) {
+    LongObjectMap<EquipmentCostSum> equipmentCosts = equipmentCostsByEstimatePositionId.computeIfAbsent(estimatePositionId, id -> new LongObjectMap<>());
+    EquipmentCostSum equipmentCost = equipmentCosts.get(machineType.getId());
+
+    if (equipmentCost == null) {
+      equipmentCost = new EquipmentCostSum(machineType);
+      equipmentCosts.put(machineType.getId(), equipmentCost);
+    }
+    equipmentCost.workHoursCount += currentHoursCount;
+    return equipmentCost;
+  }
+
+  /**
+   * @return Map in which every entry represents TotaEquipmentCost for a given estimate position id. TotalEquipmentCost consists of a list of summed up equipment costs
+   * for each machine type, total work hours count and total cost value for all machine types concerning specific estimate position
+   * (that is machine types from EquipmentCost list).
+   */
+  public LongObjectMap<TotalEquipmentCost> getTotalEquipmentCostByEstimatePositionId() {
+    LongObjectMap<TotalEquipmentCost> totalEquipmentCostsMap = new LongObjectMap<>(equipmentCostsByEstimatePositionId.size());
+
+    equipmentCostsByEstimatePositionId.forEach((estimatePositionId, equipmentCostsByMachineTypeId) -> {
+      List<EquipmentCost> equipmentCosts = new ArrayList<>(equipmentCostsByMachineTypeId.size());
+      CostValueSum totalCostValue = new CostValueSum();
+      equipmentCostsByMachineTypeId.forEach((machineTypeId, equipmentCost) -> {
+        equipmentCosts.add(new EquipmentCost(equipmentCost.machineType, equipmentCost.workHoursCount, equipmentCost.costValue.toBigDecimal()));
+        totalCostValue.add(equipmentCost.costValue);
+      });
+
+      double totalWorkHoursCount = 0;
+      for (EquipmentCost equipmentCost : equipmentCosts) {
+        totalWorkHoursCount += equipmentCost.getWorkHoursCount();
+      }
+
+      TotalEquipmentCost totalEquipmentCost = new TotalEquipmentCost();
+      totalEquipmentCost.setEquipmentCosts(equipmentCosts);
+      totalEquipmentCost.setTotalWorkHoursCount(totalWorkHoursCount);
+      totalEquipmentCost.setTotalCostValue(totalCostValue.toBigDecimal());
+      totalEquipmentCostsMap.put(estimatePositionId, totalEquipmentCost);
+    });
+    return totalEquipmentCostsMap;
+  }
+
+//  equipment cost of a machine type while entries are added, cost value is converted to BigDecimal when cost report is made
+  private static class EquipmentCostSum {
+
+    private final MachineType machineType;
+    private double workHoursCount;
+    private final CostValueSum costValue = new CostValueSum();
+
+    private EquipmentCostSum(MachineType machineType) {
+      this.machineType = machineType;
+    }
+  }
+
+}
@@ -0,0 +1,69 @@
+package machineRental.MR.reports.cost.labour;
+
+import java.math.BigDecimal;
+import machineRental.MR.reports.HoursCalculator;
+import machineRental.MR.reports.cost.CostValueSum;
+import machineRental.MR.reports.cost.LongObjectMap;
+import machineRental.MR.workDocumentEntry.model.RoadCardEntry;
+import machineRental.MR.workDocumentEntry.model.WorkDocumentEntry;
+import machineRental.MR.workDocumentEntry.model.WorkReportEntry;
+
+/**
+ * Sums up costs of entries of PR activity (work report entries and road card entries) for a single cost report.
+ */
+public class LabourCostAccumulator {
+
+  private HoursCalculator hoursCalculator = new HoursCalculator();
+
+  private final LongObjectMap<LabourCostSum> labourCostsByEstimatePositionId = new LongObjectMap<>();
+
+  public void add(WorkDocumentEntry workDocumentEntry) {
+    LabourCostSum labourCost = getLabourCost(workDocumentEntry.getEstimatePosition().getId(), hoursCalculator.getNumberOfHours(workDocumentEntry));
+    long seconds = hoursCalculator.getNumberOfSeconds(workDocumentEntry);
+
+    if (workDocumentEntry instanceof WorkReportEntry) {
+      labourCost.costValue.addSeconds(seconds, ((WorkReportEntry) workDocumentEntry).getHourPrice().getPrice());
+    } else if (workDocumentEntry instanceof RoadCardEntry) {
+      labourCost.costValue.addSeconds(seconds, ((RoadCardEntry) workDocumentEntry).getDistancePrice().getPrice());
+    }
+  }
+
+  /**
+   * @param currentHoursCount Hours summed up in data base.
+   * @param currentSecondsValue Seconds multiplied by price (either hour price or distance price) summed up in data base.
+   */
+  public void add(long estimatePositionId, double currentHoursCount, BigDecimal currentSecondsValue) {
+    getLabourCost(estimatePositionId, currentHoursCount).costValue.addSecondsValue(currentSecondsValue);
+  }
+
+  /**
+   * @return Map in which every entry represents TotalLabourCost for a given estimate position id. TotalLabourCost consists of sum of work hours for that
+   * and sum of cost value.
+   */
+  public LongObjectMap<TotalLabourCost> getTotalLabourCostByEstimatePositionId() {
+    LongObjectMap<TotalLabourCost> totalLabourCostsMap = new LongObjectMap<>(labourCostsByEstimatePositionId.size());
+
+    labourCostsByEstimatePositionId.forEach((estimatePositionId, labourCost) ->
+        totalLabourCostsMap.put(estimatePositionId, new TotalLabourCost(labourCost.workHoursCount, labourCost.costValue.toBigDecimal())));
+    return totalLabourCostsMap;
+  }
+
+  private LabourCostSum getLabourCost(long estimatePositionId, double currentHoursCount) {
+    LabourCostSum labourCost = labourCostsByEstimatePositionId.get(estimatePositionId);
+
+    if (labourCost == null) {
+      labourCost = new LabourCostSum();
+      labourCostsByEstimatePositionId.put(estimatePositionId, labourCost);
+    }
+    labourCost.workHoursCount += currentHoursCount;
+    return labourCost;
+  }
+
+//  labour cost of an estimate position while entries are added, cost value is converted to BigDecimal when cost report is made
+  private static class LabourCostSum {
+
+    private double workHoursCount;
+    private final CostValueSum costValue = new CostValueSum();
+  }
+
+}
@@ -0,0 +1,152 @@
+package machineRental.MR.reports.cost.transport;
+
+import java.util.ArrayList;
+import java.util.List;
+import machineRental.MR.machineType.model.MachineType;
+import machineRental.MR.price.PriceType;
+import machineRental.MR.price.distance.model.DistancePrice;
+import machineRental.MR.price.hour.model.HourPrice;
+import machineRental.MR.reports.HoursCalculator;
+import machineRental.MR.reports.cost.CostKeys;
+import machineRental.MR.reports.cost.CostValueSum;
+import machineRental.MR.reports.cost.LongObjectMap;
+import machineRental.MR.reports.cost.RoadCardEntryCostSum;
+import machineRental.MR.reports.cost.WorkReportEntryCostSum;
+import machineRental.MR.workDocumentEntry.WorkDocumentEntryValidator;
+import machineRental.MR.workDocumentEntry.model.RoadCardEntry;
+import machineRental.MR.workDocumentEntry.model.WorkReportEntry;
+
+/**
+ * Sums up costs of entries of machines with cost category TRANSPORT (except PR activity, which is calculated as TotalLabourCost) for a single cost report.
+ */
+public class TransportCostAccumulator {
+
+  private HoursCalculator hoursCalculator = new HoursCalculator();
+
+//  transport costs by id of estimate position, every entry of inner map sums up costs of a given machine type and price type (see CostKeys)
+  private final LongObjectMap<LongObjectMap<TransportCostSum>> transportCostsByEstimatePositionId = new LongObjectMap<>();
+
+  public void add(RoadCardEntry roadCardEntry) {
+    DistancePrice distancePrice = roadCardEntry.getDistancePrice();
+    PriceType priceType = distancePrice.getPriceType();
+    double currentHoursCount = hoursCalculator.getNumberOfHours(roadCardEntry);
+
+    double currentDistance = roadCardEntry.getDistance();
+    double currentQuantity = roadCardEntry.getQuantity();
+
+    double currentCount;
+    if (PriceType.DISTANCE_KM == priceType) {
+      currentCount = currentDistance;
+    } else if (PriceType.DISTANCE_RUN == priceType) {
+      currentCount = roadCardEntry.getRunsNumber();
+    } else {
+      currentCount = currentQuantity;
+    }
+
+    if (!WorkDocumentEntryValidator.EXPLOITATION_WORK_CODES.contains(roadCardEntry.getWorkCode())) {
+      currentHoursCount = 0;
+    }
+
+    getTransportCost(roadCardEntry.getEstimatePosition().getId(), roadCardEntry.getWorkDocument().getMachine().getMachineType(), priceType, currentHoursCount,
+        currentDistance, currentQuantity).costValue.add(currentCount, distancePrice.getPrice());
+  }
+
+  public void add(WorkReportEntry workReportEntry) {
+    HourPrice hourPrice = workReportEntry.getHourPrice();
+    double currentHoursCount = hoursCalculator.getNumberOfHours(workReportEntry);
+
+    if (!WorkDocumentEntryValidator.EXPLOITATION_WORK_CODES.contains(workReportEntry.getWorkCode())) {
+      currentHoursCount = 0;
+    }
+
+    getTransportCost(workReportEntry.getEstimatePosition().getId(), workReportEntry.getWorkDocument().getMachine().getMachineType(), hourPrice.getPriceType(),
+        currentHoursCount, 0, 0).costValue.addSeconds(hoursCalculator.getNumberOfSeconds(workReportEntry), hourPrice.getPrice());
+  }
+
+  public void add(MachineType machineType, RoadCardEntryCostSum costSum) {
+    double currentHoursCount = WorkDocumentEntryValidator.EXPLOITATION_WORK_CODES.contains(costSum.getWorkCode()) ? costSum.getWorkHoursCount() : 0;
+
+    CostValueSum costValue = getTransportCost(costSum.getEstimatePositionId(), machineType, costSum.getPriceType(), currentHoursCount,
+        costSum.getDistanceCount(), costSum.getQuantityCount()).costValue;
+
+    if (PriceType.DISTANCE_KM == costSum.getPriceType()) {
+      costValue.add(costSum.getDistanceValue());
+    } else if (PriceType.DISTANCE_RUN == costSum.getPriceType()) {
+      costValue.add(costSum.getRunsValue());
+    } else {
+      costValue.add(costSum.getQuantityValue());
+    }
+  }
+
+  public void add(MachineType machineType, WorkReportEntryCostSum costSum) {
+    double currentHoursCount = WorkDocumentEntryValidator.EXPLOITATION_WORK_CODES.contains(costSum.getWorkCode()) ? costSum.getWorkHoursCount() : 0;
+
+    getTransportCost(costSum.getEstimatePositionId(), machineType, costSum.getPriceType(), currentHoursCount, 0, 0).costValue
+        .addSecondsValue(costSum.getWorkSecondsValue());
+  }
+
+  private TransportCostSum getTransportCost(long estimatePositionId, MachineType machineType, PriceType priceType, double currentHoursCount,
+      double currentDistance, double currentQuantity) {
+
+    LongObjectMap<TransportCostSum> transportCosts = transportCostsByEstimatePositionId.computeIfAbsent(estimatePositionId, id -> new LongObjectMap<>());
+    long key = CostKeys.of(machineType.getId(), priceType);
+    TransportCostSum transportCost = transportCosts.get(key);
+
+    if (transportCost == null) {
+      transportCost = new TransportCostSum(machineType, priceType);
+      transportCosts.put(key, transportCost);
+    }
+    transportCost.workHoursCount += currentHoursCount;
+    transportCost.distanceCount += currentDistance;
+    transportCost.quantityCount += currentQuantity;
+    return transportCost;
+  }
+
+  /**
+   * @return Map in which every entry represents TotaTransportCost for a given estimate position id. TotalTransportCost consists of a list of summed up transport costs
+   * for each machine type, total work hours count and total cost value for all machine types concerning specific estimate position
+   * (that is machine types from TransportCost list).
+   */
+  public LongObjectMap<TotalTransportCost> getTotalTransportCostByEstimatePositionId() {
+    LongObjectMap<TotalTransportCost> totalTransportCostsMap = new LongObjectMap<>(transportCostsByEstimatePositionId.size());
+
+    transportCostsByEstimatePositionId.forEach((estimatePositionId, transportCostsByKey) -> {
+      List<TransportCost> transportCosts = new ArrayList<>(transportCostsByKey.size());
+      CostValueSum totalCostValue = new CostValueSum();
+      transportCostsByKey.forEach((key, transportCost) -> {
+        transportCosts.add(new TransportCost(transportCost.machineType, transportCost.priceType, transportCost.workHoursCount, transportCost.distanceCount,
+            transportCost.quantityCount, transportCost.costValue.toBigDecimal()));
+        totalCostValue.add(transportCost.costValue);
+      });
+
+      double totalWorkHoursCount = 0;
+      for (TransportCost transportCost : transportCosts) {
+        totalWorkHoursCount += transportCost.getWorkHoursCount();
+      }
+
+      TotalTransportCost totalTransportCost = new TotalTransportCost();
+      totalTransportCost.setTransportCosts(transportCosts);
+      totalTransportCost.setTotalWorkHoursCount(totalWorkHoursCount);
+      totalTransportCost.setTotalCostValue(totalCostValue.toBigDecimal());
+      totalTransportCostsMap.put(estimatePositionId, totalTransportCost);
+    });
+    return totalTransportCostsMap;
+  }
+
+//  transport cost of a machine type and price type while entries are added, cost value is converted to BigDecimal when cost report is made
+  private static class TransportCostSum {
+
+    private final MachineType machineType;
+    private final PriceType priceType;
+    private double workHoursCount;
+    private double distanceCount;
+    private double quantityCount;
+    private final CostValueSum costValue = new CostValueSum();
+
+    private TransportCostSum(MachineType machineType, PriceType priceType) {
+      this.machineType = machineType;
+      this.priceType = priceType;
+    }
+  }
+
+}
@@ -0,0 +1,107 @@
+package machineRental.MR.reports.job;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Version of data reports are computed from, kept in report_data_version table, so that it is shared by all instances of application. Transaction
+ * which sends insert, update or delete statement through Hibernate (including bulk updates, which do not fire entity events) of a table reports read
+ * increments it once, with its first such statement, on connection of the transaction. Other transactions see the new version only when changed data
+ * is committed, and transactions changing report data wait for each other's commit at the version row.
+ * Version has to be read before data, from primary data base, so that report computed while data changes is stored under older version.
+ */
+@Component
+public class ReportDataVersion implements StatementInspector, HibernatePropertiesCustomizer {
+
+//  tables read by Excel and cost reports; orders, machine reservation versions, users, rental prices, id generators, cost cube cells (derived from
+//  entries) and report data version itself are not among them
+  private static final Set<String> REPORT_TABLES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+      "work_reports_entries", "road_cards_entries", "delivery_documents_entries", "work_documents", "delivery_documents", "daily_reports",
+      "hour_prices", "distance_prices", "delivery_prices", "estimates", "codes", "machines", "machine_types", "materials", "operators", "clients")));
+
+  @Autowired
+  private DataSource dataSource;
+
+  private JdbcTemplate jdbcTemplate;
+
+  @PostConstruct
+  public void init() {
+    jdbcTemplate = new JdbcTemplate(dataSource);
+  }
+
+  public long get() {
+    return jdbcTemplate.queryForObject("select version from report_data_version where id = 1", Long.class);
+  }
+
+  @Override
+  public String inspect(String sql) {
+    if (isReportDataChange(sql) && isFirstReportDataChangeOfTransaction()) {
+//      connection of current transaction is bound to data source by transaction manager, so version is changed in the same transaction as data
+      jdbcTemplate.update("update report_data_version set version = version + 1 where id = 1");
+    }
+    return sql;
+  }
+
+  @Override
+  public void customize(Map<String, Object> hibernateProperties) {
+    hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+  }
+
+  /**
+   * Statement sent without transaction synchronization (not expected of services) changes version on its own, committed before the statement.
+   */
+  private boolean isFirstReportDataChangeOfTransaction() {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      return true;
+    }
+    if (TransactionSynchronizationManager.hasResource(this)) {
+      return false;
+    }
+
+//    bound resource marks that version is already changed by current transaction
+    TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+      @Override
+      public void afterCompletion(int status) {
+        TransactionSynchronizationManager.unbindResourceIfPossible(ReportDataVersion.this);
+      }
+    });
+    return true;
+  }
+
+  /**
+   * Checks statements the way Hibernate writes them: "insert into table (...", "update table set ..." and "delete from table ...".
+   */
+  private boolean isReportDataChange(String sql) {
+    String statement = sql.trim().toLowerCase(Locale.ROOT);
+    String[] words = statement.split("[\\s(]+", 4);
+    if (words.length < 3) {
+      return false;
+    }
+
+    switch (words[0]) {
+      case "insert":
+      case "delete":
+        return REPORT_TABLES.contains(words[2]);
+      case "update":
+        return REPORT_TABLES.contains(words[1]);
+      default:
+        return false;
+    }
+  }
+}
@@ -0,0 +1,99 @@
+package machineRental.MR.reports.job;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.Set;
+import javax.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Stores report results in local directory. File name is made of report parameters and data version, so result is found only while data it was
+ * computed from has not changed. Results of older data versions are deleted by ReportJobService once no finished job refers to them.
+ */
+@Component
+public class ReportFileStore {
+
+  @Value("${reports.store.directory:${java.io.tmpdir}/machine-rental-reports}")
+  private String directory;
+
+  private Path root;
+
+  @FunctionalInterface
+  public interface ReportWriter {
+
+    void write(OutputStream out) throws IOException;
+  }
+
+  @PostConstruct
+  public void init() throws IOException {
+    root = Files.createDirectories(Paths.get(directory));
+
+//    data may have been changed outside of application since previous run (migrations, manual fixes), so its results are not kept
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(root)) {
+      for (Path file : files) {
+        Files.deleteIfExists(file);
+      }
+    }
+  }
+
+  public Optional<Path> find(ReportJob job, long dataVersion) {
+    Path file = root.resolve(getFileName(job, dataVersion));
+    return Files.isRegularFile(file) ? Optional.of(file) : Optional.empty();
+  }
+
+  /**
+   * Writes result to temporary file first and moves it to its name when complete, so that file found by name is never partially written.
+   */
+  public Path store(ReportJob job, long dataVersion, ReportWriter reportWriter) throws IOException {
+    Path file = root.resolve(getFileName(job, dataVersion));
+    Path temporaryFile = Files.createTempFile(root, "tmp-", ".part");
+    try {
+      try (OutputStream out = Files.newOutputStream(temporaryFile)) {
+        reportWriter.write(out);
+      }
+      Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temporaryFile);
+    }
+    return file;
+  }
+
+  /**
+   * Deletes results of the same report parameters as given job computed from data older than given version, except for given files.
+   * @param referencedFiles Results of jobs which can still be downloaded.
+   */
+  public void deleteOlderVersions(ReportJob job, long dataVersion, Set<Path> referencedFiles) {
+    String prefix = getFileNamePrefix(job);
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(root, prefix + "*")) {
+      for (Path otherFile : files) {
+        String otherFileName = otherFile.getFileName().toString();
+        long otherDataVersion = Long.parseLong(otherFileName.substring(prefix.length(), otherFileName.indexOf('-', prefix.length())));
+        if (otherDataVersion < dataVersion && !referencedFiles.contains(otherFile)) {
+          Files.deleteIfExists(otherFile);
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private String getFileName(ReportJob job, long dataVersion) {
+    return getFileNamePrefix(job) + dataVersion + "-" + job.getType().getFileName();
+  }
+
+  private String getFileNamePrefix(ReportJob job) {
+    String parameters = String.join("|", job.getType().name(), String.valueOf(job.getStartDate()), String.valueOf(job.getEndDate()),
+        String.valueOf(job.getProjectCode()));
+    return DigestUtils.md5DigestAsHex(parameters.getBytes(StandardCharsets.UTF_8)) + "-";
+  }
+}
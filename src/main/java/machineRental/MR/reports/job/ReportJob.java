@@ -0,0 +1,67 @@
+package machineRental.MR.reports.job;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import lombok.Getter;
+
+/**
+ * Report computed in background. Status and result are changed by executor thread and read by status requests, so they are volatile.
+ */
+@Getter
+public class ReportJob {
+
+  private final String id;
+
+  private final ReportType type;
+
+  private final LocalDate startDate;
+
+  private final LocalDate endDate;
+
+  private final String projectCode;
+
+  @JsonIgnore
+  private final String username;
+
+  private final LocalDateTime submitDate = LocalDateTime.now();
+
+  private volatile ReportJobStatus status = ReportJobStatus.QUEUED;
+
+  private volatile LocalDateTime finishDate;
+
+  private volatile String errorMessage;
+
+  @JsonIgnore
+  private volatile Path result;
+
+  public ReportJob(String id, ReportType type, LocalDate startDate, LocalDate endDate, String projectCode, String username) {
+    this.id = id;
+    this.type = type;
+    this.startDate = startDate;
+    this.endDate = endDate;
+    this.projectCode = projectCode;
+    this.username = username;
+  }
+
+  public boolean isFinished() {
+    return status == ReportJobStatus.DONE || status == ReportJobStatus.FAILED;
+  }
+
+  void start() {
+    status = ReportJobStatus.RUNNING;
+  }
+
+  void finish(Path result) {
+    this.result = result;
+    finishDate = LocalDateTime.now();
+    status = ReportJobStatus.DONE;
+  }
+
+  void fail(String errorMessage) {
+    this.errorMessage = errorMessage;
+    finishDate = LocalDateTime.now();
+    status = ReportJobStatus.FAILED;
+  }
+}
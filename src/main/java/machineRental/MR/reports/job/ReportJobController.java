@@ -0,0 +1,116 @@
+package machineRental.MR.reports.job;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.security.Principal;
+import java.time.LocalDate;
+import machineRental.MR.exception.ReportResultGoneException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Background counterpart of ReportsController and CostReportController: report is submitted as a job, its status is polled by job id and result is
+ * downloaded when job is done.
+ */
+@RestController
+@RequestMapping("/reportJobs")
+public class ReportJobController {
+
+  @Autowired
+  private ReportJobService reportJobService;
+
+  @PostMapping("/workReportEntriesReport")
+  @ResponseStatus(HttpStatus.ACCEPTED)
+  public ReportJob submitWorkReportEntryReport(
+      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+      @RequestParam(name = "startDate") LocalDate startDate,
+      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+      @RequestParam(name = "endDate") LocalDate endDate,
+      Principal principal) {
+
+    return reportJobService.submit(ReportType.WORK_REPORT_ENTRIES, startDate, endDate, null, principal.getName());
+  }
+
+  @PostMapping("/roadCardEntriesReport")
+  @ResponseStatus(HttpStatus.ACCEPTED)
+  public ReportJob submitRoadCardEntryReport(
+      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+      @RequestParam(name = "startDate") LocalDate startDate,
+      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+      @RequestParam(name = "endDate") LocalDate endDate,
+      Principal principal) {
+
+    return reportJobService.submit(ReportType.ROAD_CARD_ENTRIES, startDate, endDate, null, principal.getName());
+  }
+
+  @PostMapping("/deliveryDocumentEntriesReport")
+  @ResponseStatus(HttpStatus.ACCEPTED)
+  public ReportJob submitDeliveryDocumentEntryReport(
+      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+      @RequestParam(name = "startDate") LocalDate startDate,
+      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+      @RequestParam(name = "endDate") LocalDate endDate,
+      Principal principal) {
+
+    return reportJobService.submit(ReportType.DELIVERY_DOCUMENT_ENTRIES, startDate, endDate, null, principal.getName());
+  }
+
+  @PostMapping("/costReport")
+  @ResponseStatus(HttpStatus.ACCEPTED)
+  public ReportJob submitCostReport(
+      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+      @RequestParam(name = "startDate") LocalDate startDate,
+      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+      @RequestParam(name = "endDate") LocalDate endDate,
+      @RequestParam(name = "projectCode") String projectCode,
+      Principal principal) {
+
+    return reportJobService.submit(ReportType.COST, startDate, endDate, projectCode, principal.getName());
+  }
+
+  @GetMapping("/{id}")
+  @ResponseStatus(HttpStatus.OK)
+  public ReportJob getJob(@PathVariable String id, Principal principal) {
+    return reportJobService.getJob(id, principal.getName());
+  }
+
+//  file is opened before the method returns, so it can still be read if newer result replaces it in the store meanwhile
+  @GetMapping("/{id}/result")
+  public ResponseEntity<StreamingResponseBody> getResult(@PathVariable String id, Principal principal) throws IOException {
+    ReportJob job = reportJobService.getFinishedJob(id, principal.getName());
+    InputStream result;
+    try {
+      result = Files.newInputStream(job.getResult());
+    } catch (NoSuchFileException e) {
+//      results of finished jobs are kept, but file may still be removed from outside of application (e.g. by cleaning temporary directory)
+      throw new ReportResultGoneException(String.format("Result of report job with id: '%s' no longer exists", id));
+    }
+
+    HttpHeaders headers = new HttpHeaders();
+    headers.add("Content-Disposition", "attachment; filename=" + job.getType().getFileName());
+    headers.add("Content-Type", job.getType().getContentType());
+
+    return ResponseEntity
+        .ok()
+        .headers(headers)
+        .body(out -> {
+          try (InputStream in = result) {
+            StreamUtils.copy(in, out);
+          }
+        });
+  }
+}
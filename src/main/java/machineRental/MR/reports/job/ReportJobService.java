@@ -0,0 +1,229 @@
+package machineRental.MR.reports.job;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import machineRental.MR.exception.NotFoundException;
+import machineRental.MR.exception.ReportJobNotFinishedException;
+import machineRental.MR.exception.TooManyReportJobsException;
+import machineRental.MR.reports.DeliveryDocumentEntryReportGenerator;
+import machineRental.MR.reports.RoadCardEntryReportGenerator;
+import machineRental.MR.reports.WorkReportEntryReportGenerator;
+import machineRental.MR.reports.cost.CostReportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Computes reports in bounded pool of background threads and keeps results in ReportFileStore. Every user may have limited number of jobs queued or
+ * running at once. Job with the same parameters as already stored result of current data version is finished at once with that result, unless
+ * reports are read from a replica (spring.datasource.read.url other than spring.datasource.url), whose data may lag behind data version read from
+ * primary data base.
+ */
+@Service
+public class ReportJobService {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ReportJobService.class);
+
+  @Autowired
+  private WorkReportEntryReportGenerator workReportEntryReportGenerator;
+
+  @Autowired
+  private RoadCardEntryReportGenerator roadCardEntryReportGenerator;
+
+  @Autowired
+  private DeliveryDocumentEntryReportGenerator deliveryDocumentEntryReportGenerator;
+
+  @Autowired
+  private CostReportService costReportService;
+
+  @Autowired
+  private ReportFileStore reportFileStore;
+
+  @Autowired
+  private ReportDataVersion reportDataVersion;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Value("${reports.jobs.pool-size:2}")
+  private int poolSize;
+
+  @Value("${reports.jobs.queue-capacity:20}")
+  private int queueCapacity;
+
+  @Value("${reports.jobs.max-per-user:2}")
+  private int maxJobsPerUser;
+
+  @Value("${reports.jobs.retention-minutes:60}")
+  private long retentionMinutes;
+
+  @Value("${spring.datasource.url}")
+  private String primaryUrl;
+
+  @Value("${spring.datasource.read.url:${spring.datasource.url}}")
+  private String readUrl;
+
+  private boolean reuseResults;
+
+  private ThreadPoolExecutor executor;
+
+  private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+
+  private final Map<String, AtomicInteger> activeJobsCountByUsername = new ConcurrentHashMap<>();
+
+  @PostConstruct
+  public void init() {
+    executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+        new CustomizableThreadFactory("report-job-"));
+    reuseResults = readUrl.equals(primaryUrl);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  public ReportJob submit(ReportType type, LocalDate startDate, LocalDate endDate, String projectCode, String username) {
+    removeExpiredJobs();
+
+    ReportJob job = new ReportJob(UUID.randomUUID().toString(), type, startDate, endDate, projectCode, username);
+
+    Optional<Path> storedResult = findStoredResult(job, reportDataVersion.get());
+    if (storedResult.isPresent()) {
+      job.finish(storedResult.get());
+      jobs.put(job.getId(), job);
+      return job;
+    }
+
+    AtomicInteger activeJobsCount = activeJobsCountByUsername.computeIfAbsent(username, key -> new AtomicInteger());
+    if (activeJobsCount.incrementAndGet() > maxJobsPerUser) {
+      activeJobsCount.decrementAndGet();
+      throw new TooManyReportJobsException(String.format("User %s already has %s reports in progress", username, maxJobsPerUser));
+    }
+
+    jobs.put(job.getId(), job);
+    try {
+      executor.execute(() -> run(job, activeJobsCount));
+    } catch (RejectedExecutionException e) {
+      jobs.remove(job.getId());
+      activeJobsCount.decrementAndGet();
+      throw new TooManyReportJobsException("Report queue is full, try again later");
+    }
+    return job;
+  }
+
+  public ReportJob getJob(String id, String username) {
+    ReportJob job = jobs.get(id);
+    if (job == null || !job.getUsername().equals(username)) {
+      throw new NotFoundException(String.format("Report job with id: '%s' not found", id));
+    }
+    return job;
+  }
+
+  public ReportJob getFinishedJob(String id, String username) {
+    ReportJob job = getJob(id, username);
+    if (job.getStatus() != ReportJobStatus.DONE) {
+      throw new ReportJobNotFinishedException(String.format("Report job with id: '%s' is %s", id, job.getStatus()));
+    }
+    return job;
+  }
+
+  private void run(ReportJob job, AtomicInteger activeJobsCount) {
+    job.start();
+//    version is read before data, so result computed while data changes is stored under older version and not served later
+    long dataVersion = reportDataVersion.get();
+    Path result;
+    try {
+      Optional<Path> storedResult = findStoredResult(job, dataVersion);
+      result = storedResult.isPresent() ? storedResult.get() : reportFileStore.store(job, dataVersion, out -> writeReport(job, out));
+    } catch (Exception e) {
+      LOGGER.error("Report job {} ({}) failed", job.getId(), job.getType(), e);
+      activeJobsCount.decrementAndGet();
+      job.fail(e.getMessage());
+      return;
+    }
+//    count is decreased before status is changed, so user who sees job finished can submit next one at once
+    activeJobsCount.decrementAndGet();
+    job.finish(result);
+
+    deleteOlderResults(job, dataVersion);
+  }
+
+  private Optional<Path> findStoredResult(ReportJob job, long dataVersion) {
+    return reuseResults ? reportFileStore.find(job, dataVersion) : Optional.empty();
+  }
+
+  /**
+   * Deletes results of the same parameters as given job computed from data older than given version, unless a finished job still refers to them.
+   * Failure is only logged, as it does not affect the job.
+   */
+  private void deleteOlderResults(ReportJob job, long dataVersion) {
+    Set<Path> referencedResults = jobs.values().stream()
+        .filter(otherJob -> otherJob.getStatus() == ReportJobStatus.DONE)
+        .map(ReportJob::getResult)
+        .collect(Collectors.toSet());
+    try {
+      reportFileStore.deleteOlderVersions(job, dataVersion, referencedResults);
+    } catch (UncheckedIOException e) {
+      LOGGER.warn("Older results of report job {} could not be deleted", job.getId(), e);
+    }
+  }
+
+  private void writeReport(ReportJob job, OutputStream out) throws IOException {
+    switch (job.getType()) {
+      case WORK_REPORT_ENTRIES:
+        workReportEntryReportGenerator.exportExcelReport(job.getStartDate(), job.getEndDate(), job.getType().getSheetName(), out);
+        break;
+      case ROAD_CARD_ENTRIES:
+        roadCardEntryReportGenerator.exportExcelReport(job.getStartDate(), job.getEndDate(), job.getType().getSheetName(), out);
+        break;
+      case DELIVERY_DOCUMENT_ENTRIES:
+        deliveryDocumentEntryReportGenerator.exportExcelReport(job.getStartDate(), job.getEndDate(), job.getType().getSheetName(), out);
+        break;
+      case COST:
+        objectMapper.writeValue(out, costReportService.getCostReports(job.getStartDate(), job.getEndDate(), job.getProjectCode()));
+        break;
+    }
+  }
+
+  /**
+   * Removes jobs finished before retention time, together with their results if these are no longer current nor referred to by other jobs.
+   */
+  private void removeExpiredJobs() {
+    LocalDateTime expiryDate = LocalDateTime.now().minusMinutes(retentionMinutes);
+    List<ReportJob> expiredJobs = jobs.values().stream()
+        .filter(job -> job.isFinished() && job.getFinishDate().isBefore(expiryDate))
+        .collect(Collectors.toList());
+    if (expiredJobs.isEmpty()) {
+      return;
+    }
+
+    expiredJobs.forEach(job -> jobs.remove(job.getId()));
+    long dataVersion = reportDataVersion.get();
+    expiredJobs.stream()
+        .filter(job -> job.getStatus() == ReportJobStatus.DONE)
+        .forEach(job -> deleteOlderResults(job, dataVersion));
+  }
+}
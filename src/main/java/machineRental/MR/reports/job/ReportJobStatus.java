@@ -0,0 +1,5 @@
+package machineRental.MR.reports.job;
+
+public enum ReportJobStatus {
+  QUEUED, RUNNING, DONE, FAILED
+}
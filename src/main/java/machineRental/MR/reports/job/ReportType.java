@@ -0,0 +1,25 @@
+package machineRental.MR.reports.job;
+
+import lombok.Getter;
+
+@Getter
+public enum ReportType {
+
+  WORK_REPORT_ENTRIES("workReportEntries.xlsx", "WorkReportEntries"),
+  ROAD_CARD_ENTRIES("roadCardEntries.xlsx", "RoadCardEntries"),
+  DELIVERY_DOCUMENT_ENTRIES("deliveryDocumentEntries.xlsx", "DelivertDocumentEntries"),
+  COST("costReports.json", null);
+
+  private final String fileName;
+
+  private final String sheetName;
+
+  ReportType(String fileName, String sheetName) {
+    this.fileName = fileName;
+    this.sheetName = sheetName;
+  }
+
+  public String getContentType() {
+    return sheetName == null ? "application/json" : "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+  }
+}
@@ -1,12 +1,20 @@
 package machineRental.MR.repository;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import javax.persistence.QueryHint;
 import machineRental.MR.client.model.Client;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 public interface ClientRepository extends JpaRepository<Client, Long> {
 
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     boolean existsByMpk(String mpk);
 
     Page<Client> findByMpkContainingAndNameContainingAndCityContainingAndPostalCodeContainingAndEmailContainingAndContactPersonContainingAndPhoneNumberContaining(
@@ -20,5 +28,12 @@ public interface ClientRepository extends JpaRepository<Client, Long> {
             Pageable pageable
     );
 
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     Client findByMpk(String mpk);
+
+    List<Client> findByMpkIn(Collection<String> mpks);
+
+    default Map<String, Client> mapByMpk(Collection<String> mpks) {
+        return mpks.isEmpty() ? new HashMap<>() : findByMpkIn(mpks).stream().collect(Collectors.toMap(Client::getMpk, client -> client));
+    }
 }
@@ -1,17 +1,49 @@
 package machineRental.MR.repository;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.persistence.QueryHint;
 import machineRental.MR.costcode.model.CostCode;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 public interface CostCodeRepository extends JpaRepository<CostCode, Long> {
 
+  @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
   boolean existsByFullCode(String fullCode);
 
+  @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
   boolean existsByProjectCode(String projectCode);
 
   Page<CostCode> findByProjectCodeContainingAndCostTypeContaining(String projectCode, String costType, Pageable pageable);
 
+  @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
   CostCode findByFullCode(String fullCode);
+
+  List<CostCode> findByFullCodeIn(Collection<String> fullCodes);
+
+  @Query("SELECT DISTINCT c.projectCode FROM CostCode c ORDER BY c.projectCode")
+  List<String> findAllProjectCodes();
+
+  @Query("SELECT DISTINCT c.projectCode FROM CostCode c WHERE c.projectCode IN ?1")
+  Set<String> findProjectCodesIn(Collection<String> projectCodes);
+
+  default Map<String, CostCode> mapByFullCode(Collection<String> fullCodes) {
+    return fullCodes.isEmpty() ? new HashMap<>() : findByFullCodeIn(fullCodes).stream().collect(Collectors.toMap(CostCode::getFullCode, costCode -> costCode));
+  }
+
+  /**
+   * @return Those of given project codes which exist in data base.
+   */
+  default Set<String> findExistingProjectCodes(Collection<String> projectCodes) {
+    return projectCodes.isEmpty() ? new HashSet<>() : findProjectCodesIn(projectCodes);
+  }
 }
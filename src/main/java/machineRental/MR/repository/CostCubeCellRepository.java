@@ -0,0 +1,156 @@
+package machineRental.MR.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import javax.persistence.LockModeType;
+import machineRental.MR.estimate.model.EstimatePosition;
+import machineRental.MR.reports.cost.RoadCardEntryCostSum;
+import machineRental.MR.reports.cost.WorkReportEntryCostSum;
+import machineRental.MR.reports.cost.cube.CostCubeBucket;
+import machineRental.MR.reports.cost.cube.CostCubeCell;
+import machineRental.MR.reports.cost.cube.DailyReportQuantitySum;
+import machineRental.MR.reports.cost.delivery.DeliveryDocumentEntryCostSum;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface CostCubeCellRepository extends JpaRepository<CostCubeCell, Long> {
+
+//  estimate positions are locked before their cells are recomputed, so that two transactions never write cells of the same estimate position at once
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT p FROM EstimatePosition p WHERE p.id IN ?1 ORDER BY p.id")
+  List<EstimatePosition> lockEstimatePositions(Collection<Long> estimatePositionIds);
+
+  @Query("SELECT p.id FROM EstimatePosition p ORDER BY p.id")
+  List<Long> findAllEstimatePositionIds();
+
+  @Modifying
+  @Query("DELETE FROM CostCubeCell c WHERE c.estimatePositionId IN ?1 AND c.date BETWEEN ?2 AND ?3")
+  int deleteByEstimatePositionIdInAndDateBetween(Collection<Long> estimatePositionIds, LocalDate startDate, LocalDate endDate);
+
+//  sums of entries per day, cells of cube
+  @Query("SELECT new machineRental.MR.reports.cost.cube.CostCubeCell(e.estimatePosition.id, d.date, t.id, e.workCode, p.priceType, "
+      + "SUM((time_to_sec(e.endHour) - time_to_sec(e.startHour) + CASE WHEN e.endHour < e.startHour THEN 86400 ELSE 0 END)), SUM((time_to_sec(e.endHour) - time_to_sec(e.startHour) + CASE WHEN e.endHour < e.startHour THEN 86400 ELSE 0 END) * p.price)) "
+      + "FROM WorkReportEntry e JOIN e.workDocument d JOIN d.machine m JOIN m.machineType t JOIN e.hourPrice p "
+      + "WHERE e.estimatePosition.id IN ?1 AND d.date BETWEEN ?2 AND ?3 "
+      + "GROUP BY e.estimatePosition.id, d.date, t.id, e.workCode, p.priceType")
+  List<CostCubeCell> sumWorkReportEntriesByDay(Collection<Long> estimatePositionIds, LocalDate startDate, LocalDate endDate);
+
+  @Query("SELECT new machineRental.MR.reports.cost.cube.CostCubeCell(e.estimatePosition.id, d.date, t.id, e.workCode, p.priceType, "
+      + "SUM((time_to_sec(e.endHour) - time_to_sec(e.startHour) + CASE WHEN e.endHour < e.startHour THEN 86400 ELSE 0 END)), SUM((time_to_sec(e.endHour) - time_to_sec(e.startHour) + CASE WHEN e.endHour < e.startHour THEN 86400 ELSE 0 END) * p.price), "
+      + "SUM(e.distance), SUM(e.distance * p.price), SUM(e.quantity), SUM(e.quantity * p.price), SUM(e.runsNumber * p.price)) "
+      + "FROM RoadCardEntry e JOIN e.workDocument d JOIN d.machine m JOIN m.machineType t JOIN e.distancePrice p "
+      + "WHERE e.estimatePosition.id IN ?1 AND d.date BETWEEN ?2 AND ?3 "
+      + "GROUP BY e.estimatePosition.id, d.date, t.id, e.workCode, p.priceType")
+  List<CostCubeCell> sumRoadCardEntriesByDay(Collection<Long> estimatePositionIds, LocalDate startDate, LocalDate endDate);
+
+  @Query("SELECT new machineRental.MR.reports.cost.cube.CostCubeCell(e.estimatePosition.id, d.date, e.material.id, p.priceType, "
+      + "SUM(e.quantity), SUM(e.quantity * p.price)) "
+      + "FROM DeliveryDocumentEntry e JOIN e.deliveryDocument d JOIN e.deliveryPrice p "
+      + "WHERE e.estimatePosition.id IN ?1 AND d.date BETWEEN ?2 AND ?3 "
+      + "GROUP BY e.estimatePosition.id, d.date, e.material.id, p.priceType")
+  List<CostCubeCell> sumDeliveryDocumentEntriesByDay(Collection<Long> estimatePositionIds, LocalDate startDate, LocalDate endDate);
+
+  @Query("SELECT new machineRental.MR.reports.cost.cube.CostCubeCell(r.estimatePosition.id, r.date, SUM(r.quantity)) "
+      + "FROM DailyReport r "
+      + "WHERE r.estimatePosition.id IN ?1 AND r.date BETWEEN ?2 AND ?3 "
+      + "GROUP BY r.estimatePosition.id, r.date")
+  List<CostCubeCell> sumDailyReportsByDay(Collection<Long> estimatePositionIds, LocalDate startDate, LocalDate endDate);
+
+//  sums of cells between dates, in the same shape as sums of entries read by cost report
+  @Query("SELECT new machineRental.MR.reports.cost.WorkReportEntryCostSum(c.estimatePositionId, c.machineTypeId, c.workCode, c.priceType, "
+      + "SUM(c.workSeconds), SUM(c.workSecondsValue)) "
+      + "FROM CostCubeCell c, EstimatePosition ep "
+      + "WHERE ep.id = c.estimatePositionId AND ep.costCode.projectCode = ?3 AND c.date BETWEEN ?1 AND ?2 "
+      + "AND c.source = machineRental.MR.reports.cost.cube.CostCubeSource.WORK_REPORT_ENTRY "
+      + "GROUP BY c.estimatePositionId, c.machineTypeId, c.workCode, c.priceType")
+  List<WorkReportEntryCostSum> sumWorkReportEntryCosts(LocalDate startDate, LocalDate endDate, String projectCode);
+
+  @Query("SELECT new machineRental.MR.reports.cost.RoadCardEntryCostSum(c.estimatePositionId, c.machineTypeId, c.workCode, c.priceType, "
+      + "SUM(c.workSeconds), SUM(c.workSecondsValue), SUM(c.distanceCount), SUM(c.distanceValue), SUM(c.quantityCount), SUM(c.quantityValue), SUM(c.runsValue)) "
+      + "FROM CostCubeCell c, EstimatePosition ep "
+      + "WHERE ep.id = c.estimatePositionId AND ep.costCode.projectCode = ?3 AND c.date BETWEEN ?1 AND ?2 "
+      + "AND c.source = machineRental.MR.reports.cost.cube.CostCubeSource.ROAD_CARD_ENTRY "
+      + "GROUP BY c.estimatePositionId, c.machineTypeId, c.workCode, c.priceType")
+  List<RoadCardEntryCostSum> sumRoadCardEntryCosts(LocalDate startDate, LocalDate endDate, String projectCode);
+
+  @Query("SELECT new machineRental.MR.reports.cost.delivery.DeliveryDocumentEntryCostSum(c.estimatePositionId, c.materialId, c.priceType, "
+      + "SUM(c.quantityCount), SUM(c.quantityValue)) "
+      + "FROM CostCubeCell c, EstimatePosition ep "
+      + "WHERE ep.id = c.estimatePositionId AND ep.costCode.projectCode = ?3 AND c.date BETWEEN ?1 AND ?2 "
+      + "AND c.source = machineRental.MR.reports.cost.cube.CostCubeSource.DELIVERY_DOCUMENT_ENTRY "
+      + "GROUP BY c.estimatePositionId, c.materialId, c.priceType")
+  List<DeliveryDocumentEntryCostSum> sumDeliveryDocumentEntryCosts(LocalDate startDate, LocalDate endDate, String projectCode);
+
+  @Query("SELECT new machineRental.MR.reports.cost.cube.DailyReportQuantitySum(c.estimatePositionId, SUM(c.quantityCount)) "
+      + "FROM CostCubeCell c, EstimatePosition ep "
+      + "WHERE ep.id = c.estimatePositionId AND ep.costCode.projectCode = ?3 AND c.date BETWEEN ?1 AND ?2 "
+      + "AND c.source = machineRental.MR.reports.cost.cube.CostCubeSource.DAILY_REPORT "
+      + "GROUP BY c.estimatePositionId")
+  List<DailyReportQuantitySum> sumDailyReportQuantities(LocalDate startDate, LocalDate endDate, String projectCode);
+
+//  the same sums for several projects at once, read by portfolio cost report
+  @Query("SELECT new machineRental.MR.reports.cost.WorkReportEntryCostSum(c.estimatePositionId, c.machineTypeId, c.workCode, c.priceType, "
+      + "SUM(c.workSeconds), SUM(c.workSecondsValue)) "
+      + "FROM CostCubeCell c, EstimatePosition ep "
+      + "WHERE ep.id = c.estimatePositionId AND ep.costCode.projectCode IN ?3 AND c.date BETWEEN ?1 AND ?2 "
+      + "AND c.source = machineRental.MR.reports.cost.cube.CostCubeSource.WORK_REPORT_ENTRY "
+      + "GROUP BY c.estimatePositionId, c.machineTypeId, c.workCode, c.priceType")
+  Stream<WorkReportEntryCostSum> streamWorkReportEntryCosts(LocalDate startDate, LocalDate endDate, Collection<String> projectCodes);
+
+  @Query("SELECT new machineRental.MR.reports.cost.RoadCardEntryCostSum(c.estimatePositionId, c.machineTypeId, c.workCode, c.priceType, "
+      + "SUM(c.workSeconds), SUM(c.workSecondsValue), SUM(c.distanceCount), SUM(c.distanceValue), SUM(c.quantityCount), SUM(c.quantityValue), SUM(c.runsValue)) "
+      + "FROM CostCubeCell c, EstimatePosition ep "
+      + "WHERE ep.id = c.estimatePositionId AND ep.costCode.projectCode IN ?3 AND c.date BETWEEN ?1 AND ?2 "
+      + "AND c.source = machineRental.MR.reports.cost.cube.CostCubeSource.ROAD_CARD_ENTRY "
+      + "GROUP BY c.estimatePositionId, c.machineTypeId, c.workCode, c.priceType")
+  Stream<RoadCardEntryCostSum> streamRoadCardEntryCosts(LocalDate startDate, LocalDate endDate, Collection<String> projectCodes);
+
+  @Query("SELECT new machineRental.MR.reports.cost.delivery.DeliveryDocumentEntryCostSum(c.estimatePositionId, c.materialId, c.priceType, "
+      + "SUM(c.quantityCount), SUM(c.quantityValue)) "
+      + "FROM CostCubeCell c, EstimatePosition ep "
+      + "WHERE ep.id = c.estimatePositionId AND ep.costCode.projectCode IN ?3 AND c.date BETWEEN ?1 AND ?2 "
+      + "AND c.source = machineRental.MR.reports.cost.cube.CostCubeSource.DELIVERY_DOCUMENT_ENTRY "
+      + "GROUP BY c.estimatePositionId, c.materialId, c.priceType")
+  Stream<DeliveryDocumentEntryCostSum> streamDeliveryDocumentEntryCosts(LocalDate startDate, LocalDate endDate, Collection<String> projectCodes);
+
+  @Query("SELECT new machineRental.MR.reports.cost.cube.DailyReportQuantitySum(c.estimatePositionId, SUM(c.quantityCount)) "
+      + "FROM CostCubeCell c, EstimatePosition ep "
+      + "WHERE ep.id = c.estimatePositionId AND ep.costCode.projectCode IN ?3 AND c.date BETWEEN ?1 AND ?2 "
+      + "AND c.source = machineRental.MR.reports.cost.cube.CostCubeSource.DAILY_REPORT "
+      + "GROUP BY c.estimatePositionId")
+  Stream<DailyReportQuantitySum> streamDailyReportQuantities(LocalDate startDate, LocalDate endDate, Collection<String> projectCodes);
+
+//  buckets of entries affected by changes made without entry events (price or machine changes, bulk updates)
+  @Query("SELECT DISTINCT new machineRental.MR.reports.cost.cube.CostCubeBucket(e.estimatePosition.id, e.workDocument.date) "
+      + "FROM WorkReportEntry e WHERE e.hourPrice.id IN ?1")
+  List<CostCubeBucket> findBucketsOfWorkReportEntriesByHourPriceIds(Collection<Long> hourPriceIds);
+
+  @Query("SELECT DISTINCT new machineRental.MR.reports.cost.cube.CostCubeBucket(e.estimatePosition.id, e.workDocument.date) "
+      + "FROM RoadCardEntry e WHERE e.distancePrice.id IN ?1")
+  List<CostCubeBucket> findBucketsOfRoadCardEntriesByDistancePriceIds(Collection<Long> distancePriceIds);
+
+  @Query("SELECT DISTINCT new machineRental.MR.reports.cost.cube.CostCubeBucket(e.estimatePosition.id, e.deliveryDocument.date) "
+      + "FROM DeliveryDocumentEntry e WHERE e.deliveryPrice.id IN ?1")
+  List<CostCubeBucket> findBucketsOfDeliveryDocumentEntriesByDeliveryPriceIds(Collection<Long> deliveryPriceIds);
+
+  @Query("SELECT DISTINCT new machineRental.MR.reports.cost.cube.CostCubeBucket(e.estimatePosition.id, e.workDocument.date) "
+      + "FROM WorkReportEntry e WHERE e.workDocument.machine.id IN ?1")
+  List<CostCubeBucket> findBucketsOfWorkReportEntriesByMachineIds(Collection<Long> machineIds);
+
+  @Query("SELECT DISTINCT new machineRental.MR.reports.cost.cube.CostCubeBucket(e.estimatePosition.id, e.workDocument.date) "
+      + "FROM RoadCardEntry e WHERE e.workDocument.machine.id IN ?1")
+  List<CostCubeBucket> findBucketsOfRoadCardEntriesByMachineIds(Collection<Long> machineIds);
+
+  @Query("SELECT DISTINCT e.estimatePosition.id FROM WorkReportEntry e WHERE e.workDocument.id = ?1")
+  List<Long> findEstimatePositionIdsOfWorkReportEntries(String workDocumentId);
+
+  @Query("SELECT DISTINCT e.estimatePosition.id FROM RoadCardEntry e WHERE e.workDocument.id = ?1")
+  List<Long> findEstimatePositionIdsOfRoadCardEntries(String workDocumentId);
+
+  @Query("SELECT DISTINCT e.estimatePosition.id FROM DeliveryDocumentEntry e WHERE e.deliveryDocument.id = ?1")
+  List<Long> findEstimatePositionIdsOfDeliveryDocumentEntries(Long deliveryDocumentId);
+}
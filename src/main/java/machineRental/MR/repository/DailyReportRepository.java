@@ -1,12 +1,16 @@
 package machineRental.MR.repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 import machineRental.MR.dailyReport.DailyReport;
 import machineRental.MR.estimate.model.EstimatePosition;
+import machineRental.MR.reports.cost.cube.DailyReportQuantitySum;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 public interface DailyReportRepository extends JpaRepository<DailyReport, Long> {
 
@@ -16,6 +20,18 @@ public interface DailyReportRepository extends JpaRepository<DailyReport, Long>
 
   Page<DailyReport> findByEstimatePosition_NameContainingAndEstimatePosition_CostCode_FullCodeContainingAndLocationContaining(String estimatePositionName, String estimatePositionCostCode, String location, Pageable pageable);
 
+  @Query("SELECT r FROM DailyReport r JOIN FETCH r.estimatePosition p JOIN FETCH p.costCode c"
+      + " WHERE (?1 IS NULL OR r.date = ?1) AND p.name LIKE %?2% AND c.fullCode LIKE %?3% AND r.location LIKE %?4%"
+      + " AND (?5 IS NULL OR r.date >= ?5 AND (r.date > ?5 OR r.id > ?6)) ORDER BY r.date, r.id")
+  List<DailyReport> findKeysetPage(LocalDate date, String estimatePositionName, String estimatePositionCostCode, String location, LocalDate afterDate, Long afterId,
+      Pageable pageable);
+
   List<DailyReport> findByDateBetweenAndEstimatePosition_CostCode_ProjectCode(LocalDate startDate, LocalDate endDate, String projectCode);
 
+  @Query("SELECT new machineRental.MR.reports.cost.cube.DailyReportQuantitySum(r.estimatePosition.id, SUM(r.quantity)) "
+      + "FROM DailyReport r "
+      + "WHERE r.date BETWEEN ?1 AND ?2 AND r.estimatePosition.costCode.projectCode IN ?3 "
+      + "GROUP BY r.estimatePosition.id")
+  Stream<DailyReportQuantitySum> streamQuantitiesBetweenDatesByEstimateProjectCodes(LocalDate startDate, LocalDate endDate, Collection<String> projectCodes);
+
 }
@@ -1,11 +1,17 @@
 package machineRental.MR.repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 import machineRental.MR.delivery.entry.model.DeliveryDocumentEntry;
+import machineRental.MR.price.delivery.model.DeliveryPrice;
+import machineRental.MR.reports.cost.delivery.DeliveryDocumentEntryCostSum;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
-public interface DeliveryDocumentEntryRepository extends JpaRepository<DeliveryDocumentEntry, Long> {
+public interface DeliveryDocumentEntryRepository extends JpaRepository<DeliveryDocumentEntry, Long>, DeliveryDocumentEntryRepositoryCustom {
 
 
   List<DeliveryDocumentEntry> findByDeliveryDocument_DocumentNumber(String deliveryDocumentNumber);
@@ -19,12 +25,26 @@ public interface DeliveryDocumentEntryRepository extends JpaRepository<DeliveryD
 
   List<DeliveryDocumentEntry> findAllByDeliveryPrice_Id(Long priceId);
 
+  long countByDeliveryPrice_Id(Long priceId);
+
+  long countByDeliveryPrice_IdAndDeliveryDocument_DateBetween(Long priceId, LocalDate startDate, LocalDate endDate);
+
+  @Modifying
+  @Query("UPDATE DeliveryDocumentEntry e SET e.deliveryPrice = ?2 WHERE e.deliveryPrice.id = ?1"
+      + " AND e.deliveryDocument IN (SELECT d FROM DeliveryDocument d WHERE d.date BETWEEN ?3 AND ?4)")
+  int updateDeliveryPriceByDate(Long priceId, DeliveryPrice deliveryPrice, LocalDate startDate, LocalDate endDate);
+
   List<DeliveryDocumentEntry> findByEstimatePosition_CostCode_ProjectCode(String projectCode);
 
   List<DeliveryDocumentEntry> findByEstimatePosition_Id(Long estimateId);
 
-  List<DeliveryDocumentEntry> findByDeliveryDocument_DateBetween(LocalDate startDate, LocalDate endDate);
-
   List<DeliveryDocumentEntry> findByDeliveryDocument_DateBetweenAndEstimatePosition_CostCode_ProjectCodeEquals(LocalDate startDate, LocalDate endDate, String projectCode);
 
+  @Query("SELECT new machineRental.MR.reports.cost.delivery.DeliveryDocumentEntryCostSum(e.estimatePosition.id, e.material.id, p.priceType, "
+      + "SUM(e.quantity), SUM(e.quantity * p.price)) "
+      + "FROM DeliveryDocumentEntry e JOIN e.deliveryDocument d JOIN e.deliveryPrice p "
+      + "WHERE d.date BETWEEN ?1 AND ?2 AND e.estimatePosition.costCode.projectCode IN ?3 "
+      + "GROUP BY e.estimatePosition.id, e.material.id, p.priceType")
+  Stream<DeliveryDocumentEntryCostSum> streamCostsBetweenDatesByEstimateProjectCodes(LocalDate startDate, LocalDate endDate, Collection<String> projectCodes);
+
 }
@@ -0,0 +1,13 @@
+package machineRental.MR.repository;
+
+import java.time.LocalDate;
+import java.util.stream.Stream;
+import machineRental.MR.delivery.entry.model.DeliveryDocumentEntry;
+
+/**
+ * Queries streaming entries with fetch size of reports.stream-fetch-size, see EntryStreamRepository.
+ */
+public interface DeliveryDocumentEntryRepositoryCustom {
+
+  Stream<DeliveryDocumentEntry> streamForReportByDeliveryDocument_DateBetween(LocalDate startDate, LocalDate endDate);
+}
@@ -0,0 +1,20 @@
+package machineRental.MR.repository;
+
+import java.time.LocalDate;
+import java.util.stream.Stream;
+import machineRental.MR.delivery.entry.model.DeliveryDocumentEntry;
+
+class DeliveryDocumentEntryRepositoryImpl extends EntryStreamRepository implements DeliveryDocumentEntryRepositoryCustom {
+
+//  whole graph of eager associations used by report is fetched with entry, so no secondary select is issued per row
+  @Override
+  public Stream<DeliveryDocumentEntry> streamForReportByDeliveryDocument_DateBetween(LocalDate startDate, LocalDate endDate) {
+    return stream("SELECT e FROM DeliveryDocumentEntry e JOIN FETCH e.deliveryDocument d LEFT JOIN FETCH d.contractor "
+        + "LEFT JOIN FETCH e.contractor LEFT JOIN FETCH e.material "
+        + "LEFT JOIN FETCH e.deliveryPrice p LEFT JOIN FETCH p.contractor LEFT JOIN FETCH p.material "
+        + "LEFT JOIN FETCH e.estimatePosition ep LEFT JOIN FETCH ep.costCode "
+        + "LEFT JOIN FETCH e.costCode "
+        + "WHERE d.date BETWEEN ?1 AND ?2",
+        DeliveryDocumentEntry.class, startDate, endDate);
+  }
+}
@@ -10,12 +10,19 @@ import machineRental.MR.price.PriceType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 public interface DeliveryPriceRepository extends JpaRepository<DeliveryPrice, Long> {
 
 
   Page<DeliveryPrice> findByContractor_NameContainingAndMaterial_TypeContainingAndPriceTypeInAndProjectCodeContaining(String contractorName, String materialTYpe, List<PriceType> priceType, String projectCode, Pageable pageable);
 
+  @Query("SELECT p FROM DeliveryPrice p JOIN FETCH p.contractor c JOIN FETCH p.material m"
+      + " WHERE c.name LIKE %?1% AND m.type LIKE %?2% AND p.priceType IN ?3 AND p.projectCode LIKE %?4%"
+      + " AND (?5 IS NULL OR p.startDate >= ?5 AND (p.startDate > ?5 OR p.id > ?6)) ORDER BY p.startDate, p.id")
+  List<DeliveryPrice> findKeysetPage(String contractorName, String materialType, List<PriceType> priceType, String projectCode, LocalDate afterStartDate, Long afterId,
+      Pageable pageable);
+
   List<DeliveryPrice> findByContractor_MpkContaining(String contractorMpk);
 
   DeliveryPrice findByContractorAndMaterialAndPriceTypeInAndPriceAndStartDateAndEndDateAndProjectCode(
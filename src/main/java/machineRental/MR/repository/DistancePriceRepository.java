@@ -2,6 +2,7 @@ package machineRental.MR.repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import machineRental.MR.price.distance.model.DistancePrice;
 import machineRental.MR.price.PriceType;
@@ -9,13 +10,20 @@ import machineRental.MR.workDocumentEntry.WorkCode;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 public interface DistancePriceRepository extends JpaRepository<DistancePrice, Long> {
 
     Page<DistancePrice> findByWorkCodeInAndMachineInternalIdContainingAndPriceTypeIn(List<WorkCode> workCode, String machineNumber, List<PriceType> priceType, Pageable pageable);
 
+    @Query("SELECT p FROM DistancePrice p JOIN FETCH p.machine m WHERE p.workCode IN ?1 AND m.internalId LIKE %?2% AND p.priceType IN ?3"
+        + " AND (?4 IS NULL OR p.startDate >= ?4 AND (p.startDate > ?4 OR p.id > ?5)) ORDER BY p.startDate, p.id")
+    List<DistancePrice> findKeysetPage(List<WorkCode> workCode, String machineNumber, List<PriceType> priceType, LocalDate afterStartDate, Long afterId, Pageable pageable);
+
     List<DistancePrice> findByMachineInternalIdEquals(String machineNumber);
 
+    List<DistancePrice> findByMachineInternalIdIn(Collection<String> machineInternalIds);
+
     DistancePrice findByWorkCodeInAndMachineInternalIdAndPriceTypeInAndPriceAndRangeMinAndRangeMaxAndStartDateAndEndDateAndProjectCode(
         WorkCode workCode,
         String machineInternalId,
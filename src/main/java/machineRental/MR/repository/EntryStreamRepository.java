@@ -0,0 +1,35 @@
+package machineRental.MR.repository;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import org.hibernate.query.Query;
+import org.springframework.beans.factory.annotation.Value;
+
+/**
+ * Base of custom repository implementations streaming entries of reports. MySQL driver streams rows one by one only with fetch size
+ * Integer.MIN_VALUE (the default of reports.stream-fetch-size), otherwise it reads all rows into memory before first is returned. Other drivers (such
+ * as H2 of tests) reject negative fetch size, so it is a property rather than a constant of @QueryHints.
+ */
+abstract class EntryStreamRepository {
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Value("${reports.stream-fetch-size:" + Integer.MIN_VALUE + "}")
+  private int fetchSize;
+
+  /**
+   * Streams results of given JPQL query with given positional parameters (?1, ?2, ...). Must be called in transaction, which the stream is closed in.
+   */
+  <T> Stream<T> stream(String query, Class<T> resultClass, Object... parameters) {
+    TypedQuery<T> typedQuery = entityManager.createQuery(query, resultClass).setHint(HINT_FETCH_SIZE, fetchSize);
+    for (int i = 0; i < parameters.length; i++) {
+      typedQuery.setParameter(i + 1, parameters[i]);
+    }
+    return typedQuery.unwrap(Query.class).stream();
+  }
+}
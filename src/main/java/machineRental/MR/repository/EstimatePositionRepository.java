@@ -1,5 +1,7 @@
 package machineRental.MR.repository;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import machineRental.MR.estimate.model.EstimatePosition;
 import org.springframework.data.domain.Page;
@@ -13,7 +15,15 @@ public interface EstimatePositionRepository extends JpaRepository<EstimatePositi
 
   boolean existsByNameAndCostCode_ProjectCode(String name, String projectCode);
 
+  List<EstimatePosition> findByNameIn(Collection<String> names);
+
+  default List<EstimatePosition> findByNames(Collection<String> names) {
+    return names.isEmpty() ? new ArrayList<>() : findByNameIn(names);
+  }
+
   List<EstimatePosition> findByCostCode_Id(Long id);
 
   List<EstimatePosition> findByCostCode_ProjectCodeEquals(String projectCode);
+
+  List<EstimatePosition> findByCostCode_ProjectCodeIn(Collection<String> projectCodes);
 }
@@ -10,11 +10,16 @@ import machineRental.MR.workDocumentEntry.WorkCode;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 public interface HourPriceRepository extends JpaRepository<HourPrice, Long> {
 
   Page<HourPrice> findByWorkCodeInAndMachineInternalIdContainingAndPriceTypeIn(List<WorkCode> workCode, String machineNumber, List<PriceType> priceType, Pageable pageable);
 
+  @Query("SELECT p FROM HourPrice p JOIN FETCH p.machine m WHERE p.workCode IN ?1 AND m.internalId LIKE %?2% AND p.priceType IN ?3"
+      + " AND (?4 IS NULL OR p.startDate >= ?4 AND (p.startDate > ?4 OR p.id > ?5)) ORDER BY p.startDate, p.id")
+  List<HourPrice> findKeysetPage(List<WorkCode> workCode, String machineNumber, List<PriceType> priceType, LocalDate afterStartDate, Long afterId, Pageable pageable);
+
   List<HourPrice> findByMachineInternalIdEquals(String machineNumber);
 
   HourPrice findByWorkCodeInAndMachineInternalIdAndPriceTypeInAndPriceAndStartDateAndEndDateAndProjectCode(
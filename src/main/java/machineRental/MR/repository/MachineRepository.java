@@ -1,16 +1,38 @@
 package machineRental.MR.repository;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 import machineRental.MR.machine.model.Machine;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 public interface MachineRepository extends JpaRepository<Machine, Long> {
 
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     Machine findByInternalId(String internalId);
 
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     boolean existsByInternalId(String internalId);
 
+    List<Machine> findByInternalIdIn(Collection<String> internalIds);
+
+    default Map<String, Machine> mapByInternalId(Collection<String> internalIds) {
+        return internalIds.isEmpty() ? new HashMap<>() : findByInternalIdIn(internalIds).stream().collect(Collectors.toMap(Machine::getInternalId, machine -> machine));
+    }
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM Machine m WHERE m.internalId IN ?1 ORDER BY m.id")
+    List<Machine> findAndLockByInternalIdIn(Collection<String> internalIds);
+
     Page<Machine> findByInternalIdContainingAndNameContainingAndProducerContainingAndModelContainingAndProductionYearAndOwner_NameContainingAndMachineStatusContainingAndMachineType_MachineTypeContaining(
             String internalId,
             String name,
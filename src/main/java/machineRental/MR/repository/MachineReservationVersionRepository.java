@@ -0,0 +1,21 @@
+package machineRental.MR.repository;
+
+import java.util.Collection;
+import java.util.List;
+import machineRental.MR.order.availability.MachineReservationVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface MachineReservationVersionRepository extends JpaRepository<MachineReservationVersion, Long> {
+
+    @Modifying
+    @Query("UPDATE MachineReservationVersion v SET v.version = v.version + 1 WHERE v.machineId = ?1")
+    int incrementVersion(Long machineId);
+
+//    read as a value, so that version of machine is always taken from data base, not from persistence context
+    @Query("SELECT v.version FROM MachineReservationVersion v WHERE v.machineId = ?1")
+    Long findVersionByMachineId(Long machineId);
+
+    List<MachineReservationVersion> findByMachineIdIn(Collection<Long> machineIds);
+}
@@ -1,14 +1,18 @@
 package machineRental.MR.repository;
 
+import javax.persistence.QueryHint;
 import machineRental.MR.machineType.model.MachineType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 public interface MachineTypeRepository extends JpaRepository<MachineType, Long> {
 
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     boolean existsByMachineType(String machineType);
 
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     MachineType findByMachineType(String machineType);
 
     Page<MachineType> findByMachineTypeContaining(String type, Pageable pageable);
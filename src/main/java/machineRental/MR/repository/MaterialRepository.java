@@ -1,16 +1,31 @@
 package machineRental.MR.repository;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import javax.persistence.QueryHint;
 import machineRental.MR.material.model.Material;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 public interface MaterialRepository extends JpaRepository<Material, Long> {
 
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     boolean existsByType(String type);
 
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     Material findByType(String type);
 
+    List<Material> findByTypeIn(Collection<String> types);
+
+    default Map<String, Material> mapByType(Collection<String> types) {
+        return types.isEmpty() ? new HashMap<>() : findByTypeIn(types).stream().collect(Collectors.toMap(Material::getType, material -> material));
+    }
+
     Page<Material> findByTypeContaining(String type, Pageable pageable);
 
 }
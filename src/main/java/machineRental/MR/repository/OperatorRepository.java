@@ -1,12 +1,15 @@
 package machineRental.MR.repository;
 
+import javax.persistence.QueryHint;
 import machineRental.MR.operator.model.Operator;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 public interface OperatorRepository extends JpaRepository<Operator, Long> {
 
+  @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
   boolean existsByName(String name);
 
   Page<Operator> findByNameContainingAndQualificationsContainingAndCompany_MpkContaining(String name, String qualifications, String companyMpk, Pageable pageable);
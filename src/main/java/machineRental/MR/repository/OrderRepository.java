@@ -1,10 +1,13 @@
 package machineRental.MR.repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import machineRental.MR.order.availability.Reservation;
 import machineRental.MR.order.model.Order;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 
@@ -12,6 +15,12 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
     List<Order> findByMachine_InternalId(String internalId);
 
+    @Query("SELECT new machineRental.MR.order.availability.Reservation(o.id, o.machine.id, o.startDate, o.endDate, o.quantity) FROM Order o WHERE o.machine.id = ?1")
+    List<Reservation> findReservationsByMachineId(Long machineId);
+
+    @Query("SELECT new machineRental.MR.order.availability.Reservation(o.id, o.machine.id, o.startDate, o.endDate, o.quantity) FROM Order o WHERE o.machine.id IN ?1")
+    List<Reservation> findReservationsByMachineIdIn(Collection<Long> machineIds);
+
     Page<Order> findByMachine_InternalIdContainingAndStatusEqualsAndStartDateBetweenAndEndDateBetweenAndPriceTypeContainingAndClient_NameContainingAndSeller_NameContaining(
         String machineInternalId, String status, LocalDate orderStartDateStart, LocalDate orderStartDateEnd,
         LocalDate orderEndDateStart, LocalDate orderEndDateEnd, String priceType, String clientName, String sellerName, Pageable pageable);
@@ -20,6 +29,15 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
         String machineInternalId, String status, LocalDate orderStartDateStart, LocalDate orderStartDateEnd,
         LocalDate orderEndDateStart, LocalDate orderEndDateEnd, String priceType, String clientName, String sellerName, Pageable pageable);
 
+//  status is matched the way derived queries of offset search match it: null as IS NULL and empty as containing empty string (any status)
+    @Query("SELECT o FROM Order o JOIN FETCH o.machine m JOIN FETCH o.client c JOIN FETCH o.seller s"
+        + " WHERE m.internalId LIKE %?1% AND (?2 IS NULL AND o.status IS NULL OR ?2 = '' AND o.status IS NOT NULL OR o.status = ?2) AND o.startDate BETWEEN ?3 AND ?4 AND o.endDate BETWEEN ?5 AND ?6"
+        + " AND o.priceType LIKE %?7% AND c.name LIKE %?8% AND s.name LIKE %?9% AND (?10 IS NULL OR o.startDate >= ?10 AND (o.startDate > ?10 OR o.id > ?11))"
+        + " ORDER BY o.startDate, o.id")
+    List<Order> findKeysetPage(String machineInternalId, String status, LocalDate orderStartDateStart, LocalDate orderStartDateEnd,
+        LocalDate orderEndDateStart, LocalDate orderEndDateEnd, String priceType, String clientName, String sellerName, LocalDate afterStartDate, Long afterId,
+        Pageable pageable);
+
     List<Order> findByStartDateAfterAndMachine_InternalIdAndDbPriceTrue(LocalDate startDate, String machineInternalId);
 
 
@@ -1,18 +1,24 @@
 package machineRental.MR.repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 import machineRental.MR.machine.model.Machine;
 import machineRental.MR.operator.model.Operator;
+import machineRental.MR.price.distance.model.DistancePrice;
+import machineRental.MR.reports.cost.RoadCardEntryCostSum;
 import machineRental.MR.workDocumentEntry.model.RoadCardEntry;
 import machineRental.MR.workDocumentEntry.model.WorkReportEntry;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
-public interface RoadCardEntryRepository extends JpaRepository<RoadCardEntry, Long> {
+public interface RoadCardEntryRepository extends JpaRepository<RoadCardEntry, Long>, RoadCardEntryRepositoryCustom {
 
-  List<RoadCardEntry> findByWorkDocument_OperatorAndWorkDocument_DateEquals(Operator operator, LocalDate date);
+  List<RoadCardEntry> findByWorkDocument_OperatorAndWorkDocument_DateBetween(Operator operator, LocalDate startDate, LocalDate endDate);
 
-  List<RoadCardEntry> findByWorkDocument_MachineAndWorkDocument_DateEquals(Machine machine, LocalDate date);
+  List<RoadCardEntry> findByWorkDocument_MachineAndWorkDocument_DateBetween(Machine machine, LocalDate startDate, LocalDate endDate);
 
   List<RoadCardEntry> findAllByWorkDocument_Id(String workDocumentId);
 
@@ -22,12 +28,47 @@ public interface RoadCardEntryRepository extends JpaRepository<RoadCardEntry, Lo
 
   List<RoadCardEntry> findAllByDistancePrice_Id(Long priceId);
 
+  long countByDistancePrice_Id(Long priceId);
+
+  long countByDistancePrice_IdAndWorkDocument_DateBetweenAndDistanceBetween(Long priceId, LocalDate startDate, LocalDate endDate, double rangeMin, double rangeMax);
+
+  @Modifying
+  @Query("UPDATE RoadCardEntry e SET e.distancePrice = ?2 WHERE e.distancePrice.id = ?1 AND e.distance BETWEEN ?5 AND ?6"
+      + " AND e.workDocument IN (SELECT d FROM WorkDocument d WHERE d.date BETWEEN ?3 AND ?4)")
+  int updateDistancePriceByDateAndDistance(Long priceId, DistancePrice distancePrice, LocalDate startDate, LocalDate endDate, double rangeMin, double rangeMax);
+
   List<RoadCardEntry> findByEstimatePosition_CostCode_ProjectCode(String projectCode);
 
   List<RoadCardEntry> findByEstimatePosition_Id(Long estimateId);
 
-  List<RoadCardEntry> findByWorkDocument_DateBetween(LocalDate startDate, LocalDate endDate);
+//  entries of given operators or machines in given days, used to validate working time of many work documents at once
+  @Query("SELECT e FROM RoadCardEntry e JOIN FETCH e.workDocument d "
+      + "LEFT JOIN FETCH d.machine m LEFT JOIN FETCH m.owner LEFT JOIN FETCH m.machineType "
+      + "LEFT JOIN FETCH d.operator o LEFT JOIN FETCH o.company "
+      + "LEFT JOIN FETCH e.distancePrice p LEFT JOIN FETCH p.machine pm LEFT JOIN FETCH pm.owner LEFT JOIN FETCH pm.machineType "
+      + "LEFT JOIN FETCH e.estimatePosition ep LEFT JOIN FETCH ep.costCode "
+      + "LEFT JOIN FETCH e.costCode "
+      + "LEFT JOIN FETCH e.acceptingPerson a LEFT JOIN FETCH a.company "
+      + "WHERE d.date IN ?1 AND (o.id IN ?2 OR m.id IN ?3)")
+  List<RoadCardEntry> findByWorkDocument_DateInAndOperatorOrMachine(Collection<LocalDate> dates, Collection<Long> operatorIds, Collection<Long> machineIds);
 
   List<RoadCardEntry> findByWorkDocument_DateBetweenAndEstimatePosition_CostCode_ProjectCodeEquals(LocalDate startDate, LocalDate endDate, String projectCode);
 
+//  hours of entry ending before it starts are counted until midnight and from midnight, the same way as in HoursCalculator
+  @Query("SELECT new machineRental.MR.reports.cost.RoadCardEntryCostSum(e.estimatePosition.id, t.id, e.workCode, p.priceType, "
+      + "SUM((time_to_sec(e.endHour) - time_to_sec(e.startHour) + CASE WHEN e.endHour < e.startHour THEN 86400 ELSE 0 END)), SUM((time_to_sec(e.endHour) - time_to_sec(e.startHour) + CASE WHEN e.endHour < e.startHour THEN 86400 ELSE 0 END) * p.price), "
+      + "SUM(e.distance), SUM(e.distance * p.price), SUM(e.quantity), SUM(e.quantity * p.price), SUM(e.runsNumber * p.price)) "
+      + "FROM RoadCardEntry e JOIN e.workDocument d JOIN d.machine m JOIN m.machineType t JOIN e.distancePrice p "
+      + "WHERE d.date BETWEEN ?1 AND ?2 AND e.estimatePosition.costCode.projectCode = ?3 "
+      + "GROUP BY e.estimatePosition.id, t.id, e.workCode, p.priceType")
+  List<RoadCardEntryCostSum> sumCostsBetweenDatesByEstimateProjectCode(LocalDate startDate, LocalDate endDate, String projectCode);
+
+  @Query("SELECT new machineRental.MR.reports.cost.RoadCardEntryCostSum(e.estimatePosition.id, t.id, e.workCode, p.priceType, "
+      + "SUM((time_to_sec(e.endHour) - time_to_sec(e.startHour) + CASE WHEN e.endHour < e.startHour THEN 86400 ELSE 0 END)), SUM((time_to_sec(e.endHour) - time_to_sec(e.startHour) + CASE WHEN e.endHour < e.startHour THEN 86400 ELSE 0 END) * p.price), "
+      + "SUM(e.distance), SUM(e.distance * p.price), SUM(e.quantity), SUM(e.quantity * p.price), SUM(e.runsNumber * p.price)) "
+      + "FROM RoadCardEntry e JOIN e.workDocument d JOIN d.machine m JOIN m.machineType t JOIN e.distancePrice p "
+      + "WHERE d.date BETWEEN ?1 AND ?2 AND e.estimatePosition.costCode.projectCode IN ?3 "
+      + "GROUP BY e.estimatePosition.id, t.id, e.workCode, p.priceType")
+  Stream<RoadCardEntryCostSum> streamCostsBetweenDatesByEstimateProjectCodes(LocalDate startDate, LocalDate endDate, Collection<String> projectCodes);
+
 }
@@ -0,0 +1,15 @@
+package machineRental.MR.repository;
+
+import java.time.LocalDate;
+import java.util.stream.Stream;
+import machineRental.MR.workDocumentEntry.model.RoadCardEntry;
+
+/**
+ * Queries streaming entries with fetch size of reports.stream-fetch-size, see EntryStreamRepository.
+ */
+public interface RoadCardEntryRepositoryCustom {
+
+  Stream<RoadCardEntry> streamForReportByWorkDocument_DateBetween(LocalDate startDate, LocalDate endDate);
+
+  Stream<RoadCardEntry> streamByWorkDocument_DateBetweenAndEstimatePosition_CostCode_ProjectCodeEquals(LocalDate startDate, LocalDate endDate, String projectCode);
+}
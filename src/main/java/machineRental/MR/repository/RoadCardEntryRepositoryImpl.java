@@ -0,0 +1,28 @@
+package machineRental.MR.repository;
+
+import java.time.LocalDate;
+import java.util.stream.Stream;
+import machineRental.MR.workDocumentEntry.model.RoadCardEntry;
+
+class RoadCardEntryRepositoryImpl extends EntryStreamRepository implements RoadCardEntryRepositoryCustom {
+
+//  whole graph of eager associations used by report is fetched with entry, so no secondary select is issued per row
+  @Override
+  public Stream<RoadCardEntry> streamForReportByWorkDocument_DateBetween(LocalDate startDate, LocalDate endDate) {
+    return stream("SELECT e FROM RoadCardEntry e JOIN FETCH e.workDocument d "
+        + "LEFT JOIN FETCH d.machine m LEFT JOIN FETCH m.owner LEFT JOIN FETCH m.machineType "
+        + "LEFT JOIN FETCH d.operator o LEFT JOIN FETCH o.company "
+        + "LEFT JOIN FETCH e.distancePrice p LEFT JOIN FETCH p.machine pm LEFT JOIN FETCH pm.owner LEFT JOIN FETCH pm.machineType "
+        + "LEFT JOIN FETCH e.estimatePosition ep LEFT JOIN FETCH ep.costCode "
+        + "LEFT JOIN FETCH e.costCode "
+        + "LEFT JOIN FETCH e.acceptingPerson a LEFT JOIN FETCH a.company "
+        + "WHERE d.date BETWEEN ?1 AND ?2",
+        RoadCardEntry.class, startDate, endDate);
+  }
+
+  @Override
+  public Stream<RoadCardEntry> streamByWorkDocument_DateBetweenAndEstimatePosition_CostCode_ProjectCodeEquals(LocalDate startDate, LocalDate endDate, String projectCode) {
+    return stream("SELECT e FROM RoadCardEntry e WHERE e.workDocument.date BETWEEN ?1 AND ?2 AND e.estimatePosition.costCode.projectCode = ?3",
+        RoadCardEntry.class, startDate, endDate, projectCode);
+  }
+}
@@ -1,13 +1,16 @@
 package machineRental.MR.repository;
 
 
+import javax.persistence.QueryHint;
 import machineRental.MR.seller.model.Seller;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 public interface SellerRepository extends JpaRepository<Seller, Long> {
 
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     boolean existsByMpk(String mpk);
 
     Page<Seller> findByMpkContainingAndNameContainingAndCityContaining(
@@ -17,6 +20,7 @@ public interface SellerRepository extends JpaRepository<Seller, Long> {
             Pageable pageable
     );
 
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     Seller findByMpk(String mpk);
 
 }
@@ -7,6 +7,7 @@ import machineRental.MR.workDocument.model.WorkDocument;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 public interface WorkDocumentRepository extends JpaRepository<WorkDocument, String> {
 
@@ -20,6 +21,22 @@ public interface WorkDocumentRepository extends JpaRepository<WorkDocument, Stri
       String invoiceNumber,
       Pageable pageable);
 
+  @Query("SELECT d FROM WorkDocument d JOIN FETCH d.operator o JOIN FETCH d.machine m"
+      + " WHERE d.id LIKE %?1% AND d.documentType IN ?2 AND (?3 IS NULL OR d.date = ?3) AND o.name LIKE %?4% AND m.internalId LIKE %?5%"
+      + " AND d.delegation LIKE %?6% AND d.invoiceNumber LIKE %?7% AND (?8 IS NULL OR d.date >= ?8 AND (d.date > ?8 OR d.id > ?9))"
+      + " ORDER BY d.date, d.id")
+  List<WorkDocument> findKeysetPage(
+      String id,
+      List<DocumentType> documentType,
+      LocalDate date,
+      String operatorName,
+      String machineInternalId,
+      String delegation,
+      String invoiceNumber,
+      LocalDate afterDate,
+      String afterId,
+      Pageable pageable);
+
   Page<WorkDocument> findByIdContainingAndDocumentTypeInAndOperator_NameContainingAndMachine_InternalIdContainingAndDelegationContainingAndInvoiceNumberContainingOrderByDate(
       String id,
       List<DocumentType> documentType,
@@ -1,15 +1,19 @@
 package machineRental.MR.repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 import machineRental.MR.machine.model.Machine;
 import machineRental.MR.operator.model.Operator;
-import machineRental.MR.reports.cost.equipment.EquipmentCost;
+import machineRental.MR.price.hour.model.HourPrice;
+import machineRental.MR.reports.cost.WorkReportEntryCostSum;
 import machineRental.MR.workDocumentEntry.model.WorkReportEntry;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
-public interface WorkReportEntryRepository extends JpaRepository<WorkReportEntry, Long> {
+public interface WorkReportEntryRepository extends JpaRepository<WorkReportEntry, Long>, WorkReportEntryRepositoryCustom {
 
 //  List<WorkReportEntry> findAllByWorkDocument_Id(String workDocumentId);
 
@@ -20,27 +24,54 @@ public interface WorkReportEntryRepository extends JpaRepository<WorkReportEntry
 
   void deleteByWorkDocument_Id(String workDocumentId);
 
-  List<WorkReportEntry> findByWorkDocument_OperatorAndWorkDocument_DateEquals(Operator operator, LocalDate date);
-  List<WorkReportEntry> findByWorkDocument_MachineAndWorkDocument_DateEquals(Machine machine, LocalDate date);
+  List<WorkReportEntry> findByWorkDocument_OperatorAndWorkDocument_DateBetween(Operator operator, LocalDate startDate, LocalDate endDate);
+  List<WorkReportEntry> findByWorkDocument_MachineAndWorkDocument_DateBetween(Machine machine, LocalDate startDate, LocalDate endDate);
 
 
   boolean existsByHourPrice_Id(Long priceId);
 
   List<WorkReportEntry> findAllByHourPrice_Id(Long id);
 
+  long countByHourPrice_Id(Long priceId);
+
+  long countByHourPrice_IdAndWorkDocument_DateBetween(Long priceId, LocalDate startDate, LocalDate endDate);
+
+  @Modifying
+  @Query("UPDATE WorkReportEntry e SET e.hourPrice = ?2 WHERE e.hourPrice.id = ?1 AND e.workDocument IN (SELECT d FROM WorkDocument d WHERE d.date BETWEEN ?3 AND ?4)")
+  int updateHourPriceByDate(Long priceId, HourPrice hourPrice, LocalDate startDate, LocalDate endDate);
+
   List<WorkReportEntry> findByEstimatePosition_CostCode_ProjectCode(String projectCode);
 
   List<WorkReportEntry> findByEstimatePosition_Id(Long estimateId);
 
-  List<WorkReportEntry> findByWorkDocument_DateBetween(LocalDate startDate, LocalDate endDate);
+//  entries of given operators or machines in given days, used to validate working time of many work documents at once
+  @Query("SELECT e FROM WorkReportEntry e JOIN FETCH e.workDocument d "
+      + "LEFT JOIN FETCH d.machine m LEFT JOIN FETCH m.owner LEFT JOIN FETCH m.machineType "
+      + "LEFT JOIN FETCH d.operator o LEFT JOIN FETCH o.company "
+      + "LEFT JOIN FETCH e.hourPrice p LEFT JOIN FETCH p.machine pm LEFT JOIN FETCH pm.owner LEFT JOIN FETCH pm.machineType "
+      + "LEFT JOIN FETCH e.estimatePosition ep LEFT JOIN FETCH ep.costCode "
+      + "LEFT JOIN FETCH e.costCode "
+      + "LEFT JOIN FETCH e.acceptingPerson a LEFT JOIN FETCH a.company "
+      + "WHERE d.date IN ?1 AND (o.id IN ?2 OR m.id IN ?3)")
+  List<WorkReportEntry> findByWorkDocument_DateInAndOperatorOrMachine(Collection<LocalDate> dates, Collection<Long> operatorIds, Collection<Long> machineIds);
 
 
-  @Query(
-      value = "SELECT machine_types.machine_type AS machineType, (work_reports_entries.end_hour - work_reports_entries.start_hour) AS workHoursCount, (hour_prices.price * workHoursCount) AS costValue",
-      nativeQuery = true)
-  List<EquipmentCost> getEquipmentCostByMachineType();
-
   List<WorkReportEntry> findByWorkDocument_DateBetweenAndEstimatePosition_CostCode_ProjectCodeEquals(LocalDate startDate, LocalDate endDate, String projectCode);
 
+//  hours of entry ending before it starts are counted until midnight and from midnight, the same way as in HoursCalculator
+  @Query("SELECT new machineRental.MR.reports.cost.WorkReportEntryCostSum(e.estimatePosition.id, t.id, e.workCode, p.priceType, "
+      + "SUM((time_to_sec(e.endHour) - time_to_sec(e.startHour) + CASE WHEN e.endHour < e.startHour THEN 86400 ELSE 0 END)), SUM((time_to_sec(e.endHour) - time_to_sec(e.startHour) + CASE WHEN e.endHour < e.startHour THEN 86400 ELSE 0 END) * p.price)) "
+      + "FROM WorkReportEntry e JOIN e.workDocument d JOIN d.machine m JOIN m.machineType t JOIN e.hourPrice p "
+      + "WHERE d.date BETWEEN ?1 AND ?2 AND e.estimatePosition.costCode.projectCode = ?3 "
+      + "GROUP BY e.estimatePosition.id, t.id, e.workCode, p.priceType")
+  List<WorkReportEntryCostSum> sumCostsBetweenDatesByEstimateProjectCode(LocalDate startDate, LocalDate endDate, String projectCode);
+
+  @Query("SELECT new machineRental.MR.reports.cost.WorkReportEntryCostSum(e.estimatePosition.id, t.id, e.workCode, p.priceType, "
+      + "SUM((time_to_sec(e.endHour) - time_to_sec(e.startHour) + CASE WHEN e.endHour < e.startHour THEN 86400 ELSE 0 END)), SUM((time_to_sec(e.endHour) - time_to_sec(e.startHour) + CASE WHEN e.endHour < e.startHour THEN 86400 ELSE 0 END) * p.price)) "
+      + "FROM WorkReportEntry e JOIN e.workDocument d JOIN d.machine m JOIN m.machineType t JOIN e.hourPrice p "
+      + "WHERE d.date BETWEEN ?1 AND ?2 AND e.estimatePosition.costCode.projectCode IN ?3 "
+      + "GROUP BY e.estimatePosition.id, t.id, e.workCode, p.priceType")
+  Stream<WorkReportEntryCostSum> streamCostsBetweenDatesByEstimateProjectCodes(LocalDate startDate, LocalDate endDate, Collection<String> projectCodes);
+
 
 }
@@ -0,0 +1,15 @@
+package machineRental.MR.repository;
+
+import java.time.LocalDate;
+import java.util.stream.Stream;
+import machineRental.MR.workDocumentEntry.model.WorkReportEntry;
+
+/**
+ * Queries streaming entries with fetch size of reports.stream-fetch-size, see EntryStreamRepository.
+ */
+public interface WorkReportEntryRepositoryCustom {
+
+  Stream<WorkReportEntry> streamForReportByWorkDocument_DateBetween(LocalDate startDate, LocalDate endDate);
+
+  Stream<WorkReportEntry> streamByWorkDocument_DateBetweenAndEstimatePosition_CostCode_ProjectCodeEquals(LocalDate startDate, LocalDate endDate, String projectCode);
+}
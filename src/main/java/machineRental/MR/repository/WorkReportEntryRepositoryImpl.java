@@ -0,0 +1,28 @@
+package machineRental.MR.repository;
+
+import java.time.LocalDate;
+import java.util.stream.Stream;
+import machineRental.MR.workDocumentEntry.model.WorkReportEntry;
+
+class WorkReportEntryRepositoryImpl extends EntryStreamRepository implements WorkReportEntryRepositoryCustom {
+
+//  whole graph of eager associations used by report is fetched with entry, so no secondary select is issued per row
+  @Override
+  public Stream<WorkReportEntry> streamForReportByWorkDocument_DateBetween(LocalDate startDate, LocalDate endDate) {
+    return stream("SELECT e FROM WorkReportEntry e JOIN FETCH e.workDocument d "
+        + "LEFT JOIN FETCH d.machine m LEFT JOIN FETCH m.owner LEFT JOIN FETCH m.machineType "
+        + "LEFT JOIN FETCH d.operator o LEFT JOIN FETCH o.company "
+        + "LEFT JOIN FETCH e.hourPrice p LEFT JOIN FETCH p.machine pm LEFT JOIN FETCH pm.owner LEFT JOIN FETCH pm.machineType "
+        + "LEFT JOIN FETCH e.estimatePosition ep LEFT JOIN FETCH ep.costCode "
+        + "LEFT JOIN FETCH e.costCode "
+        + "LEFT JOIN FETCH e.acceptingPerson a LEFT JOIN FETCH a.company "
+        + "WHERE d.date BETWEEN ?1 AND ?2",
+        WorkReportEntry.class, startDate, endDate);
+  }
+
+  @Override
+  public Stream<WorkReportEntry> streamByWorkDocument_DateBetweenAndEstimatePosition_CostCode_ProjectCodeEquals(LocalDate startDate, LocalDate endDate, String projectCode) {
+    return stream("SELECT e FROM WorkReportEntry e WHERE e.workDocument.date BETWEEN ?1 AND ?2 AND e.estimatePosition.costCode.projectCode = ?3",
+        WorkReportEntry.class, startDate, endDate, projectCode);
+  }
+}
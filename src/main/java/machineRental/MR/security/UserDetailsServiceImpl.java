@@ -1,8 +1,11 @@
 package machineRental.MR.security;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import machineRental.MR.exception.NotFoundException;
 import machineRental.MR.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Service;
@@ -13,8 +16,67 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     @Autowired
     private UserRepository userRepository;
 
+    @Value("${security.user-details-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${security.user-details-cache.max-size:1000}")
+    private int maxSize;
+
+//    access ordered, so that the least recently used user is removed when cache is full
+    private final Map<String, CachedUserDetails> cache = new LinkedHashMap<String, CachedUserDetails>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedUserDetails> eldest) {
+            return size() > maxSize;
+        }
+    };
+
+//    incremented on every eviction, user loaded while it was evicted may be stale and is not cached; guarded by cache
+    private long evictions;
+
     @Override
     public UserDetails loadUserByUsername(String username) {
         return userRepository.findByUsername(username).orElseThrow(() -> new NotFoundException(String.format("User with username: %s not found", username)));
     }
+
+    /**
+     * Used to authenticate requests with token. User is read from data base at most once per ttl, until it is evicted on update.
+     */
+    public UserDetails loadCachedUserByUsername(String username) {
+        long evictionsBeforeLoad;
+        synchronized (cache) {
+            CachedUserDetails cachedUserDetails = cache.get(username);
+            if (cachedUserDetails != null && cachedUserDetails.expirationTime > System.currentTimeMillis()) {
+                return cachedUserDetails.userDetails;
+            }
+            evictionsBeforeLoad = evictions;
+        }
+
+        UserDetails userDetails = loadUserByUsername(username);
+
+        synchronized (cache) {
+            if (evictions == evictionsBeforeLoad) {
+                cache.put(username, new CachedUserDetails(userDetails, System.currentTimeMillis() + ttlSeconds * 1000));
+            }
+        }
+        return userDetails;
+    }
+
+    public void evict(String username) {
+        synchronized (cache) {
+            evictions++;
+            cache.remove(username);
+        }
+    }
+
+    private static class CachedUserDetails {
+
+        private final UserDetails userDetails;
+
+        private final long expirationTime;
+
+        private CachedUserDetails(UserDetails userDetails, long expirationTime) {
+            this.userDetails = userDetails;
+            this.expirationTime = expirationTime;
+        }
+    }
 }
@@ -81,6 +81,8 @@ public class WebSecurityConfiguration extends WebSecurityConfigurerAdapter {
     // setAllowedHeaders is important! Without it, OPTIONS preflight request
     // will fail with 403 Invalid CORS request
     corsConfiguration.setAllowedHeaders(Arrays.asList("Access-Control-Allow-Headers", "Access-Control-Allow-Origin", "X-Requested-With", "Authorization", "Cache-Control", "Content-Type", "x-ijt"));
+    // cost report sends durations of its stages in Server-Timing header
+    corsConfiguration.setExposedHeaders(Arrays.asList("Server-Timing"));
 
     final UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
     source.registerCorsConfiguration("/**", corsConfiguration);
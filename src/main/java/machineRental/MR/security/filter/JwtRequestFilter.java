@@ -1,5 +1,6 @@
 package machineRental.MR.security.filter;
 
+import io.jsonwebtoken.Claims;
 import java.io.IOException;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
@@ -29,19 +30,17 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
     final String authorizationHeader = request.getHeader("Authorization");
 
-    String username = null;
-    String jwt = null;
+    Claims claims = null;
 
     if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-      jwt = authorizationHeader.substring(7);
-      username = jwtUtil.extractUserName(jwt);
+      claims = jwtUtil.parseToken(authorizationHeader.substring(7));
     }
 
-    if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+    if (claims != null && claims.getSubject() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-      UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+      UserDetails userDetails = userDetailsService.loadCachedUserByUsername(claims.getSubject());
 
-      if (jwtUtil.validateToken(jwt, userDetails)) {
+      if (jwtUtil.validateToken(claims, userDetails)) {
 
         UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(
             userDetails, null, userDetails.getAuthorities());
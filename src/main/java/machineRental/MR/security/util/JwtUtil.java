@@ -47,6 +47,17 @@ public class JwtUtil {
         .signWith(SignatureAlgorithm.HS256, SECRET_KEY).compact();
   }
 
+  /**
+   * Parses token verifying its signature and expiration, so that claims can be read without parsing it again.
+   */
+  public Claims parseToken(String token) {
+    return extractAllClaims(token);
+  }
+
+  public Boolean validateToken(Claims claims, UserDetails userDetails) {
+    return claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date());
+  }
+
   public Boolean validateToken(String token, UserDetails userDetails) {
     final String username = extractUserName(token);
     return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
@@ -1,5 +1,6 @@
 package machineRental.MR.seller.service;
 
+import machineRental.MR.ReadPool;
 import machineRental.MR.exception.BindingResultException;
 import machineRental.MR.exception.NotFoundException;
 import machineRental.MR.seller.model.Seller;
@@ -8,6 +9,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 
@@ -25,6 +27,8 @@ public class SellerService {
         return sellerRepository.save(seller);
     }
 
+    @ReadPool
+    @Transactional(readOnly = true)
     public Page<Seller> search(String mpk, String name, String city, Pageable pageable) {
         return sellerRepository.findByMpkContainingAndNameContainingAndCityContaining(mpk, name, city, pageable);
     }
@@ -7,7 +7,7 @@ import org.springframework.stereotype.Component;
 @Component
 public class AuthorizationValidator {
 
-  boolean isAdmin() {
+  public boolean isAdmin() {
     return getCurrentUser().isAdmin();
   }
 
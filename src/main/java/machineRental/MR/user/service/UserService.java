@@ -12,6 +12,7 @@ import machineRental.MR.exception.BindingResultException;
 import machineRental.MR.exception.NotFoundException;
 import machineRental.MR.exception.UnauthorizedException;
 import machineRental.MR.repository.UserRepository;
+import machineRental.MR.security.UserDetailsServiceImpl;
 import machineRental.MR.user.UserRole;
 import machineRental.MR.user.model.User;
 import machineRental.MR.user.model.UserDto;
@@ -34,6 +35,9 @@ public class UserService {
     @Autowired
     private AuthorizationValidator authorizationValidator;
 
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
     public User get(UUID id) {
         if (!authorizationValidator.isAdmin()) {
             throw new UnauthorizedException("You are not permitted to get user information.");
@@ -65,11 +69,13 @@ public class UserService {
             throw new UnauthorizedException("You are not permitted to update user information.");
         }
         User user = convertToEntity(userDto);
-        validate(user, get(id).getUsername(), bindingResult);
+        String currentUsername = get(id).getUsername();
+        validate(user, currentUsername, bindingResult);
 
         user.setId(id);
         userRepository.save(user);
 //        save(user);
+        evictUserDetails(currentUsername, user.getUsername());
 
         return convertToDto(user);
     }
@@ -85,10 +91,12 @@ public class UserService {
         if (!authorizationValidator.isAdmin()) {
             throw new UnauthorizedException("You are not permitted to update user information.");
         }
-        validate(user, get(id).getUsername(), bindingResult);
+        String currentUsername = get(id).getUsername();
+        validate(user, currentUsername, bindingResult);
 
         user.setId(id);
         save(user);
+        evictUserDetails(currentUsername, user.getUsername());
 
         return convertToDto(user);
     }
@@ -115,6 +123,14 @@ public class UserService {
         return userRepository.save(user);
     }
 
+    /**
+     * Users authenticated with token are cached, so changed user is evicted under its old and new username.
+     */
+    private void evictUserDetails(String currentUsername, String newUsername) {
+        userDetailsService.evict(currentUsername);
+        userDetailsService.evict(newUsername);
+    }
+
     public List<UserDto> getAllUsers() {
         if (!authorizationValidator.isAdmin()) {
             throw new UnauthorizedException("You are not permitted to get users information.");
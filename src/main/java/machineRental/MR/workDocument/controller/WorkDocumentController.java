@@ -3,6 +3,7 @@ package machineRental.MR.workDocument.controller;
 import java.time.LocalDate;
 import java.util.List;
 import javax.validation.Valid;
+import machineRental.MR.page.KeysetPage;
 import machineRental.MR.workDocument.DocumentType;
 import machineRental.MR.workDocument.model.WorkDocument;
 import machineRental.MR.workDocument.service.WorkDocumentService;
@@ -54,6 +55,23 @@ public class WorkDocumentController {
     return workDocumentService.search(id, documentType, date, operatorName, machineInternalId, delegation, invoiceNumber, pageable);
   }
 
+  @GetMapping("/keyset")
+  @ResponseStatus(HttpStatus.OK)
+  public KeysetPage<WorkDocument> search(
+      @RequestParam(name = "id", required = false, defaultValue = "") String id,
+      @RequestParam(name = "documentType", required = false) List<DocumentType> documentType,
+      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+      @RequestParam(name = "date", required = false) LocalDate date,
+      @RequestParam(name = "operatorName", required = false, defaultValue = "") String operatorName,
+      @RequestParam(name = "machineInternalId", required = false, defaultValue = "") String machineInternalId,
+      @RequestParam(name = "delegation", required = false, defaultValue = "") String delegation,
+      @RequestParam(name = "invoiceNumber", required = false, defaultValue = "") String invoiceNumber,
+      @RequestParam(name = "cursor", required = false) String cursor,
+      @RequestParam(name = "size", required = false) Integer size) {
+
+    return workDocumentService.search(id, documentType, date, operatorName, machineInternalId, delegation, invoiceNumber, cursor, size);
+  }
+
   @GetMapping("/{id}")
   @ResponseStatus(HttpStatus.OK)
   public WorkDocument getById(@PathVariable String id) {
@@ -8,9 +8,12 @@ import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
 import javax.validation.constraints.NotNull;
+import machineRental.MR.ReadPool;
 import machineRental.MR.workDocument.DocumentType;
 import machineRental.MR.exception.BindingResultException;
 import machineRental.MR.exception.NotFoundException;
+import machineRental.MR.page.KeysetCursor;
+import machineRental.MR.page.KeysetPage;
 import machineRental.MR.workDocument.model.WorkDocument;
 import machineRental.MR.repository.WorkDocumentRepository;
 import machineRental.MR.workDocument.validator.WorkDocumentValidator;
@@ -22,6 +25,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 
@@ -52,6 +56,8 @@ public class WorkDocumentService {
     return workDocumentRepository.save(workDocument);
   }
 
+  @ReadPool
+  @Transactional(readOnly = true)
   public Page<WorkDocument> search(String id, List<DocumentType> documentType, LocalDate date, String operatorName, String machineInternalId, String delegation, String invoiceNumber, Pageable pageable) {
 
     if (isEmpty(documentType)) {
@@ -65,6 +71,24 @@ public class WorkDocumentService {
     return workDocumentRepository.findByIdContainingAndDocumentTypeInAndDateEqualsAndOperator_NameContainingAndMachine_InternalIdContainingAndDelegationContainingAndInvoiceNumberContainingOrderByDate(id, documentType, date, operatorName, machineInternalId, delegation, invoiceNumber, pageable);
   }
 
+  /**
+   * Searches work documents ordered by date and id, reading page of given size after given cursor instead of skipping rows of previous pages.
+   */
+  @ReadPool
+  @Transactional(readOnly = true)
+  public KeysetPage<WorkDocument> search(String id, List<DocumentType> documentType, LocalDate date, String operatorName, String machineInternalId, String delegation, String invoiceNumber, String cursor, Integer size) {
+
+    if (isEmpty(documentType)) {
+      documentType = new ArrayList<>(EnumSet.allOf(DocumentType.class));
+    }
+
+    KeysetCursor after = KeysetCursor.decode(cursor);
+    List<WorkDocument> workDocuments = workDocumentRepository.findKeysetPage(id, documentType, date, operatorName, machineInternalId, delegation, invoiceNumber,
+        after.getDate(), after.getId(), KeysetPage.limit(size));
+
+    return KeysetPage.of(workDocuments, size, workDocument -> KeysetCursor.of(workDocument.getDate(), workDocument.getId()));
+  }
+
   public WorkDocument getById(String id) {
     Optional<WorkDocument> dbWorkDocument = workDocumentRepository.findById(id);
 
@@ -23,12 +23,16 @@ public class WorkDocumentEntryHelper {
   private RoadCardEntryRepository roadCardEntryRepository;
 
 
+  /**
+   * Entries of the day of work document are returned together with entries of the day before and the day after, as entries ending after midnight
+   * overlap with early-morning entries of the next day.
+   */
   public <T extends WorkDocumentEntry> List<WorkReportEntry> getWorkReportEntriesByOperator(List<T> workReportEntries) {
     WorkDocument workDocument = getWorkDocument(workReportEntries);
     Operator operator = workDocument.getOperator();
     LocalDate date = getDate(workDocument);
 
-    return workReportEntryRepository.findByWorkDocument_OperatorAndWorkDocument_DateEquals(operator, date);
+    return workReportEntryRepository.findByWorkDocument_OperatorAndWorkDocument_DateBetween(operator, date.minusDays(1), date.plusDays(1));
   }
 
   public <T extends WorkDocumentEntry> List<WorkReportEntry> getWorkReportEntriesByMachine(List<T> workReportEntries) {
@@ -36,7 +40,7 @@ public class WorkDocumentEntryHelper {
     Machine machine = getMachine(workDocument);
     LocalDate date = getDate(workDocument);
 
-    return workReportEntryRepository.findByWorkDocument_MachineAndWorkDocument_DateEquals(machine, date);
+    return workReportEntryRepository.findByWorkDocument_MachineAndWorkDocument_DateBetween(machine, date.minusDays(1), date.plusDays(1));
   }
 
   public <T extends WorkDocumentEntry> List<RoadCardEntry> getRoadCardEntriesByOperator(List<T> roadCardEntries) {
@@ -44,7 +48,7 @@ public class WorkDocumentEntryHelper {
     Operator operator = workDocument.getOperator();
     LocalDate date = getDate(workDocument);
 
-    return roadCardEntryRepository.findByWorkDocument_OperatorAndWorkDocument_DateEquals(operator, date);
+    return roadCardEntryRepository.findByWorkDocument_OperatorAndWorkDocument_DateBetween(operator, date.minusDays(1), date.plusDays(1));
   }
 
   public <T extends WorkDocumentEntry> List<RoadCardEntry> getRoadCardEntriesByMachine(List<T> roadCardEntries) {
@@ -52,7 +56,7 @@ public class WorkDocumentEntryHelper {
     Machine machine = getMachine(workDocument);
     LocalDate date = getDate(workDocument);
 
-    return roadCardEntryRepository.findByWorkDocument_MachineAndWorkDocument_DateEquals(machine, date);
+    return roadCardEntryRepository.findByWorkDocument_MachineAndWorkDocument_DateBetween(machine, date.minusDays(1), date.plusDays(1));
   }
 
   private LocalDate getDate(WorkDocument workDocument) {
@@ -1,13 +1,20 @@
 package machineRental.MR.workDocumentEntry;
 
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Set;
+import java.util.function.BiConsumer;
 import machineRental.MR.exception.BindingResultException;
-import machineRental.MR.machine.model.Machine;
-import machineRental.MR.operator.model.Operator;
 import machineRental.MR.workDocument.model.WorkDocument;
 import machineRental.MR.workDocumentEntry.model.RoadCardEntry;
 import machineRental.MR.workDocumentEntry.model.WorkReportEntry;
@@ -21,48 +28,54 @@ public class WorkDocumentEntryValidator {
   public static final Set<WorkCode> EXPLOITATION_WORK_CODES = Collections.unmodifiableSet(EnumSet.of(WorkCode.PS, WorkCode.PX, WorkCode.CP));
 
 
+  /**
+   * Checks that working time of every validated entry does not overlap with working time of other entries of the same operator (unless operator is "XXX")
+   * or, for exploitation work codes, of the same machine. Entries are grouped by operator name and by machine internal id, sorted by start hour and swept
+   * once, so the check is not quadratic in number of entries of a day. All conflicts are added to binding result before exception is thrown.
+   * Entries ending before they start last until given hour of the next day, the same way as in HoursCalculator, so they are compared with early-morning
+   * entries of the next day.
+   * @param workDocumentEntriesForValidation Entries being saved.
+   * @param allWorkDocumentEntriesForValidation Entries being saved and entries read from data base of the same day, the day before and the day after.
+   * Entries with the same id as entries being saved are replaced by them.
+   */
   public void validateWorkingTime(Collection<WorkDocumentEntryForValidation> workDocumentEntriesForValidation, Collection<WorkDocumentEntryForValidation> allWorkDocumentEntriesForValidation, BindingResult bindingResult) {
 
+    Map<String, List<WorkingTime>> workingTimesByOperator = new LinkedHashMap<>();
+    Map<String, List<WorkingTime>> workingTimesByMachine = new LinkedHashMap<>();
 
-    ALL_WORK_REPORT_ENTRIES:
-    for (WorkDocumentEntryForValidation workDocumentEntry : workDocumentEntriesForValidation) {
+    for (WorkingTime workingTime : getWorkingTimes(workDocumentEntriesForValidation, allWorkDocumentEntriesForValidation)) {
+      WorkDocument workDocument = workingTime.entry.getWorkDocument();
 
-//      checkSameEntryWorkingHours(workDocumentEntry, bindingResult);
+// working time of operator with name "XXX" is allowed to overlap in time
+      String operatorName = workDocument.getOperator().getName();
+      if (!operatorName.toUpperCase().equals("XXX")) {
+        workingTimesByOperator.computeIfAbsent(operatorName, name -> new ArrayList<>()).add(workingTime);
+      }
 
-      WorkDocument currentWorkDocument = workDocumentEntry.getWorkDocument();
-      Operator currentOperator = currentWorkDocument.getOperator();
-      Machine currentMachine = currentWorkDocument.getMachine();
+      if (EXPLOITATION_WORK_CODES.contains(workingTime.entry.getWorkCode())) {
+        workingTimesByMachine.computeIfAbsent(workDocument.getMachine().getInternalId(), internalId -> new ArrayList<>()).add(workingTime);
+      }
+    }
 
-      for (WorkDocumentEntryForValidation workDocumentEntryToCheck : allWorkDocumentEntriesForValidation) {
+    for (List<WorkingTime> operatorWorkingTimes : workingTimesByOperator.values()) {
+      findOverlaps(operatorWorkingTimes, (workingTime, overlappingWorkingTime) -> bindingResult.addError(new FieldError(
+          "workReportEntryOperator",
+          "workHour",
+          String.format("Working time of operator %s overlaps in time with his/her other activity for this day (%s and %s).",
+              workingTime.entry.getWorkDocument().getOperator().getName(), workingTime, overlappingWorkingTime))));
+    }
 
-        if ((workDocumentEntry.getId() != null && workDocumentEntry.getId().equals(workDocumentEntryToCheck.getId())) || workDocumentEntry == workDocumentEntryToCheck) {
-          continue;
+    for (List<WorkingTime> machineWorkingTimes : workingTimesByMachine.values()) {
+      findOverlaps(machineWorkingTimes, (workingTime, overlappingWorkingTime) -> {
+//        overlap of entries of the same operator is already reported
+        if (!isOperatorOverlapping(workingTime, overlappingWorkingTime)) {
+          bindingResult.addError(new FieldError(
+              "workReportEntryMachine",
+              "workHour",
+              String.format("Working time of machine %s overlaps in time with its other exploitation activity for this day (%s and %s).",
+                  workingTime.entry.getWorkDocument().getMachine().getInternalId(), workingTime, overlappingWorkingTime)));
         }
-
-        if (isActivityTimeOverlapping(workDocumentEntry, workDocumentEntryToCheck)) {
-
-          WorkDocument workDocumentToCheck = workDocumentEntryToCheck.getWorkDocument();
-          Operator operatorToCheck = workDocumentToCheck.getOperator();
-          Machine machineToCheck = workDocumentToCheck.getMachine();
-
-// working time of operator with name "XXX" is allowed to overlap in time
-          if (currentOperator.getName().equals(operatorToCheck.getName()) && !currentOperator.getName().toUpperCase().equals("XXX")) {
-            bindingResult.addError(new FieldError(
-                "workReportEntryOperator",
-                "workHour",
-                String.format("Working time of operator %s overlaps in time with his/her other activity for this day.", operatorToCheck.getName())));
-            break ALL_WORK_REPORT_ENTRIES;
-          } else if (currentMachine.getInternalId().equals(machineToCheck.getInternalId()) && isWorkCodeOverlapping(workDocumentEntry, workDocumentEntryToCheck)) {
-            bindingResult.addError(new FieldError(
-                "workReportEntryMachine",
-                "workHour",
-                String.format("Working time of machine %s overlaps in time with its other exploitation activity for this day.", machineToCheck.getInternalId())));
-            break ALL_WORK_REPORT_ENTRIES;
-          }
-        } else {
-          continue;
-        }
-      }
+      });
     }
 
     if (bindingResult.hasErrors()) {
@@ -70,50 +83,91 @@ public class WorkDocumentEntryValidator {
     }
   }
 
-  private void checkSameEntryWorkingHours(WorkDocumentEntryForValidation workDocumentEntry, BindingResult bindingResult) {
-    LocalTime startHour = workDocumentEntry.getStartHour();
-    LocalTime endHour = workDocumentEntry.getEndHour();
+  private List<WorkingTime> getWorkingTimes(Collection<WorkDocumentEntryForValidation> workDocumentEntriesForValidation,
+      Collection<WorkDocumentEntryForValidation> allWorkDocumentEntriesForValidation) {
 
-    if (endHour.isBefore(startHour) || endHour.equals(startHour)) {
-      bindingResult.addError(new FieldError("workDocumentEntry", "endHour", "End hour cannot be lower or equal to start hour"));
+    Set<WorkDocumentEntryForValidation> validatedEntries = Collections.newSetFromMap(new IdentityHashMap<>());
+    validatedEntries.addAll(workDocumentEntriesForValidation);
+
+    Set<Long> ids = new HashSet<>();
+    List<WorkingTime> workingTimes = new ArrayList<>();
+    for (WorkDocumentEntryForValidation workDocumentEntry : validatedEntries) {
+      if (workDocumentEntry.getId() != null) {
+        ids.add(workDocumentEntry.getId());
+      }
+      workingTimes.add(new WorkingTime(workDocumentEntry, true));
     }
-    if (bindingResult.hasErrors()) {
-      throw new BindingResultException(bindingResult);
+
+    for (WorkDocumentEntryForValidation workDocumentEntry : allWorkDocumentEntriesForValidation) {
+      if (!validatedEntries.contains(workDocumentEntry) && (workDocumentEntry.getId() == null || ids.add(workDocumentEntry.getId()))) {
+        workingTimes.add(new WorkingTime(workDocumentEntry, false));
+      }
     }
+    return workingTimes;
   }
 
-  private boolean isActivityTimeOverlapping(WorkDocumentEntryForValidation workDocumentEntry, WorkDocumentEntryForValidation workDocumentEntryToCheck) {
-    return isStartHourOverlapping(workDocumentEntry, workDocumentEntryToCheck)
-        || isEndHourOverlapping(workDocumentEntry, workDocumentEntryToCheck)
-        || areHoursOverlapping(workDocumentEntry, workDocumentEntryToCheck);
-  }
+  /**
+   * Passes every pair of overlapping working times, at least one of which is validated, to a given consumer. Working times are swept in order of their
+   * start, keeping those which have not ended yet in a queue ordered by end, so every working time is compared only with working times overlapping it.
+   */
+  private void findOverlaps(List<WorkingTime> workingTimes, BiConsumer<WorkingTime, WorkingTime> overlapConsumer) {
+    workingTimes.sort(Comparator.comparingLong(workingTime -> workingTime.start));
+
+    PriorityQueue<WorkingTime> notEndedWorkingTimes = new PriorityQueue<>(Comparator.comparingLong(workingTime -> workingTime.end));
+    for (WorkingTime workingTime : workingTimes) {
+      while (!notEndedWorkingTimes.isEmpty() && notEndedWorkingTimes.peek().end <= workingTime.start) {
+        notEndedWorkingTimes.poll();
+      }
 
-  private boolean isEndHourOverlapping(WorkDocumentEntryForValidation workDocumentEntry, WorkDocumentEntryForValidation workDocumentEntryToCheck) {
-    LocalTime workReportEntryStartHour = workDocumentEntry.getStartHour();
-    LocalTime workReportEntryEndHour = workDocumentEntry.getEndHour();
-    LocalTime workReportEntryToCheckEndHour = workDocumentEntryToCheck.getEndHour();
-    return workReportEntryToCheckEndHour.isAfter(workReportEntryStartHour) && workReportEntryToCheckEndHour.isBefore(workReportEntryEndHour)
-        || workReportEntryEndHour.equals(workReportEntryToCheckEndHour);
-  }
+//      entry with the same start and end hour has no working time
+      if (workingTime.end == workingTime.start) {
+        continue;
+      }
 
-  private boolean isStartHourOverlapping(WorkDocumentEntryForValidation workDocumentEntry, WorkDocumentEntryForValidation workDocumentEntryToCheck) {
-    LocalTime workReportEntryStartHour = workDocumentEntry.getStartHour();
-    LocalTime workReportEntryEndHour = workDocumentEntry.getEndHour();
-    LocalTime workReportEntryToCheckStartHour = workDocumentEntryToCheck.getStartHour();
-    return workReportEntryToCheckStartHour.isAfter(workReportEntryStartHour) && workReportEntryToCheckStartHour.isBefore(workReportEntryEndHour)
-        || workReportEntryStartHour.equals(workReportEntryToCheckStartHour);
+      for (WorkingTime notEndedWorkingTime : notEndedWorkingTimes) {
+        if (workingTime.isValidated || notEndedWorkingTime.isValidated) {
+          overlapConsumer.accept(notEndedWorkingTime, workingTime);
+        }
+      }
+      notEndedWorkingTimes.add(workingTime);
+    }
   }
 
-  private boolean areHoursOverlapping(WorkDocumentEntryForValidation workDocumentEntry, WorkDocumentEntryForValidation workDocumentEntryToCheck) {
-    LocalTime workReportEntryStartHour = workDocumentEntry.getStartHour();
-    LocalTime workReportEntryEndHour = workDocumentEntry.getEndHour();
-    LocalTime workReportEntryToCheckEndHour = workDocumentEntryToCheck.getEndHour();
-    LocalTime workReportEntryToCheckStartHour = workDocumentEntryToCheck.getStartHour();
-    return workReportEntryToCheckStartHour.isBefore(workReportEntryStartHour) && workReportEntryToCheckEndHour.isAfter(workReportEntryEndHour);
+  private boolean isOperatorOverlapping(WorkingTime workingTime, WorkingTime overlappingWorkingTime) {
+    String operatorName = workingTime.entry.getWorkDocument().getOperator().getName();
+    return operatorName.equals(overlappingWorkingTime.entry.getWorkDocument().getOperator().getName()) && !operatorName.toUpperCase().equals("XXX");
   }
 
-  private boolean isWorkCodeOverlapping(WorkDocumentEntryForValidation workDocumentEntry, WorkDocumentEntryForValidation workDocumentEntryToCheck) {
-    return EXPLOITATION_WORK_CODES.contains(workDocumentEntry.getWorkCode()) && EXPLOITATION_WORK_CODES.contains(workDocumentEntryToCheck.getWorkCode());
+  /**
+   * Working time of entry in seconds from the beginning of epoch day 0, so that entries of work documents of different days can be compared.
+   */
+  private static class WorkingTime {
+
+    private static final long SECONDS_PER_DAY = 24 * 60 * 60;
+
+    private final WorkDocumentEntryForValidation entry;
+
+    private final boolean isValidated;
+
+    private final long start;
+
+    private final long end;
+
+    WorkingTime(WorkDocumentEntryForValidation entry, boolean isValidated) {
+      this.entry = entry;
+      this.isValidated = isValidated;
+
+      LocalTime startHour = entry.getStartHour();
+      LocalTime endHour = entry.getEndHour();
+      long dayStart = entry.getWorkDocument().getDate().toEpochDay() * SECONDS_PER_DAY;
+      start = dayStart + startHour.toSecondOfDay();
+      end = dayStart + endHour.toSecondOfDay() + (endHour.isBefore(startHour) ? SECONDS_PER_DAY : 0);
+    }
+
+    @Override
+    public String toString() {
+      return entry.getWorkDocument().getDate() + " " + entry.getStartHour() + " - " + entry.getEndHour();
+    }
   }
 
   public void validateWorkReportEntryQuantity(WorkReportEntry workReportEntry, BindingResult bindingResult) {
@@ -0,0 +1,30 @@
+package machineRental.MR.workDocumentEntry.controller;
+
+import javax.validation.Valid;
+import machineRental.MR.workDocumentEntry.model.WorkDocumentEntries;
+import machineRental.MR.workDocumentEntry.service.WorkDocumentEntryBulkService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/workDocumentEntries")
+public class WorkDocumentEntryController {
+
+  @Autowired
+  private WorkDocumentEntryBulkService workDocumentEntryBulkService;
+
+
+  @PostMapping("/bulk")
+  @ResponseStatus(HttpStatus.CREATED)
+  public WorkDocumentEntries create(@RequestBody @Valid WorkDocumentEntries workDocumentEntries, BindingResult bindingResult) {
+
+    return workDocumentEntryBulkService.create(workDocumentEntries, bindingResult);
+  }
+
+}
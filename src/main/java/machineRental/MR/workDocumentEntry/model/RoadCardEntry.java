@@ -8,6 +8,7 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
@@ -26,7 +27,8 @@ import machineRental.MR.workDocumentEntry.WorkCode;
 public class RoadCardEntry extends WorkDocumentEntry {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.AUTO)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "road_cards_entries_seq")
+  @SequenceGenerator(name = "road_cards_entries_seq", sequenceName = "road_cards_entries_seq", allocationSize = 50)
   private Long id;
 
   @NotNull
@@ -0,0 +1,19 @@
+package machineRental.MR.workDocumentEntry.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.validation.Valid;
+import lombok.Data;
+
+/**
+ * Work report entries and road card entries of many work documents submitted at once.
+ */
+@Data
+public class WorkDocumentEntries {
+
+  @Valid
+  private List<WorkReportEntry> workReportEntries = new ArrayList<>();
+
+  @Valid
+  private List<RoadCardEntry> roadCardEntries = new ArrayList<>();
+}
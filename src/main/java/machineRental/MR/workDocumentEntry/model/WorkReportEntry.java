@@ -8,6 +8,7 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import javax.validation.constraints.NotNull;
 import lombok.Data;
@@ -24,7 +25,8 @@ import machineRental.MR.workDocument.model.WorkDocument;
 public class WorkReportEntry extends WorkDocumentEntry {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.AUTO)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "work_reports_entries_seq")
+  @SequenceGenerator(name = "work_reports_entries_seq", sequenceName = "work_reports_entries_seq", allocationSize = 50)
   private Long id;
 
   @NotNull
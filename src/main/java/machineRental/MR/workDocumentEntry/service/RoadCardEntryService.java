@@ -7,11 +7,13 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
 import javax.transaction.Transactional;
 import javax.validation.constraints.NotNull;
 import machineRental.MR.estimate.model.EstimatePosition;
 import machineRental.MR.exception.BindingResultException;
 import machineRental.MR.exception.NotFoundException;
+import machineRental.MR.price.PriceResolver;
 import machineRental.MR.price.PriceType;
 import machineRental.MR.price.distance.DistancePriceChecker;
 import machineRental.MR.price.distance.model.DistancePrice;
@@ -44,6 +46,9 @@ public class RoadCardEntryService {
   @Autowired
   private DistancePriceService distancePriceService;
 
+  @Autowired
+  private PriceResolver priceResolver;
+
   @Autowired
   private WorkDocumentEntryValidator workDocumentEntryValidator;
 
@@ -163,32 +168,22 @@ public class RoadCardEntryService {
     LocalDate editedDate = editedWorkDocument.getDate();
 
     List<RoadCardEntry> roadCardEntries = roadCardEntryRepository.findAllByWorkDocument_Id(documentNumber);
+    String editedMachineNumber = editedWorkDocument.getMachine().getInternalId();
 
     for (RoadCardEntry roadCardEntry : roadCardEntries) {
-      String editedMachineNumber = editedWorkDocument.getMachine().getInternalId();
-      List<DistancePrice> matchingPrices = distancePriceService.getMatchingPrices(editedMachineNumber, editedDate);
-
-      boolean isMatchingPrice = false;
-
-      MATCHING_PRICES:
-      for (DistancePrice matchingPrice : matchingPrices) {
+      DistancePrice distancePrice = roadCardEntry.getDistancePrice();
 
-        DistancePrice distancePrice = roadCardEntry.getDistancePrice();
-
-        if (distancePriceService.isPriceMatching(editedDate, distancePrice, matchingPrice, editedMachineNumber)) {
-          roadCardEntry.setDistancePrice(matchingPrice);
-          isMatchingPrice = true;
-          break MATCHING_PRICES;
-        }
-      }
+      Optional<DistancePrice> matchingPrice = priceResolver.findDistancePrice(
+          editedMachineNumber, distancePrice.getWorkCode(), distancePrice.getPriceType(), distancePrice.getProjectCode(), editedDate, roadCardEntry.getDistance());
 
       WorkCode workCode = roadCardEntry.getWorkCode();
-      PriceType priceType = roadCardEntry.getDistancePrice().getPriceType();
+      PriceType priceType = distancePrice.getPriceType();
 
-      if (!isMatchingPrice) {
+      if (!matchingPrice.isPresent()) {
         throw new NotFoundException(String.format("There is no distance price matching editedDate %s and price parameters: %s, %s, %s.", editedDate, workCode, editedMachineNumber, priceType));
       }
 
+      roadCardEntry.setDistancePrice(matchingPrice.get());
     }
   }
 
@@ -252,8 +247,8 @@ public class RoadCardEntryService {
     return roadCardEntryRepository.findByEstimatePosition_CostCode_ProjectCode(projectCode);
   }
 
-  public List<RoadCardEntry> getRoadCardEntriesBetweenDates(LocalDate startDate, LocalDate endDate) {
-    return roadCardEntryRepository.findByWorkDocument_DateBetween(startDate, endDate);
+  public Stream<RoadCardEntry> streamRoadCardEntriesBetweenDates(LocalDate startDate, LocalDate endDate) {
+    return roadCardEntryRepository.streamForReportByWorkDocument_DateBetween(startDate, endDate);
   }
 
   public List<RoadCardEntry> getRoadCardEntriesBetweenDatesByEstimateProjectCode(LocalDate startDate, LocalDate endDate, String projectCode) {
@@ -0,0 +1,143 @@
+package machineRental.MR.workDocumentEntry.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.transaction.Transactional;
+import machineRental.MR.exception.NotFoundException;
+import machineRental.MR.repository.RoadCardEntryRepository;
+import machineRental.MR.repository.WorkReportEntryRepository;
+import machineRental.MR.workDocument.model.WorkDocument;
+import machineRental.MR.workDocumentEntry.WorkDocumentEntryForValidation;
+import machineRental.MR.workDocumentEntry.WorkDocumentEntryValidator;
+import machineRental.MR.workDocumentEntry.model.RoadCardEntry;
+import machineRental.MR.workDocumentEntry.model.WorkDocumentEntries;
+import machineRental.MR.workDocumentEntry.model.WorkDocumentEntry;
+import machineRental.MR.workDocumentEntry.model.WorkReportEntry;
+import org.apache.commons.collections4.keyvalue.MultiKey;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.validation.BindingResult;
+
+/**
+ * Saves entries of many work documents (eg. all documents of a day) at once. Entries of all operators and machines of given documents in their days and
+ * in the days before and after are read from data base with one query per entry type, working time of all entries is validated in memory and entries are saved in one transaction,
+ * so that inserts are sent as JDBC batches (see hibernate.jdbc.batch_size).
+ */
+@Service
+public class WorkDocumentEntryBulkService {
+
+  @Autowired
+  private WorkReportEntryRepository workReportEntryRepository;
+
+  @Autowired
+  private RoadCardEntryRepository roadCardEntryRepository;
+
+  @Autowired
+  private WorkDocumentEntryValidator workDocumentEntryValidator;
+
+  @Transactional
+  public WorkDocumentEntries create(WorkDocumentEntries workDocumentEntries, BindingResult bindingResult) {
+    List<WorkReportEntry> workReportEntries = workDocumentEntries.getWorkReportEntries();
+    List<RoadCardEntry> roadCardEntries = workDocumentEntries.getRoadCardEntries();
+
+    for (WorkReportEntry workReportEntry : workReportEntries) {
+      workDocumentEntryValidator.validateWorkReportEntryQuantity(workReportEntry, bindingResult);
+    }
+
+    for (RoadCardEntry roadCardEntry : roadCardEntries) {
+      workDocumentEntryValidator.validateRoadCardEntryQuantity(roadCardEntry, bindingResult);
+      workDocumentEntryValidator.validateRoadCardEntryDistance(roadCardEntry, bindingResult);
+    }
+
+    checkExistence(workReportEntries, workReportEntryRepository::findAllById, "Work report entry");
+    checkExistence(roadCardEntries, roadCardEntryRepository::findAllById, "Road card entry");
+
+    checkWorkingTime(workReportEntries, roadCardEntries, bindingResult);
+
+    workDocumentEntries.setWorkReportEntries(workReportEntryRepository.saveAll(workReportEntries));
+    workDocumentEntries.setRoadCardEntries(roadCardEntryRepository.saveAll(roadCardEntries));
+    return workDocumentEntries;
+  }
+
+  /**
+   * Checks that entries to be updated (with id) exist. They are read with one query and stay in persistence context, so they are not read again on save.
+   */
+  private <T extends WorkDocumentEntry> void checkExistence(List<T> entries, Function<Set<Long>, List<T>> loader, String entryName) {
+    Set<Long> ids = entries.stream()
+        .map(WorkDocumentEntry::getId)
+        .filter(id -> id != null)
+        .collect(Collectors.toSet());
+
+    if (ids.isEmpty()) {
+      return;
+    }
+
+    for (T dbEntry : loader.apply(ids)) {
+      ids.remove(dbEntry.getId());
+    }
+
+    if (!ids.isEmpty()) {
+      throw new NotFoundException(String.format("%s with id: \'%s\' does not exist", entryName, ids.iterator().next()));
+    }
+  }
+
+  private void checkWorkingTime(List<WorkReportEntry> workReportEntries, List<RoadCardEntry> roadCardEntries, BindingResult bindingResult) {
+    if (workReportEntries.isEmpty() && roadCardEntries.isEmpty()) {
+      return;
+    }
+
+    Set<MultiKey<?>> operatorDays = new HashSet<>();
+    Set<MultiKey<?>> machineDays = new HashSet<>();
+    Set<LocalDate> dates = new HashSet<>();
+    Set<Long> operatorIds = new HashSet<>();
+    Set<Long> machineIds = new HashSet<>();
+
+    List<WorkDocumentEntry> entries = new ArrayList<>(workReportEntries);
+    entries.addAll(roadCardEntries);
+    for (WorkDocumentEntry entry : entries) {
+      WorkDocument workDocument = entry.getWorkDocument();
+      Long operatorId = workDocument.getOperator().getId();
+      Long machineId = workDocument.getMachine().getId();
+
+//      entries ending after midnight overlap with early-morning entries of the next day, so entries of the day before and after are read as well
+      for (LocalDate date = workDocument.getDate().minusDays(1); !date.isAfter(workDocument.getDate().plusDays(1)); date = date.plusDays(1)) {
+        operatorDays.add(new MultiKey<>(operatorId, date));
+        machineDays.add(new MultiKey<>(machineId, date));
+        dates.add(date);
+      }
+      operatorIds.add(operatorId);
+      machineIds.add(machineId);
+    }
+
+//    query returns entries of every given operator and machine in every given day, only those of operator or machine in days around its own entries are used
+    List<WorkReportEntry> dbWorkReportEntries = workReportEntryRepository.findByWorkDocument_DateInAndOperatorOrMachine(dates, operatorIds, machineIds)
+        .stream()
+        .filter(entry -> isInDays(entry.getWorkDocument(), operatorDays, machineDays))
+        .collect(Collectors.toList());
+    List<RoadCardEntry> dbRoadCardEntries = roadCardEntryRepository.findByWorkDocument_DateInAndOperatorOrMachine(dates, operatorIds, machineIds)
+        .stream()
+        .filter(entry -> isInDays(entry.getWorkDocument(), operatorDays, machineDays))
+        .collect(Collectors.toList());
+
+    Collection<WorkDocumentEntryForValidation> workDocumentEntriesForValidation = new ArrayList<>(WorkDocumentEntryForValidation.fromWorkReportEntries(workReportEntries));
+    workDocumentEntriesForValidation.addAll(WorkDocumentEntryForValidation.fromRoadCardEntries(roadCardEntries));
+
+    Collection<WorkDocumentEntryForValidation> allWorkDocumentEntriesForValidation = new ArrayList<>(WorkDocumentEntryForValidation.fromWorkReportEntries(dbWorkReportEntries));
+    allWorkDocumentEntriesForValidation.addAll(WorkDocumentEntryForValidation.fromRoadCardEntries(dbRoadCardEntries));
+    allWorkDocumentEntriesForValidation.addAll(workDocumentEntriesForValidation);
+
+//    validator places entries of all days on one time line, so entries of the same operator or machine are compared only within a day and across midnight
+    workDocumentEntryValidator.validateWorkingTime(workDocumentEntriesForValidation, allWorkDocumentEntriesForValidation, bindingResult);
+  }
+
+  private boolean isInDays(WorkDocument workDocument, Set<MultiKey<?>> operatorDays, Set<MultiKey<?>> machineDays) {
+    return operatorDays.contains(new MultiKey<>(workDocument.getOperator().getId(), workDocument.getDate()))
+        || machineDays.contains(new MultiKey<>(workDocument.getMachine().getId(), workDocument.getDate()));
+  }
+}
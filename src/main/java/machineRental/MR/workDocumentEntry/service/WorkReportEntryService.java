@@ -7,10 +7,12 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
 import javax.transaction.Transactional;
 import machineRental.MR.estimate.model.EstimatePosition;
 import machineRental.MR.exception.BindingResultException;
 import machineRental.MR.exception.NotFoundException;
+import machineRental.MR.price.PriceResolver;
 import machineRental.MR.price.PriceType;
 import machineRental.MR.price.hour.HourPriceChecker;
 import machineRental.MR.price.hour.model.HourPrice;
@@ -42,6 +44,9 @@ public class WorkReportEntryService {
   @Autowired
   private HourPriceService hourPriceService;
 
+  @Autowired
+  private PriceResolver priceResolver;
+
   @Autowired
   WorkDocumentEntryValidator workDocumentEntryValidator;
 
@@ -160,32 +165,22 @@ public class WorkReportEntryService {
     LocalDate editedDate = editedWorkDocument.getDate();
 
     List<WorkReportEntry> workReportEntries = workReportEntryRepository.getAllByWorkDocument_Id(documentNumber);
+    String editedMachineNumber = editedWorkDocument.getMachine().getInternalId();
 
     for (WorkReportEntry workReportEntry : workReportEntries) {
-      String editedMachineNumber = editedWorkDocument.getMachine().getInternalId();
-      List<HourPrice> matchingPrices = hourPriceService.getMatchingPrices(editedMachineNumber, editedDate);
-
-      boolean isMatchingPrice = false;
-
-      MATCHING_PRICES:
-      for (HourPrice matchingPrice : matchingPrices) {
+      HourPrice hourPrice = workReportEntry.getHourPrice();
 
-        HourPrice hourPrice = workReportEntry.getHourPrice();
-
-        if (hourPriceService.isPriceMatching(editedDate, hourPrice, matchingPrice, editedMachineNumber)) {
-          workReportEntry.setHourPrice(matchingPrice);
-          isMatchingPrice = true;
-          break MATCHING_PRICES;
-        }
-      }
+      Optional<HourPrice> matchingPrice = priceResolver
+          .findHourPrice(editedMachineNumber, hourPrice.getWorkCode(), hourPrice.getPriceType(), hourPrice.getProjectCode(), editedDate);
 
       WorkCode workCode = workReportEntry.getWorkCode();
-      PriceType priceType = workReportEntry.getHourPrice().getPriceType();
+      PriceType priceType = hourPrice.getPriceType();
 
-      if (!isMatchingPrice) {
+      if (!matchingPrice.isPresent()) {
         throw new NotFoundException(String.format("There is no hour price matching editedDate %s and price parameters: %s, %s, %s.", editedDate, workCode, editedMachineNumber, priceType));
       }
 
+      workReportEntry.setHourPrice(matchingPrice.get());
     }
   }
 
@@ -248,7 +243,7 @@ public class WorkReportEntryService {
     return workReportEntryRepository.findByWorkDocument_DateBetweenAndEstimatePosition_CostCode_ProjectCodeEquals(startDate, endDate, projectCode);
   }
 
-  public List<WorkReportEntry> getWorkReportEntriesBetweenDates(LocalDate startDate, LocalDate endDate) {
-    return workReportEntryRepository.findByWorkDocument_DateBetween(startDate, endDate);
+  public Stream<WorkReportEntry> streamWorkReportEntriesBetweenDates(LocalDate startDate, LocalDate endDate) {
+    return workReportEntryRepository.streamForReportByWorkDocument_DateBetween(startDate, endDate);
   }
 }
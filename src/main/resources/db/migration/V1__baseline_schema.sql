@@ -0,0 +1,439 @@
+-- Schema as created by Hibernate (ddl-auto=update) before migrations were introduced. Existing data bases are baselined at this version.
+
+create table clients (
+    id bigint not null,
+    building_number varchar(255) not null,
+    city varchar(255) not null,
+    contact_person varchar(255) not null,
+    email varchar(255) not null,
+    mpk varchar(255) not null,
+    name varchar(255) not null,
+    phone_number varchar(255) not null,
+    postal_code varchar(255) not null,
+    street varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table codes (
+    id bigint not null,
+    cost_type varchar(255) not null,
+    cost_type_description varchar(255) not null,
+    full_code varchar(255) not null,
+    project_code varchar(255) not null,
+    project_code_description varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table daily_reports (
+    id bigint not null,
+    date date,
+    end_point varchar(255),
+    location varchar(255),
+    measure_unit varchar(255),
+    quantity double precision,
+    remarks varchar(255),
+    side varchar(255),
+    start_point varchar(255),
+    estimate_position_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create table delivery_documents (
+    id bigint not null,
+    date date not null,
+    document_number varchar(255) not null,
+    client_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create table delivery_documents_entries (
+    id bigint not null,
+    invoice_number varchar(255),
+    measure_unit varchar(255),
+    quantity double precision,
+    contractor_id bigint,
+    code_id bigint,
+    delivery_document_id bigint,
+    delivery_price_id bigint,
+    estimate_position_id bigint,
+    material_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create table delivery_prices (
+    id bigint not null,
+    end_date date not null,
+    modification_date date not null,
+    price decimal(19,2) not null,
+    price_type varchar(255) not null,
+    project_code varchar(255) not null,
+    start_date date not null,
+    contractor_id bigint,
+    material_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create table distance_prices (
+    id bigint not null,
+    end_date date not null,
+    modification_date date not null,
+    price decimal(19,2) not null,
+    price_type varchar(255) not null,
+    project_code varchar(255) not null,
+    range_max double precision not null,
+    range_min double precision not null,
+    start_date date not null,
+    work_code integer not null,
+    machine_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create table estimates (
+    id bigint not null,
+    cost_price decimal(19,2) not null,
+    cost_value decimal(19,2) not null,
+    measure_unit varchar(255) not null,
+    name varchar(255) not null,
+    quantity double precision not null,
+    remarks varchar(255) not null,
+    sell_price decimal(19,2) not null,
+    sell_value decimal(19,2) not null,
+    code_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create table hibernate_sequence (
+    next_val bigint
+) engine=InnoDB;
+
+insert into hibernate_sequence values ( 1 );
+
+create table hour_prices (
+    id bigint not null,
+    end_date date not null,
+    modification_date date not null,
+    price decimal(19,2) not null,
+    price_type varchar(255) not null,
+    project_code varchar(255) not null,
+    start_date date not null,
+    work_code integer not null,
+    machine_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create table machine_types (
+    id bigint not null,
+    cost_category varchar(255) not null,
+    machine_type varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table machines (
+    id bigint not null,
+    internal_id varchar(255) not null,
+    machine_status varchar(255) not null,
+    model varchar(255) not null,
+    name varchar(255) not null,
+    producer varchar(255) not null,
+    production_year integer not null,
+    total_physical_quantity integer not null,
+    machine_type_id bigint,
+    client_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create table materials (
+    id bigint not null,
+    type varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table operators (
+    id bigint not null,
+    name varchar(255) not null,
+    qualifications varchar(255),
+    client_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create table orders (
+    id bigint not null,
+    db_price bit not null,
+    end_date date not null,
+    price decimal(19,2) not null,
+    price_type varchar(255) not null,
+    quantity integer not null,
+    start_date date not null,
+    status varchar(255) not null,
+    value decimal(19,2) not null,
+    client_id bigint,
+    machine_id bigint,
+    seller_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create table prices (
+    id varchar(255) not null,
+    price decimal(19,2) not null,
+    price_type varchar(255) not null,
+    year integer not null,
+    machine_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create table road_cards_entries (
+    id bigint not null,
+    distance double precision,
+    end_hour time,
+    loading_place varchar(255),
+    material varchar(255),
+    measure_unit varchar(255),
+    quantity double precision,
+    runs_number integer,
+    start_hour time,
+    unloading_place varchar(255),
+    work_code integer,
+    operator_id bigint,
+    code_id bigint,
+    distance_price_id bigint,
+    estimate_position_id bigint,
+    work_document_id varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table sellers (
+    id bigint not null,
+    building_number varchar(255) not null,
+    city varchar(255) not null,
+    mpk varchar(255) not null,
+    name varchar(255) not null,
+    postal_code varchar(255) not null,
+    street varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table users (
+    id BINARY(16) not null,
+    email varchar(255) not null,
+    password varchar(255) not null,
+    role varchar(255) not null,
+    username varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table work_documents (
+    id varchar(255) not null,
+    counter_end double precision,
+    counter_start double precision,
+    date date,
+    delegation varchar(255),
+    document_type varchar(255),
+    invoice_number varchar(255),
+    machine_id bigint,
+    operator_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create table work_reports_entries (
+    id bigint not null,
+    end_hour time,
+    measure_unit varchar(255),
+    place_of_work varchar(255),
+    start_hour time,
+    type_of_work varchar(255),
+    work_code integer,
+    work_quantity double precision,
+    operator_id bigint,
+    code_id bigint,
+    estimate_position_id bigint,
+    hour_price_id bigint,
+    work_document_id varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+alter table clients
+    add constraint UK_78i4v67xyv3mpa1q1b7ts6b4k unique (mpk);
+
+alter table clients
+    add constraint UK_k49t374y88hquc0xxwg5iudfv unique (name);
+
+alter table codes
+    add constraint UK_aly70u3cnq5lu8hnx7augd020 unique (full_code);
+
+alter table machine_types
+    add constraint UK_cld0mdgyumrx2fjtl1gx40agh unique (machine_type);
+
+alter table machines
+    add constraint UK_m2w1vl20b6gd4drtywi1g5fog unique (internal_id);
+
+alter table materials
+    add constraint UK_7749wx3ox650vdj8uph62vtka unique (type);
+
+alter table sellers
+    add constraint UK_bawo7xks3qwtn7ogs4xgq1b39 unique (mpk);
+
+alter table sellers
+    add constraint UK_eblby0a2gyhfjrm31ploe6fh5 unique (name);
+
+alter table users
+    add constraint UK_r43af9ap4edm43mmtq01oddj6 unique (username);
+
+alter table daily_reports
+    add constraint FKo8jjdp3a47n00hfx1oqga6roq
+    foreign key (estimate_position_id)
+    references estimates (id);
+
+alter table delivery_documents
+    add constraint FKs6m4waotyisqxi6ypx4xn2fmf
+    foreign key (client_id)
+    references clients (id);
+
+alter table delivery_documents_entries
+    add constraint FKst3txq0opt0f6o00wa0auufsj
+    foreign key (contractor_id)
+    references clients (id);
+
+alter table delivery_documents_entries
+    add constraint FKbpqvoovveg7124sxoeuva7wky
+    foreign key (code_id)
+    references codes (id);
+
+alter table delivery_documents_entries
+    add constraint FKfhu0jyhqe7w7xyol7x0pxvrpr
+    foreign key (delivery_document_id)
+    references delivery_documents (id);
+
+alter table delivery_documents_entries
+    add constraint FK8wjbx26tug0rw0df667li4qe4
+    foreign key (delivery_price_id)
+    references delivery_prices (id);
+
+alter table delivery_documents_entries
+    add constraint FK5o1ix7xftisp2ovlyws6fqeyo
+    foreign key (estimate_position_id)
+    references estimates (id);
+
+alter table delivery_documents_entries
+    add constraint FK9pf2y8ghkmhxd2pltnff81paw
+    foreign key (material_id)
+    references materials (id);
+
+alter table delivery_prices
+    add constraint FK4pmlyspc7b8smfkni1qb9tai3
+    foreign key (contractor_id)
+    references clients (id);
+
+alter table delivery_prices
+    add constraint FKbmccsrfrstxtrrvyqlg761ocn
+    foreign key (material_id)
+    references materials (id);
+
+alter table distance_prices
+    add constraint FKbw6if6qo1pwblrg9jwbf6xrx
+    foreign key (machine_id)
+    references machines (id);
+
+alter table estimates
+    add constraint FK2gehw45deordvc8n0nd1gdpif
+    foreign key (code_id)
+    references codes (id);
+
+alter table hour_prices
+    add constraint FK3mgiborkrf9ibty5rss3v7h8f
+    foreign key (machine_id)
+    references machines (id);
+
+alter table machines
+    add constraint FK5qei4payko7jghqulny5pmyll
+    foreign key (machine_type_id)
+    references machine_types (id);
+
+alter table machines
+    add constraint FK2xumm7qmbt1l7imhtckpwrak
+    foreign key (client_id)
+    references clients (id);
+
+alter table operators
+    add constraint FKfy4p1ejmkko81e27ebw07xyk5
+    foreign key (client_id)
+    references clients (id);
+
+alter table orders
+    add constraint FKm2dep9derpoaehshbkkatam3v
+    foreign key (client_id)
+    references clients (id);
+
+alter table orders
+    add constraint FK22mqb0xnrou28stvfy7ik07kj
+    foreign key (machine_id)
+    references machines (id);
+
+alter table orders
+    add constraint FKbdhiwrh9a9c3gmlfvx8f0cvyh
+    foreign key (seller_id)
+    references sellers (id);
+
+alter table prices
+    add constraint FK209o9ckylmkxb05naqalp9re8
+    foreign key (machine_id)
+    references machines (id);
+
+alter table road_cards_entries
+    add constraint FKbaqjwkxqfbdgxsijdigg3r9qv
+    foreign key (operator_id)
+    references operators (id);
+
+alter table road_cards_entries
+    add constraint FK8wy6md8spjsvj7mvcmmok61qp
+    foreign key (code_id)
+    references codes (id);
+
+alter table road_cards_entries
+    add constraint FK4hjov15vtag768dn56uffd4t1
+    foreign key (distance_price_id)
+    references distance_prices (id);
+
+alter table road_cards_entries
+    add constraint FKnj5k1p5tckkqgs1r35517ykj4
+    foreign key (estimate_position_id)
+    references estimates (id);
+
+alter table road_cards_entries
+    add constraint FK4nblei2rxmwa16qap0j6ricfc
+    foreign key (work_document_id)
+    references work_documents (id);
+
+alter table work_documents
+    add constraint FKq92m4uqyj7hyeraedh7ucyuyh
+    foreign key (machine_id)
+    references machines (id);
+
+alter table work_documents
+    add constraint FKfl8q7tiq52nt94hes3kiqn0wr
+    foreign key (operator_id)
+    references operators (id);
+
+alter table work_reports_entries
+    add constraint FKn045c58hnakld8w5ltfxavnho
+    foreign key (operator_id)
+    references operators (id);
+
+alter table work_reports_entries
+    add constraint FKct1vm92a72t6e9b5b00n6265p
+    foreign key (code_id)
+    references codes (id);
+
+alter table work_reports_entries
+    add constraint FKfhpsgxacp6e97ob75t5bnjl30
+    foreign key (estimate_position_id)
+    references estimates (id);
+
+alter table work_reports_entries
+    add constraint FKjjspypvnklvevb0ubdxsn2oll
+    foreign key (hour_price_id)
+    references hour_prices (id);
+
+alter table work_reports_entries
+    add constraint FKhhop7bffwmxs4hnx3i37ljhj3
+    foreign key (work_document_id)
+    references work_documents (id);
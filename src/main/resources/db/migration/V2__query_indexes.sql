@@ -0,0 +1,22 @@
+-- Indexes of the most frequent queries. Index names are checked on startup by SchemaIndexVerifier.
+
+-- keyset searches seek on (date, id), reports read documents between dates
+create index idx_work_documents_date_id on work_documents (date, id);
+create index idx_delivery_documents_date on delivery_documents (date);
+create index idx_daily_reports_date_id on daily_reports (date, id);
+create index idx_orders_start_date_id on orders (start_date, id);
+create index idx_hour_prices_start_date_id on hour_prices (start_date, id);
+create index idx_distance_prices_start_date_id on distance_prices (start_date, id);
+create index idx_delivery_prices_start_date_id on delivery_prices (start_date, id);
+
+-- price lookups and checks of overlapping prices read prices of a machine or contractor valid between dates
+create index idx_hour_prices_machine_dates on hour_prices (machine_id, start_date, end_date);
+create index idx_distance_prices_machine_dates on distance_prices (machine_id, start_date, end_date);
+create index idx_delivery_prices_contractor_dates on delivery_prices (contractor_id, start_date, end_date);
+
+-- working time validation reads documents of an operator or machine in given days
+create index idx_work_documents_operator_date on work_documents (operator_id, date);
+create index idx_work_documents_machine_date on work_documents (machine_id, date);
+
+-- cost reports read estimate positions and entries of a project, foreign key columns (eg. estimates.code_id) are already indexed by their constraints
+create index idx_codes_project_code on codes (project_code);
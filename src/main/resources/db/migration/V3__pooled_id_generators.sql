@@ -0,0 +1,50 @@
+-- Entities inserted in bulk take ids from their own generator tables in blocks of 50 (pooled-lo optimizer) instead of one hibernate_sequence row
+-- locked for every insert. Generators start at the next value of hibernate_sequence, which is above every id given so far.
+
+create table work_reports_entries_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into work_reports_entries_seq select next_val from hibernate_sequence;
+
+create table road_cards_entries_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into road_cards_entries_seq select next_val from hibernate_sequence;
+
+create table delivery_documents_entries_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into delivery_documents_entries_seq select next_val from hibernate_sequence;
+
+create table hour_prices_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into hour_prices_seq select next_val from hibernate_sequence;
+
+create table distance_prices_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into distance_prices_seq select next_val from hibernate_sequence;
+
+create table delivery_prices_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into delivery_prices_seq select next_val from hibernate_sequence;
+
+create table orders_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into orders_seq select next_val from hibernate_sequence;
+
+create table daily_reports_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into daily_reports_seq select next_val from hibernate_sequence;
@@ -0,0 +1,32 @@
+-- Costs of work report entries, road card entries, delivery document entries and daily report quantities summed up per estimate position and day.
+-- Cells of a day are recomputed after every change of entries of that day, cost reports sum up cells between dates instead of reading entries.
+-- Cells are filled on first startup (see CostCubeService.buildIfEmpty) and can be rebuilt at any time. Cells are derived data and estimate positions
+-- are never deleted, so no foreign key is kept to estimates.
+
+create table cost_cube_cells (
+    id bigint not null,
+    estimate_position_id bigint not null,
+    date date not null,
+    source varchar(255) not null,
+    machine_type_id bigint,
+    material_id bigint,
+    work_code integer,
+    price_type varchar(255),
+    work_seconds bigint,
+    work_seconds_value decimal(19,2),
+    distance_count double precision,
+    distance_value double precision,
+    quantity_count double precision,
+    quantity_value double precision,
+    runs_value decimal(19,2),
+    primary key (id)
+) engine=InnoDB;
+
+-- cells of a day are replaced by estimate position and date, cost reports read cells of estimate positions of a project between dates
+create index idx_cost_cube_cells_estimate_position_date on cost_cube_cells (estimate_position_id, date);
+
+create table cost_cube_cells_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into cost_cube_cells_seq values (1);
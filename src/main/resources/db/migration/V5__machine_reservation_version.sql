@@ -0,0 +1,4 @@
+-- Version of reservations of a machine, incremented under machine row lock whenever an order of the machine is created, edited or deleted, so that
+-- application instances reload their cached reservation timelines of the machine (see MachineAvailabilityService).
+
+alter table machines add reservation_version bigint not null default 0;
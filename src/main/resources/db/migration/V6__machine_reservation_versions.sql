@@ -0,0 +1,13 @@
+-- Reservation versions of machines (see V5) are moved to a table of their own, which is not cached. Incrementing version with a bulk update of
+-- machines evicted the whole second-level cache region of machines on every change of orders.
+-- A machine gets its row with the first change of its orders, machine without a row has version 0.
+
+create table machine_reservation_versions (
+    machine_id bigint not null,
+    version bigint not null,
+    primary key (machine_id)
+) engine=InnoDB;
+
+insert into machine_reservation_versions (machine_id, version) select id, reservation_version from machines;
+
+alter table machines drop column reservation_version;
@@ -0,0 +1,10 @@
+-- Version of data reports are computed from (see ReportDataVersion), kept in data base so that changes made by every instance of application change it.
+-- Transaction changing report data increments it with its first change and keeps the row locked until it commits.
+
+create table report_data_version (
+    id int not null,
+    version bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+insert into report_data_version (id, version) values (1, 0);
@@ -0,0 +1,110 @@
+package machineRental.MR;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fake implementation of an interface (repository, entity manager) for tests which do not start application context. Only methods answered by a test
+ * can be called, any other call fails with UnsupportedOperationException. Calls are recorded, so tests can check which queries were run.
+ * Mockito bundled with Spring Boot 2.0 (byte-buddy 1.7) cannot define mock classes on Java 11, so fakes are JDK proxies.
+ */
+public class Fake<T> {
+
+  private final Class<T> type;
+
+  private final Map<String, Answer> answers = new HashMap<>();
+
+  private final List<Call> calls = Collections.synchronizedList(new ArrayList<>());
+
+  private final T instance;
+
+  private Fake(Class<T> type) {
+    this.type = type;
+    this.instance = type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+      if (method.getDeclaringClass() == Object.class) {
+        switch (method.getName()) {
+          case "equals":
+            return proxy == args[0];
+          case "hashCode":
+            return System.identityHashCode(proxy);
+          default:
+            return "Fake " + type.getSimpleName();
+        }
+      }
+
+      Answer answer = answers.get(method.getName());
+      if (answer == null) {
+        throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+      }
+      Object[] arguments = args != null ? args : new Object[0];
+      calls.add(new Call(method.getName(), arguments));
+      return answer.answer(arguments);
+    }));
+  }
+
+  public static <T> Fake<T> of(Class<T> type) {
+    return new Fake<>(type);
+  }
+
+  /**
+   * Answers all overloads of a given method.
+   */
+  public Fake<T> answer(String methodName, Answer answer) {
+    answers.put(methodName, answer);
+    return this;
+  }
+
+  public T get() {
+    return instance;
+  }
+
+  public int callsCount(String methodName) {
+    synchronized (calls) {
+      return (int) calls.stream().filter(call -> call.methodName.equals(methodName)).count();
+    }
+  }
+
+  /**
+   * @return Names of called methods in the order of calls, prefixed with simple name of faked interface, eg. "UserRepository.findByUsername".
+   */
+  public List<String> calledMethods() {
+    synchronized (calls) {
+      List<String> calledMethods = new ArrayList<>();
+      calls.forEach(call -> calledMethods.add(type.getSimpleName() + "." + call.methodName));
+      return calledMethods;
+    }
+  }
+
+  /**
+   * @return Arguments of every call of a given method, in the order of calls.
+   */
+  public List<Object[]> arguments(String methodName) {
+    synchronized (calls) {
+      List<Object[]> arguments = new ArrayList<>();
+      calls.stream().filter(call -> call.methodName.equals(methodName)).forEach(call -> arguments.add(call.arguments));
+      return arguments;
+    }
+  }
+
+  @FunctionalInterface
+  public interface Answer {
+
+    Object answer(Object[] args) throws Throwable;
+  }
+
+  private static class Call {
+
+    private final String methodName;
+
+    private final Object[] arguments;
+
+    private Call(String methodName, Object[] arguments) {
+      this.methodName = methodName;
+      this.arguments = arguments;
+    }
+  }
+}
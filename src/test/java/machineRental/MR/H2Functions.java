@@ -0,0 +1,13 @@
+package machineRental.MR;
+
+import java.sql.Time;
+
+/**
+ * MySQL functions used in native queries, registered in H2 data base of "h2" test profile.
+ */
+public class H2Functions {
+
+  public static Integer timeToSec(Time time) {
+    return time == null ? null : time.toLocalTime().toSecondOfDay();
+  }
+}
@@ -0,0 +1,123 @@
+package machineRental.MR;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationVersion;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Runs migrations on in-memory H2 data base in MySQL mode and checks plans of the most frequent queries (written the way Hibernate generates them)
+ * use indexes of V2__query_indexes and V4__cost_cube, and that data base baselined at V1 is upgraded by later migrations.
+ */
+public class QueryIndexTest {
+
+  private final JdbcDataSource dataSource = new JdbcDataSource();
+
+  private final SchemaIndexVerifier schemaIndexVerifier = new SchemaIndexVerifier();
+
+  @Before
+  public void setUp() {
+//    every test gets its own data base, kept open between connections
+    dataSource.setURL("jdbc:h2:mem:" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+
+    Flyway flyway = new Flyway();
+    flyway.setDataSource(dataSource);
+    flyway.migrate();
+
+    ReflectionTestUtils.setField(schemaIndexVerifier, "dataSource", dataSource);
+  }
+
+  @Test
+  public void shouldSeekKeysetPagesByIndex() throws SQLException {
+    assertPlanUses("idx_work_documents_date_id", "select * from work_documents d where d.date >= '2020-01-01' and (d.date > '2020-01-01' or d.id > 'A1')"
+        + " order by d.date, d.id limit 101");
+    assertPlanUses("idx_orders_start_date_id", "select * from orders o where o.start_date >= '2020-01-01' and (o.start_date > '2020-01-01' or o.id > 5)"
+        + " order by o.start_date, o.id limit 101");
+    assertPlanUses("idx_hour_prices_start_date_id", "select * from hour_prices p where p.start_date >= '2020-01-01'"
+        + " and (p.start_date > '2020-01-01' or p.id > 5) order by p.start_date, p.id limit 101");
+  }
+
+  @Test
+  public void shouldReadReportDocumentsByDateIndex() throws SQLException {
+    assertPlanUses("idx_work_documents_date_id", "select e.* from work_reports_entries e inner join work_documents d on e.work_document_id = d.id"
+        + " where d.date between '2020-01-01' and '2020-01-31'");
+    assertPlanUses("idx_delivery_documents_date", "select * from delivery_documents d where d.date between '2020-01-01' and '2020-01-31'");
+  }
+
+  @Test
+  public void shouldReadWorkingTimeOfOperatorAndMachineByIndex() throws SQLException {
+    assertPlanUses("idx_work_documents_operator_date", "select * from work_documents d where d.operator_id = 1 and d.date in ('2020-01-01', '2020-01-02')");
+    assertPlanUses("idx_work_documents_machine_date", "select * from work_documents d where d.machine_id = 1 and d.date in ('2020-01-01', '2020-01-02')");
+  }
+
+  @Test
+  public void shouldReadEstimatesOfProjectByIndex() throws SQLException {
+    assertPlanUses("idx_codes_project_code", "select e.* from estimates e inner join codes c on e.code_id = c.id where c.project_code = 'P1'");
+    assertPlanUses("idx_codes_project_code", "select e.* from estimates e inner join codes c on e.code_id = c.id where c.project_code in ('P1', 'P2')");
+  }
+
+  @Test
+  public void shouldReadCostCubeCellsOfEstimatePositionsByIndex() throws SQLException {
+    assertPlanUses("idx_cost_cube_cells_estimate_position_date", "select c.* from cost_cube_cells c where c.estimate_position_id = 1"
+        + " and c.date between '2020-01-01' and '2020-01-31'");
+    assertPlanUses("idx_cost_cube_cells_estimate_position_date", "delete from cost_cube_cells where estimate_position_id in (1, 2)"
+        + " and date between '2020-01-01' and '2020-01-01'");
+  }
+
+  @Test
+  public void shouldFindAllRequiredIndexesAfterMigration() throws SQLException {
+    assertEquals(Collections.emptyList(), schemaIndexVerifier.findMissingIndexes());
+  }
+
+  @Test
+  public void shouldReportDroppedIndex() throws SQLException {
+    execute("drop index idx_orders_start_date_id");
+
+    assertEquals(Collections.singletonList("orders.idx_orders_start_date_id"), schemaIndexVerifier.findMissingIndexes());
+  }
+
+  @Test
+  public void shouldKeepReservationVersionsOfMachinesOfBaselineSchema() throws SQLException {
+    JdbcDataSource baselineDataSource = new JdbcDataSource();
+    baselineDataSource.setURL("jdbc:h2:mem:" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+    Flyway flyway = new Flyway();
+    flyway.setDataSource(baselineDataSource);
+    flyway.setTarget(MigrationVersion.fromVersion("1"));
+    flyway.migrate();
+
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(baselineDataSource);
+    jdbcTemplate.update("insert into machines (id, internal_id, machine_status, model, name, producer, production_year, total_physical_quantity)"
+        + " values (1, 'M1', 'ok', 'model', 'name', 'producer', 2010, 1)");
+
+    flyway.setTarget(MigrationVersion.LATEST);
+    flyway.migrate();
+
+    assertEquals(Long.valueOf(0), jdbcTemplate.queryForObject("select version from machine_reservation_versions where machine_id = 1", Long.class));
+  }
+
+  private void assertPlanUses(String index, String query) throws SQLException {
+    try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement();
+        ResultSet resultSet = statement.executeQuery("explain " + query)) {
+      resultSet.next();
+      String plan = resultSet.getString(1);
+      assertTrue(plan.toLowerCase().contains(index), plan);
+    }
+  }
+
+  private void execute(String sql) throws SQLException {
+    try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+      statement.execute(sql);
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package machineRental.MR;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import javax.sql.DataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+public class ReadOnlyRoutingDataSourceTest {
+
+  private final DataSource dataSource = new LazyConnectionDataSourceProxy(
+      new ReadOnlyRoutingDataSource(createDataSource("primary"), createDataSource("read")));
+
+  private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+  private final TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+  @Test
+  public void shouldUseReadPoolInReadOnlyTransactionOfReadPoolMethod() {
+    transactionTemplate.setReadOnly(true);
+
+    assertEquals("READ", ReadOnlyRoutingDataSource.withReadPool(() -> transactionTemplate.execute(status -> readDataBaseName())));
+  }
+
+  @Test
+  public void shouldUsePrimaryPoolInReadOnlyTransactionWithoutReadPoolMethod() {
+//    eg. reading method of repository called on its own after data was written
+    transactionTemplate.setReadOnly(true);
+
+    assertEquals("PRIMARY", transactionTemplate.execute(status -> readDataBaseName()));
+  }
+
+  @Test
+  public void shouldUsePrimaryPoolInReadWriteTransaction() {
+    assertEquals("PRIMARY", ReadOnlyRoutingDataSource.withReadPool(() -> transactionTemplate.execute(status -> readDataBaseName())));
+  }
+
+  @Test
+  public void shouldUsePrimaryPoolOutsideOfTransaction() {
+    assertEquals("PRIMARY", ReadOnlyRoutingDataSource.withReadPool(this::readDataBaseName));
+  }
+
+  @Test
+  public void shouldAllowReadPoolOnlyWithinReadPoolMethod() {
+    AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new Search());
+    proxyFactory.setProxyTargetClass(true);
+    proxyFactory.addAspect(new ReadPoolAspect());
+    Search search = proxyFactory.getProxy();
+
+    assertTrue(search.search());
+    assertFalse(search.searchWithoutMarker());
+    assertFalse(ReadOnlyRoutingDataSource.isReadPoolAllowed());
+  }
+
+  private String readDataBaseName() {
+    return jdbcTemplate.queryForObject("select database()", String.class);
+  }
+
+  private static DataSource createDataSource(String name) {
+    JdbcDataSource dataSource = new JdbcDataSource();
+    dataSource.setURL("jdbc:h2:mem:" + name + ";MODE=MySQL");
+    return dataSource;
+  }
+
+  public static class Search {
+
+    @ReadPool
+    public boolean search() {
+      return ReadOnlyRoutingDataSource.isReadPoolAllowed();
+    }
+
+    public boolean searchWithoutMarker() {
+      return ReadOnlyRoutingDataSource.isReadPoolAllowed();
+    }
+  }
+}
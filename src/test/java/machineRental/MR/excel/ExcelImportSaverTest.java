@@ -0,0 +1,90 @@
+package machineRental.MR.excel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+import machineRental.MR.Fake;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+public class ExcelImportSaverTest {
+
+  private final ExcelImportSaver excelImportSaver = new ExcelImportSaver();
+
+//  calls of entity manager and transaction manager in the order they were made
+  private final List<String> calls = new ArrayList<>();
+
+  private final Fake<EntityManager> entityManager = Fake.of(EntityManager.class)
+      .answer("persist", args -> {
+        if ("invalid".equals(args[0])) {
+          throw new PersistenceException("constraint violation");
+        }
+        return calls.add("persist " + args[0]);
+      })
+      .answer("flush", args -> calls.add("flush"))
+      .answer("clear", args -> calls.add("clear"));
+
+  private final PlatformTransactionManager transactionManager = new PlatformTransactionManager() {
+
+    @Override
+    public TransactionStatus getTransaction(TransactionDefinition definition) {
+      calls.add(definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW ? "begin new" : "begin");
+      return new SimpleTransactionStatus();
+    }
+
+    @Override
+    public void commit(TransactionStatus status) {
+      calls.add("commit");
+    }
+
+    @Override
+    public void rollback(TransactionStatus status) {
+      calls.add("rollback");
+    }
+  };
+
+  @Before
+  public void setUp() {
+    ReflectionTestUtils.setField(excelImportSaver, "entityManager", entityManager.get());
+    ReflectionTestUtils.setField(excelImportSaver, "transactionManager", transactionManager);
+    ReflectionTestUtils.setField(excelImportSaver, "chunkSize", 2);
+  }
+
+  @Test
+  public void shouldPersistFlushAndClearEveryChunkInItsOwnTransaction() {
+    excelImportSaver.saveInChunks(Arrays.asList("A", "B", "C", "D", "E"));
+
+    assertEquals(Arrays.asList(
+        "begin new", "persist A", "persist B", "flush", "clear", "commit",
+        "begin new", "persist C", "persist D", "flush", "clear", "commit",
+        "begin new", "persist E", "flush", "clear", "commit"), calls);
+  }
+
+  @Test
+  public void shouldNotStartTransactionForNoEntities() {
+    excelImportSaver.saveInChunks(Collections.emptyList());
+
+    assertEquals(Collections.emptyList(), calls);
+  }
+
+  @Test
+  public void shouldRollBackOnlyFailingChunk() {
+    assertThrows(PersistenceException.class, () -> excelImportSaver.saveInChunks(Arrays.asList("A", "B", "C", "invalid", "E")));
+
+//    first chunk stays committed, chunks after the failing one are not saved
+    assertEquals(Arrays.asList(
+        "begin new", "persist A", "persist B", "flush", "clear", "commit",
+        "begin new", "persist C", "rollback"), calls);
+  }
+}
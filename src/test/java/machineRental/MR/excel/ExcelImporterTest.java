@@ -0,0 +1,126 @@
+package machineRental.MR.excel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class ExcelImporterTest {
+
+  private final ExcelImporter excelImporter = new ExcelImporter();
+
+  private final Date startDate = new Date(1577872800000L);
+
+  @Before
+  public void setUp() {
+    ReflectionTestUtils.setField(excelImporter, "excelHelper", new ExcelHelper());
+  }
+
+  @Test
+  public void shouldReadXlsxRowsTheSameWayAsWorkbook() throws IOException {
+    checkRows(new MockMultipartFile("file", "prices.xlsx", null, createWorkbook(new XSSFWorkbook())));
+  }
+
+  @Test
+  public void shouldReadXlsRowsTheSameWayAsWorkbook() throws IOException {
+    checkRows(new MockMultipartFile("file", "prices.xls", null, createWorkbook(new HSSFWorkbook())));
+  }
+
+  @Test
+  public void shouldCollectStringColumnValuesReadingFileOnce() throws IOException {
+    AtomicInteger inputStreamsCount = new AtomicInteger();
+    MockMultipartFile file = new MockMultipartFile("file", "prices.xlsx", null, createWorkbook(new XSSFWorkbook())) {
+      @Override
+      public InputStream getInputStream() throws IOException {
+        inputStreamsCount.incrementAndGet();
+        return super.getInputStream();
+      }
+    };
+
+    ExcelRows rows = excelImporter.readRows(file, 0, 1, 4);
+
+    assertEquals(1, inputStreamsCount.get());
+    assertEquals(2, rows.size());
+    assertEquals(new HashSet<>(Arrays.asList("PS", "PX")), rows.getStringColumnValues(0));
+//    numeric cells are left to row mapper
+    assertEquals(Collections.emptySet(), rows.getStringColumnValues(1));
+    assertEquals(Collections.singleton("P-001"), rows.getStringColumnValues(4));
+    assertEquals(Collections.emptySet(), rows.getStringColumnValues(7));
+
+    assertEquals(Arrays.asList("PS", "PX"), rows.map(row -> row.getStringCellValue(0)));
+    assertEquals(1, inputStreamsCount.get());
+  }
+
+  @Test
+  public void shouldThrowWrongDataTypeExceptionForTextInNumericColumn() throws IOException {
+    ExcelRow row = excelImporter.readRows(new MockMultipartFile("file", "prices.xlsx", null, createWorkbook(new XSSFWorkbook())), excelRow -> excelRow).get(0);
+
+    Exception exception = assertThrows(WrongDataTypeException.class, () -> row.getNumericCellValue(0));
+    assertEquals("Wrong data type in row 2, column 'A'. It must be a number!", exception.getMessage());
+    assertThrows(WrongDataTypeException.class, () -> row.getDateCellValue(4));
+    assertThrows(WrongDataTypeException.class, () -> row.getNumericCellValue(10));
+  }
+
+  private void checkRows(MockMultipartFile file) {
+    List<ExcelRow> rows = excelImporter.readRows(file, row -> row);
+
+//    header row and empty row are skipped
+    assertEquals(2, rows.size());
+
+    ExcelRow row = rows.get(0);
+    assertEquals(1, row.getRowNum());
+    assertEquals(Cell.CELL_TYPE_STRING, row.getCellType(0));
+    assertEquals("PS", row.getStringCellValue(0));
+    assertEquals(Cell.CELL_TYPE_NUMERIC, row.getCellType(1));
+    assertEquals(125.5, row.getNumericCellValue(1));
+    assertEquals(startDate, row.getDateCellValue(2));
+    assertEquals(Cell.CELL_TYPE_BLANK, row.getCellType(3));
+    assertEquals(Cell.CELL_TYPE_STRING, row.getCellType(4));
+    assertEquals("P-001", row.getStringCellValue(4));
+    assertEquals(Cell.CELL_TYPE_BLANK, row.getCellType(10));
+
+    assertEquals(3, rows.get(1).getRowNum());
+    assertEquals("PX", rows.get(1).getStringCellValue(0));
+  }
+
+  private byte[] createWorkbook(Workbook workbook) throws IOException {
+    Sheet sheet = workbook.createSheet();
+
+    Row header = sheet.createRow(0);
+    header.createCell(0).setCellValue("work code");
+    header.createCell(1).setCellValue("price");
+
+    Row row = sheet.createRow(1);
+    row.createCell(0).setCellValue("PS");
+    row.createCell(1).setCellValue(125.5);
+    row.createCell(2).setCellValue(startDate);
+    row.createCell(4).setCellValue("P-001");
+
+    sheet.createRow(2).createCell(0);
+
+    Row secondRow = sheet.createRow(3);
+    secondRow.createCell(0).setCellValue("PX");
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    workbook.write(outputStream);
+    return outputStream.toByteArray();
+  }
+}
@@ -0,0 +1,87 @@
+package machineRental.MR.machineType;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import javax.persistence.EntityManagerFactory;
+import machineRental.MR.exception.NotFoundException;
+import machineRental.MR.machineType.model.MachineType;
+import machineRental.MR.machineType.service.MachineTypeService;
+import machineRental.MR.repository.MachineTypeRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.validation.BeanPropertyBindingResult;
+
+/**
+ * Checks that machine types are served from second-level and query cache and that cached entries are invalidated when machine type is changed.
+ * Test is not transactional, as cache is updated when transaction commits, so created machine type is deleted after every test.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class MachineTypeCacheTest {
+
+  @Autowired
+  private MachineTypeService machineTypeService;
+
+  @Autowired
+  private MachineTypeRepository machineTypeRepository;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  private Statistics statistics;
+
+  private MachineType machineType;
+
+  @Before
+  public void setUp() {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    machineType = new MachineType(null, "Cache test", CostCategory.EQUIPMENT);
+    machineType = machineTypeService.create(machineType, new BeanPropertyBindingResult(machineType, "machineType"));
+  }
+
+  @After
+  public void tearDown() {
+    machineTypeRepository.deleteById(machineType.getId());
+  }
+
+  @Test
+  public void shouldReadMachineTypeFromCache() {
+    machineTypeService.getByMachineType("Cache test");
+    statistics.clear();
+
+    assertEquals(machineType.getId(), machineTypeService.getByMachineType("Cache test").getId());
+    assertTrue(machineTypeRepository.findById(machineType.getId()).isPresent());
+
+    assertEquals(1, statistics.getQueryCacheHitCount());
+    assertEquals(0, statistics.getQueryExecutionCount());
+    assertEquals(0, statistics.getPrepareStatementCount());
+    assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+  }
+
+  @Test
+  public void shouldInvalidateCacheOnUpdate() {
+    assertFalse(machineTypeRepository.existsByMachineType("Cache test updated"));
+    machineTypeService.getByMachineType("Cache test");
+
+    MachineType editedMachineType = new MachineType(machineType.getId(), "Cache test updated", CostCategory.TRANSPORT);
+    machineTypeService.update(machineType.getId(), editedMachineType, new BeanPropertyBindingResult(editedMachineType, "machineType"));
+
+    assertTrue(machineTypeRepository.existsByMachineType("Cache test updated"));
+    assertThrows(NotFoundException.class, () -> machineTypeService.getByMachineType("Cache test"));
+    assertEquals(CostCategory.TRANSPORT, machineTypeRepository.findById(machineType.getId()).get().getCostCategory());
+  }
+}
@@ -0,0 +1,190 @@
+package machineRental.MR.order.availability;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import machineRental.MR.Fake;
+import machineRental.MR.machine.model.Machine;
+import machineRental.MR.order.model.Order;
+import machineRental.MR.repository.MachineRepository;
+import machineRental.MR.repository.MachineReservationVersionRepository;
+import machineRental.MR.repository.OrderRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+public class MachineAvailabilityServiceTest {
+
+  private final MachineAvailabilityService machineAvailabilityService = new MachineAvailabilityService();
+
+  private final List<Machine> machines = Arrays.asList(createMachine(1L, "M1", 3), createMachine(2L, "M2", 4));
+
+//  orders saved by all threads, read by fake order repository
+  private final List<Reservation> savedReservations = new CopyOnWriteArrayList<>();
+
+  private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+
+  private final AtomicLong orderIds = new AtomicLong();
+
+  private final LocalDate firstDay = LocalDate.of(2020, 1, 1);
+
+  @Before
+  public void setUp() {
+    Fake<MachineRepository> machineRepository = Fake.of(MachineRepository.class)
+        .answer("findAndLockByInternalIdIn", args -> machines);
+    Fake<MachineReservationVersionRepository> machineReservationVersionRepository = Fake.of(MachineReservationVersionRepository.class)
+        .answer("incrementVersion", args -> versions.computeIfPresent((Long) args[0], (machineId, version) -> version + 1) != null ? 1 : 0)
+        .answer("save", args -> {
+          MachineReservationVersion version = (MachineReservationVersion) args[0];
+          versions.put(version.getMachineId(), version.getVersion());
+          return version;
+        })
+        .answer("findVersionByMachineId", args -> versions.get(args[0]));
+    Fake<OrderRepository> orderRepository = Fake.of(OrderRepository.class)
+        .answer("findReservationsByMachineId", args -> findSavedReservations((Long) args[0]));
+
+    ReflectionTestUtils.setField(machineAvailabilityService, "machineRepository", machineRepository.get());
+    ReflectionTestUtils.setField(machineAvailabilityService, "machineReservationVersionRepository", machineReservationVersionRepository.get());
+    ReflectionTestUtils.setField(machineAvailabilityService, "orderRepository", orderRepository.get());
+    ReflectionTestUtils.setField(machineAvailabilityService, "transactionManager", new CommittingTransactionManager());
+  }
+
+  @Test
+  public void shouldNotOverbookMachineWhenOrdersAreCreatedConcurrently() throws Exception {
+    ExecutorService executorService = Executors.newFixedThreadPool(8);
+    CountDownLatch start = new CountDownLatch(1);
+
+    List<Future<Boolean>> results = new ArrayList<>();
+    for (int thread = 0; thread < 8; thread++) {
+      results.add(executorService.submit(() -> {
+        start.await();
+        return tryToReserve(machines.get(0), firstDay, firstDay.plusDays(9), 1);
+      }));
+    }
+    start.countDown();
+
+    int reservedOrders = 0;
+    for (Future<Boolean> result : results) {
+      reservedOrders += result.get(30, TimeUnit.SECONDS) ? 1 : 0;
+    }
+    executorService.shutdown();
+
+    assertEquals(3, reservedOrders);
+    assertEquals(3, countReserved(machines.get(0), firstDay.plusDays(9)));
+    assertEquals(Long.valueOf(3), versions.get(machines.get(0).getId()));
+  }
+
+  @Test
+  public void shouldNotWaitForReservationOfAnotherMachine() throws Exception {
+    CountDownLatch firstMachineLocked = new CountDownLatch(1);
+    CountDownLatch secondMachineReserved = new CountDownLatch(1);
+
+    Thread firstMachineThread = new Thread(() -> machineAvailabilityService.withReservationLock(Collections.singletonList("M1"), () -> {
+      firstMachineLocked.countDown();
+      try {
+        return secondMachineReserved.await(10, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        throw new IllegalStateException(e);
+      }
+    }));
+    firstMachineThread.start();
+    firstMachineLocked.await();
+
+    tryToReserve(machines.get(1), firstDay, firstDay, 1);
+    secondMachineReserved.countDown();
+    firstMachineThread.join();
+
+    assertEquals(1, countReserved(machines.get(1), firstDay));
+  }
+
+  private boolean tryToReserve(Machine machine, LocalDate startDate, LocalDate endDate, int quantity) {
+    return machineAvailabilityService.withReservationLock(Collections.singletonList(machine.getInternalId()), () -> {
+      int availableQuantity = machineAvailabilityService.getAvailableQuantity(machine, startDate, endDate, -1L);
+//      give other threads a chance to check the same machine between check and save
+      Thread.yield();
+      if (availableQuantity < quantity) {
+        return false;
+      }
+
+      Order order = new Order();
+      order.setId(orderIds.incrementAndGet());
+      order.setMachine(machine);
+      order.setStartDate(startDate);
+      order.setEndDate(endDate);
+      order.setQuantity(quantity);
+
+      savedReservations.add(new Reservation(order.getId(), machine.getId(), startDate, endDate, quantity));
+      machineAvailabilityService.reserve(null, order);
+      return true;
+    });
+  }
+
+  private int countReserved(Machine machine, LocalDate day) {
+    int reserved = 0;
+    for (Reservation reservation : savedReservations) {
+      if (reservation.getMachineId().equals(machine.getId()) && !day.isBefore(reservation.getStartDate()) && !day.isAfter(reservation.getEndDate())) {
+        reserved += reservation.getQuantity();
+      }
+    }
+    return reserved;
+  }
+
+  private Machine createMachine(Long id, String internalId, int totalPhysicalQuantity) {
+    Machine machine = new Machine();
+    machine.setId(id);
+    machine.setInternalId(internalId);
+    machine.setTotalPhysicalQuantity(totalPhysicalQuantity);
+    return machine;
+  }
+
+  private Machine getMachine(Object id) {
+    return machines.stream().filter(machine -> machine.getId().equals(id)).findFirst().get();
+  }
+
+  private List<Reservation> findSavedReservations(Long machineId) {
+    List<Reservation> reservations = new ArrayList<>();
+    for (Reservation reservation : savedReservations) {
+      if (reservation.getMachineId().equals(machineId)) {
+        reservations.add(reservation);
+      }
+    }
+    return reservations;
+  }
+
+//  commits without data base, so that after commit synchronizations of availability service are run
+  private static class CommittingTransactionManager extends AbstractPlatformTransactionManager {
+
+    @Override
+    protected Object doGetTransaction() {
+      return new Object();
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+    }
+
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) {
+    }
+
+    @Override
+    protected void doRollback(DefaultTransactionStatus status) {
+    }
+  }
+}
@@ -0,0 +1,122 @@
+package machineRental.MR.order.availability;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+
+public class ReservationTimelineTest {
+
+  private final LocalDate firstDay = LocalDate.of(2020, 1, 1);
+
+  @Test
+  public void shouldFindNothingReservedInEmptyTimeline() {
+    ReservationTimeline timeline = new ReservationTimeline(Collections.emptyList(), 0);
+
+    assertEquals(0, timeline.getMaxReservedQuantity(firstDay, firstDay.plusDays(30)));
+    assertEquals(0, timeline.getMaxReservedQuantity(firstDay, firstDay.plusDays(30), 1L));
+  }
+
+  @Test
+  public void shouldCountReservationOnItsStartAndEndDayOnly() {
+    ReservationTimeline timeline = new ReservationTimeline(Collections.singletonList(
+        new Reservation(1L, 1L, firstDay.plusDays(5), firstDay.plusDays(9), 2)), 0);
+
+    assertEquals(0, timeline.getMaxReservedQuantity(firstDay, firstDay.plusDays(4)));
+    assertEquals(2, timeline.getMaxReservedQuantity(firstDay, firstDay.plusDays(5)));
+    assertEquals(2, timeline.getMaxReservedQuantity(firstDay.plusDays(9), firstDay.plusDays(20)));
+    assertEquals(0, timeline.getMaxReservedQuantity(firstDay.plusDays(10), firstDay.plusDays(20)));
+    assertEquals(2, timeline.getMaxReservedQuantity(firstDay.plusDays(7), firstDay.plusDays(7)));
+  }
+
+  @Test
+  public void shouldCountOneDayReservation() {
+    ReservationTimeline timeline = new ReservationTimeline(Collections.singletonList(new Reservation(1L, 1L, firstDay, firstDay, 3)), 0);
+
+    assertEquals(3, timeline.getMaxReservedQuantity(firstDay, firstDay));
+    assertEquals(0, timeline.getMaxReservedQuantity(firstDay.minusDays(1), firstDay.minusDays(1)));
+    assertEquals(0, timeline.getMaxReservedQuantity(firstDay.plusDays(1), firstDay.plusDays(1)));
+  }
+
+  @Test
+  public void shouldNotAddUpReservationStartingDayAfterOtherEnds() {
+    ReservationTimeline timeline = new ReservationTimeline(Arrays.asList(
+        new Reservation(1L, 1L, firstDay, firstDay.plusDays(4), 2),
+        new Reservation(2L, 1L, firstDay.plusDays(5), firstDay.plusDays(9), 3)), 0);
+
+    assertEquals(2, timeline.getMaxReservedQuantity(firstDay.plusDays(4), firstDay.plusDays(4)));
+    assertEquals(3, timeline.getMaxReservedQuantity(firstDay.plusDays(5), firstDay.plusDays(5)));
+    assertEquals(3, timeline.getMaxReservedQuantity(firstDay, firstDay.plusDays(9)));
+  }
+
+  @Test
+  public void shouldAddUpReservationsSharingOneDay() {
+    ReservationTimeline timeline = new ReservationTimeline(Arrays.asList(
+        new Reservation(1L, 1L, firstDay, firstDay.plusDays(4), 2),
+        new Reservation(2L, 1L, firstDay.plusDays(4), firstDay.plusDays(9), 3)), 0);
+
+    assertEquals(2, timeline.getMaxReservedQuantity(firstDay, firstDay.plusDays(3)));
+    assertEquals(5, timeline.getMaxReservedQuantity(firstDay, firstDay.plusDays(4)));
+    assertEquals(3, timeline.getMaxReservedQuantity(firstDay.plusDays(5), firstDay.plusDays(30)));
+  }
+
+  @Test
+  public void shouldFindPeakOfNestedReservationsAndNothingInGapBetweenReservations() {
+    ReservationTimeline timeline = new ReservationTimeline(Arrays.asList(
+        new Reservation(1L, 1L, firstDay, firstDay.plusDays(9), 1),
+        new Reservation(2L, 1L, firstDay.plusDays(3), firstDay.plusDays(6), 2),
+        new Reservation(3L, 1L, firstDay.plusDays(5), firstDay.plusDays(5), 4),
+        new Reservation(4L, 1L, firstDay.plusDays(20), firstDay.plusDays(25), 1)), 0);
+
+    assertEquals(7, timeline.getMaxReservedQuantity(firstDay.minusDays(10), firstDay.plusDays(40)));
+    assertEquals(3, timeline.getMaxReservedQuantity(firstDay.plusDays(6), firstDay.plusDays(6)));
+    assertEquals(0, timeline.getMaxReservedQuantity(firstDay.plusDays(10), firstDay.plusDays(19)));
+    assertEquals(1, timeline.getMaxReservedQuantity(firstDay.plusDays(10), firstDay.plusDays(20)));
+    assertEquals(0, timeline.getMaxReservedQuantity(firstDay.plusDays(26), firstDay.plusDays(40)));
+  }
+
+  @Test
+  public void shouldFindMaxReservedQuantityWithoutExcludedOrder() {
+    ReservationTimeline timeline = new ReservationTimeline(Arrays.asList(
+        new Reservation(1L, 1L, firstDay, firstDay.plusDays(9), 1),
+        new Reservation(2L, 1L, firstDay.plusDays(3), firstDay.plusDays(6), 2),
+        new Reservation(3L, 1L, firstDay.plusDays(8), firstDay.plusDays(12), 2)), 0);
+
+//    excluded order covers whole period
+    assertEquals(2, timeline.getMaxReservedQuantity(firstDay.plusDays(4), firstDay.plusDays(5), 1L));
+//    excluded order is the peak, the highest quantity is reserved outside of it
+    assertEquals(3, timeline.getMaxReservedQuantity(firstDay, firstDay.plusDays(12), 2L));
+//    excluded order ends within period
+    assertEquals(2, timeline.getMaxReservedQuantity(firstDay.plusDays(6), firstDay.plusDays(12), 1L));
+//    excluded order starts within period
+    assertEquals(3, timeline.getMaxReservedQuantity(firstDay, firstDay.plusDays(8), 3L));
+//    excluded order outside of period
+    assertEquals(1, timeline.getMaxReservedQuantity(firstDay, firstDay.plusDays(2), 3L));
+//    unknown order
+    assertEquals(3, timeline.getMaxReservedQuantity(firstDay, firstDay.plusDays(12), 9L));
+  }
+
+  @Test
+  public void shouldFindNothingReservedForPeriodEndingBeforeItStarts() {
+    ReservationTimeline timeline = new ReservationTimeline(Collections.singletonList(new Reservation(1L, 1L, firstDay, firstDay.plusDays(9), 1)), 0);
+
+    assertEquals(0, timeline.getMaxReservedQuantity(firstDay.plusDays(5), firstDay.plusDays(4)));
+  }
+
+  @Test
+  public void shouldReplaceReservationOfTheSameOrder() {
+    ReservationTimeline timeline = new ReservationTimeline(Collections.singletonList(
+        new Reservation(1L, 1L, firstDay, firstDay.plusDays(9), 2)), 0);
+
+    ReservationTimeline editedTimeline = timeline
+        .withReservation(new Reservation(1L, 1L, firstDay.plusDays(5), firstDay.plusDays(9), 3), 1)
+        .withReservation(new Reservation(2L, 1L, firstDay.plusDays(9), firstDay.plusDays(12), 1), 2);
+
+    assertEquals(0, editedTimeline.getMaxReservedQuantity(firstDay, firstDay.plusDays(4)));
+    assertEquals(4, editedTimeline.getMaxReservedQuantity(firstDay, firstDay.plusDays(30)));
+    assertEquals(1, editedTimeline.withoutReservation(1L, 3).getMaxReservedQuantity(firstDay, firstDay.plusDays(30)));
+    assertEquals(2, timeline.getMaxReservedQuantity(firstDay, firstDay.plusDays(30)));
+  }
+}
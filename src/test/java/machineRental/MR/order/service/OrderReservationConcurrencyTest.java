@@ -0,0 +1,318 @@
+package machineRental.MR.order.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import javax.persistence.EntityManagerFactory;
+import machineRental.MR.client.model.Client;
+import machineRental.MR.exception.BindingResultException;
+import machineRental.MR.machine.model.Machine;
+import machineRental.MR.order.OrderValidator;
+import machineRental.MR.order.availability.MachineAvailabilityService;
+import machineRental.MR.order.model.Order;
+import machineRental.MR.repository.MachineRepository;
+import machineRental.MR.seller.model.Seller;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.validation.BeanPropertyBindingResult;
+
+/**
+ * Creates orders of the same machine from two "application instances" sharing data base. Every instance has its own OrderService, OrderValidator and
+ * MachineAvailabilityService, so neither lock stripes nor cached timelines are shared and only machine row lock and reservation version keep
+ * instances from overbooking the machine. Availability services wait after every check, so that the other instance has time to check the same
+ * machine before order is saved. Edited orders are loaded in entity manager opened for the whole call, like in open-in-view request, before machine
+ * row is locked.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+// 'h2' profile uses in-memory data base created by Flyway migrations, as defined in application-h2.properties file.
+@ActiveProfiles("h2")
+public class OrderReservationConcurrencyTest {
+
+  private static final AtomicLong IDS = new AtomicLong(7000);
+
+  private static final LocalDate FIRST_DAY = LocalDate.of(2020, 6, 1);
+
+  @Autowired
+  private AutowireCapableBeanFactory beanFactory;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  private MachineRepository machineRepository;
+
+  private OrderService orderService;
+
+  private OrderService otherInstanceOrderService;
+
+  private long machineId;
+
+  private String machineInternalId;
+
+  private final String sellerMpk = "S" + IDS.incrementAndGet();
+
+  private final String clientMpk = "C" + IDS.incrementAndGet();
+
+//  run by the first instance, which is about to lock machines, eg. to change orders in the meantime
+  private final AtomicReference<Runnable> beforeReservationLock = new AtomicReference<>(() -> {});
+
+  @Before
+  public void setUp() {
+    machineId = IDS.incrementAndGet();
+    machineInternalId = "M" + machineId;
+
+    jdbcTemplate.update("insert into machine_types (id, cost_category, machine_type) values (?, 'EQUIPMENT', 'crane')", machineId);
+    jdbcTemplate.update("insert into machines (id, internal_id, machine_status, model, name, producer, production_year,"
+        + " total_physical_quantity, machine_type_id) values (?, ?, 'ok', 'model', 'name', 'producer', 2010, 3, ?)", machineId, machineInternalId, machineId);
+    jdbcTemplate.update("insert into sellers (id, building_number, city, mpk, name, postal_code, street) values (?, '1', 'city', ?, 'seller', '00-000', 'street')",
+        IDS.incrementAndGet(), sellerMpk);
+    jdbcTemplate.update("insert into clients (id, building_number, city, contact_person, email, mpk, name, phone_number, postal_code, street)"
+        + " values (?, '1', 'city', 'person', 'e@mail', ?, 'client', '1', '00-000', 'street')", IDS.incrementAndGet(), clientMpk);
+
+    orderService = createInstanceOrderService();
+    otherInstanceOrderService = createInstanceOrderService();
+  }
+
+  @After
+  public void tearDown() {
+    jdbcTemplate.update("delete from orders where machine_id = ?", machineId);
+    jdbcTemplate.update("delete from machine_reservation_versions where machine_id = ?", machineId);
+    jdbcTemplate.update("delete from machines where id = ?", machineId);
+    jdbcTemplate.update("delete from machine_types where id = ?", machineId);
+    jdbcTemplate.update("delete from sellers where mpk = ?", sellerMpk);
+    jdbcTemplate.update("delete from clients where mpk = ?", clientMpk);
+  }
+
+  @Test
+  public void shouldNotOverbookMachineWhenInstancesCreateOrdersConcurrently() throws Exception {
+    ExecutorService executorService = Executors.newFixedThreadPool(8);
+    CountDownLatch start = new CountDownLatch(1);
+
+    List<Future<Boolean>> results = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      OrderService instance = i % 2 == 0 ? orderService : otherInstanceOrderService;
+      results.add(executorService.submit((Callable<Boolean>) () -> {
+        start.await();
+        return tryToCreate(instance, FIRST_DAY, FIRST_DAY.plusDays(9), 1);
+      }));
+    }
+    start.countDown();
+
+    int createdOrders = 0;
+    for (Future<Boolean> result : results) {
+      createdOrders += result.get(60, TimeUnit.SECONDS) ? 1 : 0;
+    }
+    executorService.shutdown();
+
+    assertEquals(3, createdOrders);
+    assertEquals(Integer.valueOf(3), jdbcTemplate.queryForObject("select sum(quantity) from orders where machine_id = ?", Integer.class, machineId));
+    assertEquals(Long.valueOf(3), jdbcTemplate.queryForObject("select version from machine_reservation_versions where machine_id = ?", Long.class, machineId));
+  }
+
+  @Test
+  public void shouldReloadTimelineChangedByOtherInstance() {
+//    both instances cache timeline of machine without orders
+    orderService.create(createOrder(FIRST_DAY.plusDays(20), FIRST_DAY.plusDays(20), 1), bindingResult());
+    otherInstanceOrderService.create(createOrder(FIRST_DAY.plusDays(21), FIRST_DAY.plusDays(21), 1), bindingResult());
+
+    orderService.create(createOrder(FIRST_DAY, FIRST_DAY.plusDays(9), 2), bindingResult());
+
+    assertThrows(BindingResultException.class,
+        () -> otherInstanceOrderService.create(createOrder(FIRST_DAY.plusDays(9), FIRST_DAY.plusDays(12), 2), bindingResult()));
+    otherInstanceOrderService.create(createOrder(FIRST_DAY.plusDays(10), FIRST_DAY.plusDays(12), 2), bindingResult());
+  }
+
+  @Test
+  public void shouldReleaseQuantityOfEditedOrderInOtherInstance() {
+    Order order = orderService.create(createOrder(FIRST_DAY, FIRST_DAY.plusDays(9), 3), bindingResult());
+    assertThrows(BindingResultException.class, () -> otherInstanceOrderService.create(createOrder(FIRST_DAY, FIRST_DAY, 1), bindingResult()));
+
+    otherInstanceOrderService.update(order.getId(), createOrder(FIRST_DAY.plusDays(5), FIRST_DAY.plusDays(9), 3), bindingResult());
+
+    orderService.create(createOrder(FIRST_DAY, FIRST_DAY.plusDays(4), 3), bindingResult());
+  }
+
+  @Test
+  public void shouldNotOverbookMachineWhenOrderIsCreatedBetweenLoadingAndLockingEditedOrder() throws Exception {
+    Order order = orderService.create(createOrder(FIRST_DAY, FIRST_DAY.plusDays(9), 1), bindingResult());
+
+//    other instance reserves machine after edited order (and its machine) is loaded, but before machine row is locked
+    ExecutorService executorService = Executors.newSingleThreadExecutor();
+    beforeReservationLock.set(() -> {
+      try {
+        executorService.submit(() -> otherInstanceOrderService.create(createOrder(FIRST_DAY, FIRST_DAY.plusDays(9), 1), bindingResult()))
+            .get(60, TimeUnit.SECONDS);
+      } catch (Exception e) {
+        throw new IllegalStateException(e);
+      }
+    });
+
+    assertThrows(BindingResultException.class,
+        () -> inEntityManager(() -> orderService.update(order.getId(), createOrder(FIRST_DAY, FIRST_DAY.plusDays(9), 3), bindingResult())));
+    executorService.shutdown();
+
+    assertEquals(Integer.valueOf(2), jdbcTemplate.queryForObject("select sum(quantity) from orders where machine_id = ?", Integer.class, machineId));
+    inEntityManager(() -> orderService.update(order.getId(), createOrder(FIRST_DAY, FIRST_DAY.plusDays(9), 2), bindingResult()));
+  }
+
+  @Test
+  public void shouldNotOverbookMachineWhenOrdersAreEditedConcurrently() throws Exception {
+    List<Order> orders = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      orders.add(orderService.create(createOrder(FIRST_DAY.plusDays(10 * i), FIRST_DAY.plusDays(10 * i + 4), 1), bindingResult()));
+    }
+
+//    every order is moved to the same days with the whole quantity, only one of them can be
+    ExecutorService executorService = Executors.newFixedThreadPool(3);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Boolean>> results = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      OrderService instance = i % 2 == 0 ? orderService : otherInstanceOrderService;
+      Long orderId = orders.get(i).getId();
+      results.add(executorService.submit((Callable<Boolean>) () -> {
+        start.await();
+        return inEntityManager(() -> tryToUpdate(instance, orderId, FIRST_DAY.plusDays(30), FIRST_DAY.plusDays(34), 3));
+      }));
+    }
+    start.countDown();
+
+    int updatedOrders = 0;
+    for (Future<Boolean> result : results) {
+      updatedOrders += result.get(60, TimeUnit.SECONDS) ? 1 : 0;
+    }
+    executorService.shutdown();
+
+    assertEquals(1, updatedOrders);
+    assertEquals(Integer.valueOf(3), jdbcTemplate.queryForObject("select sum(quantity) from orders where machine_id = ? and start_date = ?",
+        Integer.class, machineId, FIRST_DAY.plusDays(30)));
+  }
+
+  @Test
+  public void shouldKeepMachineInSecondLevelCacheWhenOrdersChange() {
+    machineRepository.findById(machineId);
+    assertTrue(entityManagerFactory.getCache().contains(Machine.class, machineId));
+
+    Order order = orderService.create(createOrder(FIRST_DAY, FIRST_DAY.plusDays(9), 1), bindingResult());
+    orderService.update(order.getId(), createOrder(FIRST_DAY, FIRST_DAY.plusDays(9), 2), bindingResult());
+    orderService.delete(order.getId());
+
+    assertTrue(entityManagerFactory.getCache().contains(Machine.class, machineId));
+  }
+
+  private boolean tryToCreate(OrderService instance, LocalDate startDate, LocalDate endDate, int quantity) {
+    try {
+      instance.create(createOrder(startDate, endDate, quantity), bindingResult());
+      return true;
+    } catch (BindingResultException e) {
+      return false;
+    }
+  }
+
+  private boolean tryToUpdate(OrderService instance, Long orderId, LocalDate startDate, LocalDate endDate, int quantity) {
+    try {
+      instance.update(orderId, createOrder(startDate, endDate, quantity), bindingResult());
+      return true;
+    } catch (BindingResultException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Keeps entity manager open during the whole call, the way open-in-view does during request, so that entities loaded before transaction stay managed.
+   */
+  private <T> T inEntityManager(Supplier<T> call) {
+    TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManagerFactory.createEntityManager()));
+    try {
+      return call.get();
+    } finally {
+      ((EntityManagerHolder) TransactionSynchronizationManager.unbindResource(entityManagerFactory)).getEntityManager().close();
+    }
+  }
+
+  private OrderService createInstanceOrderService() {
+    MachineAvailabilityService machineAvailabilityService = new MachineAvailabilityService() {
+      @Override
+      public <T> T withReservationLock(Collection<String> machineInternalIds, Supplier<T> reservation) {
+        beforeReservationLock.getAndSet(() -> {}).run();
+        return super.withReservationLock(machineInternalIds, reservation);
+      }
+
+      @Override
+      public int getAvailableQuantity(Machine machine, LocalDate startDate, LocalDate endDate, Long excludedOrderId) {
+        int availableQuantity = super.getAvailableQuantity(machine, startDate, endDate, excludedOrderId);
+        try {
+          Thread.sleep(50);
+        } catch (InterruptedException e) {
+          throw new IllegalStateException(e);
+        }
+        return availableQuantity;
+      }
+    };
+    beanFactory.autowireBean(machineAvailabilityService);
+
+    OrderValidator orderValidator = new OrderValidator();
+    beanFactory.autowireBean(orderValidator);
+    ReflectionTestUtils.setField(orderValidator, "machineAvailabilityService", machineAvailabilityService);
+
+    OrderService instanceOrderService = new OrderService();
+    beanFactory.autowireBean(instanceOrderService);
+    ReflectionTestUtils.setField(instanceOrderService, "orderValidator", orderValidator);
+    ReflectionTestUtils.setField(instanceOrderService, "machineAvailabilityService", machineAvailabilityService);
+    return instanceOrderService;
+  }
+
+  private Order createOrder(LocalDate startDate, LocalDate endDate, int quantity) {
+    Machine machine = new Machine();
+    machine.setInternalId(machineInternalId);
+    Seller seller = new Seller();
+    seller.setMpk(sellerMpk);
+    Client client = new Client();
+    client.setMpk(clientMpk);
+
+    Order order = new Order();
+    order.setStatus("Unsettled");
+    order.setStartDate(startDate);
+    order.setEndDate(endDate);
+    order.setPriceType("Custom");
+    order.setQuantity(quantity);
+    order.setPrice(BigDecimal.TEN);
+    order.setMachine(machine);
+    order.setSeller(seller);
+    order.setClient(client);
+    return order;
+  }
+
+  private BeanPropertyBindingResult bindingResult() {
+    return new BeanPropertyBindingResult(new Order(), "order");
+  }
+}
@@ -0,0 +1,113 @@
+package machineRental.MR.order.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import machineRental.MR.order.model.Order;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * Checks that keyset search of orders finds the same orders as offset search, whatever status filter is given.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+// 'h2' profile uses in-memory data base created by Flyway migrations, as defined in application-h2.properties file.
+@ActiveProfiles("h2")
+public class OrderSearchTest {
+
+  private static final AtomicLong IDS = new AtomicLong(9700);
+
+  private static final LocalDate FIRST_DAY = LocalDate.of(2019, 3, 1);
+
+  private static final int PAGE_SIZE = 100;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private OrderService orderService;
+
+  private final long machineId = IDS.incrementAndGet();
+
+  private final String machineInternalId = "M" + machineId;
+
+  private final long clientId = IDS.incrementAndGet();
+
+  private final long sellerId = IDS.incrementAndGet();
+
+  private final long settledOrderId = IDS.incrementAndGet();
+
+  private final long unsettledOrderId = IDS.incrementAndGet();
+
+  private final long otherUnsettledOrderId = IDS.incrementAndGet();
+
+  @Before
+  public void setUp() {
+    jdbcTemplate.update("insert into machine_types (id, cost_category, machine_type) values (?, 'EQUIPMENT', ?)", machineId, "T" + machineId);
+    jdbcTemplate.update("insert into machines (id, internal_id, machine_status, model, name, producer, production_year,"
+        + " total_physical_quantity, machine_type_id) values (?, ?, 'In use', 'model', 'name', 'producer', 2010, 3, ?)", machineId, machineInternalId, machineId);
+    jdbcTemplate.update("insert into sellers (id, building_number, city, mpk, name, postal_code, street) values (?, '1', 'city', ?, 'seller', '00-000', 'street')",
+        sellerId, "S" + sellerId);
+    jdbcTemplate.update("insert into clients (id, building_number, city, contact_person, email, mpk, name, phone_number, postal_code, street)"
+        + " values (?, '1', 'city', 'person', 'e@mail', ?, ?, '1', '00-000', 'street')", clientId, "C" + clientId, "client " + clientId);
+
+    insertOrder(settledOrderId, FIRST_DAY, "Settled");
+    insertOrder(unsettledOrderId, FIRST_DAY.plusDays(3), "Unsettled");
+    insertOrder(otherUnsettledOrderId, FIRST_DAY.plusDays(3), "Unsettled");
+  }
+
+  @After
+  public void tearDown() {
+    jdbcTemplate.update("delete from orders where machine_id = ?", machineId);
+    jdbcTemplate.update("delete from machines where id = ?", machineId);
+    jdbcTemplate.update("delete from machine_types where id = ?", machineId);
+    jdbcTemplate.update("delete from sellers where id = ?", sellerId);
+    jdbcTemplate.update("delete from clients where id = ?", clientId);
+  }
+
+  @Test
+  public void shouldFindTheSameOrdersByStatusAsOffsetSearch() {
+    assertEquals(Arrays.asList(settledOrderId, unsettledOrderId, otherUnsettledOrderId), searchKeysetPage(""));
+    assertEquals(Collections.singletonList(settledOrderId), searchKeysetPage("Settled"));
+    assertEquals(Arrays.asList(unsettledOrderId, otherUnsettledOrderId), searchKeysetPage("Unsettled"));
+//    status is not nullable, so orders of null status are never found
+    assertEquals(Collections.emptyList(), searchKeysetPage(null));
+
+    for (String status : Arrays.asList("", "Settled", "Unsettled", "Other", null)) {
+      assertEquals(searchPage(status), searchKeysetPage(status), () -> "status " + status);
+    }
+  }
+
+  private List<Long> searchKeysetPage(String status) {
+    return orderService.search(machineInternalId, status, null, null, null, null, "", "", "", null, PAGE_SIZE).getContent().stream()
+        .map(Order::getId)
+        .collect(Collectors.toList());
+  }
+
+  private List<Long> searchPage(String status) {
+    return orderService.search(machineInternalId, status, null, null, null, null, "", "", "", PageRequest.of(0, PAGE_SIZE, Sort.by("startDate", "id")))
+        .getContent().stream()
+        .map(Order::getId)
+        .collect(Collectors.toList());
+  }
+
+  private void insertOrder(long id, LocalDate startDate, String status) {
+    jdbcTemplate.update("insert into orders (id, db_price, end_date, price, price_type, quantity, start_date, status, value, client_id, machine_id, seller_id)"
+        + " values (?, 1, ?, 100, 'day', 1, ?, ?, 100, ?, ?, ?)", id, startDate.plusDays(5), startDate, status, clientId, machineId, sellerId);
+  }
+}
@@ -0,0 +1,76 @@
+package machineRental.MR.page;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import machineRental.MR.exception.InvalidCursorException;
+import machineRental.MR.workDocument.model.WorkDocument;
+import org.junit.Test;
+
+public class KeysetPageTest {
+
+  @Test
+  public void shouldDecodeEncodedCursor() {
+    KeysetCursor cursor = new KeysetCursor(LocalDate.of(2020, 3, 2), "WR|12/2020");
+
+    assertEquals(cursor, KeysetCursor.decode(cursor.encode()));
+    assertEquals(new KeysetCursor(null, null), KeysetCursor.decode(null));
+    assertEquals(Long.valueOf(15), KeysetCursor.decode(KeysetCursor.of(LocalDate.of(2020, 3, 2), 15L).encode()).getLongId());
+  }
+
+  @Test
+  public void shouldRejectInvalidCursor() {
+    assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode("not a cursor"));
+    assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode(KeysetCursor.of(LocalDate.of(2020, 3, 2), "WR-1").encode()).getLongId());
+  }
+
+  @Test
+  public void shouldReadAllRowsPageByPage() {
+    List<WorkDocument> workDocuments = new ArrayList<>();
+    for (int i = 0; i < 25; i++) {
+      WorkDocument workDocument = new WorkDocument();
+      workDocument.setId("WR-" + (char) ('a' + i % 7));
+      workDocument.setDate(LocalDate.of(2020, 3, 1 + i / 7));
+      workDocuments.add(workDocument);
+    }
+    workDocuments.sort(Comparator.comparing(WorkDocument::getDate).thenComparing(WorkDocument::getId));
+
+    List<WorkDocument> readWorkDocuments = new ArrayList<>();
+    String cursor = null;
+    int pagesCount = 0;
+    do {
+      KeysetPage<WorkDocument> page = KeysetPage.of(findAfter(workDocuments, KeysetCursor.decode(cursor), 10 + 1), 10,
+          workDocument -> KeysetCursor.of(workDocument.getDate(), workDocument.getId()));
+      readWorkDocuments.addAll(page.getContent());
+      cursor = page.getNextCursor();
+      pagesCount++;
+    } while (cursor != null);
+
+    assertEquals(workDocuments, readWorkDocuments);
+    assertEquals(3, pagesCount);
+  }
+
+  @Test
+  public void shouldNotReturnCursorOfLastPage() {
+    KeysetPage<String> page = KeysetPage.of(new ArrayList<>(), null, value -> KeysetCursor.of(LocalDate.now(), value));
+
+    assertNull(page.getNextCursor());
+    assertEquals(KeysetPage.DEFAULT_SIZE + 1, KeysetPage.limit(null).getPageSize());
+    assertEquals(KeysetPage.MAX_SIZE + 1, KeysetPage.limit(Integer.MAX_VALUE).getPageSize());
+  }
+
+//  does the same as keyset queries: (date, id) greater than cursor, limited
+  private List<WorkDocument> findAfter(List<WorkDocument> workDocuments, KeysetCursor after, int limit) {
+    return workDocuments.stream()
+        .filter(workDocument -> after.getDate() == null || workDocument.getDate().isAfter(after.getDate())
+            || workDocument.getDate().isEqual(after.getDate()) && workDocument.getId().compareTo(after.getId()) > 0)
+        .limit(limit)
+        .collect(Collectors.toList());
+  }
+}
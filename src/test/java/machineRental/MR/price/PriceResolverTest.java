@@ -0,0 +1,255 @@
+package machineRental.MR.price;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import machineRental.MR.Fake;
+import machineRental.MR.machine.model.Machine;
+import machineRental.MR.price.distance.model.DistancePrice;
+import machineRental.MR.price.hour.model.HourPrice;
+import machineRental.MR.repository.DistancePriceRepository;
+import machineRental.MR.repository.HourPriceRepository;
+import machineRental.MR.workDocumentEntry.WorkCode;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class PriceResolverTest {
+
+  private static final LocalDate JANUARY_FIRST = LocalDate.of(2020, 1, 1);
+
+  private static final LocalDate JANUARY_LAST = LocalDate.of(2020, 1, 31);
+
+  private final PriceResolver priceResolver = new PriceResolver();
+
+  private final Map<String, List<HourPrice>> hourPricesByMachine = new HashMap<>();
+
+  private final Map<String, List<DistancePrice>> distancePricesByMachine = new HashMap<>();
+
+//  prices returned by getOne and findAllById, as loaded by persistence context of a caller
+  private final Map<Long, Object> pricesById = new HashMap<>();
+
+  private final Fake<HourPriceRepository> hourPriceRepository = Fake.of(HourPriceRepository.class);
+
+  private final Fake<DistancePriceRepository> distancePriceRepository = Fake.of(DistancePriceRepository.class);
+
+  @Before
+  public void setUp() {
+    hourPriceRepository
+        .answer("findByMachineInternalIdEquals", args -> hourPricesByMachine.getOrDefault(args[0], Collections.emptyList()))
+        .answer("getOne", args -> pricesById.get(args[0]))
+        .answer("findAllById", this::findAllById);
+    distancePriceRepository
+        .answer("findByMachineInternalIdEquals", args -> distancePricesByMachine.getOrDefault(args[0], Collections.emptyList()))
+        .answer("getOne", args -> pricesById.get(args[0]))
+        .answer("findAllById", this::findAllById);
+
+    ReflectionTestUtils.setField(priceResolver, "hourPriceRepository", hourPriceRepository.get());
+    ReflectionTestUtils.setField(priceResolver, "distancePriceRepository", distancePriceRepository.get());
+  }
+
+  @Test
+  public void shouldFindHourPriceOnlyWithinStartAndEndDate() {
+    HourPrice january = createHourPrice(1L, WorkCode.PS, PriceType.ONLY_MACHINE, JANUARY_FIRST, JANUARY_LAST);
+    hourPricesByMachine.put("M1", Collections.singletonList(january));
+
+    assertTrue(priceResolver.findHourPrice("M1", WorkCode.PS, PriceType.ONLY_MACHINE, "P1", JANUARY_FIRST).isPresent());
+    assertTrue(priceResolver.findHourPrice("M1", WorkCode.PS, PriceType.ONLY_MACHINE, "P1", JANUARY_LAST).isPresent());
+    assertFalse(priceResolver.findHourPrice("M1", WorkCode.PS, PriceType.ONLY_MACHINE, "P1", JANUARY_FIRST.minusDays(1)).isPresent());
+    assertFalse(priceResolver.findHourPrice("M1", WorkCode.PS, PriceType.ONLY_MACHINE, "P1", JANUARY_LAST.plusDays(1)).isPresent());
+  }
+
+  @Test
+  public void shouldNotFindHourPriceOfOtherParametersOrMachine() {
+    hourPricesByMachine.put("M1", Collections.singletonList(createHourPrice(1L, WorkCode.PS, PriceType.ONLY_MACHINE, JANUARY_FIRST, JANUARY_LAST)));
+
+    assertFalse(priceResolver.findHourPrice("M1", WorkCode.CP, PriceType.ONLY_MACHINE, "P1", JANUARY_FIRST).isPresent());
+    assertFalse(priceResolver.findHourPrice("M1", WorkCode.PS, PriceType.WITH_OPERATOR, "P1", JANUARY_FIRST).isPresent());
+    assertFalse(priceResolver.findHourPrice("M1", WorkCode.PS, PriceType.ONLY_MACHINE, "P2", JANUARY_FIRST).isPresent());
+    assertFalse(priceResolver.findHourPrice("M2", WorkCode.PS, PriceType.ONLY_MACHINE, "P1", JANUARY_FIRST).isPresent());
+    assertFalse(priceResolver.findHourPrice(null, WorkCode.PS, PriceType.ONLY_MACHINE, "P1", JANUARY_FIRST).isPresent());
+  }
+
+  @Test
+  public void shouldFindHourPriceStartedLongBeforePricesStartedLater() {
+    HourPrice wholeYear = createHourPrice(1L, WorkCode.PS, PriceType.ONLY_MACHINE, JANUARY_FIRST, LocalDate.of(2020, 12, 31));
+    HourPrice firstWeekOfMarch = createHourPrice(2L, WorkCode.PS, PriceType.ONLY_MACHINE, LocalDate.of(2020, 3, 1), LocalDate.of(2020, 3, 7));
+    HourPrice firstWeekOfApril = createHourPrice(3L, WorkCode.PS, PriceType.ONLY_MACHINE, LocalDate.of(2020, 4, 1), LocalDate.of(2020, 4, 7));
+    hourPricesByMachine.put("M1", Arrays.asList(firstWeekOfApril, wholeYear, firstWeekOfMarch));
+
+    assertSame(wholeYear, priceResolver.findHourPrice("M1", WorkCode.PS, PriceType.ONLY_MACHINE, "P1", LocalDate.of(2020, 3, 20)).get());
+    assertSame(firstWeekOfApril, priceResolver.findHourPrice("M1", WorkCode.PS, PriceType.ONLY_MACHINE, "P1", LocalDate.of(2020, 4, 7)).get());
+  }
+
+  @Test
+  public void shouldReturnPriceOfCallerPersistenceContextInsteadOfCachedOne() {
+    HourPrice january = createHourPrice(1L, WorkCode.PS, PriceType.ONLY_MACHINE, JANUARY_FIRST, JANUARY_LAST);
+    hourPricesByMachine.put("M1", Collections.singletonList(january));
+    priceResolver.findHourPrice("M1", WorkCode.PS, PriceType.ONLY_MACHINE, "P1", JANUARY_FIRST);
+
+//    changes of entity loaded into index do not change index
+    january.setEndDate(JANUARY_FIRST);
+    HourPrice januaryOfOtherContext = createHourPrice(1L, WorkCode.PS, PriceType.ONLY_MACHINE, JANUARY_FIRST, JANUARY_LAST);
+
+    assertSame(januaryOfOtherContext, priceResolver.findHourPrice("M1", WorkCode.PS, PriceType.ONLY_MACHINE, "P1", JANUARY_LAST).get());
+    assertEquals(Arrays.asList("HourPriceRepository.findByMachineInternalIdEquals", "HourPriceRepository.getOne", "HourPriceRepository.getOne"),
+        hourPriceRepository.calledMethods());
+  }
+
+  @Test
+  public void shouldLoadPricesOfMachineOnceUntilEvicted() {
+    hourPricesByMachine.put("M1", Collections.singletonList(createHourPrice(1L, WorkCode.PS, PriceType.ONLY_MACHINE, JANUARY_FIRST, JANUARY_LAST)));
+
+    priceResolver.findHourPrice("M1", WorkCode.PS, PriceType.ONLY_MACHINE, "P1", JANUARY_FIRST);
+    priceResolver.findHourPrice("M1", WorkCode.PS, PriceType.WITH_OPERATOR, "P1", JANUARY_FIRST);
+    priceResolver.findHourPrices("M1", JANUARY_FIRST);
+    assertEquals(1, hourPriceRepository.callsCount("findByMachineInternalIdEquals"));
+
+    priceResolver.evictHourPrices("M2");
+    priceResolver.evictDistancePrices("M1");
+    priceResolver.findHourPrice("M1", WorkCode.PS, PriceType.ONLY_MACHINE, "P1", JANUARY_FIRST);
+    assertEquals(1, hourPriceRepository.callsCount("findByMachineInternalIdEquals"));
+
+    priceResolver.evictHourPrices("M1");
+    priceResolver.findHourPrice("M1", WorkCode.PS, PriceType.ONLY_MACHINE, "P1", JANUARY_FIRST);
+    assertEquals(2, hourPriceRepository.callsCount("findByMachineInternalIdEquals"));
+
+    priceResolver.evictAll();
+    priceResolver.findHourPrice("M1", WorkCode.PS, PriceType.ONLY_MACHINE, "P1", JANUARY_FIRST);
+    assertEquals(3, hourPriceRepository.callsCount("findByMachineInternalIdEquals"));
+  }
+
+  @Test
+  public void shouldFindAllHourPricesOfDateInLoadOrderSkippingDeletedPrices() {
+    HourPrice february = createHourPrice(1L, WorkCode.PS, PriceType.ONLY_MACHINE, JANUARY_LAST.plusDays(1), LocalDate.of(2020, 2, 29));
+    HourPrice january = createHourPrice(2L, WorkCode.CP, PriceType.ONLY_MACHINE, JANUARY_FIRST, JANUARY_LAST);
+    HourPrice deleted = createHourPrice(3L, WorkCode.PS, PriceType.WITH_OPERATOR, JANUARY_FIRST, JANUARY_LAST);
+    HourPrice withOperator = createHourPrice(4L, WorkCode.PS, PriceType.WITH_OPERATOR, JANUARY_FIRST, JANUARY_LAST);
+    hourPricesByMachine.put("M1", Arrays.asList(february, withOperator, deleted, january));
+    pricesById.remove(3L);
+
+    assertEquals(Arrays.asList(withOperator, january), priceResolver.findHourPrices("M1", JANUARY_LAST));
+    assertEquals(Collections.emptyList(), priceResolver.findHourPrices("M1", LocalDate.of(2020, 3, 1)));
+    assertEquals(1, hourPriceRepository.callsCount("findAllById"));
+  }
+
+  @Test
+  public void shouldFindHourPriceOverlappingDatesIncludingBoundariesAndReversedDates() {
+    HourPrice january = createHourPrice(1L, WorkCode.PS, PriceType.ONLY_MACHINE, JANUARY_FIRST, JANUARY_LAST);
+    hourPricesByMachine.put("M1", Collections.singletonList(january));
+
+    assertTrue(findHourPriceOverlapping(JANUARY_LAST, JANUARY_LAST.plusDays(10), 2L).isPresent());
+    assertTrue(findHourPriceOverlapping(JANUARY_FIRST.minusDays(10), JANUARY_FIRST, 2L).isPresent());
+    assertTrue(findHourPriceOverlapping(LocalDate.of(2019, 12, 1), LocalDate.of(2020, 2, 10), 2L).isPresent());
+    assertTrue(findHourPriceOverlapping(JANUARY_LAST.plusDays(10), JANUARY_LAST, 2L).isPresent());
+    assertFalse(findHourPriceOverlapping(JANUARY_LAST.plusDays(1), JANUARY_LAST.plusDays(10), 2L).isPresent());
+    assertFalse(findHourPriceOverlapping(JANUARY_FIRST.minusDays(10), JANUARY_FIRST.minusDays(1), 2L).isPresent());
+  }
+
+  @Test
+  public void shouldSkipPricesNotMatchingConditionWhenSearchingOverlappingPrice() {
+    HourPrice january = createHourPrice(1L, WorkCode.PS, PriceType.ONLY_MACHINE, JANUARY_FIRST, JANUARY_LAST);
+    HourPrice wholeYear = createHourPrice(2L, WorkCode.PS, PriceType.ONLY_MACHINE, JANUARY_FIRST, LocalDate.of(2020, 12, 31));
+    hourPricesByMachine.put("M1", Arrays.asList(january, wholeYear));
+
+    assertEquals(Long.valueOf(2L), findHourPriceOverlapping(JANUARY_FIRST, JANUARY_LAST, 1L).get().getId());
+    assertEquals(Long.valueOf(1L), findHourPriceOverlapping(JANUARY_FIRST, JANUARY_LAST, 2L).get().getId());
+    assertFalse(findHourPriceOverlapping(LocalDate.of(2020, 2, 1), LocalDate.of(2020, 2, 29), 2L).isPresent());
+  }
+
+  @Test
+  public void shouldFindDistancePriceOnRangeBoundaries() {
+    DistancePrice upToFive = createDistancePrice(1L, 0, 5);
+    DistancePrice fromFive = createDistancePrice(2L, 5, 10);
+    DistancePrice aboveTen = createDistancePrice(3L, 10.5, 20);
+    distancePricesByMachine.put("M1", Arrays.asList(upToFive, aboveTen, fromFive));
+
+    assertSame(upToFive, findDistancePrice(0).get());
+    assertTrue(findDistancePrice(5).isPresent());
+    assertSame(fromFive, findDistancePrice(10).get());
+    assertFalse(findDistancePrice(10.25).isPresent());
+    assertSame(aboveTen, findDistancePrice(20).get());
+    assertFalse(findDistancePrice(20.01).isPresent());
+    assertFalse(findDistancePrice(-1).isPresent());
+  }
+
+  @Test
+  public void shouldKeepDistanceRangesInSnapshots() {
+    distancePricesByMachine.put("M1", Collections.singletonList(createDistancePrice(1L, 2.5, 7.5)));
+
+    PriceSnapshot price = priceResolver
+        .findDistancePriceOverlapping("M1", WorkCode.PS, PriceType.DISTANCE_KM, "P1", JANUARY_FIRST, JANUARY_LAST, snapshot -> true).get();
+
+    assertEquals(2.5, price.getRangeMin());
+    assertEquals(7.5, price.getRangeMax());
+    assertTrue(price.isDistanceMatching(7.5));
+    assertFalse(price.isDistanceMatching(2.4));
+  }
+
+  private Optional<PriceSnapshot> findHourPriceOverlapping(LocalDate startDate, LocalDate endDate, Long editedPriceId) {
+    return priceResolver.findHourPriceOverlapping("M1", WorkCode.PS, PriceType.ONLY_MACHINE, "P1", startDate, endDate,
+        price -> !price.getId().equals(editedPriceId));
+  }
+
+  private Optional<DistancePrice> findDistancePrice(double distance) {
+    return priceResolver.findDistancePrice("M1", WorkCode.PS, PriceType.DISTANCE_KM, "P1", JANUARY_FIRST, distance);
+  }
+
+  private List<Object> findAllById(Object[] args) {
+    List<Object> prices = new ArrayList<>();
+//    order of loaded prices is not defined
+    for (Object id : (Iterable<?>) args[0]) {
+      if (pricesById.containsKey(id)) {
+        prices.add(0, pricesById.get(id));
+      }
+    }
+    return prices;
+  }
+
+  private HourPrice createHourPrice(Long id, WorkCode workCode, PriceType priceType, LocalDate startDate, LocalDate endDate) {
+    HourPrice hourPrice = new HourPrice();
+    hourPrice.setId(id);
+    hourPrice.setWorkCode(workCode);
+    hourPrice.setMachine(createMachine());
+    hourPrice.setPriceType(priceType);
+    hourPrice.setPrice(BigDecimal.ONE);
+    hourPrice.setProjectCode("P1");
+    hourPrice.setStartDate(startDate);
+    hourPrice.setEndDate(endDate);
+    pricesById.put(id, hourPrice);
+    return hourPrice;
+  }
+
+  private DistancePrice createDistancePrice(Long id, double rangeMin, double rangeMax) {
+    DistancePrice distancePrice = new DistancePrice();
+    distancePrice.setId(id);
+    distancePrice.setWorkCode(WorkCode.PS);
+    distancePrice.setMachine(createMachine());
+    distancePrice.setPriceType(PriceType.DISTANCE_KM);
+    distancePrice.setPrice(BigDecimal.ONE);
+    distancePrice.setRangeMin(rangeMin);
+    distancePrice.setRangeMax(rangeMax);
+    distancePrice.setProjectCode("P1");
+    distancePrice.setStartDate(JANUARY_FIRST);
+    distancePrice.setEndDate(JANUARY_LAST);
+    pricesById.put(id, distancePrice);
+    return distancePrice;
+  }
+
+  private Machine createMachine() {
+    Machine machine = new Machine();
+    machine.setInternalId("M1");
+    return machine;
+  }
+}
@@ -0,0 +1,183 @@
+package machineRental.MR.price.distance;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import machineRental.MR.machine.model.Machine;
+import machineRental.MR.price.PriceType;
+import machineRental.MR.price.distance.model.DistancePrice;
+import machineRental.MR.workDocumentEntry.WorkCode;
+import org.junit.Test;
+
+public class DistancePriceOverlapIndexTest {
+
+  private static final LocalDate JANUARY_1 = LocalDate.of(2020, 1, 1);
+
+  private static final LocalDate JANUARY_31 = LocalDate.of(2020, 1, 31);
+
+  private final DistancePriceChecker distancePriceChecker = new DistancePriceChecker();
+
+  @Test
+  public void shouldFindNothingInEmptyIndex() {
+    DistancePriceOverlapIndex distancePriceOverlapIndex = new DistancePriceOverlapIndex(distancePriceChecker, Collections.emptyList());
+
+    assertFalse(distancePriceOverlapIndex.findOverlappingPrice().isPresent());
+    assertFalse(distancePriceOverlapIndex.findPriceOverlapping(createPrice(1L, 0, 10, JANUARY_1, JANUARY_31), null).isPresent());
+  }
+
+  @Test
+  public void shouldFindPricesOverlappingOnBoundaryDate() {
+    DistancePrice january = createPrice(1L, 0, 10, JANUARY_1, JANUARY_31);
+    DistancePrice fromLastDayOfJanuary = createPrice(2L, 0, 10, JANUARY_31, LocalDate.of(2020, 2, 29));
+    DistancePrice february = createPrice(3L, 0, 10, LocalDate.of(2020, 2, 1), LocalDate.of(2020, 2, 29));
+
+    assertSame(january, new DistancePriceOverlapIndex(distancePriceChecker, Arrays.asList(fromLastDayOfJanuary, january)).findOverlappingPrice().get());
+    assertFalse(new DistancePriceOverlapIndex(distancePriceChecker, Arrays.asList(february, january)).findOverlappingPrice().isPresent());
+
+    DistancePriceOverlapIndex distancePriceOverlapIndex = new DistancePriceOverlapIndex(distancePriceChecker, Collections.singletonList(january));
+    assertSame(january, distancePriceOverlapIndex.findPriceOverlapping(fromLastDayOfJanuary, null).get());
+    assertFalse(distancePriceOverlapIndex.findPriceOverlapping(february, null).isPresent());
+  }
+
+  @Test
+  public void shouldCompareDistanceRangesTheSameWayAsChecker() {
+    DistancePrice price = createPrice(1L, 10, 20, JANUARY_1, JANUARY_31);
+    DistancePrice endingAtRangeStart = createPrice(2L, 0, 10, JANUARY_1, JANUARY_31);
+    DistancePrice sameRangeStart = createPrice(3L, 10, 15, JANUARY_1, JANUARY_31);
+//    checker compares ranges only with range start of the other price, so range inside another one is not an overlap
+    DistancePrice insideRange = createPrice(4L, 12, 15, JANUARY_1, JANUARY_31);
+
+    DistancePriceOverlapIndex distancePriceOverlapIndex = new DistancePriceOverlapIndex(distancePriceChecker, Collections.singletonList(price));
+    assertSame(price, distancePriceOverlapIndex.findPriceOverlapping(endingAtRangeStart, null).get());
+    assertSame(price, distancePriceOverlapIndex.findPriceOverlapping(sameRangeStart, null).get());
+    assertFalse(distancePriceOverlapIndex.findPriceOverlapping(insideRange, null).isPresent());
+
+//    price starting where the other one ends is an overlap of the other price, found by checking pairs in both directions
+    assertTrue(new DistancePriceOverlapIndex(distancePriceChecker, Arrays.asList(price, endingAtRangeStart)).findOverlappingPrice().isPresent());
+    assertTrue(new DistancePriceOverlapIndex(distancePriceChecker, Arrays.asList(endingAtRangeStart, price)).findOverlappingPrice().isPresent());
+    assertFalse(new DistancePriceOverlapIndex(distancePriceChecker, Arrays.asList(price, insideRange)).findOverlappingPrice().isPresent());
+  }
+
+  @Test
+  public void shouldTreatNegativeZeroRangeAsZero() {
+    DistancePrice price = createPrice(1L, 0.0, 10, JANUARY_1, JANUARY_31);
+    DistancePrice negativeZeroPrice = createPrice(2L, -0.0, 5, JANUARY_1, JANUARY_31);
+
+    assertTrue(new DistancePriceOverlapIndex(distancePriceChecker, Arrays.asList(price, negativeZeroPrice)).findOverlappingPrice().isPresent());
+    assertTrue(new DistancePriceOverlapIndex(distancePriceChecker, Collections.singletonList(price)).findPriceOverlapping(negativeZeroPrice, null).isPresent());
+  }
+
+  @Test
+  public void shouldSkipExcludedPriceAndPricesOfOtherGroups() {
+    DistancePrice price = createPrice(1L, 0, 10, JANUARY_1, JANUARY_31);
+    DistancePrice otherWorkCode = createPrice(2L, 0, 10, JANUARY_1, JANUARY_31);
+    otherWorkCode.setWorkCode(WorkCode.CP);
+    DistancePrice otherProject = createPrice(3L, 0, 10, JANUARY_1, JANUARY_31);
+    otherProject.setProjectCode("P2");
+    DistancePrice otherMachine = createPrice(4L, 0, 10, JANUARY_1, JANUARY_31);
+    otherMachine.getMachine().setInternalId("M2");
+
+    DistancePriceOverlapIndex distancePriceOverlapIndex = new DistancePriceOverlapIndex(distancePriceChecker,
+        Arrays.asList(price, otherWorkCode, otherProject, otherMachine));
+    assertFalse(distancePriceOverlapIndex.findOverlappingPrice().isPresent());
+
+    DistancePrice editedPrice = createPrice(1L, 0, 10, JANUARY_1.plusDays(5), JANUARY_31);
+    assertFalse(distancePriceOverlapIndex.findPriceOverlapping(editedPrice, 1L).isPresent());
+    assertSame(price, distancePriceOverlapIndex.findPriceOverlapping(editedPrice, 5L).get());
+  }
+
+  @Test
+  public void shouldFindOverlapWithPriceStartedLongBefore() {
+    List<DistancePrice> prices = new ArrayList<>();
+    DistancePrice yearPrice = createPrice(0L, 0, 10, JANUARY_1, LocalDate.of(2020, 12, 31));
+    prices.add(yearPrice);
+//    many short prices of other ranges start after the long one, the last of them clashes with it
+    for (int i = 1; i < 100; i++) {
+      prices.add(createPrice((long) i, 100 + i, 200 + i, JANUARY_1.plusDays(i), JANUARY_1.plusDays(i)));
+    }
+    DistancePrice decemberPrice = createPrice(100L, 10, 20, LocalDate.of(2020, 12, 1), LocalDate.of(2020, 12, 31));
+    prices.add(decemberPrice);
+
+    assertSame(yearPrice, new DistancePriceOverlapIndex(distancePriceChecker, prices).findOverlappingPrice().get());
+
+    DistancePrice editedPrice = createPrice(101L, 0, 5, LocalDate.of(2020, 12, 1), LocalDate.of(2020, 12, 31));
+    assertSame(yearPrice, new DistancePriceOverlapIndex(distancePriceChecker, prices.subList(0, 100)).findPriceOverlapping(editedPrice, null).get());
+  }
+
+  @Test
+  public void shouldFindSameOverlapsAsComparingEveryPairOfPrices() {
+    Random random = new Random(7);
+
+    for (int sample = 0; sample < 100; sample++) {
+      List<DistancePrice> prices = new ArrayList<>();
+      int pricesCount = random.nextInt(12);
+      for (int i = 0; i < pricesCount; i++) {
+        prices.add(createRandomPrice(random, (long) i));
+      }
+
+      DistancePriceOverlapIndex distancePriceOverlapIndex = new DistancePriceOverlapIndex(distancePriceChecker, prices);
+
+      assertEquals(isAnyPairOverlapping(prices), distancePriceOverlapIndex.findOverlappingPrice().isPresent());
+
+      DistancePrice editedPrice = createRandomPrice(random, random.nextInt(12) == 0 ? null : (long) random.nextInt(12));
+      assertEquals(isOverlappingAnyPrice(editedPrice, prices), distancePriceOverlapIndex.findPriceOverlapping(editedPrice, editedPrice.getId()).isPresent());
+    }
+  }
+
+  private boolean isAnyPairOverlapping(List<DistancePrice> prices) {
+    for (DistancePrice checkedPrice : prices) {
+      for (DistancePrice price : prices) {
+        if (checkedPrice != price && !distancePriceChecker.isPriceUnique(checkedPrice, price)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private boolean isOverlappingAnyPrice(DistancePrice editedPrice, List<DistancePrice> prices) {
+    for (DistancePrice price : prices) {
+      if (!price.getId().equals(editedPrice.getId()) && !distancePriceChecker.isPriceUnique(editedPrice, price)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private DistancePrice createRandomPrice(Random random, Long id) {
+    LocalDate startDate = JANUARY_1.plusDays(random.nextInt(60));
+    double rangeMin = random.nextInt(4);
+
+    DistancePrice distancePrice = createPrice(id, rangeMin, rangeMin + random.nextInt(4), startDate, startDate.plusDays(random.nextInt(20)));
+    distancePrice.getMachine().setInternalId(random.nextBoolean() ? "M1" : "M2");
+    distancePrice.setWorkCode(random.nextBoolean() ? WorkCode.PS : WorkCode.CP);
+    return distancePrice;
+  }
+
+  private DistancePrice createPrice(Long id, double rangeMin, double rangeMax, LocalDate startDate, LocalDate endDate) {
+    Machine machine = new Machine();
+    machine.setInternalId("M1");
+
+    DistancePrice distancePrice = new DistancePrice();
+    distancePrice.setId(id);
+    distancePrice.setWorkCode(WorkCode.PS);
+    distancePrice.setMachine(machine);
+    distancePrice.setPriceType(PriceType.DISTANCE_KM);
+    distancePrice.setPrice(BigDecimal.ONE);
+    distancePrice.setRangeMin(rangeMin);
+    distancePrice.setRangeMax(rangeMax);
+    distancePrice.setStartDate(startDate);
+    distancePrice.setEndDate(endDate);
+    distancePrice.setProjectCode("P1");
+    return distancePrice;
+  }
+}
@@ -0,0 +1,112 @@
+package machineRental.MR.price.hour;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.transaction.Transactional;
+import machineRental.MR.client.model.Client;
+import machineRental.MR.machine.model.Machine;
+import machineRental.MR.machineType.CostCategory;
+import machineRental.MR.machineType.model.MachineType;
+import machineRental.MR.price.PriceType;
+import machineRental.MR.price.hour.model.HourPrice;
+import machineRental.MR.repository.HourPriceRepository;
+import machineRental.MR.workDocumentEntry.WorkCode;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * Checks that ids of hour prices are taken from their generator in blocks and inserts are sent in JDBC batches. Prices are rolled back after the test.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+public class HourPriceBatchInsertTest {
+
+  private static final int PRICES_COUNT = 120;
+
+  private static final int BATCH_SIZE = 100;
+
+  private static final int ALLOCATION_SIZE = 50;
+
+  @Autowired
+  private HourPriceRepository hourPriceRepository;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Test
+  public void shouldInsertPricesInBatches() {
+    Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    Machine machine = createMachine();
+
+    List<HourPrice> hourPrices = new ArrayList<>();
+    for (int i = 0; i < PRICES_COUNT; i++) {
+      HourPrice hourPrice = new HourPrice();
+      hourPrice.setWorkCode(WorkCode.PS);
+      hourPrice.setMachine(machine);
+      hourPrice.setPriceType(PriceType.ONLY_MACHINE);
+      hourPrice.setPrice(BigDecimal.valueOf(i));
+      hourPrice.setStartDate(LocalDate.of(1999, 1, 4));
+      hourPrice.setEndDate(LocalDate.of(1999, 1, 4));
+      hourPrice.setProjectCode("BATCH");
+      hourPrices.add(hourPrice);
+    }
+
+    entityManager.flush();
+    statistics.clear();
+    hourPriceRepository.saveAll(hourPrices);
+    entityManager.flush();
+
+    assertEquals(PRICES_COUNT, statistics.getEntityInsertCount());
+//    every batch of inserts and every block of ids (select and update of generator table) is one statement
+    int batchesCount = (PRICES_COUNT + BATCH_SIZE - 1) / BATCH_SIZE;
+    int idBlocksCount = (PRICES_COUNT + ALLOCATION_SIZE - 1) / ALLOCATION_SIZE;
+    assertTrue(statistics.getPrepareStatementCount() <= batchesCount + 2 * idBlocksCount);
+  }
+
+  private Machine createMachine() {
+    Client client = new Client();
+    client.setMpk("BATCH");
+    client.setName("Batch insert test");
+    client.setCity("Test");
+    client.setStreet("Test");
+    client.setBuildingNumber("1");
+    client.setPostalCode("00-000");
+    client.setEmail("test@test.com");
+    client.setContactPerson("Test");
+    client.setPhoneNumber("000000000");
+    entityManager.persist(client);
+
+    MachineType machineType = new MachineType(null, "Batch insert test", CostCategory.EQUIPMENT);
+    entityManager.persist(machineType);
+
+    Machine machine = new Machine();
+    machine.setInternalId("BATCH-1");
+    machine.setName("Batch insert test");
+    machine.setProducer("Test");
+    machine.setModel("Test");
+    machine.setProductionYear(2000);
+    machine.setOwner(client);
+    machine.setMachineStatus("In use");
+    machine.setTotalPhysicalQuantity(1);
+    machine.setMachineType(machineType);
+    entityManager.persist(machine);
+    return machine;
+  }
+}
@@ -0,0 +1,73 @@
+package machineRental.MR.reports;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+import javax.persistence.EntityManager;
+import machineRental.MR.Fake;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class ExcelReportGeneratorTest {
+
+  private static final int ROWS_COUNT = 2500;
+
+  private final Fake<EntityManager> entityManager = Fake.of(EntityManager.class)
+      .answer("detach", args -> null)
+      .answer("clear", args -> null);
+
+  private final ExcelReportGenerator excelReportGenerator = new ExcelReportGenerator() {
+
+    @Override
+    void writeHeaderLine(Sheet sheet) {
+      sheet.createRow(0).createCell(0).setCellValue("Date");
+    }
+
+    @Override
+    void writeDataLines(LocalDate startDate, LocalDate endDate, Sheet sheet) {
+      writeRows(IntStream.range(0, ROWS_COUNT).boxed(), sheet, (day, row) -> {
+        row.createCell(0).setCellValue(convertToDateViaSqlDate(startDate.plusDays(day)));
+        row.createCell(1).setCellValue(day);
+      });
+    }
+  };
+
+  @Before
+  public void setUp() {
+    ReflectionTestUtils.setField(excelReportGenerator, "entityManager", entityManager.get());
+  }
+
+  @Test
+  public void shouldWriteAllRowsBeyondRowAccessWindow() throws IOException {
+    LocalDate startDate = LocalDate.of(2020, 1, 1);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    excelReportGenerator.exportExcelReport(startDate, startDate.plusDays(ROWS_COUNT), "Report", out);
+
+    Sheet sheet = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray())).getSheet("Report");
+    assertEquals(ROWS_COUNT, sheet.getLastRowNum());
+    assertEquals("Date", sheet.getRow(0).getCell(0).getStringCellValue());
+
+    for (int day = 0; day < ROWS_COUNT; day++) {
+      Row row = sheet.getRow(day + 1);
+      assertEquals(java.sql.Date.valueOf(startDate.plusDays(day)), row.getCell(0).getDateCellValue());
+      assertEquals(day, (int) row.getCell(1).getNumericCellValue());
+    }
+
+    List<Object[]> detachArguments = entityManager.arguments("detach");
+    assertEquals(ROWS_COUNT, detachArguments.size());
+    for (int day = 0; day < ROWS_COUNT; day++) {
+      assertEquals(day, detachArguments.get(day)[0]);
+    }
+    assertEquals(ROWS_COUNT / ExcelReportGenerator.PERSISTENCE_CONTEXT_CLEAR_INTERVAL, entityManager.callsCount("clear"));
+  }
+}
@@ -0,0 +1,246 @@
+package machineRental.MR.reports;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.transaction.Transactional;
+import machineRental.MR.client.model.Client;
+import machineRental.MR.costcode.model.CostCode;
+import machineRental.MR.estimate.model.EstimatePosition;
+import machineRental.MR.machine.model.Machine;
+import machineRental.MR.machineType.CostCategory;
+import machineRental.MR.machineType.model.MachineType;
+import machineRental.MR.operator.model.Operator;
+import machineRental.MR.price.PriceType;
+import machineRental.MR.price.distance.model.DistancePrice;
+import machineRental.MR.price.hour.model.HourPrice;
+import machineRental.MR.workDocument.DocumentType;
+import machineRental.MR.workDocument.model.WorkDocument;
+import machineRental.MR.workDocumentEntry.WorkCode;
+import machineRental.MR.workDocumentEntry.model.RoadCardEntry;
+import machineRental.MR.workDocumentEntry.model.WorkReportEntry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * Checks that report rows are loaded with a single statement, whatever the number of documents, machines, operators and prices they refer to.
+ * Test data is created for a date without other documents and rolled back after every test.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+// 'h2' profile uses in-memory data base created by Flyway migrations, as defined in application-h2.properties file.
+@ActiveProfiles("h2")
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+public class ReportStatementCountTest {
+
+  private static final LocalDate DATE = LocalDate.of(1999, 1, 4);
+
+  private static final int DOCUMENTS_COUNT = 5;
+
+  private static final int ENTRIES_PER_DOCUMENT_COUNT = 4;
+
+  @Autowired
+  private WorkReportEntryReportGenerator workReportEntryReportGenerator;
+
+  @Autowired
+  private RoadCardEntryReportGenerator roadCardEntryReportGenerator;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  private Statistics statistics;
+
+  private Client client;
+
+  private MachineType machineType;
+
+  private EstimatePosition estimatePosition;
+
+  private CostCode costCode;
+
+  @Before
+  public void setUp() {
+    statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+    client = createClient();
+    machineType = new MachineType(null, "Statement count test", CostCategory.EQUIPMENT);
+    entityManager.persist(machineType);
+
+    costCode = createCostCode("STC-01");
+    estimatePosition = new EstimatePosition();
+    estimatePosition.setName("Statement count test");
+    estimatePosition.setCostCode(createCostCode("STC-02"));
+    estimatePosition.setQuantity(1);
+    estimatePosition.setMeasureUnit("h");
+    estimatePosition.setSellPrice(BigDecimal.ONE);
+    estimatePosition.setCostPrice(BigDecimal.ONE);
+    entityManager.persist(estimatePosition);
+  }
+
+  @Test
+  public void shouldLoadWorkReportEntriesWithOneStatement() throws IOException {
+    for (int i = 0; i < DOCUMENTS_COUNT; i++) {
+      Machine machine = createMachine("STW-" + i);
+      WorkDocument workDocument = createWorkDocument("STW-" + i, DocumentType.WORK_REPORT, machine);
+
+      HourPrice hourPrice = new HourPrice();
+      hourPrice.setWorkCode(WorkCode.PS);
+      hourPrice.setMachine(machine);
+      hourPrice.setPriceType(PriceType.ONLY_MACHINE);
+      hourPrice.setPrice(BigDecimal.TEN);
+      hourPrice.setStartDate(DATE);
+      hourPrice.setEndDate(DATE);
+      hourPrice.setProjectCode("STC");
+      entityManager.persist(hourPrice);
+
+      for (int j = 0; j < ENTRIES_PER_DOCUMENT_COUNT; j++) {
+        WorkReportEntry workReportEntry = new WorkReportEntry();
+        workReportEntry.setWorkCode(WorkCode.PS);
+        workReportEntry.setStartHour(LocalTime.of(j, 0));
+        workReportEntry.setEndHour(LocalTime.of(j, 30));
+        workReportEntry.setPlaceOfWork("Test");
+        workReportEntry.setTypeOfWork("Test");
+        workReportEntry.setWorkQuantity(1);
+        workReportEntry.setMeasureUnit("h");
+        workReportEntry.setHourPrice(hourPrice);
+        workReportEntry.setEstimatePosition(estimatePosition);
+        workReportEntry.setCostCode(costCode);
+        workReportEntry.setAcceptingPerson(createOperator());
+        workReportEntry.setWorkDocument(workDocument);
+        entityManager.persist(workReportEntry);
+      }
+    }
+
+    assertEquals(1, countStatements(workReportEntryReportGenerator));
+  }
+
+  @Test
+  public void shouldLoadRoadCardEntriesWithOneStatement() throws IOException {
+    for (int i = 0; i < DOCUMENTS_COUNT; i++) {
+      Machine machine = createMachine("STR-" + i);
+      WorkDocument workDocument = createWorkDocument("STR-" + i, DocumentType.ROAD_CARD, machine);
+
+      DistancePrice distancePrice = new DistancePrice();
+      distancePrice.setWorkCode(WorkCode.PS);
+      distancePrice.setMachine(machine);
+      distancePrice.setPriceType(PriceType.DISTANCE_KM);
+      distancePrice.setPrice(BigDecimal.TEN);
+      distancePrice.setRangeMin(0);
+      distancePrice.setRangeMax(100);
+      distancePrice.setStartDate(DATE);
+      distancePrice.setEndDate(DATE);
+      distancePrice.setProjectCode("STC");
+      entityManager.persist(distancePrice);
+
+      for (int j = 0; j < ENTRIES_PER_DOCUMENT_COUNT; j++) {
+        RoadCardEntry roadCardEntry = new RoadCardEntry();
+        roadCardEntry.setWorkCode(WorkCode.PS);
+        roadCardEntry.setStartHour(LocalTime.of(j, 0));
+        roadCardEntry.setEndHour(LocalTime.of(j, 30));
+        roadCardEntry.setLoadingPlace("Test");
+        roadCardEntry.setMaterial("Test");
+        roadCardEntry.setUnloadingPlace("Test");
+        roadCardEntry.setQuantity(1);
+        roadCardEntry.setMeasureUnit("m3");
+        roadCardEntry.setRunsNumber(1);
+        roadCardEntry.setDistance(10);
+        roadCardEntry.setDistancePrice(distancePrice);
+        roadCardEntry.setEstimatePosition(estimatePosition);
+        roadCardEntry.setCostCode(costCode);
+        roadCardEntry.setAcceptingPerson(createOperator());
+        roadCardEntry.setWorkDocument(workDocument);
+        entityManager.persist(roadCardEntry);
+      }
+    }
+
+    assertEquals(1, countStatements(roadCardEntryReportGenerator));
+  }
+
+  private long countStatements(ExcelReportGenerator excelReportGenerator) throws IOException {
+//    entities created by test must be loaded by report, not taken from persistence context
+    entityManager.flush();
+    entityManager.clear();
+    statistics.clear();
+
+    excelReportGenerator.exportExcelReport(DATE, DATE, "Report", new ByteArrayOutputStream());
+
+    assertEquals(0, statistics.getEntityFetchCount());
+    return statistics.getPrepareStatementCount();
+  }
+
+  private WorkDocument createWorkDocument(String id, DocumentType documentType, Machine machine) {
+    WorkDocument workDocument = new WorkDocument();
+    workDocument.setId(id);
+    workDocument.setDocumentType(documentType);
+    workDocument.setDate(DATE);
+    workDocument.setOperator(createOperator());
+    workDocument.setMachine(machine);
+    workDocument.setDelegation("0%");
+    entityManager.persist(workDocument);
+    return workDocument;
+  }
+
+  private Machine createMachine(String internalId) {
+    Machine machine = new Machine();
+    machine.setInternalId(internalId);
+    machine.setName("Statement count test");
+    machine.setProducer("Test");
+    machine.setModel("Test");
+    machine.setProductionYear(2000);
+    machine.setOwner(client);
+    machine.setMachineStatus("In use");
+    machine.setTotalPhysicalQuantity(1);
+    machine.setMachineType(machineType);
+    entityManager.persist(machine);
+    return machine;
+  }
+
+  private Operator createOperator() {
+    Operator operator = new Operator();
+    operator.setName("Statement count test");
+    operator.setCompany(client);
+    entityManager.persist(operator);
+    return operator;
+  }
+
+  private CostCode createCostCode(String fullCode) {
+    CostCode costCode = new CostCode();
+    costCode.setProjectCode("STC");
+    costCode.setCostType(fullCode);
+    costCode.setProjectCodeDescription("Statement count test");
+    costCode.setCostTypeDescription("Statement count test");
+    costCode.setFullCode(fullCode);
+    entityManager.persist(costCode);
+    return costCode;
+  }
+
+  private Client createClient() {
+    Client client = new Client();
+    client.setMpk("STC");
+    client.setName("Statement count test");
+    client.setCity("Test");
+    client.setStreet("Test");
+    client.setBuildingNumber("1");
+    client.setPostalCode("00-000");
+    client.setEmail("test@test.com");
+    client.setContactPerson("Test");
+    client.setPhoneNumber("000000000");
+    entityManager.persist(client);
+    return client;
+  }
+}
@@ -0,0 +1,156 @@
+package machineRental.MR.reports.cost;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+public class CostReportExecutionTest {
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+  private final List<TransactionDefinition> transactionDefinitions = new ArrayList<>();
+
+  private final PlatformTransactionManager transactionManager = new PlatformTransactionManager() {
+
+    @Override
+    public TransactionStatus getTransaction(TransactionDefinition definition) {
+      synchronized (transactionDefinitions) {
+        transactionDefinitions.add(definition);
+      }
+      return new SimpleTransactionStatus();
+    }
+
+    @Override
+    public void commit(TransactionStatus status) {
+    }
+
+    @Override
+    public void rollback(TransactionStatus status) {
+    }
+  };
+
+  @After
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void shouldRunStagesAtTheSameTimeInReadOnlyTransactions() throws Exception {
+    CostReportExecution execution = new CostReportExecution(executor, transactionManager, 60_000);
+
+//    each stage waits until the other one has started, so they finish only if they run at the same time
+    CountDownLatch startedStages = new CountDownLatch(2);
+    CompletableFuture<String> first = execution.stage("first", () -> awaitOther(startedStages, "first"));
+    CompletableFuture<String> second = execution.stage("second", () -> awaitOther(startedStages, "second"));
+
+    assertEquals("first", first.get(5, TimeUnit.SECONDS));
+    assertEquals("second", second.get(5, TimeUnit.SECONDS));
+
+    assertEquals(2, transactionDefinitions.size());
+    transactionDefinitions.forEach(definition -> {
+      assertTrue(definition.isReadOnly());
+      assertTrue(definition.getTimeout() > 0 && definition.getTimeout() <= 60);
+    });
+
+    String serverTiming = execution.getTimings().toServerTiming();
+    assertTrue(serverTiming.contains("first;dur="));
+    assertTrue(serverTiming.contains("second;dur="));
+    assertTrue(serverTiming.contains("total;dur="));
+  }
+
+  @Test
+  public void shouldCancelStagesWhenExecutionIsCancelled() throws Exception {
+    CostReportExecution execution = new CostReportExecution(executor, transactionManager, 60_000);
+
+    CountDownLatch runningStage = new CountDownLatch(1);
+    CountDownLatch interruptedStage = new CountDownLatch(1);
+    CompletableFuture<String> stage = execution.stage("blocked", () -> {
+      runningStage.countDown();
+      try {
+        new CountDownLatch(1).await();
+      } catch (InterruptedException e) {
+        interruptedStage.countDown();
+      }
+      return "blocked";
+    });
+
+    assertTrue(runningStage.await(5, TimeUnit.SECONDS));
+    execution.cancel();
+
+    assertTrue(stage.isCancelled());
+    assertTrue(interruptedStage.await(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void shouldCancelStagesSubmittedAfterExecutionIsCancelled() {
+    CostReportExecution execution = new CostReportExecution(Runnable::run, transactionManager, 60_000);
+
+    execution.cancel();
+    CompletableFuture<String> stage = execution.stage("late", () -> "late");
+    CompletableFuture<String> computation = execution.compute("late", () -> "late");
+
+    assertTrue(stage.isCancelled());
+    assertTrue(computation.isCancelled());
+    assertEquals(0, transactionDefinitions.size());
+  }
+
+  @Test
+  public void shouldComputeStageWithoutTransaction() throws Exception {
+    CostReportExecution execution = new CostReportExecution(executor, transactionManager, 60_000);
+
+    assertEquals("computed", execution.compute("computed", () -> "computed").get(5, TimeUnit.SECONDS));
+    assertEquals(0, transactionDefinitions.size());
+    assertTrue(execution.getTimings().toServerTiming().contains("computed;dur="));
+  }
+
+  @Test
+  public void shouldCompleteStageExceptionallyWhenCalculationFails() {
+    CostReportExecution execution = new CostReportExecution(Runnable::run, transactionManager, 60_000);
+
+    CompletableFuture<String> stage = execution.stage("failing", () -> {
+      throw new IllegalStateException("failed");
+    });
+
+    assertTrue(stage.isCompletedExceptionally());
+    assertTrue(execution.getTimings().toServerTiming().contains("failing;dur="));
+  }
+
+  @Test
+  public void shouldGiveSingleServerTimingOfStagesOfTheSameName() {
+    CostReportTimings timings = new CostReportTimings();
+
+    for (int i = 0; i < 3; i++) {
+      timings.record("partition", System.nanoTime() - 2_000_000);
+    }
+    timings.record("merge", System.nanoTime());
+
+    String serverTiming = timings.toServerTiming();
+    assertTrue(serverTiming.matches("partition;dur=\\d+\\.\\d;desc=\"3 stages\", merge;dur=\\d+\\.\\d, total;dur=\\d+\\.\\d"), serverTiming);
+    assertTrue(Double.parseDouble(serverTiming.substring("partition;dur=".length(), serverTiming.indexOf(';', "partition;".length()))) >= 6);
+  }
+
+  private String awaitOther(CountDownLatch startedStages, String result) {
+    startedStages.countDown();
+    try {
+      if (!startedStages.await(5, TimeUnit.SECONDS)) {
+        throw new IllegalStateException("Other stage did not start");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return result;
+  }
+}
@@ -0,0 +1,49 @@
+package machineRental.MR.reports.cost;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import machineRental.MR.reports.cost.delivery.TotalDeliveryCost;
+import machineRental.MR.reports.cost.equipment.TotalEquipmentCost;
+import machineRental.MR.reports.cost.labour.TotalLabourCost;
+import machineRental.MR.reports.cost.transport.TotalTransportCost;
+import org.junit.Test;
+
+public class CostTotalsTest {
+
+  @Test
+  public void shouldSumUpCostReportsAndTotalsOfProjects() {
+    CostTotals firstProjectTotals = new CostTotals();
+    firstProjectTotals.add(costReport(8, "1000", 2, "300", "50.5", 1, "40"));
+    firstProjectTotals.add(costReport(4, "500", 0, "0", "0", 0, "0"));
+
+    CostTotals secondProjectTotals = new CostTotals();
+    secondProjectTotals.add(costReport(1, "100", 1, "100", "100", 1, "100"));
+
+    CostTotals portfolioTotals = new CostTotals();
+    portfolioTotals.add(firstProjectTotals);
+    portfolioTotals.add(secondProjectTotals);
+
+    assertEquals(12, firstProjectTotals.getEquipmentWorkHoursCount());
+    assertEquals(0, new BigDecimal("1890.5").compareTo(firstProjectTotals.getTotalCostValue()));
+
+    assertEquals(13, portfolioTotals.getEquipmentWorkHoursCount());
+    assertEquals(3, portfolioTotals.getTransportWorkHoursCount());
+    assertEquals(2, portfolioTotals.getLabourWorkHoursCount());
+    assertEquals(0, new BigDecimal("1600").compareTo(portfolioTotals.getEquipmentCostValue()));
+    assertEquals(0, new BigDecimal("400").compareTo(portfolioTotals.getTransportCostValue()));
+    assertEquals(0, new BigDecimal("150.5").compareTo(portfolioTotals.getDeliveryCostValue()));
+    assertEquals(0, new BigDecimal("140").compareTo(portfolioTotals.getLabourCostValue()));
+    assertEquals(0, new BigDecimal("2290.5").compareTo(portfolioTotals.getTotalCostValue()));
+  }
+
+  private CostReport costReport(double equipmentHours, String equipmentCost, double transportHours, String transportCost, String deliveryCost,
+      double labourHours, String labourCost) {
+    return new CostReport(null, 0,
+        new TotalEquipmentCost(new ArrayList<>(), equipmentHours, new BigDecimal(equipmentCost)),
+        new TotalTransportCost(new ArrayList<>(), transportHours, new BigDecimal(transportCost)),
+        new TotalDeliveryCost(new ArrayList<>(), new BigDecimal(deliveryCost)),
+        new TotalLabourCost(labourHours, new BigDecimal(labourCost)));
+  }
+}
@@ -0,0 +1,86 @@
+package machineRental.MR.reports.cost;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Compares summing up costs of entries with BigDecimal (as cost calculators used to) and with CostValueSum. Not run by tests, run main method with
+ * test classpath, e.g. java -cp target/test-classes:target/classes machineRental.MR.reports.cost.CostValueSumBenchmark
+ * It is a plain timing loop (JMH is not a dependency of the project), so it prints every round to show how much times vary and its numbers are only
+ * indicative. Entries are of whole quarters of hour, which double holds exactly; for other hours sums differ on purpose, see CostValueSumTest.
+ */
+public class CostValueSumBenchmark {
+
+  private static final int ENTRIES = 100_000;
+
+  private static final int WARMUP_ITERATIONS = 50;
+
+  private static final int ITERATIONS = 50;
+
+  private static final int ROUNDS = 5;
+
+  private static final long[] seconds = new long[ENTRIES];
+
+  private static final double[] quantities = new double[ENTRIES];
+
+  private static final BigDecimal[] prices = new BigDecimal[ENTRIES];
+
+  public static void main(String[] args) {
+    Random random = new Random(19);
+    for (int i = 0; i < ENTRIES; i++) {
+      seconds[i] = random.nextInt(12 * 4) * 15 * 60;
+      quantities[i] = random.nextInt(100_000) / 100.0;
+      prices[i] = BigDecimal.valueOf(random.nextInt(100_000), 2);
+    }
+
+    for (int round = 1; round <= ROUNDS; round++) {
+      System.out.printf("round %s%n", round);
+      measure("BigDecimal", CostValueSumBenchmark::sumWithBigDecimal);
+      measure("CostValueSum", CostValueSumBenchmark::sumWithCostValueSum);
+    }
+  }
+
+  private static BigDecimal sumWithBigDecimal() {
+    BigDecimal hoursCostValue = BigDecimal.valueOf(0);
+    BigDecimal quantityCostValue = BigDecimal.valueOf(0);
+    for (int i = 0; i < ENTRIES; i++) {
+      hoursCostValue = hoursCostValue.add(BigDecimal.valueOf((double) seconds[i] / 3600).multiply(prices[i]));
+      quantityCostValue = quantityCostValue.add(BigDecimal.valueOf(quantities[i]).multiply(prices[i]));
+    }
+    return hoursCostValue.add(quantityCostValue);
+  }
+
+  private static BigDecimal sumWithCostValueSum() {
+    CostValueSum hoursCostValue = new CostValueSum();
+    CostValueSum quantityCostValue = new CostValueSum();
+    for (int i = 0; i < ENTRIES; i++) {
+      hoursCostValue.addSeconds(seconds[i], prices[i]);
+      quantityCostValue.add(quantities[i], prices[i]);
+    }
+    hoursCostValue.add(quantityCostValue);
+    return hoursCostValue.toBigDecimal();
+  }
+
+  private static void measure(String name, Supplier<BigDecimal> sum) {
+    com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long threadId = Thread.currentThread().getId();
+
+    BigDecimal result = null;
+    for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+      result = sum.get();
+    }
+
+    long allocatedBytes = threadMXBean.getThreadAllocatedBytes(threadId);
+    long start = System.nanoTime();
+    for (int i = 0; i < ITERATIONS; i++) {
+      result = sum.get();
+    }
+    long nanos = System.nanoTime() - start;
+    allocatedBytes = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBytes;
+
+    System.out.printf("%-12s %8.1f ns/entry %8.1f B/entry  sum %s%n", name, (double) nanos / ITERATIONS / ENTRIES,
+        (double) allocatedBytes / ITERATIONS / ENTRIES, result.toPlainString());
+  }
+}
@@ -0,0 +1,233 @@
+package machineRental.MR.reports.cost;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Cost calculators used to sum up BigDecimal.valueOf(quantity).multiply(price) entry by entry. Costs of quantities, distances, runs and deliveries
+ * are the same with CostValueSum, rounded once to RESULT_SCALE places. Only costs of hour prices change: they are computed from exact seconds instead
+ * of hours rounded to double (seconds / 3600.0), so totals of equipment, transport and labour costs of hour prices lose the error of double.
+ */
+public class CostValueSumTest {
+
+  private static final BigDecimal SECONDS_PER_HOUR = BigDecimal.valueOf(3600);
+
+  private static final int RANDOM_SUMS = 200;
+
+  private static final int MAX_RANDOM_ENTRIES = 500;
+
+  private static final int PARTIAL_SUMS = 4;
+
+  @Test
+  public void shouldSumQuantitiesMultipliedByPricesTheSameWayAsBigDecimal() {
+//    zero, the smallest units, negative values, quantities and prices of other scales (added as BigDecimal), product not fitting into long
+    assertQuantityCost(0, new BigDecimal("10.00"));
+    assertQuantityCost(0.000001, new BigDecimal("0.01"));
+    assertQuantityCost(-2.5, new BigDecimal("4.00"));
+    assertQuantityCost(12.75, new BigDecimal("-0.50"));
+    assertQuantityCost(0.1234567, new BigDecimal("1.00"));
+    assertQuantityCost(0.1 + 0.2, new BigDecimal("1.00"));
+    assertQuantityCost(10_000_000, new BigDecimal("1.00"));
+    assertQuantityCost(1e300, new BigDecimal("1.00"));
+    assertQuantityCost(3.5, BigDecimal.valueOf(5));
+    assertQuantityCost(3.5, new BigDecimal("1.005"));
+    assertQuantityCost(3.5, new BigDecimal("1E+3"));
+    assertQuantityCost(9_999_999.999999, new BigDecimal("99999999.99"));
+  }
+
+  @Test
+  public void shouldSumRandomQuantitiesMultipliedByPricesTheSameWayAsBigDecimal() {
+    Random random = new Random(19);
+
+    for (int i = 0; i < RANDOM_SUMS; i++) {
+//      entries are added to partial sums (eg. of machine types) and these to total, the way calculators do
+      CostValueSum[] partialCostValueSums = new CostValueSum[PARTIAL_SUMS];
+      for (int j = 0; j < PARTIAL_SUMS; j++) {
+        partialCostValueSums[j] = new CostValueSum();
+      }
+      BigDecimal expected = BigDecimal.ZERO;
+
+      int entriesCount = random.nextInt(MAX_RANDOM_ENTRIES);
+      for (int j = 0; j < entriesCount; j++) {
+        double quantity = randomQuantity(random);
+        BigDecimal price = randomPrice(random);
+        CostValueSum partialCostValueSum = partialCostValueSums[random.nextInt(PARTIAL_SUMS)];
+        if (random.nextInt(10) == 0) {
+//          value summed up in data base
+          partialCostValueSum.add(quantity);
+          expected = expected.add(BigDecimal.valueOf(quantity));
+        } else {
+          partialCostValueSum.add(quantity, price);
+          expected = expected.add(BigDecimal.valueOf(quantity).multiply(price));
+        }
+      }
+
+      CostValueSum totalCostValueSum = new CostValueSum();
+      for (CostValueSum partialCostValueSum : partialCostValueSums) {
+        totalCostValueSum.add(partialCostValueSum);
+      }
+      assertEquals(expected.setScale(CostValueSum.RESULT_SCALE, RoundingMode.HALF_UP), totalCostValueSum.toBigDecimal(), "sum " + i);
+    }
+  }
+
+  @Test
+  public void shouldDifferFromRandomHourCostsOfHoursAsDoubleOnlyByErrorOfDouble() {
+    Random random = new Random(19);
+
+    for (int i = 0; i < RANDOM_SUMS; i++) {
+      CostValueSum costValueSum = new CostValueSum();
+      BigDecimal exactSecondsValue = BigDecimal.ZERO;
+      BigDecimal hoursAsDoubleCostValue = BigDecimal.ZERO;
+      BigDecimal maxError = BigDecimal.ZERO;
+
+      int entriesCount = random.nextInt(MAX_RANDOM_ENTRIES);
+      for (int j = 0; j < entriesCount; j++) {
+        long seconds = random.nextBoolean() ? random.nextInt(24 * 4) * 15 * 60 : random.nextInt(24 * 3600);
+        BigDecimal price = BigDecimal.valueOf(random.nextInt(100_000), 2);
+        costValueSum.addSeconds(seconds, price);
+        exactSecondsValue = exactSecondsValue.add(BigDecimal.valueOf(seconds).multiply(price));
+        hoursAsDoubleCostValue = hoursAsDoubleCostValue.add(BigDecimal.valueOf((double) seconds / 3600).multiply(price));
+//        hours below 24 as double (and its shortest decimal) are less than 2^-47 off
+        maxError = maxError.add(price.multiply(new BigDecimal("1E-14")));
+      }
+
+      BigDecimal exactCostValue = exactSecondsValue.divide(SECONDS_PER_HOUR, CostValueSum.RESULT_SCALE, RoundingMode.HALF_UP);
+      assertEquals(exactCostValue, costValueSum.toBigDecimal(), "sum " + i);
+      BigDecimal error = hoursAsDoubleCostValue.subtract(exactSecondsValue.divide(SECONDS_PER_HOUR, 20, RoundingMode.HALF_UP)).abs();
+      assertTrue(error.compareTo(maxError) <= 0, "error " + error + " of hours as double is above " + maxError);
+    }
+  }
+
+  @Test
+  public void shouldSumHourCostsTheSameWayAsDataBaseSums() {
+//    hour costs are divided by 3600 once, like WorkReportEntryCostSum.getWorkHoursValue, so third of hour is rounded only once, in the last place
+    assertHourCost(new BigDecimal("33.3333333333"), 1200, new BigDecimal("100.00"));
+    assertHourCost(new BigDecimal("0.0000027778"), 1, new BigDecimal("0.01"));
+    assertHourCost(new BigDecimal("0.0000000000"), 0, new BigDecimal("999.99"));
+    assertHourCost(new BigDecimal("-25.0000000000"), 1800, new BigDecimal("-50.00"));
+    assertHourCost(new BigDecimal("0.8341666667"), 1001, new BigDecimal("3.000"));
+  }
+
+  @Test
+  public void shouldDifferFromCostOfHoursAsDoubleOnlyByErrorOfDouble() {
+    BigDecimal price = new BigDecimal("999.99");
+    CostValueSum costValueSum = new CostValueSum();
+    BigDecimal hoursAsDoubleCostValue = BigDecimal.ZERO;
+
+    for (int i = 0; i < 1000; i++) {
+      costValueSum.addSeconds(2400, price);
+//      entries used to be costed from hours held as double, 2/3 of hour being 0.6666666666666666
+      hoursAsDoubleCostValue = hoursAsDoubleCostValue.add(BigDecimal.valueOf((double) 2400 / 3600).multiply(price));
+    }
+
+//    intended difference: 1000 entries of 40 minutes cost exactly 666660, as summed up in data base and in cost cube, error of double is gone
+    assertEquals(new BigDecimal("666660.0000000000"), costValueSum.toBigDecimal());
+    assertEquals(new BigDecimal("666659.999999999933334000"), hoursAsDoubleCostValue);
+    assertNotEquals(hoursAsDoubleCostValue.setScale(CostValueSum.RESULT_SCALE, RoundingMode.HALF_UP), costValueSum.toBigDecimal());
+  }
+
+  @Test
+  public void shouldSumDataBaseSumsAndOtherSumsRoundingOnlyOnce() {
+    CostValueSum costValueSum = new CostValueSum();
+
+    for (int i = 0; i < 3; i++) {
+      CostValueSum otherCostValueSum = new CostValueSum();
+      otherCostValueSum.addSecondsValue(new BigDecimal("0.01"));
+      costValueSum.add(otherCostValueSum);
+    }
+    costValueSum.add(0.5);
+    costValueSum.add(new BigDecimal("0.00000001"));
+
+//    every 0.01 / 3600 rounded on its own would give 0.0000027778 and 0.5000083434 in total
+    assertEquals(new BigDecimal("0.5000083433"), costValueSum.toBigDecimal());
+  }
+
+  @Test
+  public void shouldKeepSumExactWhenItDoesNotFitIntoLong() {
+    CostValueSum costValueSum = new CostValueSum();
+    BigDecimal expectedValue = BigDecimal.ZERO;
+    BigDecimal expectedSecondsValue = BigDecimal.ZERO;
+    BigDecimal quantityPrice = new BigDecimal("99999999.99");
+    BigDecimal hourPrice = new BigDecimal("999999999.99");
+
+    for (int i = 0; i < 1000; i++) {
+      costValueSum.add(9_999_999.5, quantityPrice);
+      costValueSum.addSeconds(24 * 3600, hourPrice);
+      expectedValue = expectedValue.add(BigDecimal.valueOf(9_999_999.5).multiply(quantityPrice));
+      expectedSecondsValue = expectedSecondsValue.add(BigDecimal.valueOf(24 * 3600).multiply(hourPrice));
+    }
+
+    BigDecimal expected = expectedValue.multiply(SECONDS_PER_HOUR).add(expectedSecondsValue)
+        .divide(SECONDS_PER_HOUR, CostValueSum.RESULT_SCALE, RoundingMode.HALF_UP);
+    assertEquals(expected, costValueSum.toBigDecimal());
+
+    CostValueSum totalCostValueSum = new CostValueSum();
+    totalCostValueSum.add(costValueSum);
+    totalCostValueSum.add(costValueSum);
+    assertEquals(expected.add(expected), totalCostValueSum.toBigDecimal());
+  }
+
+  @Test
+  public void shouldKeepSumExactWhenSumsOfLongsOverflow() {
+//    each value fits into long of 10^-8 on its own, their sum does not
+    CostValueSum costValueSum = new CostValueSum();
+    costValueSum.add(new BigDecimal("90000000000"));
+    costValueSum.addSecondsValue(new BigDecimal("90000000000000000"));
+
+    CostValueSum totalCostValueSum = new CostValueSum();
+    totalCostValueSum.add(costValueSum);
+    totalCostValueSum.add(costValueSum);
+    totalCostValueSum.add(new BigDecimal("90000000000"));
+
+    assertEquals(new BigDecimal("50270000000000.0000000000"), totalCostValueSum.toBigDecimal());
+  }
+
+  /**
+   * Distances and quantities of 2 to 6 decimal places, negative corrections and doubles of more places (added as BigDecimal).
+   */
+  private double randomQuantity(Random random) {
+    switch (random.nextInt(4)) {
+      case 0:
+        return random.nextInt(100_000) / 100.0;
+      case 1:
+        return random.nextInt(1_000_000_000) / 1_000_000.0;
+      case 2:
+        return -random.nextInt(1000) / 10.0;
+      default:
+        return random.nextDouble() * 1000;
+    }
+  }
+
+  /**
+   * Prices of 0 to 2 decimal places and prices of 3 places (added as BigDecimal).
+   */
+  private BigDecimal randomPrice(Random random) {
+    return BigDecimal.valueOf(random.nextInt(10_000_000), random.nextInt(4));
+  }
+
+  private void assertQuantityCost(double quantity, BigDecimal price) {
+    CostValueSum costValueSum = new CostValueSum();
+    costValueSum.add(quantity, price);
+    costValueSum.add(quantity, price);
+
+    BigDecimal expected = BigDecimal.valueOf(quantity).multiply(price);
+    assertEquals(expected.add(expected).setScale(CostValueSum.RESULT_SCALE, RoundingMode.HALF_UP), costValueSum.toBigDecimal(),
+        () -> quantity + " * " + price);
+  }
+
+  private void assertHourCost(BigDecimal expected, long seconds, BigDecimal hourPrice) {
+    CostValueSum costValueSum = new CostValueSum();
+    costValueSum.addSeconds(seconds, hourPrice);
+    assertEquals(expected, costValueSum.toBigDecimal());
+
+    CostValueSum dataBaseCostValueSum = new CostValueSum();
+    dataBaseCostValueSum.addSecondsValue(BigDecimal.valueOf(seconds).multiply(hourPrice));
+    assertEquals(expected, dataBaseCostValueSum.toBigDecimal());
+  }
+}
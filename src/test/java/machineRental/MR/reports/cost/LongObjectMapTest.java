@@ -0,0 +1,93 @@
+package machineRental.MR.reports.cost;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import machineRental.MR.price.PriceType;
+import org.junit.Test;
+
+public class LongObjectMapTest {
+
+  @Test
+  public void shouldKeepTheSameEntriesAsHashMap() {
+    Random random = new Random(7);
+    LongObjectMap<String> map = new LongObjectMap<>();
+    Map<Long, String> expected = new HashMap<>();
+
+//    sequential ids, as given by sequences, mixed with arbitrary keys, including 0 and negative ones
+    for (int i = 0; i < 5000; i++) {
+      long key = random.nextBoolean() ? random.nextInt(2000) : random.nextLong();
+      String value = String.valueOf(i);
+      assertEquals(expected.put(key, value), map.put(key, value));
+    }
+    map.put(0, "zero");
+    expected.put(0L, "zero");
+
+    assertEquals(expected.size(), map.size());
+    expected.forEach((key, value) -> assertEquals(value, map.get(key)));
+
+    Map<Long, String> iterated = new HashMap<>();
+    map.forEach((key, value) -> assertNull(iterated.put(key, value)));
+    assertEquals(expected, iterated);
+
+    for (long key = 2000; key < 3000; key++) {
+      assertEquals(expected.get(key), map.get(key));
+    }
+  }
+
+  @Test
+  public void shouldComputeValueOnlyForMissingKey() {
+    LongObjectMap<StringBuilder> map = new LongObjectMap<>();
+
+    StringBuilder first = map.computeIfAbsent(42, key -> new StringBuilder("first"));
+    StringBuilder second = map.computeIfAbsent(42, key -> new StringBuilder("second"));
+
+    assertSame(first, second);
+    assertEquals("first", second.toString());
+    assertEquals(1, map.size());
+  }
+
+  @Test
+  public void shouldNotInsertKeyWhenComputedValueIsNull() {
+    LongObjectMap<String> map = new LongObjectMap<>();
+
+    assertNull(map.computeIfAbsent(42, key -> null));
+
+    assertNull(map.get(42));
+    assertEquals(0, map.size());
+    assertTrue(map.isEmpty());
+    assertEquals("value", map.computeIfAbsent(42, key -> "value"));
+    assertEquals(1, map.size());
+  }
+
+  @Test
+  public void shouldPackDifferentKeysForEveryIdAndPriceType() {
+    Map<Long, String> keys = new HashMap<>();
+    for (long id = 1; id <= 100; id++) {
+      for (PriceType priceType : PriceType.values()) {
+        assertNull(keys.put(CostKeys.of(id, priceType), id + " " + priceType));
+      }
+    }
+    assertNotEquals(CostKeys.of(1, PriceType.values()[PriceType.values().length - 1]), CostKeys.of(2, PriceType.values()[0]));
+  }
+
+  @Test
+  public void shouldSumValuesOfLongDoubleMap() {
+    LongDoubleMap map = new LongDoubleMap();
+
+    map.add(1, 2.5);
+    map.add(1, 1.5);
+    map.add(2, 3);
+
+    assertEquals(4.0, map.get(1));
+    assertEquals(3.0, map.get(2));
+    assertEquals(0.0, map.get(3));
+    assertEquals(2, map.size());
+  }
+}
@@ -0,0 +1,276 @@
+package machineRental.MR.reports.cost;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import machineRental.MR.reports.cost.cube.CostCubeService;
+import machineRental.MR.workDocumentEntry.WorkCode;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Checks that cost reports of every project of portfolio cost report are the same as single project cost reports, both when they are summed up from
+ * cost cube and from entries. Projects are split into partitions of two, so that sums of a partition are sorted out between its projects.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+// 'h2' profile uses in-memory data base created by Flyway migrations, as defined in application-h2.properties file.
+@ActiveProfiles("h2")
+public class PortfolioCostReportServiceTest {
+
+  private static final AtomicLong IDS = new AtomicLong(9000);
+
+  private static final LocalDate FIRST_DAY = LocalDate.of(2022, 3, 14);
+
+  private static final LocalDate START_DATE = LocalDate.of(2022, 3, 1);
+
+  private static final LocalDate END_DATE = LocalDate.of(2022, 3, 31);
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private PortfolioCostReportService portfolioCostReportService;
+
+  @Autowired
+  private CostReportService costReportService;
+
+  @Autowired
+  private CostReportStageExecutor costReportStageExecutor;
+
+  @Autowired
+  private CostCubeService costCubeService;
+
+  private final long clientId = IDS.incrementAndGet();
+
+  private final long operatorId = IDS.incrementAndGet();
+
+  private final long equipmentTypeId = IDS.incrementAndGet();
+
+  private final long transportTypeId = IDS.incrementAndGet();
+
+  private final long excavatorId = IDS.incrementAndGet();
+
+  private final long truckId = IDS.incrementAndGet();
+
+  private final long materialId = IDS.incrementAndGet();
+
+  private final long machineHourPriceId = IDS.incrementAndGet();
+
+  private final long operatorHourPriceId = IDS.incrementAndGet();
+
+  private final long distancePriceId = IDS.incrementAndGet();
+
+  private final long deliveryPriceId = IDS.incrementAndGet();
+
+  private final long deliveryDocumentId = IDS.incrementAndGet();
+
+  private final String workReportId = "WR" + IDS.incrementAndGet();
+
+  private final String roadCardId = "RC" + IDS.incrementAndGet();
+
+  private final List<Long> costCodeIds = new ArrayList<>();
+
+  private final List<String> projectCodes = new ArrayList<>();
+
+  private final List<Long> estimatePositionIds = new ArrayList<>();
+
+  @Value("${cost-report.use-cube}")
+  private boolean useCube;
+
+  @Before
+  public void setUp() {
+    jdbcTemplate.update("insert into clients (id, building_number, city, contact_person, email, mpk, name, phone_number, postal_code, street)"
+        + " values (?, '1', 'city', 'person', 'e@mail', ?, ?, '1', '00-000', 'street')", clientId, "C" + clientId, "client " + clientId);
+    jdbcTemplate.update("insert into operators (id, name, qualifications, client_id) values (?, 'operator', '', ?)", operatorId, clientId);
+    jdbcTemplate.update("insert into machine_types (id, cost_category, machine_type) values (?, 'EQUIPMENT', 'excavator')", equipmentTypeId);
+    jdbcTemplate.update("insert into machine_types (id, cost_category, machine_type) values (?, 'TRANSPORT', 'truck')", transportTypeId);
+    insertMachine(excavatorId, equipmentTypeId);
+    insertMachine(truckId, transportTypeId);
+    jdbcTemplate.update("insert into materials (id, type) values (?, 'gravel')", materialId);
+
+    insertHourPrice(machineHourPriceId, "ONLY_MACHINE", "100.00");
+    insertHourPrice(operatorHourPriceId, "WITH_OPERATOR", "162.50");
+    jdbcTemplate.update("insert into distance_prices (id, end_date, modification_date, price, price_type, project_code, range_max, range_min, start_date,"
+        + " work_code, machine_id) values (?, ?, ?, 2.75, 'DISTANCE_KM', 'ALL', 100, 0, ?, ?, ?)",
+        distancePriceId, END_DATE, START_DATE, START_DATE, WorkCode.CP.ordinal(), truckId);
+    jdbcTemplate.update("insert into delivery_prices (id, end_date, modification_date, price, price_type, project_code, start_date, contractor_id, material_id)"
+        + " values (?, ?, ?, 45.30, 'MATERIAL_MG', 'ALL', ?, ?, ?)", deliveryPriceId, END_DATE, START_DATE, START_DATE, clientId, materialId);
+
+    jdbcTemplate.update("insert into work_documents (id, counter_end, counter_start, date, delegation, document_type, invoice_number, machine_id, operator_id)"
+        + " values (?, 0, 0, ?, '0%', 'WORK_REPORT', 'NOT DEFINED', ?, ?)", workReportId, FIRST_DAY, excavatorId, operatorId);
+    jdbcTemplate.update("insert into work_documents (id, counter_end, counter_start, date, delegation, document_type, invoice_number, machine_id, operator_id)"
+        + " values (?, 0, 0, ?, '0%', 'ROAD_CARD', 'NOT DEFINED', ?, ?)", roadCardId, FIRST_DAY.plusDays(1), truckId, operatorId);
+    jdbcTemplate.update("insert into delivery_documents (id, date, document_number, client_id) values (?, ?, ?, ?)",
+        deliveryDocumentId, FIRST_DAY.plusDays(2), "D" + deliveryDocumentId, clientId);
+
+//    projects differ in number of estimate positions and in entries, one of them has no entries at all
+    for (int project = 0; project < 3; project++) {
+      long costCodeId = IDS.incrementAndGet();
+      String projectCode = "PF" + costCodeId;
+      costCodeIds.add(costCodeId);
+      projectCodes.add(projectCode);
+      jdbcTemplate.update("insert into codes (id, cost_type, cost_type_description, full_code, project_code, project_code_description)"
+          + " values (?, 'CT', 'cost type', ?, ?, 'project')", costCodeId, projectCode + "-CT", projectCode);
+
+      for (int position = 0; position <= project; position++) {
+        long estimatePositionId = IDS.incrementAndGet();
+        estimatePositionIds.add(estimatePositionId);
+        jdbcTemplate.update("insert into estimates (id, cost_price, cost_value, measure_unit, name, quantity, remarks, sell_price, sell_value, code_id)"
+            + " values (?, 1, 1, 'm3', ?, 100, '', 1, 1, ?)", estimatePositionId, "position " + estimatePositionId, costCodeId);
+
+        if (project > 0) {
+          insertEntries(costCodeId, estimatePositionId, project * 10 + position);
+        }
+      }
+    }
+
+//    entries are inserted without entity events, so cube is built from them the same way as on first startup
+    costCubeService.rebuild();
+  }
+
+  @After
+  public void tearDown() {
+    setUseCube(useCube);
+    for (String table : Arrays.asList("work_reports_entries", "road_cards_entries", "delivery_documents_entries", "daily_reports", "cost_cube_cells")) {
+      for (Long estimatePositionId : estimatePositionIds) {
+        jdbcTemplate.update("delete from " + table + " where estimate_position_id = ?", estimatePositionId);
+      }
+    }
+    for (Long costCodeId : costCodeIds) {
+      jdbcTemplate.update("delete from estimates where code_id = ?", costCodeId);
+      jdbcTemplate.update("delete from codes where id = ?", costCodeId);
+    }
+    jdbcTemplate.update("delete from delivery_documents where id = ?", deliveryDocumentId);
+    jdbcTemplate.update("delete from work_documents where id in (?, ?)", workReportId, roadCardId);
+    jdbcTemplate.update("delete from delivery_prices where id = ?", deliveryPriceId);
+    jdbcTemplate.update("delete from distance_prices where id = ?", distancePriceId);
+    jdbcTemplate.update("delete from hour_prices where id in (?, ?)", machineHourPriceId, operatorHourPriceId);
+    jdbcTemplate.update("delete from materials where id = ?", materialId);
+    jdbcTemplate.update("delete from machines where id in (?, ?)", excavatorId, truckId);
+    jdbcTemplate.update("delete from machine_types where id in (?, ?)", equipmentTypeId, transportTypeId);
+    jdbcTemplate.update("delete from operators where id = ?", operatorId);
+    jdbcTemplate.update("delete from clients where id = ?", clientId);
+  }
+
+  @Test
+  public void shouldMakeTheSameCostReportsOfProjectsAsSingleProjectCostReportsFromCube() throws Exception {
+    setUseCube(true);
+
+    assertPortfolioOfSingleProjectCostReports();
+  }
+
+  @Test
+  public void shouldMakeTheSameCostReportsOfProjectsAsSingleProjectCostReportsFromEntries() throws Exception {
+    setUseCube(false);
+
+    assertPortfolioOfSingleProjectCostReports();
+  }
+
+  private void assertPortfolioOfSingleProjectCostReports() throws Exception {
+    Object portfolioCostReportServiceTarget = AopTestUtils.getUltimateTargetObject(portfolioCostReportService);
+    Object projectsPerPartition = ReflectionTestUtils.getField(portfolioCostReportServiceTarget, "projectsPerPartition");
+    ReflectionTestUtils.setField(portfolioCostReportServiceTarget, "projectsPerPartition", 2);
+
+    PortfolioCostReport portfolioCostReport;
+    try {
+      portfolioCostReport = portfolioCostReportService.getPortfolioCostReport(START_DATE, END_DATE, projectCodes, costReportStageExecutor.start())
+          .get(30, TimeUnit.SECONDS);
+    } finally {
+      ReflectionTestUtils.setField(portfolioCostReportServiceTarget, "projectsPerPartition", projectsPerPartition);
+    }
+
+    assertEquals(projectCodes, portfolioCostReport.getProjectCostReports().stream().map(ProjectCostReport::getProjectCode).collect(Collectors.toList()));
+
+    CostTotals expectedTotals = new CostTotals();
+    for (ProjectCostReport projectCostReport : portfolioCostReport.getProjectCostReports()) {
+      List<CostReport> costReports = costReportService.getCostReports(START_DATE, END_DATE, projectCostReport.getProjectCode());
+
+      CostTotals projectTotals = new CostTotals();
+      costReports.forEach(projectTotals::add);
+      expectedTotals.add(projectTotals);
+
+      assertEquals(describe(costReports), describe(projectCostReport.getCostReports()), projectCostReport.getProjectCode());
+      assertEquals(describe(projectTotals), describe(projectCostReport.getTotals()), projectCostReport.getProjectCode());
+    }
+    assertEquals(describe(expectedTotals), describe(portfolioCostReport.getTotals()));
+    assertTrue(expectedTotals.getEquipmentCostValue().signum() > 0 && expectedTotals.getTransportCostValue().signum() > 0
+        && expectedTotals.getDeliveryCostValue().signum() > 0 && expectedTotals.getLabourCostValue().signum() > 0, describe(expectedTotals));
+  }
+
+  private List<String> describe(List<CostReport> costReports) {
+    return costReports.stream()
+        .map(costReport -> String.join(" ", String.valueOf(costReport.getEstimatePosition().getId()),
+            String.valueOf(costReport.getTotalDailyReportQuantity()),
+            String.valueOf(costReport.getTotalEquipmentCost().getTotalWorkHoursCount()), describe(costReport.getTotalEquipmentCost().getTotalCostValue()),
+            String.valueOf(costReport.getTotalTransportCost().getTotalWorkHoursCount()), describe(costReport.getTotalTransportCost().getTotalCostValue()),
+            describe(costReport.getTotalDeliveryCost().getTotalCostValue()),
+            String.valueOf(costReport.getTotalLabourCost().getTotalWorkHoursCount()), describe(costReport.getTotalLabourCost().getTotalCostValue())))
+        .sorted()
+        .collect(Collectors.toList());
+  }
+
+  private String describe(CostTotals costTotals) {
+    return String.join(" ", String.valueOf(costTotals.getEquipmentWorkHoursCount()), describe(costTotals.getEquipmentCostValue()),
+        String.valueOf(costTotals.getTransportWorkHoursCount()), describe(costTotals.getTransportCostValue()), describe(costTotals.getDeliveryCostValue()),
+        String.valueOf(costTotals.getLabourWorkHoursCount()), describe(costTotals.getLabourCostValue()), describe(costTotals.getTotalCostValue()));
+  }
+
+//  decimal scale depends on the way sum was read, so values are compared regardless of it
+  private String describe(BigDecimal value) {
+    return value.stripTrailingZeros().toPlainString();
+  }
+
+  private void setUseCube(boolean useCube) {
+    for (Object service : Arrays.asList(costReportService, portfolioCostReportService)) {
+      Object serviceTarget = AopTestUtils.getUltimateTargetObject(service);
+      ReflectionTestUtils.setField(serviceTarget, "useCube", useCube);
+    }
+  }
+
+  private void insertEntries(long costCodeId, long estimatePositionId, int variant) {
+    String endHour = String.format("%02d:%02d:00", 12 + variant % 6, variant % 4 * 15);
+    for (Object[] price : Arrays.asList(new Object[]{machineHourPriceId, WorkCode.PS}, new Object[]{operatorHourPriceId, WorkCode.PR})) {
+      jdbcTemplate.update("insert into work_reports_entries (id, end_hour, measure_unit, place_of_work, start_hour, type_of_work, work_code, work_quantity,"
+          + " operator_id, code_id, estimate_position_id, hour_price_id, work_document_id) values (?, ?, 'm3', 'place', '07:30:00', 'work', ?, 1, ?, ?, ?, ?, ?)",
+          IDS.incrementAndGet(), endHour, ((WorkCode) price[1]).ordinal(), operatorId, costCodeId, estimatePositionId, price[0], workReportId);
+    }
+    jdbcTemplate.update("insert into road_cards_entries (id, distance, end_hour, loading_place, material, measure_unit, quantity, runs_number, start_hour,"
+        + " unloading_place, work_code, operator_id, code_id, distance_price_id, estimate_position_id, work_document_id)"
+        + " values (?, ?, '23:30:00', 'quarry', 'gravel', 'Mg', 20, 2, '22:00:00', 'site', ?, ?, ?, ?, ?, ?)",
+        IDS.incrementAndGet(), 12.5 + variant, WorkCode.CP.ordinal(), operatorId, costCodeId, distancePriceId, estimatePositionId, roadCardId);
+    jdbcTemplate.update("insert into delivery_documents_entries (id, invoice_number, measure_unit, quantity, contractor_id, code_id, delivery_document_id,"
+        + " delivery_price_id, estimate_position_id, material_id) values (?, 'F1', 'Mg', ?, ?, ?, ?, ?, ?, ?)",
+        IDS.incrementAndGet(), 5.25 * variant, clientId, costCodeId, deliveryDocumentId, deliveryPriceId, estimatePositionId, materialId);
+    jdbcTemplate.update("insert into daily_reports (id, date, end_point, location, measure_unit, quantity, remarks, side, start_point, estimate_position_id)"
+        + " values (?, ?, '100', 'location', 'm3', ?, 'remarks', 'left', '0', ?)", IDS.incrementAndGet(), FIRST_DAY, 40.5 + variant, estimatePositionId);
+  }
+
+  private void insertHourPrice(long id, String priceType, String price) {
+    jdbcTemplate.update("insert into hour_prices (id, end_date, modification_date, price, price_type, project_code, start_date, work_code, machine_id)"
+        + " values (?, ?, ?, ?, ?, 'ALL', ?, ?, ?)", id, END_DATE, START_DATE, new BigDecimal(price), priceType, START_DATE, WorkCode.PS.ordinal(), excavatorId);
+  }
+
+  private void insertMachine(long machineId, long machineTypeId) {
+    jdbcTemplate.update("insert into machines (id, internal_id, machine_status, model, name, producer, production_year,"
+        + " total_physical_quantity, machine_type_id) values (?, ?, 'In use', 'model', 'name', 'producer', 2010, 1, ?)", machineId, "M" + machineId, machineTypeId);
+  }
+}
@@ -0,0 +1,390 @@
+package machineRental.MR.reports.cost;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.math.BigDecimal;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import machineRental.MR.estimate.model.EstimatePosition;
+import machineRental.MR.machine.model.Machine;
+import machineRental.MR.machineType.CostCategory;
+import machineRental.MR.machineType.model.MachineType;
+import machineRental.MR.price.PriceType;
+import machineRental.MR.price.distance.model.DistancePrice;
+import machineRental.MR.price.hour.model.HourPrice;
+import machineRental.MR.reports.cost.equipment.TotalEquipmentCost;
+import machineRental.MR.reports.cost.labour.TotalLabourCost;
+import machineRental.MR.reports.cost.transport.TotalTransportCost;
+import machineRental.MR.reports.cost.transport.TransportCost;
+import machineRental.MR.workDocument.model.WorkDocument;
+import machineRental.MR.workDocumentEntry.WorkCode;
+import machineRental.MR.workDocumentEntry.model.RoadCardEntry;
+import machineRental.MR.workDocumentEntry.model.WorkDocumentEntry;
+import machineRental.MR.workDocumentEntry.model.WorkReportEntry;
+import org.apache.commons.collections4.map.MultiKeyMap;
+import org.junit.Test;
+
+public class WorkDocumentEntryCostsTest {
+
+  private final EstimatePosition estimatePosition = createEstimatePosition(1L);
+
+  private final MachineType excavator = createMachineType(1L, "excavator", CostCategory.EQUIPMENT);
+
+  private final MachineType truck = createMachineType(2L, "truck", CostCategory.TRANSPORT);
+
+  @Test
+  public void shouldPassEveryEntryToAccumulatorOfItsWorkCodeAndCostCategory() {
+    WorkDocumentEntryCosts workDocumentEntryCosts = new WorkDocumentEntryCosts();
+
+//    8 h * 100 and 2 h of demurrage * 100 (cost without hours)
+    workDocumentEntryCosts.add(createWorkReportEntry(excavator, WorkCode.PS, 8, "100"));
+    workDocumentEntryCosts.add(createWorkReportEntry(excavator, WorkCode.PP, 2, "100"));
+//    12.5 km * 10 and 4 h * 50 of hour price
+    workDocumentEntryCosts.add(createRoadCardEntry(truck, WorkCode.CP, 3, PriceType.DISTANCE_KM, 12.5, "10"));
+    workDocumentEntryCosts.add(createWorkReportEntry(truck, WorkCode.PS, 4, "50"));
+//    labour regardless of cost category: 1 h * 40 and 2 h * 10
+    workDocumentEntryCosts.add(createWorkReportEntry(excavator, WorkCode.PR, 1, "40"));
+    workDocumentEntryCosts.add(createRoadCardEntry(truck, WorkCode.PR, 2, PriceType.DISTANCE_KM, 0, "10"));
+
+    TotalEquipmentCost totalEquipmentCost = workDocumentEntryCosts.getEquipmentCosts().getTotalEquipmentCostByEstimatePositionId().get(estimatePosition.getId());
+    assertEquals(1, totalEquipmentCost.getEquipmentCosts().size());
+    assertEquals(8, totalEquipmentCost.getTotalWorkHoursCount());
+    assertEquals(scaled("1000"), totalEquipmentCost.getTotalCostValue());
+
+    TotalTransportCost totalTransportCost = workDocumentEntryCosts.getTransportCosts().getTotalTransportCostByEstimatePositionId().get(estimatePosition.getId());
+    assertEquals(2, totalTransportCost.getTransportCosts().size());
+    assertEquals(7, totalTransportCost.getTotalWorkHoursCount());
+    assertEquals(scaled("325"), totalTransportCost.getTotalCostValue());
+
+    TotalLabourCost totalLabourCost = workDocumentEntryCosts.getLabourCosts().getTotalLabourCostByEstimatePositionId().get(estimatePosition.getId());
+    assertEquals(3, totalLabourCost.getTotalWorkHoursCount());
+    assertEquals(scaled("60"), totalLabourCost.getTotalCostValue());
+  }
+
+  @Test
+  public void shouldSkipEntriesOfMachineWithoutCostCategory() {
+    WorkDocumentEntryCosts workDocumentEntryCosts = new WorkDocumentEntryCosts();
+
+    workDocumentEntryCosts.add(createWorkReportEntry(createMachineType(3L, "other", null), WorkCode.PS, 8, "100"));
+
+    assertNull(workDocumentEntryCosts.getEquipmentCosts().getTotalEquipmentCostByEstimatePositionId().get(estimatePosition.getId()));
+    assertNull(workDocumentEntryCosts.getTransportCosts().getTotalTransportCostByEstimatePositionId().get(estimatePosition.getId()));
+  }
+
+  @Test
+  public void shouldCountHoursOfEntryLastingPastMidnightUntilAndFromMidnight() {
+    WorkDocumentEntryCosts workDocumentEntryCosts = new WorkDocumentEntryCosts();
+
+    WorkReportEntry workReportEntry = createWorkReportEntry(excavator, WorkCode.PS, 0, "100");
+    workReportEntry.setStartHour(LocalTime.of(22, 0));
+    workReportEntry.setEndHour(LocalTime.of(2, 30));
+    workDocumentEntryCosts.add(workReportEntry);
+
+    TotalEquipmentCost totalEquipmentCost = workDocumentEntryCosts.getEquipmentCosts().getTotalEquipmentCostByEstimatePositionId().get(estimatePosition.getId());
+    assertEquals(4.5, totalEquipmentCost.getTotalWorkHoursCount());
+    assertEquals(scaled("450"), totalEquipmentCost.getTotalCostValue());
+  }
+
+  @Test
+  public void shouldCalculateCostOfEntryOfPartOfHourWithoutRoundingHours() {
+    WorkDocumentEntryCosts workDocumentEntryCosts = new WorkDocumentEntryCosts();
+
+//    20 minutes * 10 and 20 minutes * 0.01
+    WorkReportEntry workReportEntry = createWorkReportEntry(excavator, WorkCode.PS, 0, "10");
+    workReportEntry.setEndHour(LocalTime.of(6, 20));
+    workDocumentEntryCosts.add(workReportEntry);
+    WorkReportEntry cheapWorkReportEntry = createWorkReportEntry(excavator, WorkCode.PS, 0, "0.01");
+    cheapWorkReportEntry.setEndHour(LocalTime.of(6, 20));
+    workDocumentEntryCosts.add(cheapWorkReportEntry);
+
+    TotalEquipmentCost totalEquipmentCost = workDocumentEntryCosts.getEquipmentCosts().getTotalEquipmentCostByEstimatePositionId().get(estimatePosition.getId());
+    assertEquals(scaled("3.3366666667"), totalEquipmentCost.getTotalCostValue());
+  }
+
+  @Test
+  public void shouldNotCountHoursOfEntryStartingAndEndingAtTheSameTime() {
+    WorkDocumentEntryCosts workDocumentEntryCosts = new WorkDocumentEntryCosts();
+
+    workDocumentEntryCosts.add(createWorkReportEntry(excavator, WorkCode.PS, 0, "100"));
+
+    TotalEquipmentCost totalEquipmentCost = workDocumentEntryCosts.getEquipmentCosts().getTotalEquipmentCostByEstimatePositionId().get(estimatePosition.getId());
+    assertEquals(0, totalEquipmentCost.getTotalWorkHoursCount());
+    assertEquals(scaled("0"), totalEquipmentCost.getTotalCostValue());
+  }
+
+  @Test
+  public void shouldCalculateRoadCardCostOfEquipmentByDistanceOrQuantity() {
+    WorkDocumentEntryCosts workDocumentEntryCosts = new WorkDocumentEntryCosts();
+
+//    12.5 km * 10 and 3.25 m3 * 20, hours of road cards count as equipment hours
+    workDocumentEntryCosts.add(createRoadCardEntry(excavator, WorkCode.PS, 2, PriceType.DISTANCE_KM, 12.5, "10"));
+    RoadCardEntry quantityRoadCardEntry = createRoadCardEntry(excavator, WorkCode.PS, 1, PriceType.DISTANCE_M3, 100, "20");
+    quantityRoadCardEntry.setQuantity(3.25);
+    workDocumentEntryCosts.add(quantityRoadCardEntry);
+
+    TotalEquipmentCost totalEquipmentCost = workDocumentEntryCosts.getEquipmentCosts().getTotalEquipmentCostByEstimatePositionId().get(estimatePosition.getId());
+    assertEquals(3, totalEquipmentCost.getTotalWorkHoursCount());
+    assertEquals(scaled("190"), totalEquipmentCost.getTotalCostValue());
+  }
+
+  @Test
+  public void shouldKeepCostsOfEstimatePositionsAndMachineTypesApart() {
+    WorkDocumentEntryCosts workDocumentEntryCosts = new WorkDocumentEntryCosts();
+    MachineType roller = createMachineType(3L, "roller", CostCategory.EQUIPMENT);
+
+    workDocumentEntryCosts.add(createWorkReportEntry(excavator, WorkCode.PS, 1, "100"));
+    workDocumentEntryCosts.add(createWorkReportEntry(roller, WorkCode.PS, 2, "50"));
+    WorkReportEntry otherPositionEntry = createWorkReportEntry(excavator, WorkCode.PS, 4, "100");
+    otherPositionEntry.setEstimatePosition(createEstimatePosition(2L));
+    workDocumentEntryCosts.add(otherPositionEntry);
+
+    TotalEquipmentCost totalEquipmentCost = workDocumentEntryCosts.getEquipmentCosts().getTotalEquipmentCostByEstimatePositionId().get(1L);
+    assertEquals(2, totalEquipmentCost.getEquipmentCosts().size());
+    assertEquals(3, totalEquipmentCost.getTotalWorkHoursCount());
+    assertEquals(scaled("200"), totalEquipmentCost.getTotalCostValue());
+
+    TotalEquipmentCost otherPositionCost = workDocumentEntryCosts.getEquipmentCosts().getTotalEquipmentCostByEstimatePositionId().get(2L);
+    assertEquals(1, otherPositionCost.getEquipmentCosts().size());
+    assertEquals(4, otherPositionCost.getTotalWorkHoursCount());
+    assertEquals(scaled("400"), otherPositionCost.getTotalCostValue());
+  }
+
+  @Test
+  public void shouldCalculateTheSameHourCostsFromDataBaseSumsAsFromEntries() {
+//    30 minutes, 3 h 30 minutes past midnight and 15 minutes of demurrage (cost without hours) of excavator, 15 minutes of truck
+    WorkReportEntry shortEntry = createWorkReportEntry(excavator, WorkCode.PS, 0, "10.01");
+    shortEntry.setEndHour(LocalTime.of(6, 30));
+    WorkReportEntry pastMidnightEntry = createWorkReportEntry(excavator, WorkCode.PS, 0, "10.01");
+    pastMidnightEntry.setStartHour(LocalTime.of(22, 0));
+    pastMidnightEntry.setEndHour(LocalTime.of(1, 30));
+    WorkReportEntry demurrageEntry = createWorkReportEntry(excavator, WorkCode.PP, 0, "10.01");
+    demurrageEntry.setEndHour(LocalTime.of(6, 15));
+    WorkReportEntry truckEntry = createWorkReportEntry(truck, WorkCode.PS, 0, "99.99");
+    truckEntry.setEndHour(LocalTime.of(6, 15));
+
+    List<WorkReportEntry> workReportEntries = Arrays.asList(shortEntry, pastMidnightEntry, demurrageEntry, truckEntry);
+    WorkDocumentEntryCosts entryCosts = addEntries(workReportEntries, Collections.emptyList());
+    WorkDocumentEntryCosts sumCosts = addSums(workReportEntries, Collections.emptyList());
+
+//    4 h 15 minutes * 10.01, demurrage included
+    assertEquals(scaled("42.5425"), entryCosts.getEquipmentCosts().getTotalEquipmentCostByEstimatePositionId().get(1L).getTotalCostValue());
+    assertEquals(scaled("24.9975"), entryCosts.getTransportCosts().getTotalTransportCostByEstimatePositionId().get(1L).getTotalCostValue());
+    assertSameCosts(entryCosts, sumCosts, 1L);
+  }
+
+  @Test
+  public void shouldCalculateTheSameRoadCardCostsFromDataBaseSumsAsFromEntries() {
+//    distances summed up as double in data base, 0.1 + 0.2 differs from 0.3 far below the scale of results
+    RoadCardEntry firstKilometres = createRoadCardEntry(truck, WorkCode.CP, 1, PriceType.DISTANCE_KM, 0.1, "1.00");
+    RoadCardEntry secondKilometres = createRoadCardEntry(truck, WorkCode.CP, 1, PriceType.DISTANCE_KM, 0.2, "1.00");
+    RoadCardEntry cubicMetres = createRoadCardEntry(truck, WorkCode.CP, 1, PriceType.DISTANCE_M3, 0, "4.00");
+    cubicMetres.setQuantity(2.5);
+    RoadCardEntry runs = createRoadCardEntry(truck, WorkCode.CP, 1, PriceType.DISTANCE_RUN, 0, "12.34");
+    runs.setRunsNumber(3);
+    RoadCardEntry excavatorKilometres = createRoadCardEntry(excavator, WorkCode.PS, 2, PriceType.DISTANCE_KM, 12.5, "10");
+
+    List<RoadCardEntry> roadCardEntries = Arrays.asList(firstKilometres, secondKilometres, cubicMetres, runs, excavatorKilometres);
+    WorkDocumentEntryCosts entryCosts = addEntries(Collections.emptyList(), roadCardEntries);
+    WorkDocumentEntryCosts sumCosts = addSums(Collections.emptyList(), roadCardEntries);
+
+    assertEquals(scaled("47.32"), sumCosts.getTransportCosts().getTotalTransportCostByEstimatePositionId().get(1L).getTotalCostValue());
+    assertEquals(scaled("125"), sumCosts.getEquipmentCosts().getTotalEquipmentCostByEstimatePositionId().get(1L).getTotalCostValue());
+    assertSameCosts(entryCosts, sumCosts, 1L);
+  }
+
+  @Test
+  public void shouldCalculateTheSameLabourCostsOfEstimatePositionsFromDataBaseSumsAsFromEntries() {
+    WorkReportEntry workReportEntry = createWorkReportEntry(excavator, WorkCode.PR, 0, "33.33");
+    workReportEntry.setEndHour(LocalTime.of(6, 45));
+    RoadCardEntry roadCardEntry = createRoadCardEntry(truck, WorkCode.PR, 2, PriceType.DISTANCE_KM, 5, "0.07");
+    WorkReportEntry otherPositionEntry = createWorkReportEntry(truck, WorkCode.PR, 1, "20");
+    otherPositionEntry.setEstimatePosition(createEstimatePosition(2L));
+
+    List<WorkReportEntry> workReportEntries = Arrays.asList(workReportEntry, otherPositionEntry);
+    List<RoadCardEntry> roadCardEntries = Collections.singletonList(roadCardEntry);
+    WorkDocumentEntryCosts entryCosts = addEntries(workReportEntries, roadCardEntries);
+    WorkDocumentEntryCosts sumCosts = addSums(workReportEntries, roadCardEntries);
+
+//    45 minutes * 33.33 and 2 h * 0.07
+    assertEquals(scaled("25.1375"), sumCosts.getLabourCosts().getTotalLabourCostByEstimatePositionId().get(1L).getTotalCostValue());
+    assertEquals(scaled("20"), sumCosts.getLabourCosts().getTotalLabourCostByEstimatePositionId().get(2L).getTotalCostValue());
+    assertSameCosts(entryCosts, sumCosts, 1L);
+    assertSameCosts(entryCosts, sumCosts, 2L);
+  }
+
+  private WorkDocumentEntryCosts addEntries(List<WorkReportEntry> workReportEntries, List<RoadCardEntry> roadCardEntries) {
+    WorkDocumentEntryCosts entryCosts = new WorkDocumentEntryCosts();
+    workReportEntries.forEach(entryCosts::add);
+    roadCardEntries.forEach(entryCosts::add);
+    return entryCosts;
+  }
+
+  private WorkDocumentEntryCosts addSums(List<WorkReportEntry> workReportEntries, List<RoadCardEntry> roadCardEntries) {
+    WorkDocumentEntryCosts sumCosts = new WorkDocumentEntryCosts();
+    sumWorkReportEntries(workReportEntries).forEach((key, costSum) -> sumCosts.add(costSum, (MachineType) key.getKey(1)));
+    sumRoadCardEntries(roadCardEntries).forEach((key, costSum) -> sumCosts.add(costSum, (MachineType) key.getKey(1)));
+    return sumCosts;
+  }
+
+  /**
+   * Cost values are compared exactly, at the scale of 10 decimal places to which both ways round them. Durations of entries in tests are multiples
+   * of 15 minutes, so that hours are also summed up exactly both ways.
+   */
+  private void assertSameCosts(WorkDocumentEntryCosts expectedCosts, WorkDocumentEntryCosts costs, long estimatePositionId) {
+    TotalEquipmentCost expectedEquipmentCost = expectedCosts.getEquipmentCosts().getTotalEquipmentCostByEstimatePositionId().get(estimatePositionId);
+    TotalEquipmentCost equipmentCost = costs.getEquipmentCosts().getTotalEquipmentCostByEstimatePositionId().get(estimatePositionId);
+    if (expectedEquipmentCost == null) {
+      assertNull(equipmentCost);
+    } else {
+      assertEquals(expectedEquipmentCost.getTotalWorkHoursCount(), equipmentCost.getTotalWorkHoursCount());
+      assertEquals(expectedEquipmentCost.getTotalCostValue(), equipmentCost.getTotalCostValue());
+      assertEquals(CostValueSum.RESULT_SCALE, equipmentCost.getTotalCostValue().scale());
+      assertEquals(expectedEquipmentCost.getEquipmentCosts().size(), equipmentCost.getEquipmentCosts().size());
+    }
+
+    TotalTransportCost expectedTransportCost = expectedCosts.getTransportCosts().getTotalTransportCostByEstimatePositionId().get(estimatePositionId);
+    TotalTransportCost transportCost = costs.getTransportCosts().getTotalTransportCostByEstimatePositionId().get(estimatePositionId);
+    if (expectedTransportCost == null) {
+      assertNull(transportCost);
+    } else {
+      assertEquals(expectedTransportCost.getTotalWorkHoursCount(), transportCost.getTotalWorkHoursCount());
+      assertEquals(expectedTransportCost.getTotalCostValue(), transportCost.getTotalCostValue());
+      assertEquals(CostValueSum.RESULT_SCALE, transportCost.getTotalCostValue().scale());
+      assertEquals(expectedTransportCost.getTransportCosts().size(), transportCost.getTransportCosts().size());
+      for (TransportCost expected : expectedTransportCost.getTransportCosts()) {
+        TransportCost actual = transportCost.getTransportCosts().stream()
+            .filter(cost -> cost.getMachineType() == expected.getMachineType() && cost.getPriceType() == expected.getPriceType()).findFirst().get();
+        assertEquals(expected.getCostValue(), actual.getCostValue());
+        assertEquals(expected.getQuantityCount(), actual.getQuantityCount());
+      }
+    }
+
+    TotalLabourCost expectedLabourCost = expectedCosts.getLabourCosts().getTotalLabourCostByEstimatePositionId().get(estimatePositionId);
+    TotalLabourCost labourCost = costs.getLabourCosts().getTotalLabourCostByEstimatePositionId().get(estimatePositionId);
+    if (expectedLabourCost == null) {
+      assertNull(labourCost);
+    } else {
+      assertEquals(expectedLabourCost.getTotalWorkHoursCount(), labourCost.getTotalWorkHoursCount());
+      assertEquals(expectedLabourCost.getTotalCostValue(), labourCost.getTotalCostValue());
+      assertEquals(CostValueSum.RESULT_SCALE, labourCost.getTotalCostValue().scale());
+    }
+  }
+
+  /**
+   * Groups and sums up entries the same way as {@link machineRental.MR.repository.WorkReportEntryRepository#sumCostsBetweenDatesByEstimateProjectCode}.
+   */
+  private MultiKeyMap<Object, WorkReportEntryCostSum> sumWorkReportEntries(List<WorkReportEntry> workReportEntries) {
+    MultiKeyMap<Object, WorkReportEntryCostSum> result = new MultiKeyMap<>();
+    for (WorkReportEntry entry : workReportEntries) {
+      MachineType machineType = entry.getWorkDocument().getMachine().getMachineType();
+      PriceType priceType = entry.getHourPrice().getPriceType();
+      long seconds = getSeconds(entry);
+      BigDecimal secondsValue = BigDecimal.valueOf(seconds).multiply(entry.getHourPrice().getPrice());
+
+      WorkReportEntryCostSum costSum = result.get(entry.getEstimatePosition(), machineType, entry.getWorkCode(), priceType);
+      if (costSum == null) {
+        result.put(entry.getEstimatePosition(), machineType, entry.getWorkCode(), priceType,
+            new WorkReportEntryCostSum(entry.getEstimatePosition().getId(), machineType.getId(), entry.getWorkCode(), priceType, seconds, secondsValue));
+      } else {
+        costSum.setWorkSeconds(costSum.getWorkSeconds() + seconds);
+        costSum.setWorkSecondsValue(costSum.getWorkSecondsValue().add(secondsValue));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Groups and sums up entries the same way as {@link machineRental.MR.repository.RoadCardEntryRepository#sumCostsBetweenDatesByEstimateProjectCode}.
+   */
+  private MultiKeyMap<Object, RoadCardEntryCostSum> sumRoadCardEntries(List<RoadCardEntry> roadCardEntries) {
+    MultiKeyMap<Object, RoadCardEntryCostSum> result = new MultiKeyMap<>();
+    for (RoadCardEntry entry : roadCardEntries) {
+      MachineType machineType = entry.getWorkDocument().getMachine().getMachineType();
+      PriceType priceType = entry.getDistancePrice().getPriceType();
+      BigDecimal price = entry.getDistancePrice().getPrice();
+      long seconds = getSeconds(entry);
+
+      RoadCardEntryCostSum costSum = result.get(entry.getEstimatePosition(), machineType, entry.getWorkCode(), priceType);
+      if (costSum == null) {
+        costSum = new RoadCardEntryCostSum(entry.getEstimatePosition().getId(), machineType.getId(), entry.getWorkCode(), priceType, 0L, BigDecimal.ZERO,
+            0.0, 0.0, 0.0, 0.0, BigDecimal.ZERO);
+        result.put(entry.getEstimatePosition(), machineType, entry.getWorkCode(), priceType, costSum);
+      }
+      costSum.setWorkSeconds(costSum.getWorkSeconds() + seconds);
+      costSum.setWorkSecondsValue(costSum.getWorkSecondsValue().add(BigDecimal.valueOf(seconds).multiply(price)));
+      costSum.setDistanceCount(costSum.getDistanceCount() + entry.getDistance());
+      costSum.setDistanceValue(costSum.getDistanceValue() + entry.getDistance() * price.doubleValue());
+      costSum.setQuantityCount(costSum.getQuantityCount() + entry.getQuantity());
+      costSum.setQuantityValue(costSum.getQuantityValue() + entry.getQuantity() * price.doubleValue());
+      costSum.setRunsValue(costSum.getRunsValue().add(BigDecimal.valueOf(entry.getRunsNumber()).multiply(price)));
+    }
+    return result;
+  }
+
+  private long getSeconds(WorkDocumentEntry entry) {
+    long seconds = entry.getEndHour().toSecondOfDay() - entry.getStartHour().toSecondOfDay();
+    return entry.getEndHour().isBefore(entry.getStartHour()) ? seconds + 86400 : seconds;
+  }
+
+  private BigDecimal scaled(String value) {
+    return new BigDecimal(value).setScale(CostValueSum.RESULT_SCALE);
+  }
+
+  private EstimatePosition createEstimatePosition(Long id) {
+    EstimatePosition estimatePosition = new EstimatePosition();
+    estimatePosition.setId(id);
+    estimatePosition.setName("position " + id);
+    return estimatePosition;
+  }
+
+  private WorkReportEntry createWorkReportEntry(MachineType machineType, WorkCode workCode, int hours, String price) {
+    HourPrice hourPrice = new HourPrice();
+    hourPrice.setPriceType(PriceType.WITH_OPERATOR);
+    hourPrice.setPrice(new BigDecimal(price));
+
+    WorkReportEntry workReportEntry = new WorkReportEntry();
+    workReportEntry.setWorkCode(workCode);
+    workReportEntry.setStartHour(LocalTime.of(6, 0));
+    workReportEntry.setEndHour(LocalTime.of(6 + hours, 0));
+    workReportEntry.setEstimatePosition(estimatePosition);
+    workReportEntry.setHourPrice(hourPrice);
+    workReportEntry.setWorkDocument(createWorkDocument(machineType));
+    return workReportEntry;
+  }
+
+  private RoadCardEntry createRoadCardEntry(MachineType machineType, WorkCode workCode, int hours, PriceType priceType, double distance, String price) {
+    DistancePrice distancePrice = new DistancePrice();
+    distancePrice.setPriceType(priceType);
+    distancePrice.setPrice(new BigDecimal(price));
+
+    RoadCardEntry roadCardEntry = new RoadCardEntry();
+    roadCardEntry.setWorkCode(workCode);
+    roadCardEntry.setStartHour(LocalTime.of(6, 0));
+    roadCardEntry.setEndHour(LocalTime.of(6 + hours, 0));
+    roadCardEntry.setEstimatePosition(estimatePosition);
+    roadCardEntry.setDistance(distance);
+    roadCardEntry.setDistancePrice(distancePrice);
+    roadCardEntry.setWorkDocument(createWorkDocument(machineType));
+    return roadCardEntry;
+  }
+
+  private WorkDocument createWorkDocument(MachineType machineType) {
+    Machine machine = new Machine();
+    machine.setMachineType(machineType);
+
+    WorkDocument workDocument = new WorkDocument();
+    workDocument.setMachine(machine);
+    return workDocument;
+  }
+
+  private MachineType createMachineType(Long id, String name, CostCategory costCategory) {
+    MachineType machineType = new MachineType();
+    machineType.setId(id);
+    machineType.setMachineType(name);
+    machineType.setCostCategory(costCategory);
+    return machineType;
+  }
+}
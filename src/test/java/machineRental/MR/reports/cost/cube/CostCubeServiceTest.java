@@ -0,0 +1,474 @@
+package machineRental.MR.reports.cost.cube;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import machineRental.MR.costcode.model.CostCode;
+import machineRental.MR.dailyReport.DailyReport;
+import machineRental.MR.estimate.model.EstimatePosition;
+import machineRental.MR.machine.model.Machine;
+import machineRental.MR.machineType.model.MachineType;
+import machineRental.MR.operator.model.Operator;
+import machineRental.MR.price.PriceType;
+import machineRental.MR.price.distance.model.DistancePrice;
+import machineRental.MR.price.hour.model.DoubleHourPrice;
+import machineRental.MR.price.hour.model.HourPrice;
+import machineRental.MR.price.hour.service.HourPriceService;
+import machineRental.MR.reports.cost.CostReport;
+import machineRental.MR.reports.cost.CostReportService;
+import machineRental.MR.repository.CostCubeCellRepository;
+import machineRental.MR.workDocument.model.WorkDocument;
+import machineRental.MR.workDocumentEntry.WorkCode;
+import machineRental.MR.workDocumentEntry.model.RoadCardEntry;
+import machineRental.MR.workDocumentEntry.model.WorkReportEntry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Changes entries, daily reports, documents, prices and machines through Hibernate, the way services do, and checks after every committed change that
+ * cells of cost cube are the same as cells computed from scratch and that cost reports of cube are the same as cost reports of entries.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+// 'h2' profile uses in-memory data base created by Flyway migrations, as defined in application-h2.properties file.
+@ActiveProfiles("h2")
+public class CostCubeServiceTest {
+
+  private static final AtomicLong IDS = new AtomicLong(8000);
+
+  private static final LocalDate FIRST_DAY = LocalDate.of(2021, 6, 10);
+
+  private static final LocalDate SECOND_DAY = FIRST_DAY.plusDays(1);
+
+  private static final LocalDate START_DATE = LocalDate.of(2021, 1, 1);
+
+  private static final LocalDate END_DATE = LocalDate.of(2021, 12, 31);
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Autowired
+  private CostCubeService costCubeService;
+
+  @Autowired
+  private CostCubeConsistencyChecker costCubeConsistencyChecker;
+
+  @Autowired
+  private CostCubeCellRepository costCubeCellRepository;
+
+  @Autowired
+  private CostReportService costReportService;
+
+  @Autowired
+  private HourPriceService hourPriceService;
+
+  private TransactionTemplate transactionTemplate;
+
+  private final long clientId = IDS.incrementAndGet();
+
+  private final long operatorId = IDS.incrementAndGet();
+
+  private final long costCodeId = IDS.incrementAndGet();
+
+  private final String projectCode = "P" + costCodeId;
+
+  private final long estimatePositionId = IDS.incrementAndGet();
+
+  private final long otherEstimatePositionId = IDS.incrementAndGet();
+
+  private final long equipmentTypeId = IDS.incrementAndGet();
+
+  private final long transportTypeId = IDS.incrementAndGet();
+
+  private final long excavatorId = IDS.incrementAndGet();
+
+  private final long truckId = IDS.incrementAndGet();
+
+  private final long hourPriceId = IDS.incrementAndGet();
+
+  private final long distancePriceId = IDS.incrementAndGet();
+
+  private final String workReportId = "WR" + IDS.incrementAndGet();
+
+  private final String nextWorkReportId = "WR" + IDS.incrementAndGet();
+
+  private final String roadCardId = "RC" + IDS.incrementAndGet();
+
+  @Before
+  public void setUp() {
+    transactionTemplate = new TransactionTemplate(transactionManager);
+
+    jdbcTemplate.update("insert into clients (id, building_number, city, contact_person, email, mpk, name, phone_number, postal_code, street)"
+        + " values (?, '1', 'city', 'person', 'e@mail', ?, 'client', '1', '00-000', 'street')", clientId, "C" + clientId);
+    jdbcTemplate.update("insert into operators (id, name, qualifications, client_id) values (?, 'operator', '', ?)", operatorId, clientId);
+    jdbcTemplate.update("insert into codes (id, cost_type, cost_type_description, full_code, project_code, project_code_description)"
+        + " values (?, 'CT', 'cost type', ?, ?, 'project')", costCodeId, projectCode + "-CT", projectCode);
+    for (long id : Arrays.asList(estimatePositionId, otherEstimatePositionId)) {
+      jdbcTemplate.update("insert into estimates (id, cost_price, cost_value, measure_unit, name, quantity, remarks, sell_price, sell_value, code_id)"
+          + " values (?, 1, 1, 'm3', ?, 100, '', 1, 1, ?)", id, "position " + id, costCodeId);
+    }
+
+    jdbcTemplate.update("insert into machine_types (id, cost_category, machine_type) values (?, 'EQUIPMENT', 'excavator')", equipmentTypeId);
+    jdbcTemplate.update("insert into machine_types (id, cost_category, machine_type) values (?, 'TRANSPORT', 'truck')", transportTypeId);
+    insertMachine(excavatorId, equipmentTypeId);
+    insertMachine(truckId, transportTypeId);
+
+    jdbcTemplate.update("insert into hour_prices (id, end_date, modification_date, price, price_type, project_code, start_date, work_code, machine_id)"
+        + " values (?, ?, ?, 100.00, 'ONLY_MACHINE', ?, ?, ?, ?)", hourPriceId, END_DATE, START_DATE, projectCode, START_DATE, WorkCode.PS.ordinal(), excavatorId);
+    jdbcTemplate.update("insert into distance_prices (id, end_date, modification_date, price, price_type, project_code, range_max, range_min, start_date,"
+        + " work_code, machine_id) values (?, ?, ?, 2.50, 'DISTANCE_KM', ?, 100, 0, ?, ?, ?)",
+        distancePriceId, END_DATE, START_DATE, projectCode, START_DATE, WorkCode.CP.ordinal(), truckId);
+
+    insertWorkDocument(workReportId, "WORK_REPORT", FIRST_DAY, excavatorId);
+    insertWorkDocument(nextWorkReportId, "WORK_REPORT", SECOND_DAY, excavatorId);
+    insertWorkDocument(roadCardId, "ROAD_CARD", FIRST_DAY, truckId);
+  }
+
+  @After
+  public void tearDown() {
+    List<Long> estimatePositionIds = Arrays.asList(estimatePositionId, otherEstimatePositionId);
+    for (String table : Arrays.asList("work_reports_entries", "road_cards_entries", "daily_reports", "cost_cube_cells")) {
+      jdbcTemplate.update("delete from " + table + " where estimate_position_id in (?, ?)", estimatePositionIds.toArray());
+    }
+    jdbcTemplate.update("delete from work_documents where machine_id in (?, ?)", excavatorId, truckId);
+    jdbcTemplate.update("delete from hour_prices where machine_id = ?", excavatorId);
+    jdbcTemplate.update("delete from distance_prices where machine_id = ?", truckId);
+    jdbcTemplate.update("delete from machines where id in (?, ?)", excavatorId, truckId);
+    jdbcTemplate.update("delete from machine_types where id in (?, ?)", equipmentTypeId, transportTypeId);
+    jdbcTemplate.update("delete from estimates where code_id = ?", costCodeId);
+    jdbcTemplate.update("delete from codes where id = ?", costCodeId);
+    jdbcTemplate.update("delete from operators where id = ?", operatorId);
+    jdbcTemplate.update("delete from clients where id = ?", clientId);
+  }
+
+  @Test
+  public void shouldKeepCubeUpToDateWhenEntriesAreInsertedUpdatedAndDeleted() {
+    Long entryId = addWorkReportEntry(workReportId, estimatePositionId, LocalTime.of(8, 0), LocalTime.of(12, 30));
+    addWorkReportEntry(nextWorkReportId, estimatePositionId, LocalTime.of(22, 0), LocalTime.of(1, 15));
+    Long roadCardEntryId = addRoadCardEntry(roadCardId, estimatePositionId, 12.5);
+    Long dailyReportId = addDailyReport(FIRST_DAY, estimatePositionId, 40);
+    assertCubeUpToDate();
+
+    update(WorkReportEntry.class, entryId, entry -> entry.setEndHour(LocalTime.of(15, 45)));
+    assertCubeUpToDate();
+
+//    entry leaves bucket of its estimate position, which has to be recomputed as well
+    update(WorkReportEntry.class, entryId, entry -> entry.setEstimatePosition(entityManager.find(EstimatePosition.class, otherEstimatePositionId)));
+    update(RoadCardEntry.class, roadCardEntryId, entry -> entry.setDistance(30));
+    update(DailyReport.class, dailyReportId, dailyReport -> dailyReport.setDate(SECOND_DAY));
+    assertCubeUpToDate();
+
+    delete(WorkReportEntry.class, entryId);
+    delete(RoadCardEntry.class, roadCardEntryId);
+    delete(DailyReport.class, dailyReportId);
+    assertCubeUpToDate();
+  }
+
+  @Test
+  public void shouldKeepCubeUpToDateWhenDocumentsMachinesAndPricesChange() {
+    addWorkReportEntry(workReportId, estimatePositionId, LocalTime.of(8, 0), LocalTime.of(16, 0));
+    addWorkReportEntry(nextWorkReportId, otherEstimatePositionId, LocalTime.of(6, 30), LocalTime.of(9, 0));
+    addRoadCardEntry(roadCardId, otherEstimatePositionId, 45);
+    assertCubeUpToDate();
+
+    update(WorkDocument.class, workReportId, workDocument -> workDocument.setDate(FIRST_DAY.minusDays(3)));
+    assertCubeUpToDate();
+
+    update(HourPrice.class, hourPriceId, hourPrice -> hourPrice.setPrice(new BigDecimal("125.50")));
+    assertCubeUpToDate();
+
+    update(DistancePrice.class, distancePriceId, distancePrice -> distancePrice.setPriceType(PriceType.DISTANCE_RUN));
+    assertCubeUpToDate();
+
+//    cost category is taken from machine type when report is made, but machine type is kept in cells
+    update(Machine.class, truckId, machine -> machine.setMachineType(entityManager.find(MachineType.class, equipmentTypeId)));
+    assertCubeUpToDate();
+  }
+
+  @Test
+  public void shouldKeepCubeUpToDateWhenEntriesAreMovedToNewPriceInBulk() {
+    addWorkReportEntry(workReportId, estimatePositionId, LocalTime.of(8, 0), LocalTime.of(16, 0));
+    addWorkReportEntry(nextWorkReportId, estimatePositionId, LocalTime.of(7, 0), LocalTime.of(9, 45));
+    addWorkReportEntry(nextWorkReportId, otherEstimatePositionId, LocalTime.of(10, 0), LocalTime.of(11, 0));
+    assertCubeUpToDate();
+
+    int movedEntriesCount = hourPriceService.updateOnDoubleChange(hourPriceId,
+        new DoubleHourPrice(createHourPrice(START_DATE, FIRST_DAY, "100.00"), createHourPrice(SECOND_DAY, END_DATE, "180.00")));
+
+    assertEquals(2, movedEntriesCount);
+    assertCubeUpToDate();
+  }
+
+  @Test
+  public void shouldRebuildCubeWithTheSameTotalsAsLivePath() {
+    addWorkReportEntry(workReportId, estimatePositionId, LocalTime.of(8, 0), LocalTime.of(16, 15));
+    addWorkReportEntry(nextWorkReportId, otherEstimatePositionId, LocalTime.of(23, 0), LocalTime.of(2, 0));
+    addRoadCardEntry(roadCardId, estimatePositionId, 17.5);
+    addDailyReport(SECOND_DAY, otherEstimatePositionId, 12.5);
+    assertCubeUpToDate();
+
+    List<String> liveCells = getCubeCells();
+    List<String> liveTotals = getCubeTotals();
+    assertFalse(liveCells.isEmpty());
+
+    costCubeService.rebuild();
+    assertEquals(liveCells, getCubeCells());
+    assertEquals(liveTotals, getCubeTotals());
+
+//    cells of every estimate position are deleted, so that cube is built as on first startup
+    jdbcTemplate.update("delete from cost_cube_cells");
+    costCubeService.buildIfEmpty();
+    assertEquals(liveCells, getCubeCells());
+    assertEquals(liveTotals, getCubeTotals());
+  }
+
+  @Test
+  public void shouldMakeCostReportsFromEntriesUntilFailedRefreshIsRetried() {
+    addWorkReportEntry(workReportId, estimatePositionId, LocalTime.of(8, 0), LocalTime.of(12, 0));
+    assertCubeUpToDate();
+
+    Object costCubeServiceTarget = AopTestUtils.getUltimateTargetObject(costCubeService);
+    Object costReportServiceTarget = AopTestUtils.getUltimateTargetObject(costReportService);
+    Object useCube = ReflectionTestUtils.getField(costReportServiceTarget, "useCube");
+    AtomicBoolean lockFails = new AtomicBoolean(true);
+    ReflectionTestUtils.setField(costCubeServiceTarget, "costCubeCellRepository", failingToLock(costCubeCellRepository, lockFails));
+    ReflectionTestUtils.setField(costReportServiceTarget, "useCube", true);
+    try {
+//      entry is committed, but its refresh fails after commit, so cells are left behind entries
+      addWorkReportEntry(nextWorkReportId, estimatePositionId, LocalTime.of(10, 0), LocalTime.of(14, 0));
+      assertFalse(costCubeService.isUpToDate());
+      assertNotEquals(getEntryTotals(), getCubeTotals());
+      assertEquals(getEntryTotals(), describe(costReportService.getCostReports(START_DATE, END_DATE, projectCode)));
+
+//      changes of failed refresh are refreshed again together with the next ones
+      addRoadCardEntry(roadCardId, estimatePositionId, 20);
+      assertFalse(costCubeService.isUpToDate());
+      lockFails.set(false);
+      assertTrue(costCubeService.isUpToDate());
+      assertCubeUpToDate();
+
+//      rebuild covers changes of failed refreshes as well
+      lockFails.set(true);
+      addDailyReport(SECOND_DAY, estimatePositionId, 15);
+      lockFails.set(false);
+      costCubeService.rebuild();
+      assertTrue(costCubeService.isUpToDate());
+      assertCubeUpToDate();
+    } finally {
+      ReflectionTestUtils.setField(costCubeServiceTarget, "costCubeCellRepository", costCubeCellRepository);
+      ReflectionTestUtils.setField(costReportServiceTarget, "useCube", useCube);
+    }
+  }
+
+//  refresh fails the way it does with lock timeout, as long as lockFails is set
+  private CostCubeCellRepository failingToLock(CostCubeCellRepository repository, AtomicBoolean lockFails) {
+    return (CostCubeCellRepository) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{CostCubeCellRepository.class},
+        (proxy, method, args) -> {
+          if (lockFails.get() && method.getName().equals("lockEstimatePositions")) {
+            throw new IllegalStateException("Lock wait timeout");
+          }
+          try {
+            return method.invoke(repository, args);
+          } catch (InvocationTargetException e) {
+            throw e.getCause();
+          }
+        });
+  }
+
+  /**
+   * Checks cells of estimate positions of the test against cells summed up from entries, and cost reports of cube against cost reports of entries.
+   */
+  private void assertCubeUpToDate() {
+    List<Long> estimatePositionIds = Arrays.asList(estimatePositionId, otherEstimatePositionId);
+    List<String> expectedCells = transactionTemplate.execute(status -> {
+      List<CostCubeCell> cells = new ArrayList<>();
+      cells.addAll(costCubeCellRepository.sumWorkReportEntriesByDay(estimatePositionIds, START_DATE, END_DATE));
+      cells.addAll(costCubeCellRepository.sumRoadCardEntriesByDay(estimatePositionIds, START_DATE, END_DATE));
+      cells.addAll(costCubeCellRepository.sumDeliveryDocumentEntriesByDay(estimatePositionIds, START_DATE, END_DATE));
+      cells.addAll(costCubeCellRepository.sumDailyReportsByDay(estimatePositionIds, START_DATE, END_DATE));
+      return describe(cells);
+    });
+
+    assertEquals(expectedCells, getCubeCells());
+    assertEquals(Collections.emptyList(), costCubeConsistencyChecker.check(START_DATE, END_DATE, projectCode));
+  }
+
+  private List<String> getCubeCells() {
+    return describe(costCubeCellRepository.findAll().stream()
+        .filter(cell -> cell.getEstimatePositionId() == estimatePositionId || cell.getEstimatePositionId() == otherEstimatePositionId)
+        .collect(Collectors.toList()));
+  }
+
+  private List<String> getCubeTotals() {
+    return describe(costReportService.getCostReportsFromCube(START_DATE, END_DATE, projectCode));
+  }
+
+  private List<String> getEntryTotals() {
+    return describe(costReportService.getCostReportsFromEntries(START_DATE, END_DATE, projectCode));
+  }
+
+//  ids differ between cells computed at different times and decimal scale depends on the way sum was read, so cells are compared by their values
+  private List<String> describe(List<CostCubeCell> cells) {
+    return cells.stream()
+        .map(cell -> String.join(" ", String.valueOf(cell.getEstimatePositionId()), String.valueOf(cell.getDate()), String.valueOf(cell.getSource()),
+            String.valueOf(cell.getMachineTypeId()), String.valueOf(cell.getMaterialId()), String.valueOf(cell.getWorkCode()),
+            String.valueOf(cell.getPriceType()), String.valueOf(cell.getWorkSeconds()), describe(cell.getWorkSecondsValue()),
+            String.valueOf(cell.getDistanceCount()), String.valueOf(cell.getDistanceValue()), String.valueOf(cell.getQuantityCount()),
+            String.valueOf(cell.getQuantityValue()), describe(cell.getRunsValue())))
+        .sorted()
+        .collect(Collectors.toList());
+  }
+
+  private List<String> describe(Collection<CostReport> costReports) {
+    return costReports.stream()
+        .map(this::describe)
+        .sorted()
+        .collect(Collectors.toList());
+  }
+
+  private String describe(CostReport costReport) {
+    return String.join(" ", String.valueOf(costReport.getEstimatePosition().getId()), String.valueOf(costReport.getTotalDailyReportQuantity()),
+        String.valueOf(costReport.getTotalEquipmentCost().getTotalWorkHoursCount()), describe(costReport.getTotalEquipmentCost().getTotalCostValue()),
+        String.valueOf(costReport.getTotalTransportCost().getTotalWorkHoursCount()), describe(costReport.getTotalTransportCost().getTotalCostValue()),
+        describe(costReport.getTotalDeliveryCost().getTotalCostValue()),
+        String.valueOf(costReport.getTotalLabourCost().getTotalWorkHoursCount()), describe(costReport.getTotalLabourCost().getTotalCostValue()));
+  }
+
+  private String describe(BigDecimal value) {
+    return value == null ? "null" : value.stripTrailingZeros().toPlainString();
+  }
+
+  private Long addWorkReportEntry(String workDocumentId, long estimatePositionId, LocalTime startHour, LocalTime endHour) {
+    return transactionTemplate.execute(status -> {
+      WorkDocument workDocument = entityManager.find(WorkDocument.class, workDocumentId);
+      WorkReportEntry entry = new WorkReportEntry();
+      entry.setWorkCode(WorkCode.PS);
+      entry.setStartHour(startHour);
+      entry.setEndHour(endHour);
+      entry.setPlaceOfWork("place");
+      entry.setTypeOfWork("work");
+      entry.setWorkQuantity(1);
+      entry.setMeasureUnit("m3");
+      entry.setHourPrice(entityManager.find(HourPrice.class, hourPriceId));
+      entry.setEstimatePosition(entityManager.find(EstimatePosition.class, estimatePositionId));
+      entry.setCostCode(entityManager.find(CostCode.class, costCodeId));
+      entry.setAcceptingPerson(entityManager.find(Operator.class, operatorId));
+      entry.setWorkDocument(workDocument);
+      entityManager.persist(entry);
+      return entry.getId();
+    });
+  }
+
+  private Long addRoadCardEntry(String workDocumentId, long estimatePositionId, double distance) {
+    return transactionTemplate.execute(status -> {
+      RoadCardEntry entry = new RoadCardEntry();
+      entry.setWorkCode(WorkCode.CP);
+      entry.setStartHour(LocalTime.of(7, 0));
+      entry.setEndHour(LocalTime.of(9, 30));
+      entry.setLoadingPlace("quarry");
+      entry.setMaterial("gravel");
+      entry.setUnloadingPlace("site");
+      entry.setQuantity(20);
+      entry.setMeasureUnit("Mg");
+      entry.setRunsNumber(2);
+      entry.setDistance(distance);
+      entry.setDistancePrice(entityManager.find(DistancePrice.class, distancePriceId));
+      entry.setEstimatePosition(entityManager.find(EstimatePosition.class, estimatePositionId));
+      entry.setCostCode(entityManager.find(CostCode.class, costCodeId));
+      entry.setAcceptingPerson(entityManager.find(Operator.class, operatorId));
+      entry.setWorkDocument(entityManager.find(WorkDocument.class, workDocumentId));
+      entityManager.persist(entry);
+      return entry.getId();
+    });
+  }
+
+  private Long addDailyReport(LocalDate date, long estimatePositionId, double quantity) {
+    return transactionTemplate.execute(status -> {
+      DailyReport dailyReport = new DailyReport();
+      dailyReport.setDate(date);
+      dailyReport.setEstimatePosition(entityManager.find(EstimatePosition.class, estimatePositionId));
+      dailyReport.setLocation("location");
+      dailyReport.setStartPoint("0");
+      dailyReport.setEndPoint("100");
+      dailyReport.setSide("left");
+      dailyReport.setQuantity(quantity);
+      dailyReport.setMeasureUnit("m3");
+      dailyReport.setRemarks("remarks");
+      entityManager.persist(dailyReport);
+      return dailyReport.getId();
+    });
+  }
+
+  private <T> void update(Class<T> entityClass, Object id, Consumer<T> change) {
+    transactionTemplate.execute(status -> {
+      change.accept(Objects.requireNonNull(entityManager.find(entityClass, id)));
+      return null;
+    });
+  }
+
+  private <T> void delete(Class<T> entityClass, Object id) {
+    transactionTemplate.execute(status -> {
+      entityManager.remove(entityManager.find(entityClass, id));
+      return null;
+    });
+  }
+
+  private HourPrice createHourPrice(LocalDate startDate, LocalDate endDate, String price) {
+    HourPrice hourPrice = new HourPrice();
+    hourPrice.setWorkCode(WorkCode.PS);
+    hourPrice.setMachine(transactionTemplate.execute(status -> entityManager.find(Machine.class, excavatorId)));
+    hourPrice.setPriceType(PriceType.ONLY_MACHINE);
+    hourPrice.setPrice(new BigDecimal(price));
+    hourPrice.setStartDate(startDate);
+    hourPrice.setEndDate(endDate);
+    hourPrice.setProjectCode(projectCode);
+    return hourPrice;
+  }
+
+  private void insertMachine(long machineId, long machineTypeId) {
+    jdbcTemplate.update("insert into machines (id, internal_id, machine_status, model, name, producer, production_year,"
+        + " total_physical_quantity, machine_type_id) values (?, ?, 'In use', 'model', 'name', 'producer', 2010, 1, ?)", machineId, "M" + machineId, machineTypeId);
+  }
+
+  private void insertWorkDocument(String id, String documentType, LocalDate date, long machineId) {
+    jdbcTemplate.update("insert into work_documents (id, counter_end, counter_start, date, delegation, document_type, invoice_number, machine_id, operator_id)"
+        + " values (?, 0, 0, ?, '0%', ?, 'NOT DEFINED', ?, ?)", id, date, documentType, machineId, operatorId);
+  }
+}
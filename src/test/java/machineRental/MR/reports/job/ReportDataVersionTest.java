@@ -0,0 +1,89 @@
+package machineRental.MR.reports.job;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.CompletableFuture;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import machineRental.MR.machineType.CostCategory;
+import machineRental.MR.machineType.model.MachineType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Changes report data through Hibernate and checks that version kept in data base changes once per transaction, only when the transaction commits.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+// 'h2' profile uses in-memory data base created by Flyway migrations, as defined in application-h2.properties file.
+@ActiveProfiles("h2")
+public class ReportDataVersionTest {
+
+  private static final long MACHINE_TYPE_ID = 9500;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Autowired
+  private ReportDataVersion reportDataVersion;
+
+  private TransactionTemplate transactionTemplate;
+
+  @Before
+  public void setUp() {
+    transactionTemplate = new TransactionTemplate(transactionManager);
+    jdbcTemplate.update("insert into machine_types (id, cost_category, machine_type) values (?, 'EQUIPMENT', ?)", MACHINE_TYPE_ID, "T" + MACHINE_TYPE_ID);
+  }
+
+  @After
+  public void tearDown() {
+    jdbcTemplate.update("delete from machine_types where id = ?", MACHINE_TYPE_ID);
+  }
+
+  @Test
+  public void shouldChangeVersionOnceWhenTransactionChangingReportDataCommits() {
+    long version = reportDataVersion.get();
+
+    long versionSeenByOtherTransaction = transactionTemplate.execute(status -> {
+      MachineType machineType = entityManager.find(MachineType.class, MACHINE_TYPE_ID);
+      machineType.setCostCategory(CostCategory.TRANSPORT);
+      entityManager.flush();
+      machineType.setMachineType("changed " + MACHINE_TYPE_ID);
+      entityManager.flush();
+//      version is read by another thread, that is outside of the transaction
+      return CompletableFuture.supplyAsync(reportDataVersion::get).join();
+    });
+
+    assertEquals(version, versionSeenByOtherTransaction);
+    assertEquals(version + 1, reportDataVersion.get());
+  }
+
+  @Test
+  public void shouldKeepVersionWhenTransactionChangingReportDataIsRolledBack() {
+    long version = reportDataVersion.get();
+
+    transactionTemplate.execute(status -> {
+      entityManager.find(MachineType.class, MACHINE_TYPE_ID).setCostCategory(CostCategory.TRANSPORT);
+      entityManager.flush();
+      status.setRollbackOnly();
+      return null;
+    });
+
+    assertEquals(version, reportDataVersion.get());
+  }
+}
@@ -0,0 +1,218 @@
+package machineRental.MR.reports.job;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import machineRental.MR.exception.ReportJobNotFinishedException;
+import machineRental.MR.exception.TooManyReportJobsException;
+import machineRental.MR.reports.WorkReportEntryReportGenerator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class ReportJobServiceTest {
+
+  private static final LocalDate START_DATE = LocalDate.of(2020, 1, 1);
+
+  private static final LocalDate END_DATE = LocalDate.of(2020, 1, 31);
+
+  private static final String PRIMARY_URL = "jdbc:mysql://localhost:3306/mr";
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private final ReportJobService reportJobService = new ReportJobService();
+
+  private final ReportDataVersion reportDataVersion = new ReportDataVersion();
+
+  private final AtomicInteger generatedReportsCount = new AtomicInteger();
+
+//  generator waits for the latch, so that jobs can be kept running; by default it is open
+  private CountDownLatch generatorLatch = new CountDownLatch(0);
+
+  private RuntimeException generatorException;
+
+  private final WorkReportEntryReportGenerator workReportEntryReportGenerator = new WorkReportEntryReportGenerator() {
+
+    @Override
+    public void exportExcelReport(LocalDate startDate, LocalDate endDate, String sheetName, OutputStream out) throws IOException {
+      try {
+        generatorLatch.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      if (generatorException != null) {
+        throw generatorException;
+      }
+      generatedReportsCount.incrementAndGet();
+      out.write((sheetName + " " + startDate + " " + endDate).getBytes(StandardCharsets.UTF_8));
+    }
+  };
+
+  private JdbcTemplate jdbcTemplate;
+
+  @Before
+  public void setUp() throws IOException {
+//    version is kept in data base, table is created the way V7__report_data_version migration does
+    JdbcDataSource dataSource = new JdbcDataSource();
+    dataSource.setURL("jdbc:h2:mem:report-job-service-test;DB_CLOSE_DELAY=-1");
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    jdbcTemplate.execute("create table report_data_version (id int not null, version bigint not null, primary key (id))");
+    jdbcTemplate.update("insert into report_data_version (id, version) values (1, 0)");
+    ReflectionTestUtils.setField(reportDataVersion, "dataSource", dataSource);
+    reportDataVersion.init();
+
+    ReportFileStore reportFileStore = new ReportFileStore();
+    ReflectionTestUtils.setField(reportFileStore, "directory", temporaryFolder.getRoot().getPath());
+    reportFileStore.init();
+
+    ReflectionTestUtils.setField(reportJobService, "workReportEntryReportGenerator", workReportEntryReportGenerator);
+    ReflectionTestUtils.setField(reportJobService, "reportFileStore", reportFileStore);
+    ReflectionTestUtils.setField(reportJobService, "reportDataVersion", reportDataVersion);
+    ReflectionTestUtils.setField(reportJobService, "objectMapper", new ObjectMapper());
+    ReflectionTestUtils.setField(reportJobService, "poolSize", 2);
+    ReflectionTestUtils.setField(reportJobService, "queueCapacity", 2);
+    ReflectionTestUtils.setField(reportJobService, "maxJobsPerUser", 1);
+    ReflectionTestUtils.setField(reportJobService, "retentionMinutes", 60L);
+    ReflectionTestUtils.setField(reportJobService, "primaryUrl", PRIMARY_URL);
+    ReflectionTestUtils.setField(reportJobService, "readUrl", PRIMARY_URL);
+    reportJobService.init();
+  }
+
+  @After
+  public void tearDown() {
+    reportJobService.shutdown();
+    jdbcTemplate.execute("drop table report_data_version");
+  }
+
+  @Test
+  public void shouldServeRepeatedReportFromStoreUntilDataChanges() throws Exception {
+    ReportJob job = awaitFinished(submit("user"));
+
+    assertEquals(ReportJobStatus.DONE, job.getStatus());
+    assertArrayEquals("WorkReportEntries 2020-01-01 2020-01-31".getBytes(StandardCharsets.UTF_8),
+        Files.readAllBytes(reportJobService.getFinishedJob(job.getId(), "user").getResult()));
+
+    ReportJob repeatedJob = submit("user");
+    assertEquals(ReportJobStatus.DONE, repeatedJob.getStatus());
+    assertEquals(job.getResult(), repeatedJob.getResult());
+    assertEquals(1, generatedReportsCount.get());
+
+    reportDataVersion.inspect("update work_reports_entries set work_quantity = 1 where id = 1");
+
+    assertEquals(ReportJobStatus.DONE, awaitFinished(submit("user")).getStatus());
+    assertEquals(2, generatedReportsCount.get());
+  }
+
+  @Test
+  public void shouldServeRepeatedReportFromStoreUntilOtherInstanceChangesData() throws Exception {
+    awaitFinished(submit("user"));
+    assertEquals(ReportJobStatus.DONE, submit("user").getStatus());
+    assertEquals(1, generatedReportsCount.get());
+
+//    another instance of application changes data through its own ReportDataVersion
+    ReportDataVersion otherInstanceReportDataVersion = new ReportDataVersion();
+    ReflectionTestUtils.setField(otherInstanceReportDataVersion, "dataSource", ReflectionTestUtils.getField(reportDataVersion, "dataSource"));
+    otherInstanceReportDataVersion.init();
+    otherInstanceReportDataVersion.inspect("delete from work_reports_entries where id=?");
+
+    assertEquals(ReportJobStatus.DONE, awaitFinished(submit("user")).getStatus());
+    assertEquals(2, generatedReportsCount.get());
+  }
+
+  @Test
+  public void shouldNotServeStoredResultWhenReportsAreReadFromReplica() throws Exception {
+    reportJobService.shutdown();
+    ReflectionTestUtils.setField(reportJobService, "readUrl", "jdbc:mysql://localhost:3307/mr");
+    reportJobService.init();
+
+    assertEquals(ReportJobStatus.DONE, awaitFinished(submit("user")).getStatus());
+    assertEquals(ReportJobStatus.DONE, awaitFinished(submit("user")).getStatus());
+    assertEquals(2, generatedReportsCount.get());
+  }
+
+  @Test
+  public void shouldKeepOlderResultWhileFinishedJobRefersToIt() throws Exception {
+    ReportJob job = awaitFinished(submit("user"));
+
+    reportDataVersion.inspect("update work_reports_entries set work_quantity = 1 where id = 1");
+    ReportJob newerJob = awaitFinished(submit("user"));
+
+    assertEquals(ReportJobStatus.DONE, newerJob.getStatus());
+    assertNotEquals(job.getResult(), newerJob.getResult());
+    assertArrayEquals("WorkReportEntries 2020-01-01 2020-01-31".getBytes(StandardCharsets.UTF_8),
+        Files.readAllBytes(reportJobService.getFinishedJob(job.getId(), "user").getResult()));
+  }
+
+  @Test
+  public void shouldChangeDataVersionOnlyOnChangesOfReportedTables() {
+    long version = reportDataVersion.get();
+
+    reportDataVersion.inspect("select id from work_reports_entries where id = 1");
+    reportDataVersion.inspect("update work_reports_entries_seq set next_val= ? where next_val=?");
+    reportDataVersion.inspect("insert into cost_cube_cells (estimate_position_id, month, hours) values (?, ?, ?)");
+    reportDataVersion.inspect("update machine_reservation_versions set version=version+1 where machine_id=?");
+    reportDataVersion.inspect("insert into orders (id, machine_id) values (?, ?)");
+    assertEquals(version, reportDataVersion.get());
+
+    reportDataVersion.inspect("update machines set name=?, total_physical_quantity=? where id=?");
+    assertEquals(version + 1, reportDataVersion.get());
+    reportDataVersion.inspect("insert into hour_prices (id, price) values (?, ?)");
+    assertEquals(version + 2, reportDataVersion.get());
+    reportDataVersion.inspect("delete from road_cards_entries where id=?");
+    assertEquals(version + 3, reportDataVersion.get());
+  }
+
+  @Test
+  public void shouldLimitJobsInProgressPerUser() throws Exception {
+    generatorLatch = new CountDownLatch(1);
+
+    ReportJob job = submit("user");
+    assertThrows(TooManyReportJobsException.class, () -> submit("user"));
+    assertThrows(ReportJobNotFinishedException.class, () -> reportJobService.getFinishedJob(job.getId(), "user"));
+
+    ReportJob otherUserJob = submit("other user");
+
+    generatorLatch.countDown();
+    assertEquals(ReportJobStatus.DONE, awaitFinished(job).getStatus());
+    assertEquals(ReportJobStatus.DONE, awaitFinished(otherUserJob).getStatus());
+    assertEquals(ReportJobStatus.DONE, awaitFinished(submit("user")).getStatus());
+  }
+
+  @Test
+  public void shouldReportFailedJob() throws Exception {
+    generatorException = new IllegalStateException("Report failed");
+
+    ReportJob job = awaitFinished(submit("user"));
+
+    assertEquals(ReportJobStatus.FAILED, job.getStatus());
+    assertEquals("Report failed", job.getErrorMessage());
+    assertThrows(ReportJobNotFinishedException.class, () -> reportJobService.getFinishedJob(job.getId(), "user"));
+  }
+
+  private ReportJob submit(String username) {
+    return reportJobService.submit(ReportType.WORK_REPORT_ENTRIES, START_DATE, END_DATE, null, username);
+  }
+
+  private ReportJob awaitFinished(ReportJob job) throws InterruptedException {
+    for (int i = 0; i < 500 && !job.isFinished(); i++) {
+      Thread.sleep(10);
+    }
+    return job;
+  }
+}
@@ -0,0 +1,54 @@
+package machineRental.MR.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Optional;
+import java.util.UUID;
+import machineRental.MR.Fake;
+import machineRental.MR.repository.UserRepository;
+import machineRental.MR.user.UserRole;
+import machineRental.MR.user.model.User;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class UserDetailsServiceImplTest {
+
+  private final UserDetailsServiceImpl userDetailsService = new UserDetailsServiceImpl();
+
+  private final Fake<UserRepository> userRepository = Fake.of(UserRepository.class)
+      .answer("findByUsername", args -> Optional.of(new User(UUID.randomUUID(), (String) args[0], "password", UserRole.USER, "user@test.com")));
+
+  @Before
+  public void setUp() {
+    ReflectionTestUtils.setField(userDetailsService, "ttlSeconds", 300L);
+    ReflectionTestUtils.setField(userDetailsService, "maxSize", 2);
+    ReflectionTestUtils.setField(userDetailsService, "userRepository", userRepository.get());
+  }
+
+  @Test
+  public void shouldReadUserOnceUntilEvicted() {
+    assertSame(userDetailsService.loadCachedUserByUsername("user"), userDetailsService.loadCachedUserByUsername("user"));
+    assertEquals(1, userRepository.callsCount("findByUsername"));
+
+    userDetailsService.evict("user");
+    userDetailsService.loadCachedUserByUsername("user");
+    assertEquals(2, userRepository.callsCount("findByUsername"));
+  }
+
+  @Test
+  public void shouldReadUserAgainAfterTtlOrWhenRemovedFromFullCache() {
+    ReflectionTestUtils.setField(userDetailsService, "ttlSeconds", 0L);
+    userDetailsService.loadCachedUserByUsername("user");
+    userDetailsService.loadCachedUserByUsername("user");
+    assertEquals(2, userRepository.callsCount("findByUsername"));
+
+    ReflectionTestUtils.setField(userDetailsService, "ttlSeconds", 300L);
+    userDetailsService.loadCachedUserByUsername("user1");
+    userDetailsService.loadCachedUserByUsername("user2");
+    userDetailsService.loadCachedUserByUsername("user3");
+    userDetailsService.loadCachedUserByUsername("user1");
+    assertEquals(6, userRepository.callsCount("findByUsername"));
+  }
+}
@@ -0,0 +1,146 @@
+package machineRental.MR.workDocumentEntry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import machineRental.MR.Fake;
+import machineRental.MR.exception.BindingResultException;
+import machineRental.MR.machine.model.Machine;
+import machineRental.MR.operator.model.Operator;
+import machineRental.MR.repository.RoadCardEntryRepository;
+import machineRental.MR.repository.WorkReportEntryRepository;
+import machineRental.MR.workDocument.model.WorkDocument;
+import machineRental.MR.workDocumentEntry.model.RoadCardEntry;
+import machineRental.MR.workDocumentEntry.model.WorkDocumentEntries;
+import machineRental.MR.workDocumentEntry.model.WorkReportEntry;
+import machineRental.MR.workDocumentEntry.service.WorkDocumentEntryBulkService;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+
+public class WorkDocumentEntryBulkServiceTest {
+
+  private static final LocalDate DATE = LocalDate.of(2020, 3, 2);
+
+  private final WorkDocumentEntryBulkService workDocumentEntryBulkService = new WorkDocumentEntryBulkService();
+
+  private final List<WorkReportEntry> dbWorkReportEntries = new ArrayList<>();
+
+  private final List<RoadCardEntry> dbRoadCardEntries = new ArrayList<>();
+
+  private final Fake<WorkReportEntryRepository> workReportEntryRepository = Fake.of(WorkReportEntryRepository.class)
+      .answer("findByWorkDocument_DateInAndOperatorOrMachine", args -> new ArrayList<>(dbWorkReportEntries))
+      .answer("saveAll", args -> args[0]);
+
+  private final Fake<RoadCardEntryRepository> roadCardEntryRepository = Fake.of(RoadCardEntryRepository.class)
+      .answer("findByWorkDocument_DateInAndOperatorOrMachine", args -> new ArrayList<>(dbRoadCardEntries))
+      .answer("saveAll", args -> args[0]);
+
+  @Before
+  public void setUp() {
+    ReflectionTestUtils.setField(workDocumentEntryBulkService, "workReportEntryRepository", workReportEntryRepository.get());
+    ReflectionTestUtils.setField(workDocumentEntryBulkService, "roadCardEntryRepository", roadCardEntryRepository.get());
+    ReflectionTestUtils.setField(workDocumentEntryBulkService, "workDocumentEntryValidator", new WorkDocumentEntryValidator());
+  }
+
+  @Test
+  public void shouldReadDataBaseEntriesOnceAndSaveAllDocuments() {
+    WorkDocumentEntries workDocumentEntries = new WorkDocumentEntries();
+    for (long i = 1; i <= 20; i++) {
+      workDocumentEntries.getWorkReportEntries().add(createWorkReportEntry(createWorkDocument(i, i, DATE), 8, 16));
+    }
+//    entry of operator 1 in the next day does not overlap with entries being saved
+    dbWorkReportEntries.add(createWorkReportEntry(createWorkDocument(1, 1, DATE.plusDays(1)), 8, 16));
+
+    workDocumentEntryBulkService.create(workDocumentEntries, new BeanPropertyBindingResult(workDocumentEntries, "workDocumentEntries"));
+
+    assertEquals(1, workReportEntryRepository.callsCount("findByWorkDocument_DateInAndOperatorOrMachine"));
+    assertEquals(1, roadCardEntryRepository.callsCount("findByWorkDocument_DateInAndOperatorOrMachine"));
+    assertEquals(1, workReportEntryRepository.callsCount("saveAll"));
+  }
+
+  @Test
+  public void shouldReportOverlapsBetweenDocumentsBeforeSaving() {
+    WorkDocumentEntries workDocumentEntries = new WorkDocumentEntries();
+    workDocumentEntries.getWorkReportEntries().add(createWorkReportEntry(createWorkDocument(1, 1, DATE), 8, 12));
+    workDocumentEntries.getWorkReportEntries().add(createWorkReportEntry(createWorkDocument(1, 2, DATE), 11, 15));
+    workDocumentEntries.getRoadCardEntries().add(createRoadCardEntry(createWorkDocument(2, 2, DATE), 14, 16));
+    dbWorkReportEntries.add(createWorkReportEntry(createWorkDocument(1, 3, DATE), 6, 9));
+
+    BindingResult bindingResult = new BeanPropertyBindingResult(workDocumentEntries, "workDocumentEntries");
+    assertThrows(BindingResultException.class, () -> workDocumentEntryBulkService.create(workDocumentEntries, bindingResult));
+
+//    2 overlaps of operator 1 and 1 overlap of machine 2
+    assertEquals(3, bindingResult.getErrorCount());
+    assertEquals(0, workReportEntryRepository.callsCount("saveAll") + roadCardEntryRepository.callsCount("saveAll"));
+  }
+
+  @Test
+  public void shouldCompareEntriesOfOperatorAndMachineWithinTheirDaysAndAcrossMidnight() {
+    WorkDocumentEntries workDocumentEntries = new WorkDocumentEntries();
+//    the same operator and machine at the same hours in two days
+    workDocumentEntries.getWorkReportEntries().add(createWorkReportEntry(createWorkDocument(1, 1, DATE), 8, 16));
+    workDocumentEntries.getWorkReportEntries().add(createWorkReportEntry(createWorkDocument(1, 1, DATE.plusDays(1)), 8, 16));
+    workDocumentEntries.getRoadCardEntries().add(createRoadCardEntry(createWorkDocument(2, 2, DATE), 8, 16));
+    workDocumentEntries.getRoadCardEntries().add(createRoadCardEntry(createWorkDocument(2, 2, DATE.plusDays(1)), 1, 3));
+    dbRoadCardEntries.add(createRoadCardEntry(createWorkDocument(2, 2, DATE.minusDays(1)), 8, 16));
+
+    BindingResult bindingResult = new BeanPropertyBindingResult(workDocumentEntries, "workDocumentEntries");
+    workDocumentEntryBulkService.create(workDocumentEntries, bindingResult);
+    assertEquals(0, bindingResult.getErrorCount());
+
+    Collection<LocalDate> dates = (Collection<LocalDate>) workReportEntryRepository.arguments("findByWorkDocument_DateInAndOperatorOrMachine").get(0)[0];
+    assertEquals(new HashSet<>(Arrays.asList(DATE.minusDays(1), DATE, DATE.plusDays(1), DATE.plusDays(2))), new HashSet<>(dates));
+
+//    entry of machine 2 of the previous day ending after midnight overlaps with its early-morning entry
+    dbRoadCardEntries.add(createRoadCardEntry(createWorkDocument(3, 2, DATE), 22, 2));
+
+    BindingResult overlapBindingResult = new BeanPropertyBindingResult(workDocumentEntries, "workDocumentEntries");
+    assertThrows(BindingResultException.class, () -> workDocumentEntryBulkService.create(workDocumentEntries, overlapBindingResult));
+    assertEquals(1, overlapBindingResult.getErrorCount());
+    assertEquals("workReportEntryMachine", overlapBindingResult.getFieldErrors().get(0).getObjectName());
+  }
+
+  private WorkDocument createWorkDocument(long operatorId, long machineId, LocalDate date) {
+    Operator operator = new Operator();
+    operator.setId(operatorId);
+    operator.setName("Operator " + operatorId);
+
+    Machine machine = new Machine();
+    machine.setId(machineId);
+    machine.setInternalId("M" + machineId);
+
+    WorkDocument workDocument = new WorkDocument();
+    workDocument.setOperator(operator);
+    workDocument.setMachine(machine);
+    workDocument.setDate(date);
+    return workDocument;
+  }
+
+  private WorkReportEntry createWorkReportEntry(WorkDocument workDocument, int startHour, int endHour) {
+    WorkReportEntry workReportEntry = new WorkReportEntry();
+    workReportEntry.setWorkCode(WorkCode.PS);
+    workReportEntry.setStartHour(LocalTime.of(startHour, 0));
+    workReportEntry.setEndHour(LocalTime.of(endHour, 0));
+    workReportEntry.setWorkDocument(workDocument);
+    return workReportEntry;
+  }
+
+  private RoadCardEntry createRoadCardEntry(WorkDocument workDocument, int startHour, int endHour) {
+    RoadCardEntry roadCardEntry = new RoadCardEntry();
+    roadCardEntry.setWorkCode(WorkCode.CP);
+    roadCardEntry.setStartHour(LocalTime.of(startHour, 0));
+    roadCardEntry.setEndHour(LocalTime.of(endHour, 0));
+    roadCardEntry.setWorkDocument(workDocument);
+    return roadCardEntry;
+  }
+}
@@ -0,0 +1,184 @@
+package machineRental.MR.workDocumentEntry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import machineRental.MR.exception.BindingResultException;
+import machineRental.MR.machine.model.Machine;
+import machineRental.MR.operator.model.Operator;
+import machineRental.MR.workDocument.model.WorkDocument;
+import org.junit.Test;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+
+public class WorkDocumentEntryValidatorTest {
+
+  private static final LocalDate DATE = LocalDate.of(2020, 6, 10);
+
+  private final WorkDocumentEntryValidator workDocumentEntryValidator = new WorkDocumentEntryValidator();
+
+  @Test
+  public void shouldNotReportEntriesEndingWhenOtherStarts() {
+    WorkDocumentEntryForValidation entry = createEntry("Operator 1", "M1", WorkCode.PS, LocalTime.of(8, 0), LocalTime.of(12, 0));
+    WorkDocumentEntryForValidation nextEntry = createEntry("Operator 1", "M1", WorkCode.PS, LocalTime.of(12, 0), LocalTime.of(16, 0));
+
+    BindingResult bindingResult = validate(Arrays.asList(entry, nextEntry), Arrays.asList(entry, nextEntry));
+
+    assertEquals(0, bindingResult.getErrorCount());
+  }
+
+  @Test
+  public void shouldReportOverlapOfOperatorOnceWhenMachineIsTheSame() {
+    WorkDocumentEntryForValidation entry = createEntry("Operator 1", "M1", WorkCode.PS, LocalTime.of(8, 0), LocalTime.of(12, 0));
+    WorkDocumentEntryForValidation overlappingEntry = createEntry("Operator 1", "M1", WorkCode.PS, LocalTime.of(11, 59), LocalTime.of(16, 0));
+
+    BindingResult bindingResult = validate(Collections.singletonList(overlappingEntry), Arrays.asList(entry, overlappingEntry));
+
+    assertEquals(1, bindingResult.getErrorCount());
+    assertEquals("workReportEntryOperator", bindingResult.getFieldErrors().get(0).getObjectName());
+  }
+
+  @Test
+  public void shouldReportOverlapOfMachineOnlyForExploitationWorkCodes() {
+    WorkDocumentEntryForValidation entry = createEntry("Operator 1", "M1", WorkCode.PS, LocalTime.of(8, 0), LocalTime.of(12, 0));
+    WorkDocumentEntryForValidation exploitationEntry = createEntry("Operator 2", "M1", WorkCode.CP, LocalTime.of(10, 0), LocalTime.of(14, 0));
+    WorkDocumentEntryForValidation demurrageEntry = createEntry("Operator 3", "M1", WorkCode.PP, LocalTime.of(10, 0), LocalTime.of(14, 0));
+
+    BindingResult bindingResult = validate(Arrays.asList(exploitationEntry, demurrageEntry), Arrays.asList(entry, exploitationEntry, demurrageEntry));
+
+    assertEquals(1, bindingResult.getErrorCount());
+    assertEquals("workReportEntryMachine", bindingResult.getFieldErrors().get(0).getObjectName());
+  }
+
+  @Test
+  public void shouldAllowOverlapOfOperatorXxxButNotOfHisMachine() {
+    WorkDocumentEntryForValidation entry = createEntry("XXX", "M1", WorkCode.PS, LocalTime.of(8, 0), LocalTime.of(12, 0));
+    WorkDocumentEntryForValidation otherMachineEntry = createEntry("xxx", "M2", WorkCode.PS, LocalTime.of(8, 0), LocalTime.of(12, 0));
+    WorkDocumentEntryForValidation sameMachineEntry = createEntry("xxx", "M1", WorkCode.PS, LocalTime.of(9, 0), LocalTime.of(10, 0));
+
+    assertEquals(0, validate(Collections.singletonList(otherMachineEntry), Arrays.asList(entry, otherMachineEntry)).getErrorCount());
+
+    BindingResult bindingResult = validate(Collections.singletonList(sameMachineEntry), Arrays.asList(entry, otherMachineEntry, sameMachineEntry));
+    assertEquals(1, bindingResult.getErrorCount());
+    assertEquals("workReportEntryMachine", bindingResult.getFieldErrors().get(0).getObjectName());
+  }
+
+  @Test
+  public void shouldNotReportEntryWithTheSameStartAndEndHour() {
+    WorkDocumentEntryForValidation entry = createEntry("Operator 1", "M1", WorkCode.PS, LocalTime.of(8, 0), LocalTime.of(12, 0));
+    WorkDocumentEntryForValidation emptyEntry = createEntry("Operator 1", "M1", WorkCode.PS, LocalTime.of(10, 0), LocalTime.of(10, 0));
+
+    assertEquals(0, validate(Collections.singletonList(emptyEntry), Arrays.asList(entry, emptyEntry)).getErrorCount());
+  }
+
+  @Test
+  public void shouldReportEveryOverlapOfValidatedEntriesOnly() {
+    WorkDocumentEntryForValidation dbEntry = createEntry("Operator 1", "M1", WorkCode.PS, LocalTime.of(8, 0), LocalTime.of(16, 0));
+    WorkDocumentEntryForValidation otherDbEntry = createEntry("Operator 1", "M2", WorkCode.PS, LocalTime.of(9, 0), LocalTime.of(10, 0));
+    WorkDocumentEntryForValidation entry = createEntry("Operator 1", "M3", WorkCode.PS, LocalTime.of(9, 30), LocalTime.of(11, 0));
+    WorkDocumentEntryForValidation otherEntry = createEntry("Operator 1", "M4", WorkCode.PS, LocalTime.of(10, 30), LocalTime.of(12, 0));
+
+//    db entries overlap each other, but only overlaps of saved entries are reported: entry with both db entries and other entry, other entry with first db entry
+    BindingResult bindingResult = validate(Arrays.asList(entry, otherEntry), Arrays.asList(dbEntry, otherDbEntry, entry, otherEntry));
+
+    assertEquals(4, bindingResult.getErrorCount());
+  }
+
+  @Test
+  public void shouldCompareEntryEndingNextDayWithLaterEntriesOnly() {
+    WorkDocumentEntryForValidation nightEntry = createEntry("Operator 1", "M1", WorkCode.PS, LocalTime.of(22, 0), LocalTime.of(2, 0));
+    WorkDocumentEntryForValidation morningEntry = createEntry("Operator 1", "M1", WorkCode.PS, LocalTime.of(1, 0), LocalTime.of(3, 0));
+    WorkDocumentEntryForValidation eveningEntry = createEntry("Operator 1", "M1", WorkCode.PS, LocalTime.of(21, 0), LocalTime.of(23, 0));
+
+    assertEquals(0, validate(Collections.singletonList(nightEntry), Arrays.asList(nightEntry, morningEntry)).getErrorCount());
+    assertEquals(1, validate(Collections.singletonList(nightEntry), Arrays.asList(nightEntry, morningEntry, eveningEntry)).getErrorCount());
+  }
+
+  @Test
+  public void shouldReportEarlyMorningEntryOverlappingEntryOfPreviousDayEndingAfterMidnight() {
+    WorkDocumentEntryForValidation previousNightEntry = createEntry("Operator 1", "M1", WorkCode.PS, LocalTime.of(22, 0), LocalTime.of(2, 0));
+    previousNightEntry.getWorkDocument().setDate(DATE.minusDays(1));
+    WorkDocumentEntryForValidation previousMorningEntry = createEntry("Operator 1", "M1", WorkCode.PS, LocalTime.of(1, 0), LocalTime.of(3, 0));
+    previousMorningEntry.getWorkDocument().setDate(DATE.minusDays(1));
+    WorkDocumentEntryForValidation morningEntry = createEntry("Operator 1", "M1", WorkCode.PS, LocalTime.of(1, 0), LocalTime.of(3, 0));
+
+    BindingResult bindingResult = validate(Collections.singletonList(morningEntry), Arrays.asList(previousNightEntry, previousMorningEntry, morningEntry));
+
+    assertEquals(1, bindingResult.getErrorCount());
+    assertEquals("Working time of operator Operator 1 overlaps in time with his/her other activity for this day (2020-06-09 22:00 - 02:00 and 2020-06-10 01:00 - 03:00).",
+        bindingResult.getFieldErrors().get(0).getDefaultMessage());
+  }
+
+  @Test
+  public void shouldReportEntryEndingAfterMidnightOverlappingEarlyMorningEntryOfNextDay() {
+    WorkDocumentEntryForValidation nightEntry = createEntry("Operator 1", "M1", WorkCode.PS, LocalTime.of(22, 0), LocalTime.of(2, 0));
+    WorkDocumentEntryForValidation nextMorningEntry = createEntry("Operator 2", "M1", WorkCode.PX, LocalTime.of(1, 30), LocalTime.of(3, 0));
+    nextMorningEntry.getWorkDocument().setDate(DATE.plusDays(1));
+
+    BindingResult bindingResult = validate(Collections.singletonList(nightEntry), Arrays.asList(nightEntry, nextMorningEntry));
+
+    assertEquals(1, bindingResult.getErrorCount());
+    assertEquals("workReportEntryMachine", bindingResult.getFieldErrors().get(0).getObjectName());
+  }
+
+  @Test
+  public void shouldNotReportEntriesOfTheSameHoursInDifferentDays() {
+    WorkDocumentEntryForValidation entry = createEntry("Operator 1", "M1", WorkCode.PS, LocalTime.of(8, 0), LocalTime.of(16, 0));
+    WorkDocumentEntryForValidation nextDayEntry = createEntry("Operator 1", "M1", WorkCode.PS, LocalTime.of(8, 0), LocalTime.of(16, 0));
+    nextDayEntry.getWorkDocument().setDate(DATE.plusDays(1));
+
+    assertEquals(0, validate(Arrays.asList(entry, nextDayEntry), Arrays.asList(entry, nextDayEntry)).getErrorCount());
+  }
+
+  @Test
+  public void shouldReplaceDataBaseEntryWithValidatedEntryOfTheSameId() {
+    WorkDocumentEntryForValidation dbEntry = createEntry("Operator 1", "M1", WorkCode.PS, LocalTime.of(8, 0), LocalTime.of(16, 0));
+    dbEntry.setId(1L);
+    WorkDocumentEntryForValidation editedEntry = createEntry("Operator 1", "M1", WorkCode.PS, LocalTime.of(9, 0), LocalTime.of(17, 0));
+    editedEntry.setId(1L);
+
+    assertEquals(0, validate(Collections.singletonList(editedEntry), Arrays.asList(dbEntry, editedEntry)).getErrorCount());
+  }
+
+  /**
+   * Validates entries, checking that exception is thrown only when an overlap is reported.
+   */
+  private BindingResult validate(List<WorkDocumentEntryForValidation> validatedEntries, List<WorkDocumentEntryForValidation> allEntries) {
+    BindingResult bindingResult = new BeanPropertyBindingResult(validatedEntries, "workDocumentEntries");
+    try {
+      workDocumentEntryValidator.validateWorkingTime(validatedEntries, allEntries, bindingResult);
+    } catch (BindingResultException e) {
+      assertTrue(bindingResult.hasErrors());
+      return bindingResult;
+    }
+    assertFalse(bindingResult.hasErrors());
+    return bindingResult;
+  }
+
+  private WorkDocumentEntryForValidation createEntry(String operatorName, String machineInternalId, WorkCode workCode, LocalTime startHour,
+      LocalTime endHour) {
+    Operator operator = new Operator();
+    operator.setName(operatorName);
+
+    Machine machine = new Machine();
+    machine.setInternalId(machineInternalId);
+
+    WorkDocument workDocument = new WorkDocument();
+    workDocument.setOperator(operator);
+    workDocument.setMachine(machine);
+    workDocument.setDate(DATE);
+
+    WorkDocumentEntryForValidation entry = new WorkDocumentEntryForValidation();
+    entry.setWorkCode(workCode);
+    entry.setStartHour(startHour);
+    entry.setEndHour(endHour);
+    entry.setWorkDocument(workDocument);
+    return entry;
+  }
+}